@@ -1,5 +1,8 @@
 package edu.ncsu.csc216.wolf_scheduler.course;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
 /**
  * The Activity class is an abstract class and the parent for Event and Course
  * classes. An activity consists of the title, meeting days, start time, and end
@@ -25,6 +28,18 @@ public abstract class Activity implements Conflict {
 	/** Course's ending time. */
 	private int endTime;
 
+	/**
+	 * Course's meeting days as a mask with a bit for each day, 0 if arranged, or
+	 * UNKNOWN_DAYS if they hold a letter that isn't a day
+	 */
+	private int dayMask;
+
+	/** Course's starting time as minutes since midnight. */
+	private int startMinute;
+
+	/** Course's ending time as minutes since midnight. */
+	private int endMinute;
+
 	/** Upper time limit */
 	private static final int UPPER_TIME = 2400;
 
@@ -40,6 +55,15 @@ public abstract class Activity implements Conflict {
 	/** Constant to check if minutes is between 0 and 9 included */
 	private static final int SINGLE_DIGIT_MINUTE = 10;
 
+	/** Meeting day letters, in the order of their bits in a day mask */
+	private static final String DAY_LETTERS = "MTWHFSU";
+
+	/** Day mask of meeting days that hold a letter that isn't a day */
+	static final int UNKNOWN_DAYS = -1;
+
+	/** Number of characters most records fit in */
+	private static final int RECORD_CAPACITY = 96;
+
 	/**
 	 * This abstract method creates an array of length 4 that contains the
 	 * respective values for Event and Course. Overridden in Event and Course.
@@ -66,6 +90,45 @@ public abstract class Activity implements Conflict {
 	 */
 	public abstract boolean isDuplicate(Activity activity);
 
+	/**
+	 * Appends the comma separated record of the activity, as it is written to a
+	 * file, to the given Appendable. Writing the record straight into a Writer or
+	 * a StringBuilder saves creating a String for it. Overridden in Event and
+	 * Course.
+	 * 
+	 * @param out the Appendable the record is appended to
+	 * @throws IOException if the record can't be appended
+	 */
+	public abstract void appendRecord(Appendable out) throws IOException;
+
+	/**
+	 * Appends the comma separated record of the activity, as it is written to a
+	 * file, to the given StringBuilder.
+	 * 
+	 * @param out the StringBuilder the record is appended to
+	 */
+	public void appendRecord(StringBuilder out) {
+		try {
+			appendRecord((Appendable) out);
+		} catch (IOException e) {
+			// a StringBuilder never throws an IOException
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Returns the comma separated record of the activity, as it is written to a
+	 * file by appendRecord().
+	 * 
+	 * @return the record of the activity
+	 */
+	@Override
+	public String toString() {
+		StringBuilder record = new StringBuilder(RECORD_CAPACITY);
+		appendRecord(record);
+		return record.toString();
+	}
+
 	/**
 	 * Constructs an Activity objects with the provided title, meeting days, start
 	 * time, and end time.
@@ -92,11 +155,12 @@ public abstract class Activity implements Conflict {
 	}
 
 	/**
-	 * Sets the Activity's title. If the title is null or an empty string, an
-	 * IllegalArgumentException is thrown.
+	 * Sets the Activity's title. If the title is null, an empty string, or holds
+	 * a line break, an IllegalArgumentException is thrown.
 	 * 
 	 * @param title The title to set
-	 * @throws IllegalArgumentException If title is null or an empty string
+	 * @throws IllegalArgumentException If title is null, an empty string, or holds
+	 *                                  a line break
 	 */
 	public void setTitle(String title) {
 		if (title == null) {
@@ -105,6 +169,9 @@ public abstract class Activity implements Conflict {
 		if (title.isEmpty()) {
 			throw new IllegalArgumentException();
 		}
+		if (hasLineBreak(title)) {
+			throw new IllegalArgumentException();
+		}
 		this.title = title;
 	}
 
@@ -129,7 +196,59 @@ public abstract class Activity implements Conflict {
 		}
 
 		this.meetingDays = meetingDays;
+		this.dayMask = toDayMask(meetingDays);
+	}
 
+	/**
+	 * Returns the Activity's meeting days as a mask with a bit for each day,
+	 * starting with Monday in bit 0.
+	 * 
+	 * @return the day mask of the meeting days, 0 if arranged, or UNKNOWN_DAYS if
+	 *         they hold a letter that isn't a day
+	 */
+	int getDayMask() {
+		return dayMask;
+	}
+
+	/**
+	 * Returns the Activity's startTime as minutes since midnight
+	 * 
+	 * @return the minute of the day the Activity starts
+	 */
+	int getStartMinute() {
+		return startMinute;
+	}
+
+	/**
+	 * Returns the Activity's endTime as minutes since midnight
+	 * 
+	 * @return the minute of the day the Activity ends
+	 */
+	int getEndMinute() {
+		return endMinute;
+	}
+
+	/**
+	 * Returns the meeting days as a mask with a bit for each day they hold,
+	 * starting with Monday in bit 0. Arranged meeting days have no bits set.
+	 * 
+	 * @param meetingDays the meeting days
+	 * @return the day mask of the meeting days, or UNKNOWN_DAYS if they hold a
+	 *         letter that isn't a day
+	 */
+	static int toDayMask(String meetingDays) {
+		if (meetingDays.equals("A")) {
+			return 0;
+		}
+		int mask = 0;
+		for (int i = 0; i < meetingDays.length(); i++) {
+			int day = DAY_LETTERS.indexOf(meetingDays.charAt(i));
+			if (day < 0) {
+				return UNKNOWN_DAYS;
+			}
+			mask |= 1 << day;
+		}
+		return mask;
 	}
 
 	/**
@@ -181,10 +300,22 @@ public abstract class Activity implements Conflict {
 		if (this.meetingDays.equals("A")) {
 			this.startTime = 0000;
 			this.endTime = 0000;
-			return;
+		} else {
+			this.startTime = startTime;
+			this.endTime = endTime;
 		}
-		this.startTime = startTime;
-		this.endTime = endTime;
+		this.startMinute = toMinute(this.startTime);
+		this.endMinute = toMinute(this.endTime);
+	}
+
+	/**
+	 * Returns a time in military time as minutes since midnight.
+	 * 
+	 * @param time the time in military time
+	 * @return the minute of the day of the time
+	 */
+	static int toMinute(int time) {
+		return time / TIME_CONSTANT * UPPER_HOUR + time % TIME_CONSTANT;
 	}
 
 	/**
@@ -211,7 +342,7 @@ public abstract class Activity implements Conflict {
 	 *                     time format
 	 * @return a String representation of time in standard format
 	 */
-	private String convertTimeMilitaryToStandard(int militaryTime) {
+	static String convertTimeMilitaryToStandard(int militaryTime) {
 		int hour = militaryTime / TIME_CONSTANT;
 		int minutes = militaryTime % TIME_CONSTANT;
 
@@ -240,6 +371,101 @@ public abstract class Activity implements Conflict {
 		return hour + ":" + minutes + "AM";
 	}
 
+	/**
+	 * Returns the field as it is written in a comma separated record. A field that
+	 * holds a comma or a double quote is quoted as in RFC 4180, with each double
+	 * quote in it doubled, so it is read back as one field. Any other field is
+	 * returned as it is. Records are read a line at a time, so the field must not
+	 * hold a line break.
+	 * 
+	 * @param field the field to write
+	 * @return the field, quoted if it needs to be
+	 */
+	public static String quoteField(String field) {
+		if (needsQuotes(field)) {
+			return "\"" + field.replace("\"", "\"\"") + "\"";
+		}
+		return field;
+	}
+
+	/**
+	 * Appends the field as it is written in a comma separated record, quoted in
+	 * the same way as quoteField(), without creating a String for it.
+	 * 
+	 * @param out   the Appendable the field is appended to
+	 * @param field the field to write
+	 * @throws IOException if the field can't be appended
+	 */
+	protected static void appendField(Appendable out, String field) throws IOException {
+		if (!needsQuotes(field)) {
+			out.append(field);
+			return;
+		}
+		out.append('"');
+		int start = 0;
+		for (int i = 0; i < field.length(); i++) {
+			if (field.charAt(i) == '"') {
+				// the quote is appended at the end of this part and again at the start of the next
+				out.append(field, start, i + 1);
+				start = i;
+			}
+		}
+		out.append(field, start, field.length());
+		out.append('"');
+	}
+
+	/**
+	 * Appends a number in decimal. A StringBuilder formats the number itself, so
+	 * no String is created for it.
+	 * 
+	 * @param out    the Appendable the number is appended to
+	 * @param number the number to write
+	 * @throws IOException if the number can't be appended
+	 */
+	protected static void appendNumber(Appendable out, int number) throws IOException {
+		if (out instanceof StringBuilder) {
+			((StringBuilder) out).append(number);
+		} else {
+			out.append(Integer.toString(number));
+		}
+	}
+
+	/**
+	 * Returns true if the field holds a comma or a double quote, and must be
+	 * quoted in a comma separated record.
+	 * 
+	 * @param field the field to check
+	 * @return true if the field must be quoted
+	 */
+	private static boolean needsQuotes(String field) {
+		for (int i = 0; i < field.length(); i++) {
+			char c = field.charAt(i);
+			if (c == ',' || c == '"') {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Returns true if the text holds a character that ends a line when records
+	 * are read back: "\n", "\r", U+2028, U+2029 or U+0085. A record with one of
+	 * them in a field would be read as two broken records, so activities can't
+	 * hold them.
+	 * 
+	 * @param text the text to check
+	 * @return true if the text holds a line break
+	 */
+	static boolean hasLineBreak(String text) {
+		for (int i = 0; i < text.length(); i++) {
+			char c = text.charAt(i);
+			if (c == '\n' || c == '\r' || c == '\u2028' || c == '\u2029' || c == '\u0085') {
+				return true;
+			}
+		}
+		return false;
+	}
+
 	/**
 	 * Generates a hashCode for activity
 	 * 
@@ -289,16 +515,69 @@ public abstract class Activity implements Conflict {
 	}
 
 	/**
-	 * Checks to see if the possible conflicting activity is a conflicting activity
-	 * compared to the local activity. An activity conflicts another activity if
-	 * both the activities meet on the same day and have overlapping times.
+	 * Returns true if the possible conflicting activity conflicts with the local
+	 * activity. An activity conflicts another activity if both the activities
+	 * meet on the same day and have overlapping times, where one activity ending
+	 * in the same minute another starts counts as overlapping. Arranged
+	 * activities never conflict. The days are compared as day masks and the
+	 * times as minutes since midnight, so the check takes the same time however
+	 * many days the activities meet.
 	 * 
 	 * @param possibleConflictingActivity the activity checking to see if it is
 	 *                                    being conflicted with the local activity.
-	 * @throws ConflictException if the events conflict
+	 * @return true if the activities conflict
 	 */
 	@Override
-	public void checkConflict(Activity possibleConflictingActivity) throws ConflictException {
+	public boolean isConflict(Activity possibleConflictingActivity) {
+		int days1 = this.dayMask;
+		int days2 = possibleConflictingActivity.dayMask;
+		if (days1 == UNKNOWN_DAYS || days2 == UNKNOWN_DAYS) {
+			return isConflictByDay(possibleConflictingActivity);
+		}
+		return (days1 & days2) != 0 && possibleConflictingActivity.startMinute <= this.endMinute
+				&& possibleConflictingActivity.endMinute >= this.startMinute;
+	}
+
+	/**
+	 * Finds where the possible conflicting activity conflicts with the local
+	 * activity, as isConflict() does, and describes the conflict with the local
+	 * activity as the activity conflicted with. The overlapping days and times are
+	 * worked out from the same comparison that finds the conflict.
+	 * 
+	 * @param possibleConflictingActivity the activity checking to see if it is
+	 *                                    being conflicted with the local activity.
+	 * @return the detail of the conflict, or null if the activities don't conflict
+	 */
+	public ConflictDetail findConflict(Activity possibleConflictingActivity) {
+		if (!isConflict(possibleConflictingActivity)) {
+			return null;
+		}
+		String otherDays = possibleConflictingActivity.getMeetingDays();
+		StringBuilder days = new StringBuilder(meetingDays.length());
+		for (int i = 0; i < meetingDays.length(); i++) {
+			char day = meetingDays.charAt(i);
+			if (otherDays.indexOf(day) >= 0 && days.indexOf(String.valueOf(day)) < 0) {
+				days.append(day);
+			}
+		}
+		int start = Math.max(startTime, possibleConflictingActivity.startTime);
+		int end = Math.min(endTime, possibleConflictingActivity.endTime);
+		int minutes = Math.min(endMinute, possibleConflictingActivity.endMinute)
+				- Math.max(startMinute, possibleConflictingActivity.startMinute);
+		return new ConflictDetail(this, days.toString(), start, end, minutes);
+	}
+
+	/**
+	 * Returns true if the possible conflicting activity conflicts with the local
+	 * activity by comparing each pair of their meeting day letters. Used for
+	 * meeting days that hold letters that aren't days, which a day mask can't
+	 * hold.
+	 * 
+	 * @param possibleConflictingActivity the activity checking to see if it is
+	 *                                    being conflicted with the local activity.
+	 * @return true if the activities conflict
+	 */
+	private boolean isConflictByDay(Activity possibleConflictingActivity) {
 		String meetingDays1 = this.getMeetingDays();
 		String meetingDays2 = possibleConflictingActivity.getMeetingDays();
 
@@ -310,12 +589,12 @@ public abstract class Activity implements Conflict {
 
 		// if both activities are arranged
 		if (meetingDays1.equals("A") || meetingDays2.equals("A")) {
-			return;
+			return false;
 		}
 
 		// if both activities have the exact same everything
 		if (meetingDays1.equals(meetingDays2) && start1 == start2 && end1 == end2) {
-			throw new ConflictException();
+			return true;
 		}
 
 		// checks to see if any activities overlap
@@ -323,17 +602,18 @@ public abstract class Activity implements Conflict {
 			for (int j = 0; j < meetingDays2.length(); j++) {
 				if (meetingDays1.charAt(i) == meetingDays2.charAt(j)) {
 					if (start2 >= start1 && end2 <= end1) {
-						throw new ConflictException();
+						return true;
 					}
 					if (end2 >= start1 && start2 <= start1) {
-						throw new ConflictException();
+						return true;
 					}
 					if (start2 <= end1 && end2 >= end1) {
-						throw new ConflictException();
+						return true;
 					}
 				}
 			}
 		}
+		return false;
 	}
 
 }
\ No newline at end of file
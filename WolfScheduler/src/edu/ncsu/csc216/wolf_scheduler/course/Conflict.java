@@ -15,13 +15,30 @@ public interface Conflict {
 	/**
 	 * Checks if there is a conflict in between the local activities and the
 	 * activity in the parameter. If there is a conflict a ConflictException is
-	 * thrown.
+	 * thrown. The conflict is found by isConflict().
 	 * 
 	 * @param possibleConflictingActivity the activity being checked to see if it
 	 *                                    conflicts.
 	 * @throws ConflictException is thrown if there is a conflict between the local
 	 *                           activities and the parameter.
 	 */
-	void checkConflict(Activity possibleConflictingActivity) throws ConflictException;
+	default void checkConflict(Activity possibleConflictingActivity) throws ConflictException {
+		if (isConflict(possibleConflictingActivity)) {
+			throw new ConflictException();
+		}
+	}
+
+	/**
+	 * Returns true if there is a conflict between the local activities and the
+	 * activity in the parameter. Finds the same conflicts as checkConflict()
+	 * without creating an exception, for code that checks many activities and
+	 * finds many conflicts.
+	 * 
+	 * @param possibleConflictingActivity the activity being checked to see if it
+	 *                                    conflicts.
+	 * @return true if there is a conflict between the local activities and the
+	 *         parameter
+	 */
+	boolean isConflict(Activity possibleConflictingActivity);
 
 }
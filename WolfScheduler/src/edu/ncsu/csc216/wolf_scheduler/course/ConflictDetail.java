@@ -0,0 +1,123 @@
+package edu.ncsu.csc216.wolf_scheduler.course;
+
+/**
+ * Describes where two activities conflict: the activity that was conflicted
+ * with, the days both activities meet, and the window of time on those days
+ * that both activities meet. Made by Activity.findConflict() while it looks for
+ * the conflict, so describing a conflict costs no more than finding it.
+ *
+ * @author Sanjana Cheerla
+ *
+ */
+public class ConflictDetail {
+
+	/** The activity that was conflicted with */
+	private final Activity activity;
+
+	/** The days both activities meet */
+	private final String meetingDays;
+
+	/** The time both activities start meeting by, in military time */
+	private final int startTime;
+
+	/** The time one of the activities stops meeting, in military time */
+	private final int endTime;
+
+	/** Minutes from the start of the overlap to its end */
+	private final int minutes;
+
+	/**
+	 * Constructs a ConflictDetail.
+	 *
+	 * @param activity    the activity that was conflicted with
+	 * @param meetingDays the days both activities meet
+	 * @param startTime   the start of the overlap, in military time
+	 * @param endTime     the end of the overlap, in military time
+	 * @param minutes     the minutes from the start of the overlap to its end
+	 */
+	ConflictDetail(Activity activity, String meetingDays, int startTime, int endTime, int minutes) {
+		this.activity = activity;
+		this.meetingDays = meetingDays;
+		this.startTime = startTime;
+		this.endTime = endTime;
+		this.minutes = minutes;
+	}
+
+	/**
+	 * Returns the activity that was conflicted with.
+	 *
+	 * @return the conflicting activity
+	 */
+	public Activity getActivity() {
+		return activity;
+	}
+
+	/**
+	 * Returns the days both activities meet, in the order of the conflicting
+	 * activity's meeting days.
+	 *
+	 * @return the overlapping meeting days
+	 */
+	public String getMeetingDays() {
+		return meetingDays;
+	}
+
+	/**
+	 * Returns the start of the time both activities meet on each of the
+	 * overlapping days.
+	 *
+	 * @return the start of the overlap, in military time
+	 */
+	public int getStartTime() {
+		return startTime;
+	}
+
+	/**
+	 * Returns the end of the time both activities meet on each of the overlapping
+	 * days.
+	 *
+	 * @return the end of the overlap, in military time
+	 */
+	public int getEndTime() {
+		return endTime;
+	}
+
+	/**
+	 * Returns the number of minutes the activities overlap on each of the
+	 * overlapping days. This is 0 when one activity starts in the same minute the
+	 * other ends, which still counts as a conflict.
+	 *
+	 * @return the minutes of overlap on each day
+	 */
+	public int getMinutes() {
+		return minutes;
+	}
+
+	/**
+	 * Returns the overlapping days and times in the same format as
+	 * Activity.getMeetingString(), like "MW 9:35AM-10:25AM".
+	 *
+	 * @return the meeting string of the overlap
+	 */
+	public String getMeetingString() {
+		return meetingDays + " " + Activity.convertTimeMilitaryToStandard(startTime) + "-"
+				+ Activity.convertTimeMilitaryToStandard(endTime);
+	}
+
+	/**
+	 * Returns a sentence describing the conflict for a student, like "Conflicts
+	 * with CSC226-001 on MW 9:35AM-10:25AM (50 minutes)." Courses are named by
+	 * their name and section, and events by their title.
+	 *
+	 * @return the description of the conflict
+	 */
+	public String getDescription() {
+		String name = activity.getTitle();
+		if (activity instanceof Course) {
+			Course course = (Course) activity;
+			name = course.getName() + "-" + course.getSection();
+		}
+		return "Conflicts with " + name + " on " + getMeetingString() + " (" + minutes
+				+ (minutes == 1 ? " minute)." : " minutes).");
+	}
+}
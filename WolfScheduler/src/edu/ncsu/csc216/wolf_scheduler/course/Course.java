@@ -1,5 +1,7 @@
 package edu.ncsu.csc216.wolf_scheduler.course;
 
+import java.io.IOException;
+
 /**
  * Course class for WolfScheduler, use to create Course objects. A Course object
  * consists of a name, title, section, credits instructor id, meeting days,
@@ -176,32 +178,44 @@ public class Course extends Activity {
 	}
 
 	/**
-	 * Sets the Course's instructorId. If instructorId is null or empty an
-	 * IllegalArgumentException is thrown.
+	 * Sets the Course's instructorId. If instructorId is null, empty or holds a
+	 * line break an IllegalArgumentException is thrown.
 	 * 
 	 * @param instructorId The instructorId to set
-	 * @throws IllegalArgumentException If instructorId is null or empty.
+	 * @throws IllegalArgumentException If instructorId is null, empty or holds a
+	 *                                  line break.
 	 */
 	public void setInstructorId(String instructorId) {
-		if (instructorId == null || instructorId.isEmpty()) {
+		if (instructorId == null || instructorId.isEmpty() || hasLineBreak(instructorId)) {
 			throw new IllegalArgumentException();
 		}
 		this.instructorId = instructorId;
 	}
 
 	/**
-	 * Returns a comma separated value String of all Course fields.
+	 * Appends a comma separated record of all Course fields. The name, title and
+	 * instructor id are quoted if they hold a comma or a quote. The times are left
+	 * out for arranged courses.
 	 * 
-	 * @return String representation of Course
+	 * @param out the Appendable the record is appended to
+	 * @throws IOException if the record can't be appended
 	 */
 	@Override
-	public String toString() {
-		if (super.getMeetingDays().equals("A")) {
-			return name + "," + super.getTitle() + "," + section + "," + credits + "," + instructorId + ","
-					+ getMeetingDays();
+	public void appendRecord(Appendable out) throws IOException {
+		appendField(out, name);
+		out.append(',');
+		appendField(out, super.getTitle());
+		out.append(',').append(section).append(',');
+		appendNumber(out, credits);
+		out.append(',');
+		appendField(out, instructorId);
+		out.append(',').append(getMeetingDays());
+		if (!super.getMeetingDays().equals("A")) {
+			out.append(',');
+			appendNumber(out, getStartTime());
+			out.append(',');
+			appendNumber(out, getEndTime());
 		}
-		return name + "," + getTitle() + "," + section + "," + credits + "," + instructorId + "," + getMeetingDays()
-				+ "," + getStartTime() + "," + getEndTime();
 	}
 
 	/**
@@ -1,5 +1,7 @@
 package edu.ncsu.csc216.wolf_scheduler.course;
 
+import java.io.IOException;
+
 /**
  * Event class for WolfScheduler, use to create Event objects. An Event object
  * consists of the title, weekly repeat, event details, meeting days, start time
@@ -80,15 +82,15 @@ public class Event extends Activity {
 	}
 
 	/**
-	 * Sets the eventDetails variable. If the eventDetails is null, it is invalid,
-	 * and an IllegalArgumentException is thrown.
+	 * Sets the eventDetails variable. If the eventDetails is null or holds a line
+	 * break, it is invalid, and an IllegalArgumentException is thrown.
 	 * 
 	 * @param eventDetails the eventDetails to set
 	 * @throws IllegalArgumentException with the message "Invalid event details." if
-	 *                                  eventDetails is null.
+	 *                                  eventDetails is null or holds a line break.
 	 */
 	public void setEventDetails(String eventDetails) {
-		if (eventDetails == null) {
+		if (eventDetails == null || hasLineBreak(eventDetails)) {
 			throw new IllegalArgumentException("Invalid event details.");
 		}
 		this.eventDetails = eventDetails;
@@ -150,16 +152,25 @@ public class Event extends Activity {
 	}
 
 	/**
-	 * Returns a String using the super class, Activity, and Event to produce a list
-	 * separated by a commas so it is displayed as followed:
-	 * title,meetingDays,startTime,endTime,weeklyRepeat,eventDetails
+	 * Appends the fields of the super class, Activity, and Event as a list
+	 * separated by commas, as followed:
+	 * title,meetingDays,startTime,endTime,weeklyRepeat,eventDetails. The title and
+	 * event details are quoted if they hold a comma or a quote.
 	 * 
-	 * @return String of fields using Activity's filed as well as Event's fields.
+	 * @param out the Appendable the record is appended to
+	 * @throws IOException if the record can't be appended
 	 */
 	@Override
-	public String toString() {
-		return super.getTitle() + "," + super.getMeetingDays() + "," + super.getStartTime() + "," + super.getEndTime()
-				+ "," + this.getWeeklyRepeat() + "," + this.getEventDetails();
+	public void appendRecord(Appendable out) throws IOException {
+		appendField(out, super.getTitle());
+		out.append(',').append(super.getMeetingDays()).append(',');
+		appendNumber(out, super.getStartTime());
+		out.append(',');
+		appendNumber(out, super.getEndTime());
+		out.append(',');
+		appendNumber(out, this.getWeeklyRepeat());
+		out.append(',');
+		appendField(out, this.getEventDetails());
 	}
 
 	/**
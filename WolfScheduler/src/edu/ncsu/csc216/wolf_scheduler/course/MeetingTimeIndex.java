@@ -0,0 +1,295 @@
+package edu.ncsu.csc216.wolf_scheduler.course;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * An index of the times a list of activities meet, with an interval tree for
+ * each day of the week, so the activities that conflict with another activity
+ * can be found without checking every activity in the list. Each tree holds the
+ * activities that meet on its day sorted by start time, stored as an array with
+ * the middle of each range as the root of that range, and for each root the
+ * latest end time in its range. A search skips every range that ends before
+ * the activity starts and every range that starts after it ends, so it only
+ * goes down the branches that hold a conflicting activity. Times are compared
+ * with the ends included, as checkConflict() does.
+ *
+ * The index does not change once it is built, so it is built again when the
+ * list changes. Activities with meeting days that aren't all day letters can't
+ * be put in a tree, so they are checked one by one with isConflict(), and
+ * an activity like that is checked against the whole list.
+ *
+ * @author Sanjana Cheerla
+ */
+public class MeetingTimeIndex {
+
+	/** Days in a week */
+	private static final int DAYS_PER_WEEK = 7;
+
+	/** The activities in the index */
+	private final List<? extends Activity> activities;
+
+	/** Start minutes of the activities meeting on each day, in order */
+	private final int[][] starts = new int[DAYS_PER_WEEK][];
+
+	/** End minutes of the activities meeting on each day, in start order */
+	private final int[][] ends = new int[DAYS_PER_WEEK][];
+
+	/** Latest end minute of the range each root is the middle of, for each day */
+	private final int[][] latestEnds = new int[DAYS_PER_WEEK][];
+
+	/** Positions in the list of the activities meeting on each day, in start order */
+	private final int[][] positions = new int[DAYS_PER_WEEK][];
+
+	/** Positions in the list of the activities that aren't in any tree */
+	private int[] unknownPositions;
+
+	/**
+	 * Builds the index of the activities. Each activity is read from the list once.
+	 * The list must not change while the index is used.
+	 *
+	 * @param activities the activities to index
+	 */
+	public MeetingTimeIndex(List<? extends Activity> activities) {
+		this.activities = activities;
+		int size = activities.size();
+		int[] dayMasks = new int[size];
+		int[] startMinutes = new int[size];
+		int[] endMinutes = new int[size];
+		for (int i = 0; i < size; i++) {
+			Activity activity = activities.get(i);
+			dayMasks[i] = activity.getDayMask();
+			startMinutes[i] = activity.getStartMinute();
+			endMinutes[i] = activity.getEndMinute();
+		}
+		index(dayMasks, startMinutes, endMinutes);
+	}
+
+	/**
+	 * Builds the index of the activities from their meeting days and times, given
+	 * in list order, so a list that reads its activities on demand can be indexed
+	 * without reading them. An activity is only read from the list to check it
+	 * one by one, when its meeting days aren't all day letters. The list must not
+	 * change while the index is used.
+	 *
+	 * @param activities  the activities to index
+	 * @param meetingDays the meeting days of each activity
+	 * @param startTimes  the start time of each activity, in military time
+	 * @param endTimes    the end time of each activity, in military time
+	 * @throws IllegalArgumentException if there isn't a meeting time for each
+	 *                                  activity
+	 */
+	public MeetingTimeIndex(List<? extends Activity> activities, String[] meetingDays, int[] startTimes,
+			int[] endTimes) {
+		this.activities = activities;
+		int size = activities.size();
+		if (meetingDays.length != size || startTimes.length != size || endTimes.length != size) {
+			throw new IllegalArgumentException();
+		}
+		int[] dayMasks = new int[size];
+		int[] startMinutes = new int[size];
+		int[] endMinutes = new int[size];
+		for (int i = 0; i < size; i++) {
+			dayMasks[i] = Activity.toDayMask(meetingDays[i]);
+			startMinutes[i] = Activity.toMinute(startTimes[i]);
+			endMinutes[i] = Activity.toMinute(endTimes[i]);
+		}
+		index(dayMasks, startMinutes, endMinutes);
+	}
+
+	/**
+	 * Returns the positions in the list of the activities that conflict with the
+	 * given activity, in list order, as checkConflict() would find them.
+	 *
+	 * @param activity the activity to find conflicts with
+	 * @return the positions of the conflicting activities
+	 */
+	public int[] findConflicts(Activity activity) {
+		Positions found = new Positions();
+		int days = activity.getDayMask();
+		if (days == Activity.UNKNOWN_DAYS) {
+			for (int i = 0; i < activities.size(); i++) {
+				if (activities.get(i).isConflict(activity)) {
+					found.add(i);
+				}
+			}
+			return found.toArray();
+		}
+		for (int day = 0; day < DAYS_PER_WEEK; day++) {
+			if ((days & 1 << day) != 0) {
+				search(day, 0, starts[day].length, activity.getStartMinute(), activity.getEndMinute(), found);
+			}
+		}
+		for (int position : unknownPositions) {
+			if (activities.get(position).isConflict(activity)) {
+				found.add(position);
+			}
+		}
+		return found.toSortedSet();
+	}
+
+	/**
+	 * Returns the number of activities in the index.
+	 *
+	 * @return the number of activities
+	 */
+	public int size() {
+		return activities.size();
+	}
+
+	/**
+	 * Puts the activities meeting on each day in that day's tree, and the ones
+	 * that can't be put in a tree in the unknown positions.
+	 *
+	 * @param dayMasks     the day mask of each activity
+	 * @param startMinutes the start minute of each activity
+	 * @param endMinutes   the end minute of each activity
+	 */
+	private void index(int[] dayMasks, int[] startMinutes, int[] endMinutes) {
+		int size = dayMasks.length;
+		int[] dayCounts = new int[DAYS_PER_WEEK];
+		int unknown = 0;
+		for (int i = 0; i < size; i++) {
+			if (dayMasks[i] == Activity.UNKNOWN_DAYS) {
+				unknown++;
+				continue;
+			}
+			for (int day = 0; day < DAYS_PER_WEEK; day++) {
+				if ((dayMasks[i] & 1 << day) != 0) {
+					dayCounts[day]++;
+				}
+			}
+		}
+
+		unknownPositions = new int[unknown];
+		unknown = 0;
+		for (int i = 0; i < size; i++) {
+			if (dayMasks[i] == Activity.UNKNOWN_DAYS) {
+				unknownPositions[unknown++] = i;
+			}
+		}
+		for (int day = 0; day < DAYS_PER_WEEK; day++) {
+			// sort the positions by start time, as longs holding both
+			long[] keys = new long[dayCounts[day]];
+			int count = 0;
+			for (int i = 0; i < size; i++) {
+				if (dayMasks[i] != Activity.UNKNOWN_DAYS && (dayMasks[i] & 1 << day) != 0) {
+					keys[count++] = (long) startMinutes[i] << Integer.SIZE | i;
+				}
+			}
+			Arrays.sort(keys);
+			starts[day] = new int[count];
+			ends[day] = new int[count];
+			positions[day] = new int[count];
+			latestEnds[day] = new int[count];
+			for (int i = 0; i < count; i++) {
+				int position = (int) keys[i];
+				positions[day][i] = position;
+				starts[day][i] = startMinutes[position];
+				ends[day][i] = endMinutes[position];
+			}
+			findLatestEnds(ends[day], latestEnds[day], 0, count);
+		}
+	}
+
+	/**
+	 * Works out the latest end time of each range of the tree, with its middle as
+	 * the root.
+	 *
+	 * @param ends       the end times of the tree, in start order
+	 * @param latestEnds the latest end times to fill in
+	 * @param from       the first index of the range
+	 * @param to         the index after the last one of the range
+	 * @return the latest end time of the range, or -1 if it is empty
+	 */
+	private static int findLatestEnds(int[] ends, int[] latestEnds, int from, int to) {
+		if (from >= to) {
+			return -1;
+		}
+		int middle = (from + to) >>> 1;
+		int latest = Math.max(ends[middle], Math.max(findLatestEnds(ends, latestEnds, from, middle),
+				findLatestEnds(ends, latestEnds, middle + 1, to)));
+		latestEnds[middle] = latest;
+		return latest;
+	}
+
+	/**
+	 * Adds the positions of the activities in a range of a day's tree that meet
+	 * from one minute to another, both included.
+	 *
+	 * @param day   the day of the tree
+	 * @param from  the first index of the range
+	 * @param to    the index after the last one of the range
+	 * @param start the first minute
+	 * @param end   the last minute
+	 * @param found the positions found so far
+	 */
+	private void search(int day, int from, int to, int start, int end, Positions found) {
+		while (from < to) {
+			int middle = (from + to) >>> 1;
+			if (latestEnds[day][middle] < start) {
+				// everything in the range ends before the activity starts
+				return;
+			}
+			search(day, from, middle, start, end, found);
+			if (starts[day][middle] > end) {
+				// the rest of the range starts after the activity ends
+				return;
+			}
+			if (ends[day][middle] >= start) {
+				found.add(positions[day][middle]);
+			}
+			from = middle + 1;
+		}
+	}
+
+	/**
+	 * The positions found by a search, which may hold the same position more than
+	 * once when an activity meets on more than one of the days searched.
+	 */
+	private static final class Positions {
+
+		/** The positions found */
+		private int[] positions = new int[8];
+
+		/** Number of positions found */
+		private int size;
+
+		/**
+		 * Adds a position.
+		 *
+		 * @param position the position to add
+		 */
+		void add(int position) {
+			if (size == positions.length) {
+				positions = Arrays.copyOf(positions, size * 2);
+			}
+			positions[size++] = position;
+		}
+
+		/**
+		 * Returns the positions in the order they were found.
+		 *
+		 * @return the positions
+		 */
+		int[] toArray() {
+			return Arrays.copyOf(positions, size);
+		}
+
+		/**
+		 * Returns the positions in order with each one only once.
+		 *
+		 * @return the positions
+		 */
+		int[] toSortedSet() {
+			Arrays.sort(positions, 0, size);
+			int distinct = 0;
+			for (int i = 0; i < size; i++) {
+				if (distinct == 0 || positions[i] != positions[distinct - 1]) {
+					positions[distinct++] = positions[i];
+				}
+			}
+			return Arrays.copyOf(positions, distinct);
+		}
+	}
+}
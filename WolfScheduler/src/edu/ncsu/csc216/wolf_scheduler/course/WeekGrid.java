@@ -0,0 +1,189 @@
+package edu.ncsu.csc216.wolf_scheduler.course;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A grid of the minutes of a week that are taken by the activities in a
+ * schedule, with one bit for each minute of each day. Finding out whether an
+ * activity meets at a time that is already taken only looks at the bits of the
+ * activity's own days and times, so it takes the same time however many
+ * activities are in the schedule. Times are compared with the ends included, as
+ * checkConflict() does, so an activity overlaps the grid exactly when it
+ * conflicts with one of the activities added to it.
+ *
+ * The grid also counts the activities that take each minute, so an activity
+ * can be removed by only going over its own minutes, and a minute's bit is only
+ * cleared once no activity takes it. Activities with meeting days that aren't
+ * all day letters can't be put in the grid, and once one is added, every
+ * activity is reported as overlapping so that it is checked against the
+ * schedule one by one.
+ *
+ * @author Sanjana Cheerla
+ */
+public class WeekGrid {
+
+	/** Minutes in a day */
+	private static final int MINUTES_PER_DAY = 24 * 60;
+
+	/** Days in a week */
+	private static final int DAYS_PER_WEEK = 7;
+
+	/** Number of bits in a word of the grid */
+	private static final int WORD_BITS = 64;
+
+	/** Bits for the minutes of the week, Monday first */
+	private final long[] minutes = new long[(DAYS_PER_WEEK * MINUTES_PER_DAY + WORD_BITS - 1) / WORD_BITS];
+
+	/** Number of activities taking each minute of the week, Monday first */
+	private final int[] counts = new int[DAYS_PER_WEEK * MINUTES_PER_DAY];
+
+	/** Number of activities added that are not in the grid */
+	private int unknownActivities;
+
+	/**
+	 * Marks the minutes the activity meets as taken.
+	 *
+	 * @param activity the activity to add
+	 */
+	public void add(Activity activity) {
+		int days = activity.getDayMask();
+		if (days == Activity.UNKNOWN_DAYS) {
+			unknownActivities++;
+			return;
+		}
+		for (int day = 0; day < DAYS_PER_WEEK; day++) {
+			if ((days & 1 << day) != 0) {
+				int offset = day * MINUTES_PER_DAY;
+				int from = offset + activity.getStartMinute();
+				int to = offset + activity.getEndMinute();
+				for (int minute = from; minute <= to; minute++) {
+					counts[minute]++;
+				}
+				set(from, to);
+			}
+		}
+	}
+
+	/**
+	 * Takes an activity that was added to the grid back out of it. Only the
+	 * minutes the activity meets are gone over, and a minute stays taken if
+	 * another activity in the grid also meets then.
+	 *
+	 * @param activity the activity to remove, which must have been added
+	 */
+	public void remove(Activity activity) {
+		int days = activity.getDayMask();
+		if (days == Activity.UNKNOWN_DAYS) {
+			unknownActivities--;
+			return;
+		}
+		for (int day = 0; day < DAYS_PER_WEEK; day++) {
+			if ((days & 1 << day) != 0) {
+				int offset = day * MINUTES_PER_DAY;
+				int to = offset + activity.getEndMinute();
+				for (int minute = offset + activity.getStartMinute(); minute <= to; minute++) {
+					if (--counts[minute] == 0) {
+						minutes[minute / WORD_BITS] &= ~(1L << minute);
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Returns true if the activity meets in a minute that is already taken, so it
+	 * conflicts with an activity in the grid. Also returns true if the activity, or
+	 * an activity added to the grid, is not in the grid and has to be checked one
+	 * by one.
+	 *
+	 * @param activity the activity to check
+	 * @return true if the activity may conflict with an activity in the grid
+	 */
+	public boolean overlaps(Activity activity) {
+		int days = activity.getDayMask();
+		if (days == Activity.UNKNOWN_DAYS || unknownActivities > 0) {
+			return true;
+		}
+		for (int day = 0; day < DAYS_PER_WEEK; day++) {
+			if ((days & 1 << day) != 0) {
+				int offset = day * MINUTES_PER_DAY;
+				if (isAnySet(offset + activity.getStartMinute(), offset + activity.getEndMinute())) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Empties the grid and adds each of the activities to it.
+	 *
+	 * @param activities the activities in the schedule
+	 */
+	public void rebuild(List<Activity> activities) {
+		clear();
+		for (Activity activity : activities) {
+			add(activity);
+		}
+	}
+
+	/**
+	 * Empties the grid.
+	 */
+	public void clear() {
+		Arrays.fill(minutes, 0);
+		Arrays.fill(counts, 0);
+		unknownActivities = 0;
+	}
+
+	/**
+	 * Sets the bits from one minute of the week to another, both included.
+	 *
+	 * @param from the first minute
+	 * @param to   the last minute
+	 */
+	private void set(int from, int to) {
+		int first = from / WORD_BITS;
+		int last = to / WORD_BITS;
+		// shifts only use the low 6 bits of the count
+		long firstMask = -1L << from;
+		long lastMask = -1L >>> WORD_BITS - 1 - to % WORD_BITS;
+		if (first == last) {
+			minutes[first] |= firstMask & lastMask;
+			return;
+		}
+		minutes[first] |= firstMask;
+		for (int i = first + 1; i < last; i++) {
+			minutes[i] = -1L;
+		}
+		minutes[last] |= lastMask;
+	}
+
+	/**
+	 * Returns true if any bit from one minute of the week to another, both
+	 * included, is set.
+	 *
+	 * @param from the first minute
+	 * @param to   the last minute
+	 * @return true if any of the minutes are taken
+	 */
+	private boolean isAnySet(int from, int to) {
+		int first = from / WORD_BITS;
+		int last = to / WORD_BITS;
+		long firstMask = -1L << from;
+		long lastMask = -1L >>> WORD_BITS - 1 - to % WORD_BITS;
+		if (first == last) {
+			return (minutes[first] & firstMask & lastMask) != 0;
+		}
+		if ((minutes[first] & firstMask) != 0) {
+			return true;
+		}
+		for (int i = first + 1; i < last; i++) {
+			if (minutes[i] != 0) {
+				return true;
+			}
+		}
+		return (minutes[last] & lastMask) != 0;
+	}
+}
@@ -0,0 +1,414 @@
+package edu.ncsu.csc216.wolf_scheduler.io;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Activity;
+import edu.ncsu.csc216.wolf_scheduler.course.Course;
+import edu.ncsu.csc216.wolf_scheduler.course.Event;
+
+/**
+ * Writes schedules as iCalendar (RFC 5545) calendars that calendar apps can
+ * import. Each activity becomes a VEVENT that starts on its first meeting day
+ * in the term and repeats every week, or every weeklyRepeat weeks for an event,
+ * on its meeting days until the last day of the term. Times are written as
+ * local times, so they are shown at the same time of day in any time zone.
+ * Courses with arranged meeting days have no times and are left out. The UID
+ * of each VEVENT is made from the name of the calendar and the course's name
+ * and section or the event's title, so a calendar app that imports a new
+ * version of the calendar updates the activities it already has instead of
+ * adding them again.
+ *
+ * The calendar is encoded in UTF-8 straight into one buffer that is reused for
+ * every calendar, and the buffer is written to the channel each time it fills
+ * up, so no Strings are made for the lines. Long lines are folded after 75
+ * bytes. A writer can write many calendars, one after the other, but is used by
+ * one thread at a time.
+ *
+ * @author Sanjana Cheerla
+ */
+public class ActivityCalendarWriter {
+
+	/** Size of the buffer the calendar is encoded into */
+	private static final int BUFFER_SIZE = 1 << 16;
+
+	/** Most bytes written to the buffer at once */
+	private static final int MAX_WRITE = 8;
+
+	/** Most bytes in a line before it is folded */
+	private static final int MAX_LINE_LENGTH = 75;
+
+	/** Meeting day letters, starting with Monday */
+	private static final String DAYS = "MTWHFSU";
+
+	/** iCalendar names of the meeting days, starting with Monday */
+	private static final String[] DAY_NAMES = { "MO", "TU", "WE", "TH", "FR", "SA", "SU" };
+
+	/** Hex digits */
+	private static final String HEX_DIGITS = "0123456789abcdef";
+
+	/** First day of the term */
+	private final LocalDate firstDay;
+
+	/** Last day of the term */
+	private final LocalDate lastDay;
+
+	/** Buffer the calendar is encoded into */
+	private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+
+	/** Digits of a number being written, from the last one */
+	private final byte[] digits = new byte[10];
+
+	/** Channel the calendar is written to */
+	private WritableByteChannel channel;
+
+	/** Number of bytes in the line being written */
+	private int lineLength;
+
+	/**
+	 * Constructs an ActivityCalendarWriter for a term.
+	 *
+	 * @param firstDay the first day of the term
+	 * @param lastDay  the last day of the term
+	 * @throws IllegalArgumentException if either day is null or the last day is
+	 *                                  before the first day
+	 */
+	public ActivityCalendarWriter(LocalDate firstDay, LocalDate lastDay) {
+		if (firstDay == null || lastDay == null || lastDay.isBefore(firstDay)) {
+			throw new IllegalArgumentException("Invalid term dates.");
+		}
+		this.firstDay = firstDay;
+		this.lastDay = lastDay;
+	}
+
+	/**
+	 * Writes a calendar of the activities to the channel.
+	 *
+	 * @param channel      the channel to write to
+	 * @param calendarName the name of the calendar
+	 * @param activities   the activities in the calendar
+	 * @throws IOException if the channel can't be written
+	 */
+	public void write(WritableByteChannel channel, String calendarName, List<Activity> activities)
+			throws IOException {
+		this.channel = channel;
+		buffer.clear();
+		lineLength = 0;
+		LocalDateTime stamp = LocalDateTime.now(ZoneOffset.UTC);
+
+		writeLine("BEGIN:VCALENDAR");
+		writeLine("VERSION:2.0");
+		writeLine("PRODID:-//NC State University//WolfScheduler//EN");
+		writeLine("CALSCALE:GREGORIAN");
+		writeAscii("X-WR-CALNAME:");
+		writeText(calendarName);
+		endLine();
+		for (Activity activity : activities) {
+			writeEvent(calendarName, activity, stamp);
+		}
+		writeLine("END:VCALENDAR");
+
+		buffer.flip();
+		while (buffer.hasRemaining()) {
+			channel.write(buffer);
+		}
+		this.channel = null;
+	}
+
+	/**
+	 * Writes the VEVENT of an activity.
+	 *
+	 * @param calendarName the name of the calendar
+	 * @param activity     the activity
+	 * @param stamp        the time the calendar is written, in UTC
+	 * @throws IOException if the channel can't be written
+	 */
+	private void writeEvent(String calendarName, Activity activity, LocalDateTime stamp) throws IOException {
+		int days = 0;
+		String meetingDays = activity.getMeetingDays();
+		for (int i = 0; i < meetingDays.length(); i++) {
+			int day = DAYS.indexOf(meetingDays.charAt(i));
+			if (day >= 0) {
+				days |= 1 << day;
+			}
+		}
+		if (days == 0) {
+			// arranged
+			return;
+		}
+		LocalDate first = firstDay;
+		while ((days & 1 << first.getDayOfWeek().getValue() - 1) == 0) {
+			first = first.plusDays(1);
+		}
+		if (first.isAfter(lastDay)) {
+			return;
+		}
+
+		writeLine("BEGIN:VEVENT");
+		writeAscii("UID:");
+		writeHex(CourseRecordParser.hashText(calendarName));
+		if (activity instanceof Course) {
+			Course course = (Course) activity;
+			writeAscii("-course-");
+			writeHex(CourseRecordParser.hashKey(course.getName(), course.getSection()));
+		} else {
+			writeAscii("-event-");
+			writeHex(CourseRecordParser.hashText(activity.getTitle()));
+		}
+		writeAscii("@wolfscheduler");
+		endLine();
+		writeAscii("DTSTAMP:");
+		writeDate(stamp.toLocalDate());
+		writeAscii("T");
+		writeNumber(stamp.getHour(), 2);
+		writeNumber(stamp.getMinute(), 2);
+		writeNumber(stamp.getSecond(), 2);
+		writeAscii("Z");
+		endLine();
+		writeAscii("DTSTART:");
+		writeDateTime(first, activity.getStartTime());
+		endLine();
+		writeAscii("DTEND:");
+		writeDateTime(first, activity.getEndTime());
+		endLine();
+
+		writeAscii("RRULE:FREQ=WEEKLY;");
+		if (activity instanceof Event && ((Event) activity).getWeeklyRepeat() > 1) {
+			writeAscii("INTERVAL=");
+			writeNumber(((Event) activity).getWeeklyRepeat(), 1);
+			writeAscii(";");
+		}
+		writeAscii("BYDAY=");
+		boolean firstDayName = true;
+		for (int day = 0; day < DAY_NAMES.length; day++) {
+			if ((days & 1 << day) != 0) {
+				if (!firstDayName) {
+					writeAscii(",");
+				}
+				writeAscii(DAY_NAMES[day]);
+				firstDayName = false;
+			}
+		}
+		writeAscii(";UNTIL=");
+		writeDate(lastDay);
+		writeAscii("T235959");
+		endLine();
+
+		writeAscii("SUMMARY:");
+		if (activity instanceof Course) {
+			Course course = (Course) activity;
+			writeText(course.getName());
+			writeAscii(" ");
+			writeText(course.getTitle());
+			endLine();
+			writeAscii("DESCRIPTION:Section ");
+			writeText(course.getSection());
+			writeAscii("\\, ");
+			writeNumber(course.getCredits(), 1);
+			writeAscii(" credits\\, instructor ");
+			writeText(course.getInstructorId());
+			endLine();
+		} else {
+			writeText(activity.getTitle());
+			endLine();
+			if (activity instanceof Event && !((Event) activity).getEventDetails().isEmpty()) {
+				writeAscii("DESCRIPTION:");
+				writeText(((Event) activity).getEventDetails());
+				endLine();
+			}
+		}
+		writeLine("END:VEVENT");
+	}
+
+	/**
+	 * Writes a date and a local time on it, as yyyyMMddTHHmmss.
+	 *
+	 * @param date the date
+	 * @param time the time in military format, such as 1330
+	 * @throws IOException if the channel can't be written
+	 */
+	private void writeDateTime(LocalDate date, int time) throws IOException {
+		writeDate(date);
+		writeAscii("T");
+		writeNumber(time / 100, 2);
+		writeNumber(time % 100, 2);
+		writeAscii("00");
+	}
+
+	/**
+	 * Writes a date as yyyyMMdd.
+	 *
+	 * @param date the date
+	 * @throws IOException if the channel can't be written
+	 */
+	private void writeDate(LocalDate date) throws IOException {
+		writeNumber(date.getYear(), 4);
+		writeNumber(date.getMonthValue(), 2);
+		writeNumber(date.getDayOfMonth(), 2);
+	}
+
+	/**
+	 * Writes a number that is not negative, with leading zeros up to the width.
+	 *
+	 * @param value the number
+	 * @param width the least number of digits to write
+	 * @throws IOException if the channel can't be written
+	 */
+	private void writeNumber(int value, int width) throws IOException {
+		int count = 0;
+		do {
+			digits[count++] = (byte) ('0' + value % 10);
+			value /= 10;
+		} while (value > 0);
+		while (count < width) {
+			digits[count++] = '0';
+		}
+		while (count > 0) {
+			writeByte(digits[--count]);
+		}
+	}
+
+	/**
+	 * Writes a number as 16 hex digits.
+	 *
+	 * @param value the number
+	 * @throws IOException if the channel can't be written
+	 */
+	private void writeHex(long value) throws IOException {
+		for (int shift = 60; shift >= 0; shift -= 4) {
+			writeByte((byte) HEX_DIGITS.charAt((int) (value >>> shift & 0xf)));
+		}
+	}
+
+	/**
+	 * Writes a whole line of ASCII characters.
+	 *
+	 * @param line the line
+	 * @throws IOException if the channel can't be written
+	 */
+	private void writeLine(String line) throws IOException {
+		writeAscii(line);
+		endLine();
+	}
+
+	/**
+	 * Writes ASCII characters, such as property names, that are not escaped.
+	 *
+	 * @param ascii the characters
+	 * @throws IOException if the channel can't be written
+	 */
+	private void writeAscii(String ascii) throws IOException {
+		for (int i = 0; i < ascii.length(); i++) {
+			writeByte((byte) ascii.charAt(i));
+		}
+	}
+
+	/**
+	 * Writes a TEXT value in UTF-8. Backslashes, semicolons, commas and line
+	 * breaks are escaped, and other control characters are left out. Characters
+	 * that can't be encoded are written as '?'.
+	 *
+	 * @param text the value
+	 * @throws IOException if the channel can't be written
+	 */
+	private void writeText(String text) throws IOException {
+		int length = text.length();
+		for (int i = 0; i < length; i++) {
+			char c = text.charAt(i);
+			if (c == '\\' || c == ';' || c == ',') {
+				reserve(2);
+				putByte((byte) '\\');
+				putByte((byte) c);
+			} else if (c == '\n' || c == '\r') {
+				if (c == '\r' && i + 1 < length && text.charAt(i + 1) == '\n') {
+					i++;
+				}
+				reserve(2);
+				putByte((byte) '\\');
+				putByte((byte) 'n');
+			} else if (c < 0x20 && c != '\t' || c == 0x7f) {
+				continue;
+			} else if (c < 0x80) {
+				writeByte((byte) c);
+			} else if (c < 0x800) {
+				reserve(2);
+				putByte((byte) (0xc0 | c >> 6));
+				putByte((byte) (0x80 | c & 0x3f));
+			} else if (Character.isHighSurrogate(c) && i + 1 < length
+					&& Character.isLowSurrogate(text.charAt(i + 1))) {
+				int codePoint = Character.toCodePoint(c, text.charAt(++i));
+				reserve(4);
+				putByte((byte) (0xf0 | codePoint >> 18));
+				putByte((byte) (0x80 | codePoint >> 12 & 0x3f));
+				putByte((byte) (0x80 | codePoint >> 6 & 0x3f));
+				putByte((byte) (0x80 | codePoint & 0x3f));
+			} else if (Character.isSurrogate(c)) {
+				writeByte((byte) '?');
+			} else {
+				reserve(3);
+				putByte((byte) (0xe0 | c >> 12));
+				putByte((byte) (0x80 | c >> 6 & 0x3f));
+				putByte((byte) (0x80 | c & 0x3f));
+			}
+		}
+	}
+
+	/**
+	 * Writes one byte of a line.
+	 *
+	 * @param b the byte
+	 * @throws IOException if the channel can't be written
+	 */
+	private void writeByte(byte b) throws IOException {
+		reserve(1);
+		putByte(b);
+	}
+
+	/**
+	 * Makes room for bytes that must stay together on one line. The line is
+	 * folded first if they don't fit on it, and the buffer is written to the
+	 * channel if they don't fit in it.
+	 *
+	 * @param count the number of bytes
+	 * @throws IOException if the channel can't be written
+	 */
+	private void reserve(int count) throws IOException {
+		if (buffer.remaining() < MAX_WRITE) {
+			buffer.flip();
+			while (buffer.hasRemaining()) {
+				channel.write(buffer);
+			}
+			buffer.clear();
+		}
+		if (lineLength + count > MAX_LINE_LENGTH) {
+			buffer.put((byte) '\r').put((byte) '\n').put((byte) ' ');
+			lineLength = 1;
+		}
+	}
+
+	/**
+	 * Puts a byte of a line in the buffer, after room has been reserved for it.
+	 *
+	 * @param b the byte
+	 */
+	private void putByte(byte b) {
+		buffer.put(b);
+		lineLength++;
+	}
+
+	/**
+	 * Ends the line being written.
+	 *
+	 * @throws IOException if the channel can't be written
+	 */
+	private void endLine() throws IOException {
+		reserve(0);
+		buffer.put((byte) '\r').put((byte) '\n');
+		lineLength = 0;
+	}
+}
@@ -0,0 +1,174 @@
+package edu.ncsu.csc216.wolf_scheduler.io;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Activity;
+
+/**
+ * Writes many schedules into one ZIP archive, with an entry for each schedule.
+ * The schedules are formatted on a ForkJoinPool in batches, since a schedule on
+ * its own takes less time to format than to hand between threads. The entries
+ * are written in order by the calling thread as their batches are ready. Only a
+ * few batches per thread of the pool are formatted ahead of the one being
+ * written, so the archive is never held in memory all at once. Each entry holds
+ * the same bytes ActivityRecordIO.writeActivityRecords() writes for the
+ * schedule. The entries are stored without compression, so their checksums are
+ * also worked out on the pool and writing them is only copying.
+ *
+ * @author Sanjana Cheerla
+ */
+final class ActivityRecordArchiveWriter {
+
+	/** Number of schedules formatted by one task */
+	private static final int SCHEDULES_PER_TASK = 64;
+
+	/** Number of tasks formatted ahead of the one being written, per thread */
+	private static final int TASKS_PER_THREAD = 2;
+
+	/** The pool the schedules are formatted on */
+	private final ForkJoinPool pool;
+
+	/**
+	 * Constructs an ActivityRecordArchiveWriter.
+	 *
+	 * @param pool the pool the schedules are formatted on
+	 */
+	ActivityRecordArchiveWriter(ForkJoinPool pool) {
+		this.pool = pool;
+	}
+
+	/**
+	 * Writes an entry for each schedule to the archive, in map order, and
+	 * finishes the archive without closing its stream.
+	 *
+	 * @param zip       the archive to write to
+	 * @param schedules the activities in each schedule by entry name
+	 * @throws IOException if the archive can't be written
+	 */
+	void write(ZipOutputStream zip, Map<String, ArrayList<Activity>> schedules) throws IOException {
+		zip.setMethod(ZipOutputStream.STORED);
+		int ahead = pool.getParallelism() * TASKS_PER_THREAD;
+		ArrayDeque<CompletableFuture<FormattedEntry[]>> formatting = new ArrayDeque<CompletableFuture<FormattedEntry[]>>();
+		Iterator<Map.Entry<String, ArrayList<Activity>>> remaining = schedules.entrySet().iterator();
+		while (remaining.hasNext()) {
+			if (formatting.size() >= ahead) {
+				write(zip, next(formatting));
+			}
+			ArrayList<Map.Entry<String, ArrayList<Activity>>> batch = new ArrayList<Map.Entry<String, ArrayList<Activity>>>(
+					SCHEDULES_PER_TASK);
+			while (remaining.hasNext() && batch.size() < SCHEDULES_PER_TASK) {
+				batch.add(remaining.next());
+			}
+			formatting.add(CompletableFuture.supplyAsync(() -> format(batch), pool));
+		}
+		while (!formatting.isEmpty()) {
+			write(zip, next(formatting));
+		}
+		zip.finish();
+	}
+
+	/**
+	 * Formats a batch of schedules.
+	 *
+	 * @param batch the activities in each schedule by entry name
+	 * @return the entries of the schedules, in batch order
+	 */
+	private static FormattedEntry[] format(ArrayList<Map.Entry<String, ArrayList<Activity>>> batch) {
+		FormattedEntry[] entries = new FormattedEntry[batch.size()];
+		for (int i = 0; i < entries.length; i++) {
+			entries[i] = new FormattedEntry(batch.get(i).getKey(), batch.get(i).getValue());
+		}
+		return entries;
+	}
+
+	/**
+	 * Writes a batch of entries to the archive.
+	 *
+	 * @param zip     the archive to write to
+	 * @param entries the entries to write
+	 * @throws IOException if the archive can't be written
+	 */
+	private static void write(ZipOutputStream zip, FormattedEntry[] entries) throws IOException {
+		for (FormattedEntry entry : entries) {
+			entry.write(zip);
+		}
+	}
+
+	/**
+	 * Waits for the next batch to be formatted and returns it. An exception thrown
+	 * while formatting it is thrown again here, as it would be by
+	 * writeActivityRecords().
+	 *
+	 * @param formatting the batches being formatted, in order
+	 * @return the entries of the next batch
+	 */
+	private static FormattedEntry[] next(ArrayDeque<CompletableFuture<FormattedEntry[]>> formatting) {
+		try {
+			return formatting.remove().join();
+		} catch (CompletionException e) {
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			if (e.getCause() instanceof Error) {
+				throw (Error) e.getCause();
+			}
+			throw e;
+		}
+	}
+
+	/**
+	 * The bytes of one schedule, ready to be written as an entry.
+	 */
+	private static final class FormattedEntry {
+
+		/** The entry */
+		private final ZipEntry entry;
+
+		/** The records of the schedule */
+		private final byte[] bytes;
+
+		/**
+		 * Formats the activities as they are written by writeActivityRecords().
+		 *
+		 * @param name       the name of the entry
+		 * @param activities the activities in the schedule
+		 */
+		FormattedEntry(String name, ArrayList<Activity> activities) {
+			StringBuilder records = new StringBuilder();
+			for (Activity activity : activities) {
+				activity.appendRecord(records);
+				records.append(ActivityRecordIO.LINE_SEPARATOR);
+			}
+			bytes = records.toString().getBytes(Charset.defaultCharset());
+			CRC32 checksum = new CRC32();
+			checksum.update(bytes, 0, bytes.length);
+			entry = new ZipEntry(name);
+			entry.setSize(bytes.length);
+			entry.setCompressedSize(bytes.length);
+			entry.setCrc(checksum.getValue());
+		}
+
+		/**
+		 * Writes the entry to the archive.
+		 *
+		 * @param zip the archive to write to
+		 * @throws IOException if the archive can't be written
+		 */
+		void write(ZipOutputStream zip) throws IOException {
+			zip.putNextEntry(entry);
+			zip.write(bytes, 0, bytes.length);
+			zip.closeEntry();
+		}
+	}
+}
@@ -1,20 +1,47 @@
 package edu.ncsu.csc216.wolf_scheduler.io;
 
-import java.io.File;
+import java.io.BufferedOutputStream;
+import java.io.FileNotFoundException;
 import java.io.IOException;
-import java.io.PrintStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BiFunction;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipOutputStream;
 
 import edu.ncsu.csc216.wolf_scheduler.course.Activity;
+import edu.ncsu.csc216.wolf_scheduler.course.Course;
 
 /**
  * The purpose of this class is to write an array list of Activity objects to
- * the provided file name.
+ * the provided file name, and to read them back from the file.
  * 
  * @author Sanjana Cheerla
  */
 public class ActivityRecordIO {
 
+	/** Size of the buffers used to write files */
+	private static final int BUFFER_SIZE = 1 << 16;
+
+	/** Number of characters of records collected before they are written */
+	private static final int RECORD_BLOCK_SIZE = 1 << 13;
+
+	/** Characters written at the end of each record */
+	static final String LINE_SEPARATOR = System.lineSeparator();
+
 	/**
 	 * Writes the given list of Activity objects to the file name provided
 	 * 
@@ -23,13 +50,205 @@ public class ActivityRecordIO {
 	 * @throws IOException if the file cannot be written
 	 */
 	public static void writeActivityRecords(String fileName, ArrayList<Activity> courses) throws IOException {
-		PrintStream fileWriter = new PrintStream(new File(fileName));
+		writeActivityRecords(fileName, courses, false);
+	}
+
+	/**
+	 * Writes the given list of Activity objects to the file name provided. If gzip
+	 * is true, the file is gzip compressed as it is written. A compressed file can
+	 * be read back by CourseRecordIO like any other course records file.
+	 * 
+	 * The records are collected in blocks of a few thousand characters, so no
+	 * String is created for each record, and are written through a large buffer
+	 * to a temporary file in the same directory, which is forced to disk and then
+	 * renamed over the file. If writing fails part way, the exception is thrown
+	 * and the file is left as it was before.
+	 * 
+	 * @param fileName file to save to
+	 * @param courses  list of course to save
+	 * @param gzip     true if the file should be gzip compressed
+	 * @throws IOException if the file cannot be written
+	 */
+	public static void writeActivityRecords(String fileName, ArrayList<Activity> courses, boolean gzip)
+			throws IOException {
+		try (AtomicFileOutput file = new AtomicFileOutput(Paths.get(fileName))) {
+			BufferedOutputStream buffer = new BufferedOutputStream(file.getStream(), BUFFER_SIZE);
+			GZIPOutputStream compressed = gzip ? new GZIPOutputStream(buffer, BUFFER_SIZE) : null;
+			// the writer is closed even if writing fails, which frees the compressor
+			try (Writer fileWriter = new OutputStreamWriter(compressed != null ? compressed : buffer,
+					Charset.defaultCharset())) {
+				StringBuilder records = new StringBuilder(RECORD_BLOCK_SIZE * 2);
+				for (Activity c : courses) {
+					c.appendRecord(records);
+					records.append(LINE_SEPARATOR);
+					if (records.length() >= RECORD_BLOCK_SIZE) {
+						fileWriter.append(records);
+						records.setLength(0);
+					}
+				}
+				fileWriter.append(records);
+
+				fileWriter.flush();
+				if (compressed != null) {
+					compressed.finish();
+				}
+				buffer.flush();
+				file.commit();
+			}
+		}
+	}
+
+	/**
+	 * Writes many schedules into one ZIP archive, with an entry for each schedule
+	 * named by its key, in map order. Each entry holds the same bytes
+	 * writeActivityRecords() would write for the schedule, and can be read back
+	 * the same way once it is extracted. The schedules are formatted in parallel
+	 * on the common ForkJoinPool, so they must not be changed while the archive is
+	 * written. Like writeActivityRecords(), the archive replaces the file in one
+	 * step once it is written, or not at all.
+	 * 
+	 * @param fileName  file to save to
+	 * @param schedules the activities in each schedule by entry name
+	 * @throws IOException if the file cannot be written
+	 */
+	public static void writeActivityRecordArchive(String fileName, Map<String, ArrayList<Activity>> schedules)
+			throws IOException {
+		try (AtomicFileOutput file = new AtomicFileOutput(Paths.get(fileName))) {
+			BufferedOutputStream buffer = new BufferedOutputStream(file.getStream(), BUFFER_SIZE);
+			// the archive is closed even if writing fails, which frees the compressor
+			try (ZipOutputStream zip = new ZipOutputStream(buffer)) {
+				new ActivityRecordArchiveWriter(ForkJoinPool.commonPool()).write(zip, schedules);
+				buffer.flush();
+				file.commit();
+			}
+		}
+	}
+
+	/**
+	 * Writes the given list of Activity objects to the file name provided as an
+	 * iCalendar calendar, which calendar apps can import. Each activity repeats
+	 * on its meeting days from the first day of the term until the last day.
+	 * Like writeActivityRecords(), the calendar replaces the file in one step once
+	 * it is written, or not at all.
+	 * 
+	 * @param fileName     file to save to
+	 * @param calendarName the name of the calendar
+	 * @param activities   list of activities to save
+	 * @param firstDay     the first day of the term
+	 * @param lastDay      the last day of the term
+	 * @throws IOException              if the file cannot be written
+	 * @throws IllegalArgumentException if the last day is before the first day
+	 */
+	public static void writeActivityCalendar(String fileName, String calendarName, ArrayList<Activity> activities,
+			LocalDate firstDay, LocalDate lastDay) throws IOException {
+		ActivityCalendarWriter writer = new ActivityCalendarWriter(firstDay, lastDay);
+		try (AtomicFileOutput file = new AtomicFileOutput(Paths.get(fileName))) {
+			writer.write(file.getChannel(), calendarName, activities);
+			file.commit();
+		}
+	}
 
-		for (Activity c : courses) {
-			fileWriter.println(c.toString());
+	/**
+	 * Writes many schedules into one file as iCalendar calendars, one after the
+	 * other in map order, each named by its key. The calendars are streamed to
+	 * the file through one reused buffer, so a whole term of schedules can be
+	 * written in one pass.
+	 * 
+	 * @param fileName  file to save to
+	 * @param schedules the activities in each schedule by calendar name
+	 * @param firstDay  the first day of the term
+	 * @param lastDay   the last day of the term
+	 * @throws IOException              if the file cannot be written
+	 * @throws IllegalArgumentException if the last day is before the first day
+	 */
+	public static void writeActivityCalendars(String fileName, Map<String, ArrayList<Activity>> schedules,
+			LocalDate firstDay, LocalDate lastDay) throws IOException {
+		ActivityCalendarWriter writer = new ActivityCalendarWriter(firstDay, lastDay);
+		try (AtomicFileOutput file = new AtomicFileOutput(Paths.get(fileName))) {
+			for (Map.Entry<String, ArrayList<Activity>> schedule : schedules.entrySet()) {
+				writer.write(file.getChannel(), schedule.getKey(), schedule.getValue());
+			}
+			file.commit();
 		}
+	}
 
-		fileWriter.close();
+	/**
+	 * Reads the activities in a file written by writeActivityRecords(). Lines that
+	 * are valid course records are read as Courses, and the other valid lines as
+	 * Events. Invalid lines are skipped.
+	 * 
+	 * @param fileName file to read
+	 * @return the activities in the file
+	 * @throws FileNotFoundException if the file can't be found or read
+	 */
+	public static ArrayList<Activity> readActivityRecords(String fileName) throws FileNotFoundException {
+		return new ActivityRecordReader(null).read(fileName);
+	}
+
+	/**
+	 * Reads the activities in a file written by writeActivityRecords(), using the
+	 * courses of a catalog for its course lines. Each course line is looked up in
+	 * the catalog by its name and section, and the catalog's Course is used
+	 * instead of a new one. Course lines that aren't in the catalog are skipped,
+	 * as are invalid lines.
+	 * 
+	 * @param fileName file to read
+	 * @param catalog  returns the course in the catalog with a name and section,
+	 *                 or null if there isn't one
+	 * @return the activities in the file
+	 * @throws FileNotFoundException if the file can't be found or read
+	 */
+	public static ArrayList<Activity> readActivityRecords(String fileName, BiFunction<String, String, Course> catalog)
+			throws FileNotFoundException {
+		return new ActivityRecordReader(catalog).read(fileName);
+	}
+
+	/**
+	 * Reads every activity records file in a directory, using the courses of a
+	 * catalog for their course lines like readActivityRecords(). The files are
+	 * read in parallel, so the catalog must be safe to use from several threads.
+	 * Hidden files, such as the temporary files of an export that is still being
+	 * written, are skipped.
+	 * 
+	 * @param directory the directory to read
+	 * @param catalog   returns the course in the catalog with a name and section,
+	 *                  or null if there isn't one
+	 * @return the activities in each file by file name, in file name order
+	 * @throws FileNotFoundException if the directory or one of its files can't be
+	 *                               read
+	 */
+	public static LinkedHashMap<String, ArrayList<Activity>> readActivityRecordDirectory(String directory,
+			BiFunction<String, String, Course> catalog) throws FileNotFoundException {
+		ArrayList<Path> files = new ArrayList<Path>();
+		try (DirectoryStream<Path> found = Files.newDirectoryStream(Paths.get(directory))) {
+			for (Path file : found) {
+				if (Files.isRegularFile(file) && !file.getFileName().toString().startsWith(".")) {
+					files.add(file);
+				}
+			}
+		} catch (IOException e) {
+			throw new FileNotFoundException("Cannot read " + directory);
+		}
+		files.sort(null);
+
+		List<ArrayList<Activity>> schedules;
+		try {
+			schedules = files.parallelStream().map(file -> {
+				try {
+					return new ActivityRecordReader(catalog).read(file.toString());
+				} catch (FileNotFoundException e) {
+					throw new UncheckedIOException(e);
+				}
+			}).collect(Collectors.toList());
+		} catch (UncheckedIOException e) {
+			throw (FileNotFoundException) e.getCause();
+		}
+
+		LinkedHashMap<String, ArrayList<Activity>> activities = new LinkedHashMap<String, ArrayList<Activity>>();
+		for (int i = 0; i < files.size(); i++) {
+			activities.put(files.get(i).getFileName().toString(), schedules.get(i));
+		}
+		return activities;
 	}
 
-}
\ No newline at end of file
+}
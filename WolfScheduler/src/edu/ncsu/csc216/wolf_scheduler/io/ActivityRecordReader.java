@@ -0,0 +1,172 @@
+package edu.ncsu.csc216.wolf_scheduler.io;
+
+import java.io.ByteArrayInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.function.BiFunction;
+import java.util.zip.GZIPInputStream;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Activity;
+import edu.ncsu.csc216.wolf_scheduler.course.Course;
+import edu.ncsu.csc216.wolf_scheduler.course.Event;
+
+/**
+ * Reads the activity records written by ActivityRecordIO back into Course and
+ * Event objects. A line is read as a course record if it is a valid one, and
+ * as an event record otherwise. No line can be both, since a valid course has a
+ * 3 digit section where an event has its start time, and credits of 1 to 5
+ * where an event has an end time that is not before its start time. Invalid
+ * lines are skipped. Schedule files are small, so each file is read whole and
+ * its lines are parsed where they are in the file's text, without a String for
+ * each line. When the reader has a catalog, a course line is only checked, and
+ * the catalog's Course with the same name and section is used instead of
+ * creating a new one. A reader is used by one thread at a time.
+ *
+ * @author Sanjana Cheerla
+ */
+final class ActivityRecordReader {
+
+	/** Parser for the course lines */
+	private final CourseRecordParser parser = new CourseRecordParser();
+
+	/** Tokenizer for the event lines */
+	private final CourseRecordTokenizer tokenizer = new CourseRecordTokenizer();
+
+	/** Looks up a course by name and section, or null to parse the courses */
+	private final BiFunction<String, String, Course> catalog;
+
+	/**
+	 * Constructs an ActivityRecordReader.
+	 *
+	 * @param catalog returns the course in the catalog with a name and section,
+	 *                or null if there isn't one. If the catalog is null, courses
+	 *                are created from their lines
+	 */
+	ActivityRecordReader(BiFunction<String, String, Course> catalog) {
+		this.catalog = catalog;
+	}
+
+	/**
+	 * Reads the activities in the file. Lines end where they would for a Scanner,
+	 * and the file may be gzip compressed.
+	 *
+	 * @param fileName the file to read
+	 * @return the activities in the file, in file order
+	 * @throws FileNotFoundException if the file can't be found or read
+	 */
+	ArrayList<Activity> read(String fileName) throws FileNotFoundException {
+		String text = readText(fileName);
+		ArrayList<Activity> activities = new ArrayList<Activity>();
+		int length = text.length();
+		int start = 0;
+		for (int i = 0; i < length; i++) {
+			char c = text.charAt(i);
+			if (c == '\n' || c == '\r' || c == '\u2028' || c == '\u2029' || c == '\u0085') {
+				addActivity(activities, text, start, i);
+				if (c == '\r' && i + 1 < length && text.charAt(i + 1) == '\n') {
+					i++;
+				}
+				start = i + 1;
+			}
+		}
+		addActivity(activities, text, start, length);
+		return activities;
+	}
+
+	/**
+	 * Reads the activity in the line, and adds it to the list if the line is
+	 * valid.
+	 *
+	 * @param activities the list the activity is added to
+	 * @param chars      the characters holding the line
+	 * @param start      index of the first character of the line
+	 * @param end        index after the last character of the line
+	 */
+	private void addActivity(ArrayList<Activity> activities, CharSequence chars, int start, int end) {
+		if (start == end) {
+			return;
+		}
+		Activity activity;
+		if (catalog == null) {
+			activity = parser.parse(chars, start, end);
+		} else if (parser.check(chars, start, end)) {
+			activity = catalog.apply(parser.getName(), parser.getSection());
+			if (activity == null) {
+				// the course is no longer in the catalog
+				return;
+			}
+		} else {
+			activity = null;
+		}
+		if (activity == null) {
+			activity = readEvent(chars, start, end);
+		}
+		if (activity != null) {
+			activities.add(activity);
+		}
+	}
+
+	/**
+	 * Reads an event record in the format written by Event.toString():
+	 * title,meetingDays,startTime,endTime,weeklyRepeat,eventDetails.
+	 *
+	 * @param chars the characters holding the line
+	 * @param start index of the first character of the line
+	 * @param end   index after the last character of the line
+	 * @return the Event in the line, or null if the line is not a valid event
+	 */
+	private Event readEvent(CharSequence chars, int start, int end) {
+		tokenizer.reset(chars, start, end);
+		String title = tokenizer.next();
+		String meetingDays = tokenizer.next();
+		if (meetingDays == null || !tokenizer.nextInt()) {
+			return null;
+		}
+		int startTime = tokenizer.getInt();
+		if (!tokenizer.nextInt()) {
+			return null;
+		}
+		int endTime = tokenizer.getInt();
+		if (!tokenizer.nextInt()) {
+			return null;
+		}
+		int weeklyRepeat = tokenizer.getInt();
+		// empty details are written as a trailing comma, which is skipped
+		String eventDetails = tokenizer.hasNext() ? tokenizer.next() : "";
+		if (tokenizer.hasNext()) {
+			return null;
+		}
+		try {
+			return new Event(title, meetingDays, startTime, endTime, weeklyRepeat, eventDetails);
+		} catch (IllegalArgumentException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Reads the whole file as text, decompressing it if it starts with the gzip
+	 * magic number.
+	 *
+	 * @param fileName the file to read
+	 * @return the text of the file
+	 * @throws FileNotFoundException if the file can't be found or read
+	 */
+	private static String readText(String fileName) throws FileNotFoundException {
+		try {
+			byte[] bytes = Files.readAllBytes(Paths.get(fileName));
+			if (bytes.length >= 2 && ((bytes[0] & 0xff) | (bytes[1] & 0xff) << 8) == GZIPInputStream.GZIP_MAGIC) {
+				try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+					bytes = in.readAllBytes();
+				}
+			}
+			return new String(bytes, Charset.defaultCharset());
+		} catch (IOException e) {
+			throw new FileNotFoundException("Cannot read " + fileName);
+		}
+	}
+}
@@ -0,0 +1,124 @@
+package edu.ncsu.csc216.wolf_scheduler.io;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Writes a file so that it is either replaced completely or not at all. The
+ * bytes are written to a temporary file in the same directory as the file.
+ * When everything is written, commit() forces the temporary file to disk and
+ * renames it over the file in one step, so a crash while writing leaves the
+ * old file as it was instead of a truncated one. Closing the output without
+ * committing it deletes the temporary file.
+ *
+ * @author Sanjana Cheerla
+ */
+final class AtomicFileOutput implements Closeable {
+
+	/** The file being replaced */
+	private final Path target;
+
+	/** The temporary file the bytes are written to */
+	private final Path temp;
+
+	/** Channel of the temporary file */
+	private final FileChannel channel;
+
+	/** True once the temporary file has been renamed over the file */
+	private boolean committed;
+
+	/**
+	 * Creates a temporary file next to the target to write to.
+	 *
+	 * @param target the file to replace
+	 * @throws IOException if the temporary file can't be created
+	 */
+	AtomicFileOutput(Path target) throws IOException {
+		this.target = target.toAbsolutePath();
+		Path created = null;
+		FileChannel opened = null;
+		while (opened == null) {
+			created = this.target.resolveSibling("." + this.target.getFileName() + "."
+					+ Long.toHexString(ThreadLocalRandom.current().nextLong()) + ".tmp");
+			try {
+				opened = FileChannel.open(created, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+			} catch (FileAlreadyExistsException e) {
+				// try another name
+			}
+		}
+		this.temp = created;
+		this.channel = opened;
+	}
+
+	/**
+	 * Returns a stream that writes to the temporary file. The stream is not
+	 * buffered, and must be flushed but not closed before commit() is called.
+	 *
+	 * @return the stream to write the file with
+	 */
+	OutputStream getStream() {
+		return Channels.newOutputStream(channel);
+	}
+
+	/**
+	 * Returns the channel of the temporary file, which must not be closed before
+	 * commit() is called.
+	 *
+	 * @return the channel to write the file with
+	 */
+	FileChannel getChannel() {
+		return channel;
+	}
+
+	/**
+	 * Forces the temporary file to disk and renames it over the target file.
+	 *
+	 * @throws IOException if the file can't be forced to disk or renamed
+	 */
+	void commit() throws IOException {
+		channel.force(true);
+		channel.close();
+		try {
+			Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+		} catch (AtomicMoveNotSupportedException e) {
+			Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+		}
+		committed = true;
+		forceDirectory();
+	}
+
+	/**
+	 * Closes the temporary file, and deletes it if it was not committed.
+	 *
+	 * @throws IOException if the temporary file can't be deleted
+	 */
+	@Override
+	public void close() throws IOException {
+		if (!committed) {
+			channel.close();
+			Files.deleteIfExists(temp);
+		}
+	}
+
+	/**
+	 * Forces the rename to disk by forcing the directory of the file, on systems
+	 * where a directory can be opened.
+	 */
+	private void forceDirectory() {
+		try (FileChannel directory = FileChannel.open(target.getParent(), StandardOpenOption.READ)) {
+			directory.force(true);
+		} catch (IOException e) {
+			// the directory can't be opened on this system, the rename is still done
+		}
+	}
+}
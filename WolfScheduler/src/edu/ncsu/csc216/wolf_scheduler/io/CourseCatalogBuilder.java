@@ -0,0 +1,124 @@
+package edu.ncsu.csc216.wolf_scheduler.io;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Course;
+
+/**
+ * Builds a catalog of courses from course record lines. Invalid lines are
+ * skipped. If a course has the same name and section as a course already in
+ * the catalog, the first one added is kept and the later one is dropped as a
+ * duplicate. The builder can also keep a rejection for every line it does not
+ * add, with the line number counted from the first line added. Every way of
+ * reading course records adds its lines through a CourseCatalogBuilder so they
+ * all build the same catalog from the same file.
+ *
+ * @author Sanjana Cheerla
+ */
+final class CourseCatalogBuilder {
+
+	/** The courses in the catalog, in the order they were added */
+	private final ArrayList<Course> courses = new ArrayList<Course>();
+
+	/** Keys of the courses in the catalog */
+	private final HashSet<String> courseKeys = new HashSet<String>();
+
+	/** List the lines dropped as duplicates are added to, or null */
+	private final ArrayList<String> duplicates;
+
+	/** List the rejected lines are added to, or null */
+	private final ArrayList<CourseRecordRejection> rejections;
+
+	/** Parser used for the lines added */
+	private final CourseRecordParser parser = new CourseRecordParser();
+
+	/** Number of lines added so far */
+	private int lineNumber;
+
+	/**
+	 * Constructs an empty CourseCatalogBuilder.
+	 *
+	 * @param duplicates list that the lines dropped as duplicates are added to, or
+	 *                   null if the lines are not needed
+	 */
+	CourseCatalogBuilder(ArrayList<String> duplicates) {
+		this(duplicates, null);
+	}
+
+	/**
+	 * Constructs an empty CourseCatalogBuilder.
+	 *
+	 * @param duplicates list that the lines dropped as duplicates are added to, or
+	 *                   null if the lines are not needed
+	 * @param rejections list that a rejection for every line not added is added
+	 *                   to, or null if the rejections are not needed
+	 */
+	CourseCatalogBuilder(ArrayList<String> duplicates, ArrayList<CourseRecordRejection> rejections) {
+		this.duplicates = duplicates;
+		this.rejections = rejections;
+	}
+
+	/**
+	 * Reads a course from the characters of the sequence between start and end
+	 * and adds it to the catalog. The line is skipped if it is not a valid course.
+	 *
+	 * @param chars the characters holding the line
+	 * @param start index of the first character of the line
+	 * @param end   index after the last character of the line
+	 */
+	void addLine(CharSequence chars, int start, int end) {
+		lineNumber++;
+		Course course = parser.parse(chars, start, end);
+		if (course == null) {
+			// skip the line
+			if (rejections != null) {
+				rejections.add(new CourseRecordRejection(lineNumber, chars.subSequence(start, end).toString(),
+						parser.getField(), parser.getReason()));
+			}
+		} else if (!add(course)) {
+			// it's a duplicate
+			String line = chars.subSequence(start, end).toString();
+			if (duplicates != null) {
+				duplicates.add(line);
+			}
+			if (rejections != null) {
+				rejections.add(new CourseRecordRejection(lineNumber, line, CourseRecordParser.SECTION,
+						CourseRecordRejection.DUPLICATE));
+			}
+		}
+	}
+
+	/**
+	 * Adds the course to the catalog if no course with the same name and section
+	 * has been added already.
+	 *
+	 * @param course the course to add
+	 * @return true if the course was added, false if it is a duplicate
+	 */
+	boolean add(Course course) {
+		if (courseKeys.add(CourseRecordIO.getCourseKey(course.getName(), course.getSection()))) {
+			courses.add(course);
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Returns the courses in the catalog in the order they were added.
+	 *
+	 * @return the courses in the catalog
+	 */
+	ArrayList<Course> getCourses() {
+		return courses;
+	}
+
+	/**
+	 * Returns the number of lines added so far, including the ones skipped.
+	 *
+	 * @return the number of lines added
+	 */
+	int getLineCount() {
+		return lineNumber;
+	}
+}
@@ -0,0 +1,75 @@
+package edu.ncsu.csc216.wolf_scheduler.io;
+
+import java.util.ArrayList;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Course;
+
+/**
+ * The changes between two versions of a course records file. Courses are
+ * matched by name and section: a course is added if its name and section are
+ * only in the new version, removed if they are only in the old version, and
+ * modified if they are in both but any other field changed. Each list is in
+ * file order.
+ * 
+ * @author Sanjana Cheerla
+ */
+public class CourseCatalogDiff {
+
+	/** Courses only in the new version */
+	private final ArrayList<Course> added;
+
+	/** Courses only in the old version */
+	private final ArrayList<Course> removed;
+
+	/** New versions of the courses that changed */
+	private final ArrayList<Course> modified;
+
+	/**
+	 * Constructs a CourseCatalogDiff.
+	 * 
+	 * @param added    courses only in the new version
+	 * @param removed  courses only in the old version
+	 * @param modified new versions of the courses that changed
+	 */
+	public CourseCatalogDiff(ArrayList<Course> added, ArrayList<Course> removed, ArrayList<Course> modified) {
+		this.added = added;
+		this.removed = removed;
+		this.modified = modified;
+	}
+
+	/**
+	 * Returns the courses only in the new version.
+	 * 
+	 * @return the courses added
+	 */
+	public ArrayList<Course> getAdded() {
+		return added;
+	}
+
+	/**
+	 * Returns the courses only in the old version.
+	 * 
+	 * @return the courses removed
+	 */
+	public ArrayList<Course> getRemoved() {
+		return removed;
+	}
+
+	/**
+	 * Returns the new versions of the courses that changed.
+	 * 
+	 * @return the courses modified
+	 */
+	public ArrayList<Course> getModified() {
+		return modified;
+	}
+
+	/**
+	 * Returns true if nothing changed.
+	 * 
+	 * @return true if no courses were added, removed or modified
+	 */
+	public boolean isEmpty() {
+		return added.isEmpty() && removed.isEmpty() && modified.isEmpty();
+	}
+}
@@ -0,0 +1,833 @@
+package edu.ncsu.csc216.wolf_scheduler.io;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Course;
+
+/**
+ * Catalog that reads its courses from a course records file on demand. Opening
+ * the catalog checks every line of the file, but only keeps where each valid
+ * line is in the file, a hash of its name and section, and its meeting days and
+ * times, so the catalog can be searched by meeting time without parsing every
+ * course. A Course is parsed the first time it is asked for, and the most
+ * recently used courses are kept in a cache of bounded size. The catalog has
+ * the same courses in the same order as readCourseRecords(). The file must not
+ * change while the catalog is open, except for the changes given to apply(),
+ * and it can't be gzip compressed.
+ *
+ * Courses can be looked up from several threads at once. Only the cache is
+ * locked, so threads read and parse the lines that are not in the cache at the
+ * same time. A catalog shared by several users is retained by each of them,
+ * and the file is closed once every user of the catalog, and of every catalog
+ * applied from it, has closed it.
+ *
+ * @author Sanjana Cheerla
+ */
+public class CourseCatalogIndex implements Closeable {
+
+	/** Number of bytes read from the file at a time while indexing it */
+	private static final int BUFFER_SIZE = 1 << 16;
+
+	/** Number of rows the arrays start with */
+	private static final int INITIAL_ROWS = 1024;
+
+	/** Name of the course records file */
+	private final String fileName;
+
+	/** Number of courses kept in the cache */
+	private final int cacheSize;
+
+	/** The users of the file, shared with the catalogs applied from this one */
+	private final CourseFile file;
+
+	/** Channel of the course records file */
+	private final FileChannel channel;
+
+	/** Charset of the file */
+	private final Charset charset;
+
+	/** Decoder for the lines of the file while it is indexed */
+	private final CharsetDecoder decoder;
+
+	/**
+	 * Parser for the lines of the file while it is indexed. It is also the lock
+	 * held while the lines of the courses are found again.
+	 */
+	private final CourseRecordParser parser = new CourseRecordParser();
+
+	/** Where the line that holds each course is in the file */
+	private volatile Lines lines = new Lines(INITIAL_ROWS);
+
+	/**
+	 * True if the catalog was applied from another, so the lines of its courses
+	 * are found again if the file was rewritten in place
+	 */
+	private final boolean applied;
+
+	/** The courses kept in memory by row, which are not read from the file */
+	private final HashMap<Integer, Course> held = new HashMap<Integer, Course>();
+
+	/** Hash of the name and section of each course */
+	private long[] keyHashes = new long[INITIAL_ROWS];
+
+	/** Meeting days of each course, shared by the courses with the same days */
+	private String[] meetingDays = new String[INITIAL_ROWS];
+
+	/** Start time of each course */
+	private int[] startTimes = new int[INITIAL_ROWS];
+
+	/** End time of each course */
+	private int[] endTimes = new int[INITIAL_ROWS];
+
+	/** Number of courses in the catalog */
+	private int size;
+
+	/** Hash table of row + 1 by key hash, 0 where empty. Its length is a power of 2 */
+	private int[] table = new int[INITIAL_ROWS * 2];
+
+	/** The most recently used courses by row */
+	private final LinkedHashMap<Integer, Course> cache;
+
+	/** Bytes of the line being indexed */
+	private byte[] lineBytes = new byte[256];
+
+	/** Chars of the line being indexed */
+	private CharBuffer lineChars = CharBuffer.allocate(256);
+
+	/**
+	 * Opens the course records file and indexes its courses.
+	 *
+	 * @param fileName  The course records file to read
+	 * @param cacheSize The number of courses kept in the cache
+	 * @throws IOException              If the file can't be found or read, or is
+	 *                                  compressed
+	 * @throws IllegalArgumentException If the cache size is less than 1
+	 */
+	public CourseCatalogIndex(String fileName, int cacheSize) throws IOException {
+		if (cacheSize < 1) {
+			throw new IllegalArgumentException("Invalid cache size.");
+		}
+		Charset charset = Charset.defaultCharset();
+		if (!MappedCourseRecordReader.hasSingleByteLineEndings(charset)) {
+			throw new IOException("Cannot index a file in " + charset);
+		}
+		this.fileName = fileName;
+		this.cacheSize = cacheSize;
+		this.charset = charset;
+		this.decoder = newDecoder();
+		this.cache = newCache();
+		this.applied = false;
+		this.channel = FileChannel.open(Paths.get(fileName), StandardOpenOption.READ);
+		this.file = new CourseFile();
+		try {
+			if (CourseRecordIO.isGzip(channel)) {
+				throw new IOException("Cannot index a compressed file");
+			}
+			index(lines, false);
+		} catch (IOException e) {
+			channel.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * Constructs a catalog with the changes applied to the old catalog. Removed
+	 * courses are dropped, modified courses are held in memory in the rows of
+	 * their old versions, and added courses are held in memory in new rows at the
+	 * end. The other courses keep their rows, their lines in the file and their
+	 * places in the cache. The old catalog's file must have been retained for the
+	 * new catalog.
+	 *
+	 * @param old  The catalog to apply the changes to
+	 * @param diff The changes to apply
+	 */
+	private CourseCatalogIndex(CourseCatalogIndex old, CourseCatalogDiff diff) {
+		this.fileName = old.fileName;
+		this.cacheSize = old.cacheSize;
+		this.charset = old.charset;
+		this.decoder = newDecoder();
+		this.cache = newCache();
+		this.applied = true;
+		this.channel = old.channel;
+		this.file = old.file;
+
+		// the new version of each row that changed, or null if it was removed
+		HashMap<Integer, Course> changes = new HashMap<Integer, Course>();
+		for (Course c : diff.getRemoved()) {
+			int row = old.findRow(c.getName(), c.getSection());
+			if (row >= 0) {
+				changes.put(row, null);
+			}
+		}
+		for (Course c : diff.getModified()) {
+			int row = old.findRow(c.getName(), c.getSection());
+			if (row >= 0) {
+				changes.put(row, c);
+			}
+		}
+
+		int rows = Math.max(old.size + diff.getAdded().size(), 1);
+		Lines oldLines = old.lines;
+		Lines newLines = new Lines(rows);
+		keyHashes = new long[rows];
+		meetingDays = new String[rows];
+		startTimes = new int[rows];
+		endTimes = new int[rows];
+		int[] newRows = new int[old.size];
+		for (int row = 0; row < old.size; row++) {
+			newRows[row] = -1;
+			if (changes.containsKey(row)) {
+				if (changes.get(row) != null) {
+					hold(changes.get(row));
+				}
+				continue;
+			}
+			newRows[row] = size;
+			newLines.offsets[size] = oldLines.offsets[row];
+			newLines.lengths[size] = oldLines.lengths[row];
+			if (oldLines.pieces.containsKey(row)) {
+				newLines.pieces.put(size, oldLines.pieces.get(row));
+			}
+			if (old.held.containsKey(row)) {
+				held.put(size, old.held.get(row));
+			}
+			keyHashes[size] = old.keyHashes[row];
+			meetingDays[size] = old.meetingDays[row];
+			startTimes[size] = old.startTimes[row];
+			endTimes[size] = old.endTimes[row];
+			size++;
+		}
+		for (Course c : diff.getAdded()) {
+			hold(c);
+		}
+		lines = newLines;
+
+		table = new int[Math.max(Integer.highestOneBit(size) * 4, INITIAL_ROWS * 2)];
+		fillTable();
+		synchronized (old.cache) {
+			for (Map.Entry<Integer, Course> entry : old.cache.entrySet()) {
+				int row = newRows[entry.getKey()];
+				if (row >= 0 && !held.containsKey(row)) {
+					cache.put(row, entry.getValue());
+				}
+			}
+		}
+	}
+
+	/**
+	 * Returns the name of the course records file.
+	 *
+	 * @return the name of the file
+	 */
+	public String getFileName() {
+		return fileName;
+	}
+
+	/**
+	 * Returns the number of courses kept in the cache.
+	 *
+	 * @return the size of the cache
+	 */
+	public int getCacheSize() {
+		return cacheSize;
+	}
+
+	/**
+	 * Returns the number of courses in the catalog.
+	 *
+	 * @return the number of courses
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Returns the course at the given row of the catalog, parsing it from the
+	 * file if it is not in the cache.
+	 *
+	 * @param row The row of the course
+	 * @return the course at the row
+	 * @throws IndexOutOfBoundsException If there is no such row
+	 * @throws IllegalStateException     If the file can't be read or has changed
+	 */
+	public Course get(int row) {
+		checkRow(row);
+		Course course = held.get(row);
+		if (course != null) {
+			return course;
+		}
+		synchronized (cache) {
+			course = cache.get(row);
+		}
+		if (course == null) {
+			Course parsed = parse(row);
+			synchronized (cache) {
+				// another thread may have cached the row while it was parsed
+				course = cache.putIfAbsent(row, parsed);
+			}
+			if (course == null) {
+				course = parsed;
+			}
+		}
+		return course;
+	}
+
+	/**
+	 * Returns the course with the given name and section, or null if there is no
+	 * such course in the catalog.
+	 *
+	 * @param name    The name of the course
+	 * @param section The section of the course
+	 * @return the course, or null if it is not in the catalog
+	 * @throws IllegalStateException If the file can't be read or has changed
+	 */
+	public Course get(String name, String section) {
+		long keyHash = CourseRecordParser.hashKey(name, section);
+		int mask = table.length - 1;
+		for (int slot = spread(keyHash) & mask; table[slot] != 0; slot = (slot + 1) & mask) {
+			int row = table[slot] - 1;
+			if (keyHashes[row] == keyHash) {
+				Course course = get(row);
+				if (course.getName().equals(name) && course.getSection().equals(section)) {
+					return course;
+				}
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Returns the meeting days of the course at the given row, without parsing
+	 * the course.
+	 *
+	 * @param row The row of the course
+	 * @return the meeting days of the course
+	 * @throws IndexOutOfBoundsException If there is no such row
+	 */
+	public String getMeetingDays(int row) {
+		checkRow(row);
+		return meetingDays[row];
+	}
+
+	/**
+	 * Returns the start time of the course at the given row, without parsing the
+	 * course.
+	 *
+	 * @param row The row of the course
+	 * @return the start time of the course
+	 * @throws IndexOutOfBoundsException If there is no such row
+	 */
+	public int getStartTime(int row) {
+		checkRow(row);
+		return startTimes[row];
+	}
+
+	/**
+	 * Returns the end time of the course at the given row, without parsing the
+	 * course.
+	 *
+	 * @param row The row of the course
+	 * @return the end time of the course
+	 * @throws IndexOutOfBoundsException If there is no such row
+	 */
+	public int getEndTime(int row) {
+		checkRow(row);
+		return endTimes[row];
+	}
+
+	/**
+	 * Returns a new catalog with the changes from a new version of the course
+	 * records file applied, without reading the file again. Removed courses are
+	 * taken out of the catalog, modified courses are kept in memory in place of
+	 * their old versions, and added courses are kept in memory at the end of the
+	 * catalog. This catalog doesn't change. The new catalog reads its other
+	 * courses from the file this catalog has open, and is a new user of it that
+	 * must be closed. If the file was rewritten in place rather than replaced, the
+	 * lines of those courses may have moved, so the new catalog reads through the
+	 * file once to find them again the first time one of them isn't where it was.
+	 *
+	 * @param diff The changes to the course records file, from a
+	 *             CourseCatalogWatcher
+	 * @return the catalog with the changes applied
+	 * @throws IllegalStateException If every user has already closed the catalog
+	 */
+	public CourseCatalogIndex apply(CourseCatalogDiff diff) {
+		retain();
+		return new CourseCatalogIndex(this, diff);
+	}
+
+	/**
+	 * Adds a user of the catalog, who must close it when they are done with it.
+	 *
+	 * @throws IllegalStateException If every user has already closed the catalog
+	 */
+	public void retain() {
+		synchronized (file) {
+			if (file.users == 0) {
+				throw new IllegalStateException("The catalog is closed.");
+			}
+			file.users++;
+		}
+	}
+
+	/**
+	 * Closes the catalog for one of its users. The course records file is closed
+	 * when the last user closes the catalog, and closing the catalog after that
+	 * does nothing.
+	 *
+	 * @throws IOException If the file can't be closed
+	 */
+	@Override
+	public void close() throws IOException {
+		synchronized (file) {
+			if (file.users > 0 && --file.users == 0) {
+				channel.close();
+			}
+		}
+	}
+
+	/**
+	 * Reads the file and, while the catalog is being built, adds a row for every
+	 * valid line whose name and section are not already in the catalog. When the
+	 * lines of the courses are found again, each valid line is given to the row
+	 * with its name and section instead. Lines end at "\n", "\r\n" or "\r" bytes,
+	 * and lines with any other line terminator are split after they are decoded.
+	 *
+	 * @param found    Where the lines of the courses are put
+	 * @param relocate True if the lines of existing rows are being found again
+	 * @throws IOException If the file can't be read
+	 */
+	private void index(Lines found, boolean relocate) throws IOException {
+		ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+		byte[] bytes = buffer.array();
+		int lineLength = 0;
+		long lineStart = 0;
+		long position = 0;
+		int read;
+		while ((read = channel.read(buffer, position)) >= 0) {
+			for (int i = 0; i < read; i++) {
+				byte b = bytes[i];
+				if (b == '\n' || b == '\r') {
+					indexLine(found, relocate, lineStart, lineLength);
+					lineLength = 0;
+					lineStart = position + i + 1;
+				} else {
+					if (lineLength == lineBytes.length) {
+						lineBytes = Arrays.copyOf(lineBytes, lineLength * 2);
+					}
+					lineBytes[lineLength++] = b;
+				}
+			}
+			position += read;
+			buffer.clear();
+		}
+		indexLine(found, relocate, lineStart, lineLength);
+	}
+
+	/**
+	 * Adds a row, or finds the row, for each valid course record in the line held
+	 * in lineBytes.
+	 *
+	 * @param found    Where the lines of the courses are put
+	 * @param relocate True if the lines of existing rows are being found again
+	 * @param offset   The position of the line in the file
+	 * @param length   The number of bytes in the line
+	 */
+	private void indexLine(Lines found, boolean relocate, long offset, int length) {
+		if (length == 0) {
+			return;
+		}
+		lineChars = decode(decoder, lineBytes, length, lineChars);
+		int start = 0;
+		int piece = 0;
+		for (int i = 0; i <= lineChars.limit(); i++) {
+			if (i == lineChars.limit() || isUnicodeLineEnd(lineChars.get(i))) {
+				if (parser.check(lineChars, start, i)) {
+					if (relocate) {
+						locateRow(found, offset, length, piece, parser.getKeyHash());
+					} else {
+						addRow(offset, length, piece, parser.getKeyHash());
+					}
+				}
+				start = i + 1;
+				piece++;
+			}
+		}
+	}
+
+	/**
+	 * Adds a row for the course the parser last checked, unless a course with the
+	 * same name and section is already in the catalog. Rows whose key hash is the
+	 * same are read back from the file to compare their names and sections, so a
+	 * course is never dropped because its hash happens to match another's.
+	 *
+	 * @param offset  The position of the line of the course in the file
+	 * @param length  The number of bytes in the line
+	 * @param piece   The index of the course record within the line
+	 * @param keyHash The hash of the name and section of the course
+	 */
+	private void addRow(long offset, int length, int piece, long keyHash) {
+		int mask = table.length - 1;
+		int slot = spread(keyHash) & mask;
+		String name = null;
+		String section = null;
+		while (table[slot] != 0) {
+			int row = table[slot] - 1;
+			if (keyHashes[row] == keyHash) {
+				if (name == null) {
+					name = parser.getName();
+					section = parser.getSection();
+				}
+				if (hasKey(row, name, section)) {
+					// it's a duplicate
+					return;
+				}
+			}
+			slot = (slot + 1) & mask;
+		}
+		Lines found = lines;
+		if (size == keyHashes.length) {
+			found.offsets = Arrays.copyOf(found.offsets, size * 2);
+			found.lengths = Arrays.copyOf(found.lengths, size * 2);
+			keyHashes = Arrays.copyOf(keyHashes, size * 2);
+			meetingDays = Arrays.copyOf(meetingDays, size * 2);
+			startTimes = Arrays.copyOf(startTimes, size * 2);
+			endTimes = Arrays.copyOf(endTimes, size * 2);
+		}
+		found.offsets[size] = offset;
+		found.lengths[size] = length;
+		if (piece > 0) {
+			found.pieces.put(size, piece);
+		}
+		keyHashes[size] = keyHash;
+		meetingDays[size] = parser.getMeetingDays();
+		startTimes[size] = parser.getStartTime();
+		endTimes[size] = parser.getEndTime();
+		table[slot] = ++size;
+		if (size * 2 > table.length) {
+			table = new int[table.length * 2];
+			fillTable();
+		}
+	}
+
+	/**
+	 * Adds a row at the end of the catalog for a course that is held in memory
+	 * rather than read from the file.
+	 *
+	 * @param course The course to hold
+	 */
+	private void hold(Course course) {
+		held.put(size, course);
+		keyHashes[size] = CourseRecordParser.hashKey(course.getName(), course.getSection());
+		meetingDays[size] = course.getMeetingDays();
+		startTimes[size] = course.getStartTime();
+		endTimes[size] = course.getEndTime();
+		size++;
+	}
+
+	/**
+	 * Gives the line of the course the parser last checked to the first row with
+	 * the same key hash whose line hasn't been found yet, if that row is read from
+	 * the file. Lines are matched to rows by key hash alone, the same way parse()
+	 * checks that a line still holds its row's course.
+	 *
+	 * @param found   Where the lines of the courses are put
+	 * @param offset  The position of the line of the course in the file
+	 * @param length  The number of bytes in the line
+	 * @param piece   The index of the course record within the line
+	 * @param keyHash The hash of the name and section of the course
+	 */
+	private void locateRow(Lines found, long offset, int length, int piece, long keyHash) {
+		int mask = table.length - 1;
+		for (int slot = spread(keyHash) & mask; table[slot] != 0; slot = (slot + 1) & mask) {
+			int row = table[slot] - 1;
+			if (keyHashes[row] == keyHash && !held.containsKey(row) && found.lengths[row] == 0) {
+				found.offsets[row] = offset;
+				found.lengths[row] = length;
+				if (piece > 0) {
+					found.pieces.put(row, piece);
+				}
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Returns the row of the course with the given name and section without
+	 * reading the file. A row read from the file is matched by key hash alone.
+	 *
+	 * @param name    The name of the course
+	 * @param section The section of the course
+	 * @return the row of the course, or -1 if it is not in the catalog
+	 */
+	private int findRow(String name, String section) {
+		long keyHash = CourseRecordParser.hashKey(name, section);
+		int mask = table.length - 1;
+		for (int slot = spread(keyHash) & mask; table[slot] != 0; slot = (slot + 1) & mask) {
+			int row = table[slot] - 1;
+			Course course = held.get(row);
+			if (keyHashes[row] == keyHash && (course == null
+					|| course.getName().equals(name) && course.getSection().equals(section))) {
+				return row;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Checks that the row is in the catalog.
+	 *
+	 * @param row The row to check
+	 * @throws IndexOutOfBoundsException If there is no such row
+	 */
+	private void checkRow(int row) {
+		if (row < 0 || row >= size) {
+			throw new IndexOutOfBoundsException("Invalid row " + row);
+		}
+	}
+
+	/**
+	 * Returns true if the course at the row has the name and section. The row is
+	 * read back from the file.
+	 *
+	 * @param row     The row of the course
+	 * @param name    The name to compare
+	 * @param section The section to compare
+	 * @return true if the course has the name and section
+	 */
+	private boolean hasKey(int row, String name, String section) {
+		Course course = parse(row);
+		return course.getName().equals(name) && course.getSection().equals(section);
+	}
+
+	/**
+	 * Puts every row in the empty hash table by its key hash.
+	 */
+	private void fillTable() {
+		int mask = table.length - 1;
+		for (int row = 0; row < size; row++) {
+			int slot = spread(keyHashes[row]) & mask;
+			while (table[slot] != 0) {
+				slot = (slot + 1) & mask;
+			}
+			table[slot] = row + 1;
+		}
+	}
+
+	/**
+	 * Parses the course of the row from its line in the file. If the line no
+	 * longer holds the course and the catalog was applied from another, the file
+	 * may have been rewritten in place, so the lines of the courses are found
+	 * again and the row is read from its new line.
+	 *
+	 * @param row The row of the course
+	 * @return the course at the row
+	 * @throws IllegalStateException If the file can't be read or has changed
+	 */
+	private Course parse(int row) {
+		Lines seen = lines;
+		Course course = read(seen, row);
+		if (course == null && applied) {
+			relocate(seen);
+			course = read(lines, row);
+		}
+		if (course == null) {
+			throw new IllegalStateException("The course records file has changed.");
+		}
+		return course;
+	}
+
+	/**
+	 * Finds the lines of the courses read from the file again, unless another
+	 * thread already found them since the given lines were seen.
+	 *
+	 * @param seen The lines the course couldn't be read from
+	 * @throws IllegalStateException If the file can't be read
+	 */
+	private void relocate(Lines seen) {
+		synchronized (parser) {
+			if (lines != seen) {
+				return;
+			}
+			Lines found = new Lines(size);
+			try {
+				index(found, true);
+			} catch (IOException e) {
+				throw new IllegalStateException("Cannot read " + fileName);
+			}
+			lines = found;
+		}
+	}
+
+	/**
+	 * Reads the line of the row from the file and parses its course. The line is
+	 * read into new buffers and parsed with a new parser, so threads can parse
+	 * rows at the same time and the line being indexed is kept.
+	 *
+	 * @param found Where the lines of the courses are
+	 * @param row   The row of the course
+	 * @return the course at the row, or null if the line no longer holds it
+	 * @throws IllegalStateException If the file can't be read
+	 */
+	private Course read(Lines found, int row) {
+		int length = found.lengths[row];
+		byte[] bytes = new byte[length];
+		ByteBuffer buffer = ByteBuffer.wrap(bytes);
+		try {
+			while (buffer.hasRemaining()) {
+				if (channel.read(buffer, found.offsets[row] + buffer.position()) < 0) {
+					return null;
+				}
+			}
+		} catch (IOException e) {
+			throw new IllegalStateException("Cannot read " + fileName);
+		}
+		CharBuffer chars = decode(newDecoder(), bytes, length, CharBuffer.allocate(length));
+
+		int piece = found.pieces.containsKey(row) ? found.pieces.get(row) : 0;
+		int start = 0;
+		int end = 0;
+		for (int i = 0; i <= chars.limit(); i++) {
+			if (i == chars.limit() || isUnicodeLineEnd(chars.get(i))) {
+				if (piece-- == 0) {
+					end = i;
+					break;
+				}
+				start = i + 1;
+			}
+		}
+		CourseRecordParser rowParser = new CourseRecordParser();
+		Course course = rowParser.parse(chars, start, end);
+		if (course == null || rowParser.getKeyHash() != keyHashes[row]) {
+			return null;
+		}
+		return course;
+	}
+
+	/**
+	 * Returns a new cache that keeps the most recently used courses, up to the
+	 * cache size.
+	 *
+	 * @return the new cache
+	 */
+	private LinkedHashMap<Integer, Course> newCache() {
+		return new LinkedHashMap<Integer, Course>(cacheSize * 2, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Integer, Course> eldest) {
+				return size() > cacheSize;
+			}
+		};
+	}
+
+	/**
+	 * Returns a new decoder for the charset of the file that replaces bytes it
+	 * can't decode.
+	 *
+	 * @return the decoder
+	 */
+	private CharsetDecoder newDecoder() {
+		return charset.newDecoder().onMalformedInput(CodingErrorAction.REPLACE)
+				.onUnmappableCharacter(CodingErrorAction.REPLACE);
+	}
+
+	/**
+	 * Decodes the first length bytes into the chars, growing the chars if they
+	 * are too small.
+	 *
+	 * @param decoder The decoder to use
+	 * @param bytes   The bytes to decode
+	 * @param length  The number of bytes to decode
+	 * @param chars   The buffer to decode into
+	 * @return the decoded chars, which are a new buffer if the given one was too
+	 *         small
+	 */
+	private static CharBuffer decode(CharsetDecoder decoder, byte[] bytes, int length, CharBuffer chars) {
+		ByteBuffer in = ByteBuffer.wrap(bytes, 0, length);
+		while (true) {
+			decoder.reset();
+			chars.clear();
+			if (!decoder.decode(in, chars, true).isOverflow() && !decoder.flush(chars).isOverflow()) {
+				break;
+			}
+			in.rewind();
+			chars = CharBuffer.allocate(chars.capacity() * 2);
+		}
+		chars.flip();
+		return chars;
+	}
+
+	/**
+	 * Returns true if the char ends a line for a Scanner but is not "\n" or "\r".
+	 *
+	 * @param c The char to check
+	 * @return true if the char is U+2028, U+2029 or U+0085
+	 */
+	private static boolean isUnicodeLineEnd(char c) {
+		return c == '\u2028' || c == '\u2029' || c == '\u0085';
+	}
+
+	/**
+	 * Mixes the high bits of the key hash into the low bits used to pick a slot.
+	 *
+	 * @param keyHash The hash of a name and section
+	 * @return the mixed hash
+	 */
+	private static int spread(long keyHash) {
+		return (int) (keyHash ^ (keyHash >>> 32));
+	}
+
+	/**
+	 * Where the line that holds each course is in the file. Once a catalog starts
+	 * reading courses from the lines they don't change, and lines found again
+	 * replace them as a whole.
+	 */
+	private static final class Lines {
+
+		/** Position in the file of the line that holds each course */
+		private long[] offsets;
+
+		/** Number of bytes in the line that holds each course */
+		private int[] lengths;
+
+		/**
+		 * Index of each course within its line, for the few lines that U+2028,
+		 * U+2029 or U+0085 split into more than one course record
+		 */
+		private final HashMap<Integer, Integer> pieces = new HashMap<Integer, Integer>();
+
+		/**
+		 * Constructs the lines for the given number of rows.
+		 *
+		 * @param rows The number of rows
+		 */
+		Lines(int rows) {
+			offsets = new long[rows];
+			lengths = new int[rows];
+		}
+	}
+
+	/**
+	 * The number of users of the catalogs that read from an open course records
+	 * file. It is also the lock held while the number changes.
+	 */
+	private static final class CourseFile {
+
+		/** Number of users that have not closed a catalog reading from the file */
+		private int users = 1;
+	}
+}
@@ -0,0 +1,179 @@
+package edu.ncsu.csc216.wolf_scheduler.io;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.zip.CRC32;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Course;
+
+/**
+ * Writes and reads binary snapshots of a catalog of courses. A snapshot starts
+ * with a magic number, the format version, and the size and last modified time
+ * of the course records file it was made from. Then comes a table of every
+ * distinct String in the catalog and one fixed width record per course that
+ * refers to its Strings by their index in the table. The snapshot ends with a
+ * CRC32 checksum of everything before it. A snapshot is only read if its
+ * version, source file fingerprint, and checksum all match.
+ *
+ * @author Sanjana Cheerla
+ */
+final class CourseCatalogSnapshot {
+
+	/** Magic number at the start of every snapshot */
+	private static final int MAGIC = 0x57534353;
+
+	/** Version of the snapshot format */
+	private static final int VERSION = 1;
+
+	/** Number of Strings in the record of each course */
+	private static final int STRINGS_PER_COURSE = 5;
+
+	/** Number of bytes in the checksum at the end of a snapshot */
+	private static final int CHECKSUM_LENGTH = Long.BYTES;
+
+	/**
+	 * Private constructor so CourseCatalogSnapshot is not created.
+	 */
+	private CourseCatalogSnapshot() {
+		// only static methods
+	}
+
+	/**
+	 * Writes a snapshot of the courses read from the source file. The snapshot is
+	 * written to a temporary file that is renamed over the snapshot file, so a
+	 * snapshot that was only partly written is never left for the next start.
+	 *
+	 * @param snapshot the snapshot file to write
+	 * @param source   the course records file the courses were read from
+	 * @param courses  the courses to write
+	 * @throws IOException if the snapshot cannot be written
+	 */
+	static void write(File snapshot, File source, ArrayList<Course> courses) throws IOException {
+		HashMap<String, Integer> stringIndexes = new HashMap<String, Integer>();
+		ArrayList<String> strings = new ArrayList<String>();
+		int[] indexes = new int[courses.size() * STRINGS_PER_COURSE];
+		int next = 0;
+		for (Course c : courses) {
+			indexes[next++] = indexOf(c.getName(), stringIndexes, strings);
+			indexes[next++] = indexOf(c.getTitle(), stringIndexes, strings);
+			indexes[next++] = indexOf(c.getSection(), stringIndexes, strings);
+			indexes[next++] = indexOf(c.getInstructorId(), stringIndexes, strings);
+			indexes[next++] = indexOf(c.getMeetingDays(), stringIndexes, strings);
+		}
+
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		DataOutputStream out = new DataOutputStream(bytes);
+		out.writeInt(MAGIC);
+		out.writeInt(VERSION);
+		out.writeLong(source.length());
+		out.writeLong(source.lastModified());
+		out.writeInt(strings.size());
+		for (String s : strings) {
+			out.writeUTF(s);
+		}
+		out.writeInt(courses.size());
+		next = 0;
+		for (Course c : courses) {
+			for (int i = 0; i < STRINGS_PER_COURSE; i++) {
+				out.writeInt(indexes[next++]);
+			}
+			out.writeByte(c.getCredits());
+			out.writeShort(c.getStartTime());
+			out.writeShort(c.getEndTime());
+		}
+		out.flush();
+
+		CRC32 checksum = new CRC32();
+		checksum.update(bytes.toByteArray(), 0, bytes.size());
+		out.writeLong(checksum.getValue());
+
+		try (AtomicFileOutput fileOut = new AtomicFileOutput(snapshot.toPath())) {
+			bytes.writeTo(fileOut.getStream());
+			fileOut.commit();
+		}
+	}
+
+	/**
+	 * Reads the courses in a snapshot of the source file. Returns null if the
+	 * snapshot does not exist, was made by a different version, was made from a
+	 * different version of the source file, or is corrupt.
+	 *
+	 * @param snapshot the snapshot file to read
+	 * @param source   the course records file the snapshot should have been made
+	 *                 from
+	 * @return the courses in the snapshot, or null if the snapshot cannot be used
+	 * @throws IOException if the snapshot exists but cannot be read
+	 */
+	static ArrayList<Course> read(File snapshot, File source) throws IOException {
+		if (!snapshot.isFile()) {
+			return null;
+		}
+		byte[] bytes = Files.readAllBytes(snapshot.toPath());
+		if (bytes.length < CHECKSUM_LENGTH) {
+			return null;
+		}
+		int length = bytes.length - CHECKSUM_LENGTH;
+		CRC32 checksum = new CRC32();
+		checksum.update(bytes, 0, length);
+
+		if (ByteBuffer.wrap(bytes).getLong(length) != checksum.getValue()) {
+			return null;
+		}
+
+		DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes, 0, length));
+		try {
+			if (in.readInt() != MAGIC || in.readInt() != VERSION || in.readLong() != source.length()
+					|| in.readLong() != source.lastModified()) {
+				return null;
+			}
+			String[] strings = new String[in.readInt()];
+			for (int i = 0; i < strings.length; i++) {
+				strings[i] = in.readUTF();
+			}
+			int size = in.readInt();
+			ArrayList<Course> courses = new ArrayList<Course>(size);
+			for (int i = 0; i < size; i++) {
+				String name = strings[in.readInt()];
+				String title = strings[in.readInt()];
+				String section = strings[in.readInt()];
+				String instructorId = strings[in.readInt()];
+				String meetingDays = strings[in.readInt()];
+				int credits = in.readByte();
+				int startTime = in.readShort();
+				int endTime = in.readShort();
+				courses.add(new Course(name, title, section, credits, instructorId, meetingDays, startTime, endTime));
+			}
+			return courses;
+		} catch (IOException | RuntimeException e) {
+			// a snapshot that passed the checksum but cannot be read is corrupt
+			return null;
+		}
+	}
+
+	/**
+	 * Returns the index of the String in the string table, adding it to the table
+	 * if it is not there yet.
+	 *
+	 * @param s             the String to find
+	 * @param stringIndexes index of each String in the table
+	 * @param strings       the string table
+	 * @return the index of the String in the table
+	 */
+	private static int indexOf(String s, HashMap<String, Integer> stringIndexes, ArrayList<String> strings) {
+		Integer index = stringIndexes.get(s);
+		if (index == null) {
+			index = strings.size();
+			stringIndexes.put(s, index);
+			strings.add(s);
+		}
+		return index;
+	}
+}
@@ -0,0 +1,220 @@
+package edu.ncsu.csc216.wolf_scheduler.io;
+
+import java.io.Closeable;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Scanner;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Course;
+
+/**
+ * Watches a course records file and finds what changed each time the file is
+ * republished. The watcher remembers the Course parsed from every line of the
+ * last version, so when the file is read again only the lines that changed are
+ * parsed. The courses of the new version are compared to the old by name and
+ * section, and the changes are given as a CourseCatalogDiff that can be applied
+ * to a catalog without reading it again.
+ *
+ * @author Sanjana Cheerla
+ */
+public class CourseCatalogWatcher implements Closeable {
+
+	/** Milliseconds the file must go without changing before it is read */
+	private static final long SETTLE_MILLIS = 100;
+
+	/** The file being watched */
+	private final Path file;
+
+	/** The course parsed from each valid line of the last version */
+	private HashMap<String, Course> lineCourses = new HashMap<String, Course>();
+
+	/** The courses of the last version by key, in file order */
+	private LinkedHashMap<String, Course> courses = new LinkedHashMap<String, Course>();
+
+	/** Number of lines parsed by the last reload */
+	private int linesParsed;
+
+	/** Service that tells the watcher the file changed, or null if not started */
+	private WatchService watchService;
+
+	/**
+	 * Constructs a CourseCatalogWatcher for the file and reads the current version
+	 * of the file.
+	 *
+	 * @param fileName The course records file to watch
+	 * @throws FileNotFoundException If the file can't be found or read
+	 */
+	public CourseCatalogWatcher(String fileName) throws FileNotFoundException {
+		this.file = Paths.get(fileName).toAbsolutePath();
+		reload();
+	}
+
+	/**
+	 * Returns the courses of the last version of the file read.
+	 *
+	 * @return the courses in the file
+	 */
+	public synchronized ArrayList<Course> getCourses() {
+		return new ArrayList<Course>(courses.values());
+	}
+
+	/**
+	 * Returns the number of lines that were parsed the last time the file was
+	 * read. Lines that did not change since the version before are not parsed.
+	 *
+	 * @return the number of lines parsed
+	 */
+	public synchronized int getLinesParsed() {
+		return linesParsed;
+	}
+
+	/**
+	 * Reads the file again and returns what changed since it was last read.
+	 *
+	 * @return the changes to the courses in the file
+	 * @throws FileNotFoundException If the file can't be found or read
+	 */
+	public synchronized CourseCatalogDiff reload() throws FileNotFoundException {
+		HashMap<String, Course> newLineCourses = new HashMap<String, Course>();
+		CourseCatalogBuilder catalog = new CourseCatalogBuilder(null);
+		CourseRecordParser parser = new CourseRecordParser();
+		int parsed = 0;
+		Scanner fileReader = new Scanner(CourseRecordIO.openCourseRecords(file.toString()));
+		while (fileReader.hasNextLine()) {
+			String line = fileReader.nextLine();
+			Course course = lineCourses.get(line);
+			if (course == null) {
+				course = parser.parse(line, 0, line.length());
+				parsed++;
+			}
+			if (course != null) {
+				newLineCourses.put(line, course);
+				catalog.add(course);
+			}
+		}
+		CourseRecordIO.closeScanner(fileReader);
+
+		LinkedHashMap<String, Course> newCourses = new LinkedHashMap<String, Course>();
+		ArrayList<Course> added = new ArrayList<Course>();
+		ArrayList<Course> modified = new ArrayList<Course>();
+		for (Course course : catalog.getCourses()) {
+			String key = CourseRecordIO.getCourseKey(course.getName(), course.getSection());
+			newCourses.put(key, course);
+			Course old = courses.get(key);
+			if (old == null) {
+				added.add(course);
+			} else if (old != course && !old.equals(course)) {
+				modified.add(course);
+			}
+		}
+		ArrayList<Course> removed = new ArrayList<Course>();
+		for (String key : courses.keySet()) {
+			if (!newCourses.containsKey(key)) {
+				removed.add(courses.get(key));
+			}
+		}
+
+		lineCourses = newLineCourses;
+		courses = newCourses;
+		linesParsed = parsed;
+		return new CourseCatalogDiff(added, removed, modified);
+	}
+
+	/**
+	 * Starts watching the file on a background thread. Each time the file changes
+	 * and then goes without changing for a moment, it is read again and the
+	 * listener is given the changes, if there are any, on the background thread.
+	 * If the file can't be read, for example while it is being replaced, it is
+	 * read again the next time it changes.
+	 *
+	 * @param listener The listener given the changes to the file
+	 * @throws IOException If the directory of the file can't be watched
+	 * @throws IllegalStateException If the watcher has already been started
+	 */
+	public synchronized void start(Consumer<CourseCatalogDiff> listener) throws IOException {
+		if (watchService != null) {
+			throw new IllegalStateException("The watcher has already been started.");
+		}
+		WatchService service = file.getFileSystem().newWatchService();
+		file.getParent().register(service, StandardWatchEventKinds.ENTRY_CREATE,
+				StandardWatchEventKinds.ENTRY_MODIFY);
+		watchService = service;
+		Thread watcher = new Thread(() -> watch(service, listener), "WolfScheduler catalog watcher");
+		watcher.setDaemon(true);
+		watcher.start();
+	}
+
+	/**
+	 * Stops watching the file.
+	 *
+	 * @throws IOException If the watch service can't be closed
+	 */
+	@Override
+	public synchronized void close() throws IOException {
+		if (watchService != null) {
+			watchService.close();
+		}
+	}
+
+	/**
+	 * Waits for the file to change and gives the changes to the listener until the
+	 * watch service is closed.
+	 *
+	 * @param service  The watch service for the directory of the file
+	 * @param listener The listener given the changes to the file
+	 */
+	private void watch(WatchService service, Consumer<CourseCatalogDiff> listener) {
+		try {
+			while (true) {
+				if (!isFileChanged(service.take())) {
+					continue;
+				}
+				// Wait for the writer to finish before reading the file
+				WatchKey key;
+				while ((key = service.poll(SETTLE_MILLIS, TimeUnit.MILLISECONDS)) != null) {
+					isFileChanged(key);
+				}
+				try {
+					CourseCatalogDiff diff = reload();
+					if (!diff.isEmpty()) {
+						listener.accept(diff);
+					}
+				} catch (FileNotFoundException e) {
+					// read it the next time it changes
+				}
+			}
+		} catch (ClosedWatchServiceException | InterruptedException e) {
+			// stop watching
+		}
+	}
+
+	/**
+	 * Returns true if any of the events of the key are for the file, and resets
+	 * the key so it is given more events.
+	 *
+	 * @param key The key with the events for the directory of the file
+	 * @return true if the file changed
+	 */
+	private boolean isFileChanged(WatchKey key) {
+		boolean changed = false;
+		for (WatchEvent<?> event : key.pollEvents()) {
+			if (event.kind() == StandardWatchEventKinds.OVERFLOW || file.getFileName().equals(event.context())) {
+				changed = true;
+			}
+		}
+		key.reset();
+		return changed;
+	}
+}
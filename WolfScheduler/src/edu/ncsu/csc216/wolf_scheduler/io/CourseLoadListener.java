@@ -0,0 +1,28 @@
+package edu.ncsu.csc216.wolf_scheduler.io;
+
+import java.util.List;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Course;
+
+/**
+ * Listener told about the progress of loading a course records file. The
+ * listener is told after every batch of lines is read, and once more when the
+ * whole file has been read, so the courses can be shown before the load
+ * finishes. For a catalog split into shards, it is told each time a shard has
+ * been read. It is called on the thread doing the load.
+ * 
+ * @author Sanjana Cheerla
+ */
+public interface CourseLoadListener {
+
+	/**
+	 * Called after a batch of lines has been read from the file.
+	 * 
+	 * @param batch       the courses added to the catalog since the last call,
+	 *                    in file order. The list belongs to the listener.
+	 * @param recordsRead the number of lines read so far
+	 * @param bytesRead   the number of bytes read from the file so far
+	 * @param totalBytes  the size of the file in bytes, or 0 if it is not known
+	 */
+	void coursesLoaded(List<Course> batch, int recordsRead, long bytesRead, long totalBytes);
+}
@@ -0,0 +1,50 @@
+package edu.ncsu.csc216.wolf_scheduler.io;
+
+import java.util.ArrayList;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Course;
+
+/**
+ * The result of loading a course records file: the valid courses in the file
+ * and a rejection for every line that was not added to the catalog, both in
+ * file order.
+ * 
+ * @author Sanjana Cheerla
+ */
+public class CourseLoadResult {
+
+	/** The valid courses in the file */
+	private final ArrayList<Course> courses;
+
+	/** The lines that were not added to the catalog */
+	private final ArrayList<CourseRecordRejection> rejections;
+
+	/**
+	 * Constructs a CourseLoadResult.
+	 * 
+	 * @param courses    the valid courses in the file
+	 * @param rejections the lines that were not added to the catalog
+	 */
+	public CourseLoadResult(ArrayList<Course> courses, ArrayList<CourseRecordRejection> rejections) {
+		this.courses = courses;
+		this.rejections = rejections;
+	}
+
+	/**
+	 * Returns the valid courses in the file in file order.
+	 * 
+	 * @return the valid courses in the file
+	 */
+	public ArrayList<Course> getCourses() {
+		return courses;
+	}
+
+	/**
+	 * Returns the lines that were not added to the catalog in file order.
+	 * 
+	 * @return the rejected lines
+	 */
+	public ArrayList<CourseRecordRejection> getRejections() {
+		return rejections;
+	}
+}
@@ -1,10 +1,33 @@
 package edu.ncsu.csc216.wolf_scheduler.io;
 
+import java.io.BufferedInputStream;
+import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.NoSuchElementException;
 import java.util.Scanner;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import java.util.zip.GZIPInputStream;
 
 import edu.ncsu.csc216.wolf_scheduler.course.Course;
 
@@ -18,6 +41,13 @@ import edu.ncsu.csc216.wolf_scheduler.course.Course;
  * @author Sanjana Cheerla
  */
 public class CourseRecordIO {
+
+	/** Size of the buffers used to read files */
+	private static final int BUFFER_SIZE = 1 << 16;
+
+	/** Number of lines read between reports to a CourseLoadListener */
+	private static final int PROGRESS_LINES = 1024;
+
 	/**
 	 * Generates an ArrayList of the course records read from the file. If there are
 	 * any invalid courses in the file, they are ignored. If the file can't be found
@@ -32,77 +62,634 @@ public class CourseRecordIO {
 	 * @throws FileNotFoundException If the file can't be found or read
 	 */
 	public static ArrayList<Course> readCourseRecords(String fileName) throws FileNotFoundException {
-		Scanner fileReader = new Scanner(new FileInputStream(fileName));
-		ArrayList<Course> courses = new ArrayList<Course>();
+		return readCourseRecords(fileName, null);
+	}
+
+	/**
+	 * Generates an ArrayList of the course records read from the file. Invalid
+	 * courses are ignored. If a course has the same name and section as a course
+	 * already read, the first one read is kept and the line of the later one is
+	 * added to the given duplicates list so the file can be audited.
+	 * 
+	 * @param fileName   The file to read Course records from
+	 * @param duplicates list that the lines dropped as duplicates are added to, in
+	 *                   file order. May be null if the lines are not needed.
+	 * @return an ArrayList of the valid Courses from the file provided
+	 * @throws FileNotFoundException If the file can't be found or read
+	 */
+	public static ArrayList<Course> readCourseRecords(String fileName, ArrayList<String> duplicates)
+			throws FileNotFoundException {
+		CourseCatalogBuilder catalog = new CourseCatalogBuilder(duplicates);
+		readLines(fileName, catalog);
+		return catalog.getCourses();
+	}
+
+	/**
+	 * Loads the course records in the file and reports every line that was not
+	 * added to the catalog. Invalid lines are found without throwing exceptions,
+	 * and each one is reported with its line number, the field that made it
+	 * invalid, and the reason. Lines dropped because an earlier course has the
+	 * same name and section are reported as duplicates.
+	 * 
+	 * @param fileName The file to read Course records from
+	 * @return the valid Courses from the file and the rejected lines
+	 * @throws FileNotFoundException If the file can't be found or read
+	 */
+	public static CourseLoadResult loadCourseRecords(String fileName) throws FileNotFoundException {
+		ArrayList<CourseRecordRejection> rejections = new ArrayList<CourseRecordRejection>();
+		CourseCatalogBuilder catalog = new CourseCatalogBuilder(null, rejections);
+		readLines(fileName, catalog);
+		return new CourseLoadResult(catalog.getCourses(), rejections);
+	}
+
+	/**
+	 * Generates an ArrayList of the course records read from the file the same way
+	 * as readCourseRecords(fileName), and tells the listener about the progress
+	 * of the load as it goes. The listener is given the courses read after every
+	 * batch of lines, with the number of lines and bytes read so far, and is told
+	 * one last time once the whole file has been read.
+	 * 
+	 * @param fileName The file to read Course records from
+	 * @param listener The listener told about the progress of the load
+	 * @return an ArrayList of the valid Courses from the file provided
+	 * @throws FileNotFoundException If the file can't be found or read
+	 */
+	public static ArrayList<Course> readCourseRecordsWithProgress(String fileName, CourseLoadListener listener)
+			throws FileNotFoundException {
+		CourseCatalogBuilder catalog = new CourseCatalogBuilder(null);
+		long totalBytes = new File(fileName).length();
+		CountingInputStream file = new CountingInputStream(new FileInputStream(fileName));
+		Scanner fileReader = new Scanner(openCourseRecords(file, fileName));
+		int reported = 0;
 		while (fileReader.hasNextLine()) {
+			String line = fileReader.nextLine();
+			catalog.addLine(line, 0, line.length());
+			if (catalog.getLineCount() % PROGRESS_LINES == 0) {
+				reported = reportProgress(listener, catalog, reported, file.getCount(), totalBytes);
+			}
+		}
+		closeScanner(fileReader);
+		reportProgress(listener, catalog, reported, file.getCount(), totalBytes);
+		return catalog.getCourses();
+	}
+
+	/**
+	 * Generates an ArrayList of the course records in a catalog that is split into
+	 * several files, called shards. The path is either a directory, in which case
+	 * every file in it is a shard, or a glob such as "catalog/*.txt" in the file
+	 * name part of the path. The shards are read concurrently and merged in order
+	 * of their file names, so when two shards have a course with the same name
+	 * and section, the one from the shard whose name sorts first is kept.
+	 * 
+	 * @param path The directory or glob of the shards to read
+	 * @return an ArrayList of the valid Courses from the shards
+	 * @throws FileNotFoundException If no shards are found, or a shard can't be
+	 *                               read
+	 */
+	public static ArrayList<Course> readCourseShards(String path) throws FileNotFoundException {
+		return readCourseShards(path, Comparator.naturalOrder());
+	}
+
+	/**
+	 * Generates an ArrayList of the course records in a catalog that is split into
+	 * several shards, the same way as readCourseShards(path), but the shards are
+	 * merged in the given order. When two shards have a course with the same name
+	 * and section, the one from the shard that comes first in the order is kept.
+	 * 
+	 * @param path       The directory or glob of the shards to read
+	 * @param precedence The order the shards take precedence in
+	 * @return an ArrayList of the valid Courses from the shards
+	 * @throws FileNotFoundException If no shards are found, or a shard can't be
+	 *                               read
+	 */
+	public static ArrayList<Course> readCourseShards(String path, Comparator<Path> precedence)
+			throws FileNotFoundException {
+		return new ShardedCourseRecordReader(path, precedence).read(ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Generates an ArrayList of the course records in a catalog that is split into
+	 * shards the same way as readCourseShards(path), and tells the listener each
+	 * time a shard has been read. The listener is given the lines and bytes of the
+	 * shards read so far, out of the bytes of all the shards. A shard's courses
+	 * are given to the listener once every shard before it has been read, so the
+	 * batches are in catalog order, and a batch is empty when a shard is read
+	 * before the ones that come first. The listener is called on the calling
+	 * thread.
+	 * 
+	 * @param path     The directory or glob of the shards to read
+	 * @param listener The listener told as each shard is read
+	 * @return an ArrayList of the valid Courses from the shards
+	 * @throws FileNotFoundException If no shards are found, or a shard can't be
+	 *                               read
+	 */
+	public static ArrayList<Course> readCourseShardsWithProgress(String path, CourseLoadListener listener)
+			throws FileNotFoundException {
+		return new ShardedCourseRecordReader(path, Comparator.naturalOrder()).read(ForkJoinPool.commonPool(),
+				listener);
+	}
+
+	/**
+	 * Returns true if the path is a directory or a glob of course record shards
+	 * that should be read with readCourseShards() instead of readCourseRecords().
+	 * 
+	 * @param path The path to check
+	 * @return true if the path names shards
+	 */
+	public static boolean isShardPath(String path) {
+		return ShardedCourseRecordReader.isShardPath(path);
+	}
+
+	/**
+	 * Generates an ArrayList of the course records read from the file by mapping
+	 * the file into memory and reading the records straight from the mapped
+	 * bytes. This avoids copying the file through a stream and creating a String
+	 * for every line, so it is meant for very large files. The courses returned
+	 * are the same as the ones returned by readCourseRecords(). A gzip compressed
+	 * file can't be mapped, so it is decompressed as it is read instead.
+	 * 
+	 * @param fileName The file to read Course records from
+	 * @return an ArrayList of the valid Courses from the file provided
+	 * @throws IOException If the file can't be found or read
+	 */
+	public static ArrayList<Course> readCourseRecordsMapped(String fileName) throws IOException {
+		CourseCatalogBuilder catalog = new CourseCatalogBuilder(null);
+		FileChannel channel = FileChannel.open(Paths.get(fileName), StandardOpenOption.READ);
+		try {
+			if (isGzip(channel)) {
+				readLines(fileName, catalog);
+			} else {
+				new MappedCourseRecordReader(Charset.defaultCharset()).read(channel, 0, channel.size(), catalog);
+			}
+		} finally {
+			channel.close();
+		}
+		return catalog.getCourses();
+	}
+
+	/**
+	 * Generates an ArrayList of the course records read from the file by reading
+	 * the file in parallel. The file is split into chunks of about chunkSize bytes
+	 * that end on line boundaries, the chunks are read on the common ForkJoinPool,
+	 * and their courses are merged in file order. The courses returned are the
+	 * same as the ones returned by readCourseRecords(), including which course is
+	 * kept when two have the same name and section. A gzip compressed file can't
+	 * be split into chunks, so it is read by a single thread instead.
+	 * 
+	 * @param fileName  The file to read Course records from
+	 * @param chunkSize The number of bytes in each chunk of the file
+	 * @return an ArrayList of the valid Courses from the file provided
+	 * @throws IOException              If the file can't be found or read
+	 * @throws IllegalArgumentException If chunkSize is less than 1
+	 */
+	public static ArrayList<Course> readCourseRecords(String fileName, long chunkSize) throws IOException {
+		if (chunkSize < 1) {
+			throw new IllegalArgumentException("Invalid chunk size.");
+		}
+		FileChannel channel = FileChannel.open(Paths.get(fileName), StandardOpenOption.READ);
+		try {
+			if (isGzip(channel)) {
+				return readCourseRecords(fileName);
+			}
+			return new ParallelCourseRecordReader(channel, Charset.defaultCharset()).read(chunkSize,
+					ForkJoinPool.commonPool());
+		} finally {
+			channel.close();
+		}
+	}
+
+	/**
+	 * Returns a Stream of the course records in the file that reads the file
+	 * lazily as the stream is used, so the whole catalog is never held in memory.
+	 * The stream has the same courses in the same order as readCourseRecords():
+	 * invalid courses are skipped and only the first course with each name and
+	 * section is kept. Only the keys of the courses passed are kept to find the
+	 * duplicates, so each course can be dropped once it is used. The stream can be
+	 * made parallel, in which case the courses are handed to other threads in
+	 * batches. The file is still read and its duplicates removed on one thread in
+	 * file order, so a parallel stream has the same courses as a sequential one.
+	 * The file is closed when the stream has been traversed or is closed, so
+	 * streams that are not fully traversed should be closed with
+	 * try-with-resources. A gzip compressed file is decompressed as it is read. An
+	 * error reading the file while the stream is used, such as a compressed file
+	 * that was cut short, is thrown as an UncheckedIOException.
+	 * 
+	 * @param fileName The file to read Course records from
+	 * @return a Stream of the valid Courses from the file provided
+	 * @throws IOException If the file can't be found or read
+	 */
+	public static Stream<Course> streamCourseRecords(String fileName) throws IOException {
+		FileChannel channel = FileChannel.open(Paths.get(fileName), StandardOpenOption.READ);
+		Spliterator<Course> courses;
+		try {
+			if (isGzip(channel)) {
+				channel.close();
+				Scanner fileReader = new Scanner(openCourseRecords(fileName));
+				courses = Spliterators.spliteratorUnknownSize(new CourseLineIterator(fileReader),
+						Spliterator.ORDERED | Spliterator.NONNULL);
+				return StreamSupport.stream(new FirstOfEachKeySpliterator(courses), false)
+						.onClose(fileReader::close);
+			}
+			courses = new CourseRecordSpliterator(channel, Charset.defaultCharset());
+		} catch (IOException e) {
+			channel.close();
+			throw e;
+		}
+		return StreamSupport.stream(new FirstOfEachKeySpliterator(courses), false).onClose(() -> {
 			try {
-				Course course = readCourse(fileReader.nextLine());
-				boolean duplicate = false;
-				for (int i = 0; i < courses.size(); i++) {
-					Course c = courses.get(i);
-					if (course.getName().equals(c.getName()) && course.getSection().equals(c.getSection())) {
-						// it's a duplicate
-						duplicate = true;
-					}
-				}
-				if (!duplicate) {
-					courses.add(course);
-				}
-			} catch (IllegalArgumentException e) {
-				// skip the line
+				channel.close();
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		});
+	}
+
+	/**
+	 * Generates an ArrayList of the course records in the file, using a binary
+	 * snapshot of the catalog to skip reading the file when possible. If the
+	 * snapshot file holds a valid snapshot of the current version of the course
+	 * records file, the courses are read from the snapshot. Otherwise the course
+	 * records file is read and a new snapshot is written for next time. A
+	 * snapshot that cannot be written is not an error since the courses have
+	 * already been read.
+	 * 
+	 * @param fileName     The file to read Course records from
+	 * @param snapshotName The file holding the snapshot of the catalog
+	 * @return an ArrayList of the valid Courses from the file provided
+	 * @throws FileNotFoundException If the file can't be found or read
+	 */
+	public static ArrayList<Course> readCourseRecordsWithSnapshot(String fileName, String snapshotName)
+			throws FileNotFoundException {
+		File source = new File(fileName);
+		File snapshot = new File(snapshotName);
+		try {
+			ArrayList<Course> courses = CourseCatalogSnapshot.read(snapshot, source);
+			if (courses != null) {
+				return courses;
 			}
+		} catch (IOException e) {
+			// read the course records file instead
+		}
+
+		ArrayList<Course> courses = readCourseRecords(fileName);
+		try {
+			CourseCatalogSnapshot.write(snapshot, source, courses);
+		} catch (IOException e) {
+			// the snapshot is rebuilt next time
 		}
-		fileReader.close();
 		return courses;
 	}
 
 	/**
-	 * Processes a line from the file and returns a constructed Course object from
-	 * it.
+	 * Writes a binary snapshot of the courses read from the given course records
+	 * file. The snapshot holds a table of the Strings in the catalog, a fixed
+	 * width record for each course, the size and last modified time of the course
+	 * records file, and a checksum.
 	 * 
-	 * @param line The line that is being processed
-	 * @return Course Course gets constructed from the input parameter line
-	 * @throws IllegalArgumentException If there are more characters than "A" and if
-	 *                                  "A" exists in the line, and if the course is
-	 *                                  in an invalid format. If Course is in an
-	 *                                  invalid format.
+	 * @param snapshotName The file to write the snapshot to
+	 * @param fileName     The course records file the courses were read from
+	 * @param courses      The courses to write
+	 * @throws IOException If the snapshot can't be written
 	 */
-	private static Course readCourse(String line) {
+	public static void writeCourseSnapshot(String snapshotName, String fileName, ArrayList<Course> courses)
+			throws IOException {
+		CourseCatalogSnapshot.write(new File(snapshotName), new File(fileName), courses);
+	}
 
-		Scanner lineScanner = new Scanner(line);
-		lineScanner.useDelimiter(",");
+	/**
+	 * Reads the courses in a binary snapshot of the given course records file.
+	 * Returns null if the snapshot doesn't exist, is corrupt, or was made from a
+	 * different version of the course records file or by a different version of
+	 * WolfScheduler.
+	 * 
+	 * @param snapshotName The file to read the snapshot from
+	 * @param fileName     The course records file the snapshot was made from
+	 * @return an ArrayList of the Courses in the snapshot, or null if the snapshot
+	 *         can't be used
+	 * @throws IOException If the snapshot exists but can't be read
+	 */
+	public static ArrayList<Course> readCourseSnapshot(String snapshotName, String fileName) throws IOException {
+		return CourseCatalogSnapshot.read(new File(snapshotName), new File(fileName));
+	}
+
+	/**
+	 * Reads every line of the file and adds it to the catalog.
+	 * 
+	 * @param fileName The file to read Course records from
+	 * @param catalog  The catalog the lines are added to
+	 * @throws FileNotFoundException If the file can't be found or read
+	 */
+	static void readLines(String fileName, CourseCatalogBuilder catalog) throws FileNotFoundException {
+		Scanner fileReader = new Scanner(openCourseRecords(fileName));
+		while (fileReader.hasNextLine()) {
+			String line = fileReader.nextLine();
+			catalog.addLine(line, 0, line.length());
+		}
+		closeScanner(fileReader);
+	}
+
+	/**
+	 * Closes a Scanner that has read all of its lines, and throws the error that
+	 * stopped it if it stopped early. A Scanner takes an error reading its input
+	 * as the end of the input, so a gzip compressed file that was cut short or is
+	 * corrupt would otherwise be read as if it were a shorter file.
+	 * 
+	 * @param fileReader The Scanner to close
+	 * @throws FileNotFoundException If the Scanner could not read all of its input
+	 */
+	static void closeScanner(Scanner fileReader) throws FileNotFoundException {
+		IOException error = fileReader.ioException();
+		fileReader.close();
+		if (error != null) {
+			FileNotFoundException notRead = new FileNotFoundException("The file could not be read.");
+			notRead.initCause(error);
+			throw notRead;
+		}
+	}
+
+	/**
+	 * Opens the file for reading. If the file starts with the gzip magic number,
+	 * the stream returned decompresses the file as it is read.
+	 * 
+	 * @param fileName The file to open
+	 * @return a stream of the contents of the file
+	 * @throws FileNotFoundException If the file can't be found or read
+	 */
+	static InputStream openCourseRecords(String fileName) throws FileNotFoundException {
+		return openCourseRecords(new FileInputStream(fileName), fileName);
+	}
 
+	/**
+	 * Opens the stream of a file for reading. If the file starts with the gzip
+	 * magic number, the stream returned decompresses the file as it is read.
+	 * 
+	 * @param file     The stream of the file's bytes
+	 * @param fileName The name of the file
+	 * @return a stream of the contents of the file
+	 * @throws FileNotFoundException If the file can't be read
+	 */
+	private static InputStream openCourseRecords(InputStream file, String fileName) throws FileNotFoundException {
+		InputStream in = new BufferedInputStream(file, BUFFER_SIZE);
 		try {
-			String name = lineScanner.next();
-			String title = lineScanner.next();
-			String section = lineScanner.next();
-			int credits = lineScanner.nextInt();
-			String instructorId = lineScanner.next();
-			String meetingDays = lineScanner.next();
-			int startTime = 0;
-			int endTime = 0;
-
-			if (meetingDays.equals("A")) {
-				if (lineScanner.hasNext()) {
-					lineScanner.close();
-					throw new IllegalArgumentException();
+			in.mark(2);
+			int magic = in.read() | (in.read() << 8);
+			in.reset();
+			if (magic == GZIPInputStream.GZIP_MAGIC) {
+				return new GZIPInputStream(in, BUFFER_SIZE);
+			}
+			return in;
+		} catch (IOException e) {
+			try {
+				in.close();
+			} catch (IOException closeException) {
+				// already failed
+			}
+			throw new FileNotFoundException("Cannot read " + fileName);
+		}
+	}
+
+	/**
+	 * Tells the listener about the courses added to the catalog since the last
+	 * report.
+	 * 
+	 * @param listener   The listener to tell
+	 * @param catalog    The catalog being built
+	 * @param reported   The number of courses already given to the listener
+	 * @param bytesRead  The number of bytes read from the file so far
+	 * @param totalBytes The size of the file
+	 * @return the number of courses given to the listener, including this batch
+	 */
+	private static int reportProgress(CourseLoadListener listener, CourseCatalogBuilder catalog, int reported,
+			long bytesRead, long totalBytes) {
+		ArrayList<Course> courses = catalog.getCourses();
+		listener.coursesLoaded(new ArrayList<Course>(courses.subList(reported, courses.size())),
+				catalog.getLineCount(), bytesRead, totalBytes);
+		return courses.size();
+	}
+
+	/**
+	 * Returns true if the file of the channel starts with the gzip magic number.
+	 * 
+	 * @param channel The channel of the file to check
+	 * @return true if the file is gzip compressed
+	 * @throws IOException If the file can't be read
+	 */
+	static boolean isGzip(FileChannel channel) throws IOException {
+		ByteBuffer magic = ByteBuffer.allocate(2).order(ByteOrder.LITTLE_ENDIAN);
+		while (magic.hasRemaining() && channel.read(magic, magic.position()) > 0) {
+			// keep reading until both bytes are read
+		}
+		return !magic.hasRemaining() && (magic.getShort(0) & 0xffff) == GZIPInputStream.GZIP_MAGIC;
+	}
+
+	/**
+	 * Returns the key that identifies a course by its name and section. Two
+	 * courses with the same key are duplicates of each other in a catalog.
+	 * 
+	 * @param name    the name of the course
+	 * @param section the section of the course
+	 * @return the key for the name and section
+	 */
+	public static String getCourseKey(String name, String section) {
+		return name + "," + section;
+	}
+
+	/**
+	 * Stream that counts the bytes read from the stream it wraps.
+	 */
+	private static final class CountingInputStream extends FilterInputStream {
+
+		/** Number of bytes read so far */
+		private long count;
+
+		/**
+		 * Constructs a CountingInputStream that reads from the given stream.
+		 * 
+		 * @param in the stream to read from
+		 */
+		CountingInputStream(InputStream in) {
+			super(in);
+		}
+
+		/**
+		 * Reads a byte and counts it.
+		 * 
+		 * @return the byte read, or -1 at the end of the stream
+		 * @throws IOException if the stream can't be read
+		 */
+		@Override
+		public int read() throws IOException {
+			int b = in.read();
+			if (b >= 0) {
+				count++;
+			}
+			return b;
+		}
+
+		/**
+		 * Reads bytes into the array and counts them.
+		 * 
+		 * @param b   the array to read into
+		 * @param off the index of the first byte to read into
+		 * @param len the most bytes to read
+		 * @return the number of bytes read, or -1 at the end of the stream
+		 * @throws IOException if the stream can't be read
+		 */
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			int n = in.read(b, off, len);
+			if (n > 0) {
+				count += n;
+			}
+			return n;
+		}
+
+		/**
+		 * Skips bytes and counts them.
+		 * 
+		 * @param n the number of bytes to skip
+		 * @return the number of bytes skipped
+		 * @throws IOException if the stream can't be read
+		 */
+		@Override
+		public long skip(long n) throws IOException {
+			long skipped = in.skip(n);
+			count += skipped;
+			return skipped;
+		}
+
+		/**
+		 * Returns the number of bytes read so far.
+		 * 
+		 * @return the number of bytes read
+		 */
+		long getCount() {
+			return count;
+		}
+	}
+
+	/**
+	 * Iterator over the valid courses in the lines of a Scanner. Invalid lines are
+	 * skipped and the Scanner is closed after its last line is read. If the
+	 * Scanner stopped early because its input could not be read, an
+	 * UncheckedIOException is thrown instead of ending the courses.
+	 */
+	private static final class CourseLineIterator implements Iterator<Course> {
+
+		/** Scanner the lines are read from */
+		private final Scanner fileReader;
+
+		/** Parser for the lines */
+		private final CourseRecordParser parser = new CourseRecordParser();
+
+		/** The next course, or null if it has not been read yet */
+		private Course next;
+
+		/** True once the last line has been read and the Scanner is closed */
+		private boolean done;
+
+		/**
+		 * Constructs a CourseLineIterator over the lines of the Scanner.
+		 * 
+		 * @param fileReader the Scanner the lines are read from
+		 */
+		CourseLineIterator(Scanner fileReader) {
+			this.fileReader = fileReader;
+		}
+
+		/**
+		 * Returns true if there is another valid course in the lines.
+		 * 
+		 * @return true if there is another course
+		 */
+		@Override
+		public boolean hasNext() {
+			while (next == null && !done) {
+				if (fileReader.hasNextLine()) {
+					String line = fileReader.nextLine();
+					next = parser.parse(line, 0, line.length());
 				} else {
-					lineScanner.close();
-					Course c = new Course(name, title, section, credits, instructorId, meetingDays);
-					return c;
+					IOException error = fileReader.ioException();
+					fileReader.close();
+					done = true;
+					if (error != null) {
+						throw new UncheckedIOException(error);
+					}
 				}
 			}
+			return next != null;
+		}
+
+		/**
+		 * Returns the next valid course in the lines.
+		 * 
+		 * @return the next course
+		 * @throws NoSuchElementException if there are no more courses
+		 */
+		@Override
+		public Course next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			Course course = next;
+			next = null;
+			return course;
+		}
+	}
+
+	/**
+	 * Spliterator that passes only the first course with each name and section
+	 * from the courses of another spliterator. The courses are taken from the
+	 * other spliterator in order on one thread, and split off to other threads in
+	 * batches, so which course is kept never depends on the threads.
+	 */
+	private static final class FirstOfEachKeySpliterator extends Spliterators.AbstractSpliterator<Course> {
+
+		/** The courses the duplicates are removed from */
+		private final Spliterator<Course> courses;
+
+		/** Keys of the courses passed so far */
+		private final HashSet<String> keys = new HashSet<String>();
 
-			startTime = lineScanner.nextInt();
-			endTime = lineScanner.nextInt();
-			lineScanner.close();
-			Course c = new Course(name, title, section, credits, instructorId, meetingDays, startTime, endTime);
-			return c;
+		/** The course taken from the other spliterator last */
+		private Course taken;
+
+		/**
+		 * Constructs a FirstOfEachKeySpliterator over the courses.
+		 * 
+		 * @param courses the courses the duplicates are removed from
+		 */
+		FirstOfEachKeySpliterator(Spliterator<Course> courses) {
+			super(courses.estimateSize(), Spliterator.ORDERED | Spliterator.NONNULL);
+			this.courses = courses;
+		}
+
+		/**
+		 * Gives the next course whose name and section have not been passed yet to
+		 * the action.
+		 * 
+		 * @param action the action given the next course
+		 * @return false if there are no more courses
+		 */
+		@Override
+		public boolean tryAdvance(Consumer<? super Course> action) {
+			while (courses.tryAdvance(this::take)) {
+				if (keys.add(getCourseKey(taken.getName(), taken.getSection()))) {
+					action.accept(taken);
+					return true;
+				}
+			}
+			return false;
 		}
 
-		catch (NoSuchElementException e) {
-			throw new IllegalArgumentException();
+		/**
+		 * Holds the course taken from the other spliterator.
+		 * 
+		 * @param course the course taken
+		 */
+		private void take(Course course) {
+			taken = course;
 		}
 	}
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,496 @@
+package edu.ncsu.csc216.wolf_scheduler.io;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Course;
+
+/**
+ * Parses course record lines into Course objects without using exceptions to
+ * report invalid lines. Each field is checked against the same rules the
+ * Course and Activity setters use before the Course is constructed, so an
+ * invalid line is found without building an exception and its stack trace.
+ * When a line is invalid, the field that made it invalid and the reason are
+ * kept until the next line is parsed. A line can also be checked without
+ * creating any Strings or a Course for it. Fields can be quoted as in RFC
+ * 4180, so a title can hold commas. The text fields of the courses parsed
+ * by one parser are taken from a shared string pool, so the courses of a load
+ * share one String for each repeated title, instructor id, name, section and
+ * meeting days.
+ *
+ * @author Sanjana Cheerla
+ */
+final class CourseRecordParser {
+
+	/** Field name of a course's name */
+	static final String NAME = "name";
+
+	/** Field name of a course's title */
+	static final String TITLE = "title";
+
+	/** Field name of a course's section */
+	static final String SECTION = "section";
+
+	/** Field name of a course's credits */
+	static final String CREDITS = "credits";
+
+	/** Field name of a course's instructor id */
+	static final String INSTRUCTOR_ID = "instructorId";
+
+	/** Field name of a course's meeting days */
+	static final String MEETING_DAYS = "meetingDays";
+
+	/** Field name of a course's start time */
+	static final String START_TIME = "startTime";
+
+	/** Field name of a course's end time */
+	static final String END_TIME = "endTime";
+
+	/** Reason given for a field that is not in the line */
+	static final String MISSING = "missing";
+
+	/** Reason given for a quoted field that is not closed properly */
+	static final String INVALID_QUOTES = "has invalid quotes";
+
+	/** Minimum length of name */
+	private static final int MIN_NAME_LENGTH = 4;
+
+	/** Maximum length of name */
+	private static final int MAX_NAME_LENGTH = 6;
+
+	/** Length of a section number */
+	private static final int SECTION_LENGTH = 3;
+
+	/** Minimum credits for a course */
+	private static final int MIN_CREDITS = 1;
+
+	/** Max credits for a course */
+	private static final int MAX_CREDITS = 5;
+
+	/** Constant for accessing the hours and minutes of a time */
+	private static final int TIME_CONSTANT = 100;
+
+	/** Largest hour of a time */
+	private static final int MAX_HOUR = 23;
+
+	/** Largest minute of a time */
+	private static final int MAX_MINUTE = 59;
+
+	/** Index in ranges of the name field */
+	private static final int NAME_RANGE = 0;
+
+	/** Index in ranges of the title field */
+	private static final int TITLE_RANGE = 2;
+
+	/** Index in ranges of the section field */
+	private static final int SECTION_RANGE = 4;
+
+	/** Index in ranges of the instructor id field */
+	private static final int INSTRUCTOR_ID_RANGE = 6;
+
+	/** Index in ranges of the meeting days field */
+	private static final int MEETING_DAYS_RANGE = 8;
+
+	/** Starting value of the key hash, the 64 bit FNV offset basis */
+	private static final long HASH_BASIS = 0xcbf29ce484222325L;
+
+	/** Multiplier of the key hash, the 64 bit FNV prime */
+	private static final long HASH_PRIME = 0x100000001b3L;
+
+	/** Pool the text fields of the courses are taken from */
+	private final CourseStringPool pool = new CourseStringPool();
+
+	/** Tokenizer used to split the lines */
+	private final CourseRecordTokenizer tokenizer = new CourseRecordTokenizer(pool);
+
+	/** Start and end index of each text field of the last line checked */
+	private final int[] ranges = new int[MEETING_DAYS_RANGE + 2];
+
+	/** The characters holding the last line checked */
+	private CharSequence chars;
+
+	/** Bit of each text field's index in ranges, set if the field was unescaped */
+	private int copiedFields;
+
+	/** Credits of the last line checked */
+	private int credits;
+
+	/** Start time of the last line checked, or -1 if the course is arranged */
+	private int startTime;
+
+	/** End time of the last line checked */
+	private int endTime;
+
+	/** Field that made the last line parsed invalid */
+	private String field;
+
+	/** Reason the last line parsed is invalid */
+	private String reason;
+
+	/**
+	 * Parses the characters of the sequence between start and end as a course
+	 * record. If the line is invalid, null is returned and getField() and
+	 * getReason() say why.
+	 *
+	 * @param chars the characters holding the line
+	 * @param start index of the first character of the line
+	 * @param end   index after the last character of the line
+	 * @return the Course in the line, or null if the line is invalid
+	 */
+	Course parse(CharSequence chars, int start, int end) {
+		if (!check(chars, start, end)) {
+			return null;
+		}
+		String name = text(NAME_RANGE);
+		String title = text(TITLE_RANGE);
+		String section = text(SECTION_RANGE);
+		String instructorId = text(INSTRUCTOR_ID_RANGE);
+		String meetingDays = text(MEETING_DAYS_RANGE);
+		if (startTime < 0) {
+			return new Course(name, title, section, credits, instructorId, meetingDays);
+		}
+		return new Course(name, title, section, credits, instructorId, meetingDays, startTime, endTime);
+	}
+
+	/**
+	 * Checks whether the characters of the sequence between start and end are a
+	 * valid course record, without creating a String or Course for it. If the
+	 * line is invalid, getField() and getReason() say why. If it is valid,
+	 * getKeyHash() returns the hash of its name and section.
+	 *
+	 * @param chars the characters holding the line
+	 * @param start index of the first character of the line
+	 * @param end   index after the last character of the line
+	 * @return true if the line is a valid course record
+	 */
+	boolean check(CharSequence chars, int start, int end) {
+		tokenizer.reset(chars, start, end);
+		this.chars = chars;
+		this.copiedFields = 0;
+		field = null;
+		reason = null;
+
+		if (!nextText(NAME_RANGE)) {
+			return reject(NAME, invalid(MISSING));
+		}
+		int nameLength = length(NAME_RANGE);
+		if (nameLength < MIN_NAME_LENGTH || nameLength > MAX_NAME_LENGTH) {
+			return reject(NAME, "must be 4 to 6 characters");
+		}
+		if (!nextText(TITLE_RANGE)) {
+			return reject(TITLE, invalid(MISSING));
+		}
+		if (length(TITLE_RANGE) == 0) {
+			return reject(TITLE, "cannot be empty");
+		}
+		if (!nextText(SECTION_RANGE)) {
+			return reject(SECTION, invalid(MISSING));
+		}
+		if (!isSection()) {
+			return reject(SECTION, "must be 3 digits");
+		}
+		if (!tokenizer.hasNext()) {
+			return reject(CREDITS, MISSING);
+		}
+		if (!tokenizer.nextInt()) {
+			return reject(CREDITS, invalid("not an integer"));
+		}
+		credits = tokenizer.getInt();
+		if (credits < MIN_CREDITS || credits > MAX_CREDITS) {
+			return reject(CREDITS, "must be 1 to 5");
+		}
+		if (!nextText(INSTRUCTOR_ID_RANGE)) {
+			return reject(INSTRUCTOR_ID, invalid(MISSING));
+		}
+		if (length(INSTRUCTOR_ID_RANGE) == 0) {
+			return reject(INSTRUCTOR_ID, "cannot be empty");
+		}
+		if (!nextText(MEETING_DAYS_RANGE)) {
+			return reject(MEETING_DAYS, invalid(MISSING));
+		}
+		if (!isMeetingDays()) {
+			return reject(MEETING_DAYS, "must be \"A\" or a combination of \"MTWHF\"");
+		}
+
+		if (isArranged()) {
+			if (tokenizer.hasNext()) {
+				return reject(START_TIME, "arranged courses cannot have times");
+			}
+			startTime = -1;
+			return true;
+		}
+
+		if (!tokenizer.hasNext()) {
+			return reject(START_TIME, MISSING);
+		}
+		if (!tokenizer.nextInt()) {
+			return reject(START_TIME, invalid("not an integer"));
+		}
+		startTime = tokenizer.getInt();
+		if (!isTime(startTime)) {
+			return reject(START_TIME, "not a valid time");
+		}
+		if (!tokenizer.hasNext()) {
+			return reject(END_TIME, MISSING);
+		}
+		if (!tokenizer.nextInt()) {
+			return reject(END_TIME, invalid("not an integer"));
+		}
+		endTime = tokenizer.getInt();
+		if (!isTime(endTime)) {
+			return reject(END_TIME, "not a valid time");
+		}
+		if (endTime < startTime) {
+			return reject(END_TIME, "before the start time");
+		}
+		return true;
+	}
+
+	/**
+	 * Returns the name of the last line checked, which must have been valid.
+	 *
+	 * @return the name of the course
+	 */
+	String getName() {
+		return text(NAME_RANGE);
+	}
+
+	/**
+	 * Returns the section of the last line checked, which must have been valid.
+	 *
+	 * @return the section of the course
+	 */
+	String getSection() {
+		return text(SECTION_RANGE);
+	}
+
+	/**
+	 * Returns the meeting days of the last line checked, which must have been
+	 * valid.
+	 *
+	 * @return the meeting days of the course
+	 */
+	String getMeetingDays() {
+		return text(MEETING_DAYS_RANGE);
+	}
+
+	/**
+	 * Returns the start time of the last line checked, which must have been valid.
+	 * It is 0 if the course is arranged, as it is for the Course.
+	 *
+	 * @return the start time of the course
+	 */
+	int getStartTime() {
+		return startTime < 0 ? 0 : startTime;
+	}
+
+	/**
+	 * Returns the end time of the last line checked, which must have been valid.
+	 * It is 0 if the course is arranged, as it is for the Course.
+	 *
+	 * @return the end time of the course
+	 */
+	int getEndTime() {
+		return startTime < 0 ? 0 : endTime;
+	}
+
+	/**
+	 * Returns a 64 bit hash of the name and section of the last line checked,
+	 * which must have been valid. It is the same as hashKey() of the course's
+	 * name and section.
+	 *
+	 * @return the hash of the name and section
+	 */
+	long getKeyHash() {
+		long hash = hash(HASH_BASIS, field(NAME_RANGE), ranges[NAME_RANGE], ranges[NAME_RANGE + 1]);
+		return hash(hash, field(SECTION_RANGE), ranges[SECTION_RANGE], ranges[SECTION_RANGE + 1]);
+	}
+
+	/**
+	 * Returns a 64 bit hash of a course's name and section. Courses with the same
+	 * name and section have the same hash, and courses without almost never do.
+	 *
+	 * @param name    the name of the course
+	 * @param section the section of the course
+	 * @return the hash of the name and section
+	 */
+	static long hashKey(String name, String section) {
+		return hash(hash(HASH_BASIS, name, 0, name.length()), section, 0, section.length());
+	}
+
+	/**
+	 * Returns a 64 bit hash of a piece of text, made the same way as the hash of a
+	 * course's name and section.
+	 *
+	 * @param text the text to hash
+	 * @return the hash of the text
+	 */
+	static long hashText(String text) {
+		return hash(HASH_BASIS, text, 0, text.length());
+	}
+
+	/**
+	 * Returns the field that made the last line parsed invalid, or null if it was
+	 * valid.
+	 *
+	 * @return the field that made the last line invalid
+	 */
+	String getField() {
+		return field;
+	}
+
+	/**
+	 * Returns the reason the last line parsed is invalid, or null if it was valid.
+	 *
+	 * @return the reason the last line is invalid
+	 */
+	String getReason() {
+		return reason;
+	}
+
+	/**
+	 * Records why the line is invalid.
+	 *
+	 * @param invalidField the field that made the line invalid
+	 * @param why          the reason the field is invalid
+	 * @return false, since the line is invalid
+	 */
+	private boolean reject(String invalidField, String why) {
+		this.field = invalidField;
+		this.reason = why;
+		return false;
+	}
+
+	/**
+	 * Returns the reason a field is invalid, which is that the line has invalid
+	 * quotes if the tokenizer found any.
+	 *
+	 * @param why the reason the field is invalid if the quotes are valid
+	 * @return the reason the field is invalid
+	 */
+	private String invalid(String why) {
+		return tokenizer.isMalformed() ? INVALID_QUOTES : why;
+	}
+
+	/**
+	 * Moves past the next field of the line and records where it is.
+	 *
+	 * @param range the index in ranges of the field
+	 * @return true if there was another field in the line
+	 */
+	private boolean nextText(int range) {
+		if (!tokenizer.skip()) {
+			return false;
+		}
+		if (tokenizer.isCopied()) {
+			copiedFields |= 1 << range;
+		}
+		ranges[range] = tokenizer.getFieldStart();
+		ranges[range + 1] = tokenizer.getFieldEnd();
+		return true;
+	}
+
+	/**
+	 * Returns the number of characters in a field of the last line checked.
+	 *
+	 * @param range the index in ranges of the field
+	 * @return the length of the field
+	 */
+	private int length(int range) {
+		return ranges[range + 1] - ranges[range];
+	}
+
+	/**
+	 * Returns the characters holding a field of the last line checked, which are
+	 * the line unless the field had doubled quotes.
+	 *
+	 * @param range the index in ranges of the field
+	 * @return the characters holding the field
+	 */
+	private CharSequence field(int range) {
+		return (copiedFields & (1 << range)) == 0 ? chars : tokenizer.getUnescaped();
+	}
+
+	/**
+	 * Returns a field of the last line checked from the string pool.
+	 *
+	 * @param range the index in ranges of the field
+	 * @return the field
+	 */
+	private String text(int range) {
+		return pool.intern(field(range), ranges[range], ranges[range + 1]);
+	}
+
+	/**
+	 * Returns true if the section is 3 digits, as Course.setSection() requires.
+	 *
+	 * @return true if the section is valid
+	 */
+	private boolean isSection() {
+		CharSequence section = field(SECTION_RANGE);
+		int start = ranges[SECTION_RANGE];
+		return length(SECTION_RANGE) == SECTION_LENGTH && Character.isDigit(section.charAt(start))
+				&& Character.isDigit(section.charAt(start + 1)) && Character.isDigit(section.charAt(start + 2));
+	}
+
+	/**
+	 * Returns true if the meeting days are "A".
+	 *
+	 * @return true if the course is arranged
+	 */
+	private boolean isArranged() {
+		return length(MEETING_DAYS_RANGE) == 1 && field(MEETING_DAYS_RANGE).charAt(ranges[MEETING_DAYS_RANGE]) == 'A';
+	}
+
+	/**
+	 * Returns true if the meeting days are "A" or a combination of "MTWHF", as
+	 * Course.setMeetingDays() requires.
+	 *
+	 * @return true if the meeting days are valid
+	 */
+	private boolean isMeetingDays() {
+		if (length(MEETING_DAYS_RANGE) == 0) {
+			return false;
+		}
+		if (isArranged()) {
+			return true;
+		}
+		CharSequence meetingDays = field(MEETING_DAYS_RANGE);
+		for (int i = ranges[MEETING_DAYS_RANGE]; i < ranges[MEETING_DAYS_RANGE + 1]; i++) {
+			char c = meetingDays.charAt(i);
+			if (c != 'M' && c != 'T' && c != 'W' && c != 'H' && c != 'F') {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Returns true if the time has an hour from 0 to 23 and minutes from 0 to 59,
+	 * as Activity.setActivityTime() requires.
+	 *
+	 * @param time the time to check
+	 * @return true if the time is valid
+	 */
+	private static boolean isTime(int time) {
+		int hour = time / TIME_CONSTANT;
+		int minute = time % TIME_CONSTANT;
+		return hour >= 0 && hour <= MAX_HOUR && minute >= 0 && minute <= MAX_MINUTE;
+	}
+
+	/**
+	 * Adds the characters of the sequence between start and end, followed by a
+	 * separator, to a 64 bit FNV-1a hash.
+	 *
+	 * @param hash  the hash so far
+	 * @param chars the characters to add
+	 * @param start index of the first character to add
+	 * @param end   index after the last character to add
+	 * @return the new hash
+	 */
+	private static long hash(long hash, CharSequence chars, int start, int end) {
+		for (int i = start; i < end; i++) {
+			char c = chars.charAt(i);
+			hash = (hash ^ (c & 0xff)) * HASH_PRIME;
+			hash = (hash ^ (c >>> 8)) * HASH_PRIME;
+		}
+		return (hash ^ ',') * HASH_PRIME;
+	}
+}
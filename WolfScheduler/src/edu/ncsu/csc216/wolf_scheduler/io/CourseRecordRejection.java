@@ -0,0 +1,92 @@
+package edu.ncsu.csc216.wolf_scheduler.io;
+
+/**
+ * Describes a line of a course records file that was not added to the catalog.
+ * A rejection has the number of the line, the line itself, the field that made
+ * the line invalid, and the reason the field is invalid. Lines that are dropped
+ * because an earlier line has the same name and section are also rejections,
+ * with a reason of CourseRecordRejection.DUPLICATE.
+ * 
+ * @author Sanjana Cheerla
+ */
+public class CourseRecordRejection {
+
+	/** Reason given for a line dropped as a duplicate of an earlier course */
+	public static final String DUPLICATE = "duplicate name and section";
+
+	/** Number of the line in the file, starting at 1 */
+	private final int lineNumber;
+
+	/** The line that was rejected */
+	private final String line;
+
+	/** The field that made the line invalid */
+	private final String field;
+
+	/** The reason the field is invalid */
+	private final String reason;
+
+	/**
+	 * Constructs a CourseRecordRejection.
+	 * 
+	 * @param lineNumber number of the line in the file, starting at 1
+	 * @param line       the line that was rejected
+	 * @param field      the field that made the line invalid
+	 * @param reason     the reason the field is invalid
+	 */
+	public CourseRecordRejection(int lineNumber, String line, String field, String reason) {
+		this.lineNumber = lineNumber;
+		this.line = line;
+		this.field = field;
+		this.reason = reason;
+	}
+
+	/**
+	 * Returns the number of the line in the file, starting at 1.
+	 * 
+	 * @return the number of the line
+	 */
+	public int getLineNumber() {
+		return lineNumber;
+	}
+
+	/**
+	 * Returns the line that was rejected.
+	 * 
+	 * @return the line that was rejected
+	 */
+	public String getLine() {
+		return line;
+	}
+
+	/**
+	 * Returns the field that made the line invalid: one of "name", "title",
+	 * "section", "credits", "instructorId", "meetingDays", "startTime", or
+	 * "endTime".
+	 * 
+	 * @return the field that made the line invalid
+	 */
+	public String getField() {
+		return field;
+	}
+
+	/**
+	 * Returns the reason the field is invalid.
+	 * 
+	 * @return the reason the field is invalid
+	 */
+	public String getReason() {
+		return reason;
+	}
+
+	/**
+	 * Returns a String of the line number, field, and reason, such as
+	 * "line 3: section must be 3 digits".
+	 * 
+	 * @return String representation of the rejection
+	 */
+	@Override
+	public String toString() {
+		return "line " + lineNumber + ": " + field + " " + reason;
+	}
+}
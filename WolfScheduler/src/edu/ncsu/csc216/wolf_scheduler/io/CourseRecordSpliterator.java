@@ -0,0 +1,257 @@
+package edu.ncsu.csc216.wolf_scheduler.io;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Spliterator;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Course;
+
+/**
+ * Spliterator over the courses in a range of a course records file. Courses
+ * are read lazily a block of lines at a time, so only one block of the file is
+ * held in memory. The range splits in half on a line boundary, so a parallel
+ * stream reads different parts of the file on different threads. The file is
+ * closed once every spliterator split from the first one has been traversed.
+ * Each block is parsed with its own string pool, so the pooled text is dropped
+ * with the block and memory doesn't grow with the size of the file. Duplicate
+ * courses are only removed within a block, so duplicates across blocks must be
+ * removed by the stream.
+ *
+ * @author Sanjana Cheerla
+ */
+final class CourseRecordSpliterator implements Spliterator<Course> {
+
+	/** Number of bytes read from the file at a time */
+	private static final int BLOCK_SIZE = 1 << 20;
+
+	/** Estimate of the number of bytes in each course record */
+	private static final int RECORD_SIZE_ESTIMATE = 64;
+
+	/** Channel of the file being read */
+	private final FileChannel channel;
+
+	/** Charset of the file being read */
+	private final Charset charset;
+
+	/** Number of bytes read from the file at a time by this spliterator */
+	private final int blockSize;
+
+	/** Number of spliterators over the file that have not been traversed */
+	private final AtomicInteger open;
+
+	/** Position of the next byte to read */
+	private long position;
+
+	/** Position after the last byte to read */
+	private final long end;
+
+	/** True once this spliterator has been traversed */
+	private boolean traversed;
+
+	/** Reader for the blocks, created when the first block is read */
+	private MappedCourseRecordReader reader;
+
+	/** Buffer used to find line boundaries */
+	private ByteBuffer searchBuffer;
+
+	/** Courses read from the current block */
+	private ArrayList<Course> block = new ArrayList<Course>();
+
+	/** Index of the next course in the current block */
+	private int next;
+
+	/**
+	 * Constructs a CourseRecordSpliterator over the whole file of the channel.
+	 *
+	 * @param channel the channel of the file to read
+	 * @param charset the charset of the file
+	 * @throws IOException if the size of the file cannot be read
+	 */
+	CourseRecordSpliterator(FileChannel channel, Charset charset) throws IOException {
+		this(channel, charset, BLOCK_SIZE);
+	}
+
+	/**
+	 * Constructs a CourseRecordSpliterator over the whole file of the channel that
+	 * reads blocks of the given size.
+	 *
+	 * @param channel   the channel of the file to read
+	 * @param charset   the charset of the file
+	 * @param blockSize the number of bytes read from the file at a time
+	 * @throws IOException if the size of the file cannot be read
+	 */
+	CourseRecordSpliterator(FileChannel channel, Charset charset, int blockSize) throws IOException {
+		this(channel, charset, blockSize, new AtomicInteger(1), 0, channel.size());
+	}
+
+	/**
+	 * Constructs a CourseRecordSpliterator over part of the file of the channel.
+	 *
+	 * @param channel   the channel of the file to read
+	 * @param charset   the charset of the file
+	 * @param blockSize the number of bytes read from the file at a time
+	 * @param open      number of spliterators over the file that have not been
+	 *                  traversed, including this one
+	 * @param position  position of the first byte to read
+	 * @param end       position after the last byte to read
+	 */
+	private CourseRecordSpliterator(FileChannel channel, Charset charset, int blockSize, AtomicInteger open,
+			long position, long end) {
+		this.channel = channel;
+		this.charset = charset;
+		this.blockSize = blockSize;
+		this.open = open;
+		this.position = position;
+		this.end = end;
+	}
+
+	/**
+	 * Gives the next course to the action, reading the next block of the file if
+	 * the courses in the current block have all been given.
+	 *
+	 * @param action the action given the next course
+	 * @return false if there are no more courses
+	 */
+	@Override
+	public boolean tryAdvance(Consumer<? super Course> action) {
+		while (next == block.size()) {
+			if (position >= end) {
+				finish();
+				return false;
+			}
+			readBlock();
+		}
+		action.accept(block.get(next++));
+		return true;
+	}
+
+	/**
+	 * Gives every remaining course to the action.
+	 *
+	 * @param action the action given the courses
+	 */
+	@Override
+	public void forEachRemaining(Consumer<? super Course> action) {
+		do {
+			while (next < block.size()) {
+				action.accept(block.get(next++));
+			}
+			if (position < end) {
+				readBlock();
+			}
+		} while (next < block.size() || position < end);
+		finish();
+	}
+
+	/**
+	 * Splits off the first half of the remaining range of the file. The range is
+	 * not split while there are courses left from a block that has been read.
+	 *
+	 * @return a spliterator over the first half of the range, or null if the range
+	 *         can't be split
+	 */
+	@Override
+	public Spliterator<Course> trySplit() {
+		if (next < block.size() || end - position < 2L * blockSize
+				|| !MappedCourseRecordReader.hasSingleByteLineEndings(charset)) {
+			return null;
+		}
+		long middle;
+		try {
+			middle = MappedCourseRecordReader.findLineStart(channel, position + (end - position) / 2, end,
+					getSearchBuffer());
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		if (middle >= end) {
+			return null;
+		}
+		open.incrementAndGet();
+		Spliterator<Course> prefix = new CourseRecordSpliterator(channel, charset, blockSize, open, position,
+				middle);
+		position = middle;
+		return prefix;
+	}
+
+	/**
+	 * Returns an estimate of the number of courses left.
+	 *
+	 * @return an estimate of the number of courses left
+	 */
+	@Override
+	public long estimateSize() {
+		return block.size() - next + (end - position) / RECORD_SIZE_ESTIMATE;
+	}
+
+	/**
+	 * Returns the characteristics of the courses. They are in file order and
+	 * never null.
+	 *
+	 * @return the characteristics of the courses
+	 */
+	@Override
+	public int characteristics() {
+		return ORDERED | NONNULL | IMMUTABLE;
+	}
+
+	/**
+	 * Reads the next block of lines from the file into the current block.
+	 */
+	private void readBlock() {
+		try {
+			long blockEnd = end;
+			if (end - position > blockSize && MappedCourseRecordReader.hasSingleByteLineEndings(charset)) {
+				blockEnd = MappedCourseRecordReader.findLineStart(channel, position + blockSize, end,
+						getSearchBuffer());
+			}
+			if (reader == null) {
+				reader = new MappedCourseRecordReader(charset);
+			}
+			CourseCatalogBuilder catalog = new CourseCatalogBuilder(null);
+			reader.read(channel, position, blockEnd, catalog);
+			block = catalog.getCourses();
+			next = 0;
+			position = blockEnd;
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Returns the buffer used to find line boundaries, creating it if needed.
+	 *
+	 * @return the buffer used to find line boundaries
+	 */
+	private ByteBuffer getSearchBuffer() {
+		if (searchBuffer == null) {
+			searchBuffer = MappedCourseRecordReader.allocateSearchBuffer();
+		}
+		return searchBuffer;
+	}
+
+	/**
+	 * Marks this spliterator as traversed and closes the file if it was the last
+	 * one over the file.
+	 */
+	private void finish() {
+		block = new ArrayList<Course>();
+		next = 0;
+		position = end;
+		if (!traversed) {
+			traversed = true;
+			if (open.decrementAndGet() == 0) {
+				try {
+					channel.close();
+				} catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+			}
+		}
+	}
+}
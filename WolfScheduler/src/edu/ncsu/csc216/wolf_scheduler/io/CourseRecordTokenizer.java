@@ -0,0 +1,338 @@
+package edu.ncsu.csc216.wolf_scheduler.io;
+
+/**
+ * Splits a course record line into its comma separated fields. The tokenizer
+ * gives the same fields as a Scanner using "," as its delimiter, so a single
+ * comma at the start of the line and an empty field at the end of the line are
+ * skipped, but is built to be reused for every line in a file. Integer fields
+ * are parsed straight from the characters of the line without creating a
+ * String for them. When the tokenizer has a string pool, the other fields are
+ * taken from the pool so that repeated values share one String.
+ *
+ * A field that starts with a double quote is quoted as in RFC 4180. It can hold
+ * commas, a doubled quote in it stands for one quote, and it must end with a
+ * quote followed by a comma or the end of the line. A field that isn't quoted is
+ * read as it is, even if there are quotes in it. Most fields aren't quoted, so
+ * they are still read in one pass over the line without copying. Only a quoted
+ * field with doubled quotes is copied, into a buffer kept for the whole line.
+ * Since records are read a line at a time, a quoted field can't hold a line
+ * break.
+ *
+ * @author Sanjana Cheerla
+ */
+final class CourseRecordTokenizer {
+
+	/** Character that separates fields in a record */
+	private static final char DELIMITER = ',';
+
+	/** Character that starts and ends a quoted field */
+	private static final char QUOTE = '"';
+
+	/** Radix of the integer fields */
+	private static final int RADIX = 10;
+
+	/** Pool the fields are taken from, or null to create a String for each */
+	private final CourseStringPool pool;
+
+	/** The characters of the line being split */
+	private CharSequence line;
+
+	/** Index of the next character to read in the line */
+	private int position;
+
+	/** Index after the last character of the line */
+	private int end;
+
+	/** Value of the last integer field read by nextInt() */
+	private int intValue;
+
+	/** Index of the first character of the last field read */
+	private int fieldStart;
+
+	/** Index after the last character of the last field read */
+	private int fieldEnd;
+
+	/** Quoted fields of the line with their doubled quotes made single */
+	private final StringBuilder unescaped = new StringBuilder();
+
+	/** True if the last field read is in unescaped instead of the line */
+	private boolean copied;
+
+	/** True if the line has a quoted field that isn't closed properly */
+	private boolean malformed;
+
+	/**
+	 * Constructs a CourseRecordTokenizer that creates a new String for each field.
+	 */
+	CourseRecordTokenizer() {
+		this(null);
+	}
+
+	/**
+	 * Constructs a CourseRecordTokenizer that takes its fields from the given
+	 * pool.
+	 *
+	 * @param pool the pool the fields are taken from, or null to create a new
+	 *             String for each field
+	 */
+	CourseRecordTokenizer(CourseStringPool pool) {
+		this.pool = pool;
+	}
+
+	/**
+	 * Starts splitting the given line into fields.
+	 *
+	 * @param line the line to split
+	 */
+	void reset(CharSequence line) {
+		reset(line, 0, line.length());
+	}
+
+	/**
+	 * Starts splitting the characters of the given sequence between start and end
+	 * into fields.
+	 *
+	 * @param line  the characters holding the line to split
+	 * @param start index of the first character of the line
+	 * @param end   index after the last character of the line
+	 */
+	void reset(CharSequence line, int start, int end) {
+		this.line = line;
+		this.position = start;
+		this.end = end;
+		this.malformed = false;
+		if (unescaped.length() > 0) {
+			unescaped.setLength(0);
+		}
+	}
+
+	/**
+	 * Returns true if there is another field in the line.
+	 *
+	 * @return true if there is another field in the line
+	 */
+	boolean hasNext() {
+		int start = position;
+		if (start < end && line.charAt(start) == DELIMITER) {
+			start++;
+		}
+		return start < end;
+	}
+
+	/**
+	 * Returns the next field in the line, or null if there are no more fields.
+	 *
+	 * @return the next field or null if there are no more fields
+	 */
+	String next() {
+		if (!nextField()) {
+			return null;
+		}
+		if (pool != null) {
+			return pool.intern(getField(), fieldStart, fieldEnd);
+		}
+		return getField().subSequence(fieldStart, fieldEnd).toString();
+	}
+
+	/**
+	 * Moves past the next field in the line without creating a String for it.
+	 * The characters of the field are those of getField() from getFieldStart() up
+	 * to getFieldEnd(), and stay there until the tokenizer is reset.
+	 *
+	 * @return true if there was another field in the line
+	 */
+	boolean skip() {
+		return nextField();
+	}
+
+	/**
+	 * Returns the characters holding the last field read by skip(). This is the
+	 * line, unless the field is quoted and has doubled quotes.
+	 *
+	 * @return the characters holding the field
+	 */
+	CharSequence getField() {
+		return copied ? unescaped : line;
+	}
+
+	/**
+	 * Returns true if the last field read by skip() is quoted and has doubled
+	 * quotes, so its characters are in getUnescaped() instead of the line.
+	 *
+	 * @return true if the field was copied out of the line
+	 */
+	boolean isCopied() {
+		return copied;
+	}
+
+	/**
+	 * Returns the characters of every field of the line that was copied out of
+	 * it, with their doubled quotes made single.
+	 *
+	 * @return the copied fields of the line
+	 */
+	CharSequence getUnescaped() {
+		return unescaped;
+	}
+
+	/**
+	 * Returns the index of the first character of the last field read by skip().
+	 *
+	 * @return the index of the first character of the field
+	 */
+	int getFieldStart() {
+		return fieldStart;
+	}
+
+	/**
+	 * Returns the index after the last character of the last field read by
+	 * skip().
+	 *
+	 * @return the index after the last character of the field
+	 */
+	int getFieldEnd() {
+		return fieldEnd;
+	}
+
+	/**
+	 * Returns true if a field could not be read because it has a quote that is
+	 * never closed, or is closed before the end of the field. There are no more
+	 * fields in a line after such a field.
+	 *
+	 * @return true if the line has a malformed quoted field
+	 */
+	boolean isMalformed() {
+		return malformed;
+	}
+
+	/**
+	 * Reads the next field in the line as an integer. The field is an integer if
+	 * it is an optional sign followed by digits and fits in an int. The value
+	 * read is returned by getInt().
+	 *
+	 * @return true if the next field exists and is an integer, false otherwise
+	 */
+	boolean nextInt() {
+		if (!nextField() || fieldStart == fieldEnd) {
+			return false;
+		}
+		CharSequence field = getField();
+		int start = fieldStart;
+		boolean negative = false;
+		char first = field.charAt(start);
+		if (first == '-' || first == '+') {
+			negative = first == '-';
+			start++;
+			if (start == fieldEnd) {
+				return false;
+			}
+		}
+		long value = 0;
+		for (int i = start; i < fieldEnd; i++) {
+			char c = field.charAt(i);
+			int digit = c >= '0' && c <= '9' ? c - '0' : Character.digit(c, RADIX);
+			if (digit < 0) {
+				return false;
+			}
+			value = value * RADIX + digit;
+			if (value > -(long) Integer.MIN_VALUE) {
+				return false;
+			}
+		}
+		if (negative) {
+			value = -value;
+		} else if (value > Integer.MAX_VALUE) {
+			return false;
+		}
+		intValue = (int) value;
+		return true;
+	}
+
+	/**
+	 * Returns the value of the last integer field read by nextInt().
+	 *
+	 * @return the value of the last integer field
+	 */
+	int getInt() {
+		return intValue;
+	}
+
+	/**
+	 * Moves past the next field in the line and records where its characters are.
+	 *
+	 * @return true if there was another field in the line
+	 */
+	private boolean nextField() {
+		if (position < end && line.charAt(position) == DELIMITER) {
+			position++;
+		}
+		if (position >= end) {
+			return false;
+		}
+		if (line.charAt(position) == QUOTE) {
+			return nextQuotedField();
+		}
+		copied = false;
+		fieldStart = position;
+		while (position < end && line.charAt(position) != DELIMITER) {
+			position++;
+		}
+		fieldEnd = position;
+		return true;
+	}
+
+	/**
+	 * Moves past the quoted field that starts at position. The field is left in
+	 * the line if it has no doubled quotes, and is copied to unescaped otherwise.
+	 *
+	 * @return true if the field is closed properly
+	 */
+	private boolean nextQuotedField() {
+		int start = ++position;
+		int copyStart = -1;
+		while (true) {
+			while (position < end && line.charAt(position) != QUOTE) {
+				position++;
+			}
+			if (position >= end) {
+				return malformed();
+			}
+			if (position + 1 < end && line.charAt(position + 1) == QUOTE) {
+				// a doubled quote, keep one of them
+				if (copyStart < 0) {
+					copyStart = unescaped.length();
+				}
+				unescaped.append(line, start, position + 1);
+				position += 2;
+				start = position;
+			} else {
+				break;
+			}
+		}
+		copied = copyStart >= 0;
+		if (!copied) {
+			fieldStart = start;
+			fieldEnd = position;
+		} else {
+			unescaped.append(line, start, position);
+			fieldStart = copyStart;
+			fieldEnd = unescaped.length();
+		}
+		position++;
+		if (position < end && line.charAt(position) != DELIMITER) {
+			return malformed();
+		}
+		return true;
+	}
+
+	/**
+	 * Records that the line has a malformed quoted field and stops reading it.
+	 *
+	 * @return false, since the field could not be read
+	 */
+	private boolean malformed() {
+		malformed = true;
+		position = end;
+		return false;
+	}
+}
@@ -0,0 +1,116 @@
+package edu.ncsu.csc216.wolf_scheduler.io;
+
+/**
+ * Pool of the strings read while loading a catalog, so that fields with the
+ * same value in many course records share one String. Titles, instructor ids,
+ * meeting days, names and sections repeat across the sections of a catalog,
+ * and without the pool every Course would hold its own copy of each. A field
+ * is looked up by the range of characters it is read from, so a String is
+ * only created the first time a value is seen. A pool is used by one thread
+ * and lives as long as the load that uses it.
+ *
+ * @author Sanjana Cheerla
+ */
+final class CourseStringPool {
+
+	/** Number of slots in a new table */
+	private static final int INITIAL_CAPACITY = 256;
+
+	/** Slots of the hash table, null where empty. The length is a power of 2 */
+	private String[] table = new String[INITIAL_CAPACITY];
+
+	/** Number of strings in the pool */
+	private int size;
+
+	/**
+	 * Returns the string in the pool with the characters of the sequence between
+	 * start and end, adding a new string if there isn't one.
+	 *
+	 * @param chars the characters holding the string
+	 * @param start index of the first character of the string
+	 * @param end   index after the last character of the string
+	 * @return the pooled string with the characters
+	 */
+	String intern(CharSequence chars, int start, int end) {
+		int hash = 0;
+		for (int i = start; i < end; i++) {
+			hash = 31 * hash + chars.charAt(i);
+		}
+		int mask = table.length - 1;
+		int slot = spread(hash) & mask;
+		String pooled;
+		while ((pooled = table[slot]) != null) {
+			if (pooled.hashCode() == hash && matches(pooled, chars, start, end)) {
+				return pooled;
+			}
+			slot = (slot + 1) & mask;
+		}
+
+		String value = chars.subSequence(start, end).toString();
+		table[slot] = value;
+		size++;
+		if (size * 2 > table.length) {
+			grow();
+		}
+		return value;
+	}
+
+	/**
+	 * Returns the number of strings in the pool.
+	 *
+	 * @return the number of strings in the pool
+	 */
+	int size() {
+		return size;
+	}
+
+	/**
+	 * Returns true if the string has the characters of the sequence between start
+	 * and end.
+	 *
+	 * @param value the string to compare
+	 * @param chars the characters to compare to
+	 * @param start index of the first character
+	 * @param end   index after the last character
+	 * @return true if the characters are the same
+	 */
+	private static boolean matches(String value, CharSequence chars, int start, int end) {
+		if (value.length() != end - start) {
+			return false;
+		}
+		for (int i = 0; i < value.length(); i++) {
+			if (value.charAt(i) != chars.charAt(start + i)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Doubles the number of slots in the table.
+	 */
+	private void grow() {
+		String[] old = table;
+		table = new String[old.length * 2];
+		int mask = table.length - 1;
+		for (int i = 0; i < old.length; i++) {
+			if (old[i] != null) {
+				int slot = spread(old[i].hashCode()) & mask;
+				while (table[slot] != null) {
+					slot = (slot + 1) & mask;
+				}
+				table[slot] = old[i];
+			}
+		}
+	}
+
+	/**
+	 * Mixes the high bits of the hash into the low bits used to pick a slot.
+	 *
+	 * @param hash the hash of a string
+	 * @return the mixed hash
+	 */
+	private static int spread(int hash) {
+		return hash ^ (hash >>> 16);
+	}
+}
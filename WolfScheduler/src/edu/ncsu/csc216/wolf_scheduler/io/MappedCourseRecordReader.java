@@ -0,0 +1,191 @@
+package edu.ncsu.csc216.wolf_scheduler.io;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.util.Arrays;
+
+/**
+ * Reads course records from a file by mapping it into memory. The mapped bytes
+ * are decoded into a char buffer that is reused for the whole file, and each
+ * line is split into fields straight from that buffer without creating a
+ * String for the line. Lines end at the same line separators Scanner uses:
+ * "\n", "\r\n", "\r", U+2028, U+2029 and U+0085.
+ *
+ * @author Sanjana Cheerla
+ */
+final class MappedCourseRecordReader {
+
+	/** Largest number of bytes mapped at once */
+	private static final int WINDOW_SIZE = 1 << 28;
+
+	/** Starting number of chars in the decoded buffer */
+	private static final int BUFFER_SIZE = 1 << 16;
+
+	/** Number of bytes read at a time while looking for the end of a line */
+	private static final int SEARCH_SIZE = 8192;
+
+	/** Decodes the mapped bytes into chars */
+	private final CharsetDecoder decoder;
+
+	/** Decoded chars waiting to be split into lines */
+	private CharBuffer chars = CharBuffer.allocate(BUFFER_SIZE);
+
+	/**
+	 * Constructs a MappedCourseRecordReader that decodes files with the given
+	 * charset. Malformed input is replaced the same way a Scanner replaces it.
+	 *
+	 * @param charset the charset of the files read
+	 */
+	MappedCourseRecordReader(Charset charset) {
+		decoder = charset.newDecoder().onMalformedInput(CodingErrorAction.REPLACE)
+				.onUnmappableCharacter(CodingErrorAction.REPLACE);
+	}
+
+	/**
+	 * Reads the lines of the channel's file between start and end and adds each of
+	 * them to the catalog.
+	 *
+	 * @param channel the channel of the file to read
+	 * @param start   position of the first byte to read
+	 * @param end     position after the last byte to read
+	 * @param catalog the catalog the lines are added to
+	 * @throws IOException if the file cannot be mapped
+	 */
+	void read(FileChannel channel, long start, long end, CourseCatalogBuilder catalog) throws IOException {
+		decoder.reset();
+		chars.clear();
+		long position = start;
+		boolean endOfInput = false;
+		while (!endOfInput) {
+			long size = Math.min(WINDOW_SIZE, end - position);
+			endOfInput = position + size == end;
+			MappedByteBuffer bytes = channel.map(FileChannel.MapMode.READ_ONLY, position, size);
+
+			CoderResult result = decoder.decode(bytes, chars, endOfInput);
+			while (result.isOverflow()) {
+				readLines(catalog, false);
+				result = decoder.decode(bytes, chars, endOfInput);
+			}
+			// bytes of a char cut off by the end of the window are mapped again
+			position += bytes.position();
+		}
+		while (decoder.flush(chars).isOverflow()) {
+			readLines(catalog, false);
+		}
+		readLines(catalog, true);
+	}
+
+	/**
+	 * Adds every complete line in the decoded buffer to the catalog and keeps the
+	 * rest of the chars for the next call. The buffer grows if it is full of a
+	 * single line.
+	 *
+	 * @param catalog    the catalog the lines are added to
+	 * @param endOfInput true if there are no more chars after the ones in the
+	 *                   buffer
+	 */
+	private void readLines(CourseCatalogBuilder catalog, boolean endOfInput) {
+		chars.flip();
+		int limit = chars.limit();
+		int lineStart = 0;
+		int i = 0;
+		while (i < limit) {
+			char c = chars.get(i);
+			if (c == '\n' || c == '\u2028' || c == '\u2029' || c == '\u0085') {
+				catalog.addLine(chars, lineStart, i);
+				lineStart = ++i;
+			} else if (c == '\r') {
+				if (i + 1 == limit && !endOfInput) {
+					// wait to see if the next char is '\n'
+					break;
+				}
+				catalog.addLine(chars, lineStart, i);
+				i++;
+				if (i < limit && chars.get(i) == '\n') {
+					i++;
+				}
+				lineStart = i;
+			} else {
+				i++;
+			}
+		}
+		if (endOfInput && lineStart < limit) {
+			catalog.addLine(chars, lineStart, limit);
+			lineStart = limit;
+		}
+		chars.position(lineStart);
+		chars.compact();
+		if (!chars.hasRemaining()) {
+			CharBuffer larger = CharBuffer.allocate(chars.capacity() * 2);
+			chars.flip();
+			larger.put(chars);
+			chars = larger;
+		}
+	}
+
+	/**
+	 * Returns true if the charset encodes "\r" and "\n" as single bytes that no
+	 * other char uses, so a file can be split into lines without decoding it.
+	 *
+	 * @param charset the charset to check
+	 * @return true if line endings in the charset are single bytes
+	 */
+	static boolean hasSingleByteLineEndings(Charset charset) {
+		return Arrays.equals("\r\n".getBytes(charset), new byte[] { '\r', '\n' });
+	}
+
+	/**
+	 * Returns a buffer for findLineStart() to read the file into.
+	 *
+	 * @return a buffer for findLineStart()
+	 */
+	static ByteBuffer allocateSearchBuffer() {
+		return ByteBuffer.allocate(SEARCH_SIZE);
+	}
+
+	/**
+	 * Returns the position of the first line that starts after the given
+	 * position. Lines are found by their "\n", "\r\n" or "\r" bytes, so the
+	 * charset of the file must have single byte line endings.
+	 *
+	 * @param channel  the channel of the file to search
+	 * @param position the position to search from
+	 * @param end      the position to stop searching at
+	 * @param buffer   buffer used to read the file
+	 * @return the position the next line starts at, or end if there is none
+	 * @throws IOException if the file cannot be read
+	 */
+	static long findLineStart(FileChannel channel, long position, long end, ByteBuffer buffer)
+			throws IOException {
+		boolean afterReturn = false;
+		while (position < end) {
+			buffer.clear();
+			if (end - position < buffer.capacity()) {
+				buffer.limit((int) (end - position));
+			}
+			int read = channel.read(buffer, position);
+			if (read < 0) {
+				return end;
+			}
+			for (int i = 0; i < read; i++) {
+				byte b = buffer.get(i);
+				if (afterReturn) {
+					return b == '\n' ? position + i + 1 : position + i;
+				}
+				if (b == '\n') {
+					return position + i + 1;
+				}
+				afterReturn = b == '\r';
+			}
+			position += read;
+		}
+		return end;
+	}
+}
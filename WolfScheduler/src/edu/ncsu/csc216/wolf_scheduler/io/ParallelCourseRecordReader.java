@@ -0,0 +1,160 @@
+package edu.ncsu.csc216.wolf_scheduler.io;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Course;
+
+/**
+ * Reads course records from a file in parallel. The file is split into chunks
+ * that start and end on line boundaries, each chunk is read on a
+ * ForkJoinPool, and the courses of the chunks are merged in file order. Since
+ * the merge keeps the first course read with each name and section, the
+ * catalog is the same as the one read by a single thread.
+ *
+ * @author Sanjana Cheerla
+ */
+final class ParallelCourseRecordReader {
+
+	/** Channel of the file being read */
+	private final FileChannel channel;
+
+	/** Charset of the file being read */
+	private final Charset charset;
+
+	/** Position in the file where each chunk starts, followed by the file size */
+	private long[] boundaries;
+
+	/** Courses read from each chunk */
+	private List<ArrayList<Course>> chunkCourses;
+
+	/**
+	 * Constructs a ParallelCourseRecordReader for the file of the given channel.
+	 *
+	 * @param channel the channel of the file to read
+	 * @param charset the charset of the file
+	 */
+	ParallelCourseRecordReader(FileChannel channel, Charset charset) {
+		this.channel = channel;
+		this.charset = charset;
+	}
+
+	/**
+	 * Reads the file in chunks of about chunkSize bytes on the given pool and
+	 * returns the catalog of courses in it.
+	 *
+	 * @param chunkSize the number of bytes in each chunk before it is extended to
+	 *                  the end of a line
+	 * @param pool      the pool the chunks are read on
+	 * @return the courses read from the file
+	 * @throws IOException if the file cannot be read
+	 */
+	ArrayList<Course> read(long chunkSize, ForkJoinPool pool) throws IOException {
+		boundaries = findBoundaries(chunkSize);
+		chunkCourses = new ArrayList<ArrayList<Course>>(Collections.nCopies(boundaries.length - 1, null));
+		try {
+			pool.invoke(new ChunkTask(0, chunkCourses.size()));
+		} catch (UncheckedIOException e) {
+			throw e.getCause();
+		}
+
+		CourseCatalogBuilder catalog = new CourseCatalogBuilder(null);
+		for (int i = 0; i < chunkCourses.size(); i++) {
+			for (Course course : chunkCourses.get(i)) {
+				catalog.add(course);
+			}
+		}
+		return catalog.getCourses();
+	}
+
+	/**
+	 * Splits the file into chunks of about chunkSize bytes. Each chunk is extended
+	 * past the next "\n" or "\r" so that every chunk starts at the beginning of a
+	 * line. Files in charsets that do not encode line endings as single bytes are
+	 * read as one chunk.
+	 *
+	 * @param chunkSize the number of bytes in each chunk before it is extended
+	 * @return the positions where the chunks start, followed by the file size
+	 * @throws IOException if the file cannot be read
+	 */
+	private long[] findBoundaries(long chunkSize) throws IOException {
+		long size = channel.size();
+		if (!MappedCourseRecordReader.hasSingleByteLineEndings(charset)) {
+			return new long[] { 0, size };
+		}
+
+		long[] found = new long[16];
+		int count = 1;
+		long position = 0;
+		ByteBuffer buffer = MappedCourseRecordReader.allocateSearchBuffer();
+		while (size - position > chunkSize) {
+			position = MappedCourseRecordReader.findLineStart(channel, position + chunkSize, size, buffer);
+			if (position >= size) {
+				break;
+			}
+			if (count == found.length) {
+				found = Arrays.copyOf(found, count * 2);
+			}
+			found[count++] = position;
+		}
+		found = Arrays.copyOf(found, count + 1);
+		found[count] = size;
+		return found;
+	}
+
+	/**
+	 * Reads a range of chunks, splitting the range in half until there is only
+	 * one chunk to read.
+	 */
+	private class ChunkTask extends RecursiveAction {
+
+		/** ID used for serialization. */
+		private static final long serialVersionUID = 1L;
+
+		/** Index of the first chunk to read */
+		private final int from;
+
+		/** Index after the last chunk to read */
+		private final int to;
+
+		/**
+		 * Constructs a ChunkTask for the chunks from from up to but not including to.
+		 *
+		 * @param from index of the first chunk to read
+		 * @param to   index after the last chunk to read
+		 */
+		ChunkTask(int from, int to) {
+			this.from = from;
+			this.to = to;
+		}
+
+		/**
+		 * Reads the chunk, or splits the range into two tasks if there is more than
+		 * one chunk.
+		 */
+		@Override
+		protected void compute() {
+			if (to - from > 1) {
+				int middle = (from + to) >>> 1;
+				invokeAll(new ChunkTask(from, middle), new ChunkTask(middle, to));
+				return;
+			}
+			CourseCatalogBuilder chunk = new CourseCatalogBuilder(null);
+			try {
+				new MappedCourseRecordReader(charset).read(channel, boundaries[from], boundaries[from + 1], chunk);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+			chunkCourses.set(from, chunk.getCourses());
+		}
+	}
+}
@@ -0,0 +1,551 @@
+package edu.ncsu.csc216.wolf_scheduler.io;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Activity;
+import edu.ncsu.csc216.wolf_scheduler.course.Course;
+import edu.ncsu.csc216.wolf_scheduler.course.Event;
+
+/**
+ * Append-only journal of the changes made to a schedule, so a schedule can be
+ * saved after every change without writing the whole schedule each time. Each
+ * change is logged as a record at the end of the journal file. Records are
+ * committed in groups: a record waits a few milliseconds for more records, and
+ * then all of them are written and forced to disk at once. A group is also
+ * committed as soon as it is full, or when the journal is flushed or closed.
+ * One background thread commits the groups of every open journal.
+ *
+ * A journal only grows, so it should be compacted now and then. Compacting
+ * replaces the journal with a snapshot of the schedule: one record for the
+ * title and one for each activity. The snapshot is written to a temporary file
+ * and renamed over the journal, so the journal is never left half compacted.
+ *
+ * When a journal is opened, its records are given to a listener in order,
+ * which rebuilds the schedule. Each record is written as its length, a CRC32
+ * of its text, and its text, so a record that was only partly written when the
+ * program stopped is found. The journal ends at the last whole record, and new
+ * records are written after it.
+ *
+ * @author Sanjana Cheerla
+ */
+public class ScheduleJournal implements Closeable {
+
+	/** Number of records in a full group */
+	private static final int DEFAULT_BATCH_SIZE = 64;
+
+	/** Milliseconds a record waits for more records before it is committed */
+	private static final long DEFAULT_DELAY_MILLIS = 20;
+
+	/** Number of records logged since the last compaction when it is time to compact */
+	private static final int COMPACTION_RECORDS = 1024;
+
+	/** Most digits in the length of a record */
+	private static final int MAX_LENGTH_DIGITS = 9;
+
+	/** Number of hex digits in the checksum of a record */
+	private static final int CHECKSUM_DIGITS = 8;
+
+	/** Type of a record that sets the title */
+	private static final String TITLE = "T";
+
+	/** Type of a record that adds a course */
+	private static final String COURSE = "C";
+
+	/** Type of a record that adds an event */
+	private static final String EVENT = "E";
+
+	/** Type of a record that removes an activity */
+	private static final String REMOVE = "R";
+
+	/** Type of a record that resets the schedule */
+	private static final String RESET = "X";
+
+	/** Thread that commits the groups of every journal once they have waited */
+	private static final ScheduledExecutorService COMMITTER = Executors.newSingleThreadScheduledExecutor(task -> {
+		Thread committer = new Thread(task, "WolfScheduler journal committer");
+		committer.setDaemon(true);
+		return committer;
+	});
+
+	/** The journal file */
+	private final Path file;
+
+	/** Number of records in a full group */
+	private final int batchSize;
+
+	/** Milliseconds a record waits for more records before it is committed */
+	private final long delayMillis;
+
+	/** Checksum used for the records */
+	private final CRC32 checksum = new CRC32();
+
+	/** Channel the records are appended to */
+	private FileChannel channel;
+
+	/** Records logged but not yet committed */
+	private final ByteArrayOutputStream pending = new ByteArrayOutputStream();
+
+	/** Number of records logged but not yet committed */
+	private int pendingRecords;
+
+	/** Task that will commit the pending records, or null if none is scheduled */
+	private ScheduledFuture<?> commitTask;
+
+	/** Number of records in the journal since it was last compacted */
+	private int records;
+
+	/** Error from the last commit that failed, or null if the journal is healthy */
+	private IOException failure;
+
+	/**
+	 * Opens the journal file, creating it if it does not exist, and gives its
+	 * records to the listener.
+	 *
+	 * @param fileName the journal file
+	 * @param listener the listener given the records of the journal
+	 * @throws IOException if the journal can't be opened or read
+	 */
+	public ScheduleJournal(String fileName, ScheduleJournalListener listener) throws IOException {
+		this(fileName, listener, DEFAULT_BATCH_SIZE, DEFAULT_DELAY_MILLIS);
+	}
+
+	/**
+	 * Opens the journal file, creating it if it does not exist, and gives its
+	 * records to the listener. Records are committed in groups of at most
+	 * batchSize, and wait at most delayMillis for a group to fill up. A delay of 0
+	 * commits every record as soon as it is logged.
+	 *
+	 * @param fileName    the journal file
+	 * @param listener    the listener given the records of the journal
+	 * @param batchSize   the number of records in a full group
+	 * @param delayMillis the milliseconds a record waits for more records
+	 * @throws IOException              if the journal can't be opened or read
+	 * @throws IllegalArgumentException if the batch size is less than 1 or the
+	 *                                  delay is negative
+	 */
+	public ScheduleJournal(String fileName, ScheduleJournalListener listener, int batchSize, long delayMillis)
+			throws IOException {
+		if (batchSize < 1 || delayMillis < 0) {
+			throw new IllegalArgumentException("Invalid group commit.");
+		}
+		this.file = Paths.get(fileName);
+		this.batchSize = batchSize;
+		this.delayMillis = delayMillis;
+		channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+				StandardOpenOption.WRITE);
+		try {
+			long end = replay(listener);
+			// drop a record that was only partly written
+			channel.truncate(end);
+			channel.position(end);
+		} catch (IOException e) {
+			channel.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * Logs a change to the title of the schedule.
+	 *
+	 * @param title the new title
+	 * @throws IOException if an earlier group of records could not be committed
+	 */
+	public void logTitle(String title) throws IOException {
+		log(TITLE + "," + Activity.quoteField(title));
+	}
+
+	/**
+	 * Logs a course added to the schedule.
+	 *
+	 * @param name    the name of the course
+	 * @param section the section of the course
+	 * @throws IOException if an earlier group of records could not be committed
+	 */
+	public void logCourse(String name, String section) throws IOException {
+		log(courseRecord(name, section));
+	}
+
+	/**
+	 * Logs an event added to the schedule.
+	 *
+	 * @param event the event added
+	 * @throws IOException if an earlier group of records could not be committed
+	 */
+	public void logEvent(Event event) throws IOException {
+		log(eventRecord(event));
+	}
+
+	/**
+	 * Logs an activity removed from the schedule. A course is logged by its name
+	 * and section and an event by its title, rather than by where it was in the
+	 * schedule, so the right activity is removed when the journal is replayed even
+	 * if an activity added before it could not be added again.
+	 *
+	 * @param activity the activity removed
+	 * @throws IOException if an earlier group of records could not be committed
+	 */
+	public void logRemove(Activity activity) throws IOException {
+		if (activity instanceof Course) {
+			Course course = (Course) activity;
+			log(REMOVE + "," + courseRecord(course.getName(), course.getSection()));
+		} else {
+			log(REMOVE + "," + EVENT + "," + Activity.quoteField(activity.getTitle()));
+		}
+	}
+
+	/**
+	 * Logs a reset of the schedule.
+	 *
+	 * @throws IOException if an earlier group of records could not be committed
+	 */
+	public void logReset() throws IOException {
+		log(RESET);
+	}
+
+	/**
+	 * Returns true if enough records have been logged since the journal was last
+	 * compacted that it should be compacted again.
+	 *
+	 * @return true if the journal should be compacted
+	 */
+	public synchronized boolean needsCompaction() {
+		return records >= COMPACTION_RECORDS;
+	}
+
+	/**
+	 * Replaces the journal with a snapshot of the schedule. The snapshot must be
+	 * the state the records logged so far lead to, since any of them that are not
+	 * committed yet are dropped. A journal whose records could not be committed
+	 * can be used again once it has been compacted.
+	 *
+	 * @param title    the title of the schedule
+	 * @param schedule the activities in the schedule
+	 * @throws IOException if the snapshot can't be written
+	 */
+	public synchronized void compact(String title, List<Activity> schedule) throws IOException {
+		ByteArrayOutputStream snapshot = new ByteArrayOutputStream();
+		encode(snapshot, TITLE + "," + Activity.quoteField(title));
+		for (Activity activity : schedule) {
+			if (activity instanceof Course) {
+				Course course = (Course) activity;
+				encode(snapshot, courseRecord(course.getName(), course.getSection()));
+			} else {
+				encode(snapshot, eventRecord(activity));
+			}
+		}
+		try (AtomicFileOutput out = new AtomicFileOutput(file)) {
+			snapshot.writeTo(out.getStream());
+			out.commit();
+		}
+
+		// the snapshot holds the changes that were waiting to be committed
+		cancelCommit();
+		pending.reset();
+		pendingRecords = 0;
+		records = 0;
+		failure = null;
+		channel.close();
+		channel = FileChannel.open(file, StandardOpenOption.WRITE);
+		channel.position(channel.size());
+	}
+
+	/**
+	 * Commits the records that are waiting for their group to fill up.
+	 *
+	 * @throws IOException if the records can't be written
+	 */
+	public synchronized void flush() throws IOException {
+		commit();
+	}
+
+	/**
+	 * Commits the records that are waiting and closes the journal.
+	 *
+	 * @throws IOException if the records can't be written or the journal can't be
+	 *                     closed
+	 */
+	@Override
+	public synchronized void close() throws IOException {
+		try {
+			commit();
+		} finally {
+			channel.close();
+		}
+	}
+
+	/**
+	 * Adds a record to the group waiting to be committed, and commits the group
+	 * if it is full.
+	 *
+	 * @param record the text of the record
+	 * @throws IOException if an earlier group of records could not be committed,
+	 *                     or this group is full and can't be committed
+	 */
+	private synchronized void log(String record) throws IOException {
+		if (failure != null) {
+			throw new IOException("The journal could not be written", failure);
+		}
+		encode(pending, record);
+		pendingRecords++;
+		records++;
+		if (pendingRecords >= batchSize || delayMillis == 0) {
+			commit();
+		} else if (commitTask == null) {
+			commitTask = COMMITTER.schedule(this::commitWaiting, delayMillis, TimeUnit.MILLISECONDS);
+		}
+	}
+
+	/**
+	 * Commits the waiting records on the committer thread. If they can't be
+	 * written, the next record logged reports the error.
+	 */
+	private synchronized void commitWaiting() {
+		commitTask = null;
+		try {
+			commit();
+		} catch (IOException e) {
+			// kept in failure
+		}
+	}
+
+	/**
+	 * Writes the waiting records to the journal and forces them to disk.
+	 *
+	 * @throws IOException if the records can't be written
+	 */
+	private void commit() throws IOException {
+		cancelCommit();
+		if (pending.size() == 0) {
+			return;
+		}
+		try {
+			pending.writeTo(Channels.newOutputStream(channel));
+			channel.force(false);
+		} catch (IOException e) {
+			failure = e;
+			throw e;
+		}
+		pending.reset();
+		pendingRecords = 0;
+	}
+
+	/**
+	 * Cancels the task that would commit the waiting records.
+	 */
+	private void cancelCommit() {
+		if (commitTask != null) {
+			commitTask.cancel(false);
+			commitTask = null;
+		}
+	}
+
+	/**
+	 * Writes a record as its length, checksum and text, followed by a new line.
+	 *
+	 * @param out    the stream to write the record to
+	 * @param record the text of the record
+	 */
+	private void encode(ByteArrayOutputStream out, String record) {
+		byte[] text = record.getBytes(StandardCharsets.UTF_8);
+		checksum.reset();
+		checksum.update(text, 0, text.length);
+		String hex = Long.toHexString(checksum.getValue());
+		StringBuilder header = new StringBuilder();
+		header.append(text.length).append(',');
+		for (int i = hex.length(); i < CHECKSUM_DIGITS; i++) {
+			header.append('0');
+		}
+		header.append(hex).append(',');
+		byte[] headerBytes = header.toString().getBytes(StandardCharsets.US_ASCII);
+		out.write(headerBytes, 0, headerBytes.length);
+		out.write(text, 0, text.length);
+		out.write('\n');
+	}
+
+	/**
+	 * Reads the whole records of the journal and gives them to the listener.
+	 *
+	 * @param listener the listener given the records
+	 * @return the position after the last whole record
+	 * @throws IOException if the journal can't be read
+	 */
+	private long replay(ScheduleJournalListener listener) throws IOException {
+		long size = channel.size();
+		if (size > Integer.MAX_VALUE) {
+			throw new IOException("The journal is too large: " + file);
+		}
+		ByteBuffer buffer = ByteBuffer.allocate((int) size);
+		while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+			// keep reading
+		}
+		byte[] bytes = buffer.array();
+		int length = buffer.position();
+
+		CourseRecordTokenizer tokenizer = new CourseRecordTokenizer();
+		int position = 0;
+		while (position < length) {
+			int end = replayRecord(bytes, position, length, tokenizer, listener);
+			if (end < 0) {
+				break;
+			}
+			position = end;
+			records++;
+		}
+		return position;
+	}
+
+	/**
+	 * Reads the record at the position and gives it to the listener.
+	 *
+	 * @param bytes     the bytes of the journal
+	 * @param position  the position of the record
+	 * @param length    the number of bytes in the journal
+	 * @param tokenizer the tokenizer used to split the text of the record
+	 * @param listener  the listener given the record
+	 * @return the position after the record, or -1 if there isn't a whole,
+	 *         valid record at the position
+	 */
+	private int replayRecord(byte[] bytes, int position, int length, CourseRecordTokenizer tokenizer,
+			ScheduleJournalListener listener) {
+		int textLength = 0;
+		int i = position;
+		while (i < length && i - position < MAX_LENGTH_DIGITS && bytes[i] >= '0' && bytes[i] <= '9') {
+			textLength = textLength * 10 + bytes[i++] - '0';
+		}
+		if (i == position || i >= length || bytes[i++] != ',') {
+			return -1;
+		}
+		long expected = 0;
+		for (int digits = 0; digits < CHECKSUM_DIGITS; digits++, i++) {
+			int digit = i < length ? Character.digit(bytes[i], 16) : -1;
+			if (digit < 0) {
+				return -1;
+			}
+			expected = expected << 4 | digit;
+		}
+		if (i >= length || bytes[i++] != ',' || length - i < textLength + 1 || bytes[i + textLength] != '\n') {
+			return -1;
+		}
+		checksum.reset();
+		checksum.update(bytes, i, textLength);
+		if (checksum.getValue() != expected) {
+			return -1;
+		}
+
+		tokenizer.reset(new String(bytes, i, textLength, StandardCharsets.UTF_8));
+		if (!replayText(tokenizer, listener)) {
+			return -1;
+		}
+		return i + textLength + 1;
+	}
+
+	/**
+	 * Splits the text of a record and gives it to the listener.
+	 *
+	 * @param tokenizer the tokenizer reset to the text of the record
+	 * @param listener  the listener given the record
+	 * @return true if the record is valid
+	 */
+	private static boolean replayText(CourseRecordTokenizer tokenizer, ScheduleJournalListener listener) {
+		String type = tokenizer.next();
+		if (TITLE.equals(type)) {
+			// an empty title is written as a trailing comma, which is skipped
+			String title = tokenizer.hasNext() ? tokenizer.next() : "";
+			if (tokenizer.hasNext() || tokenizer.isMalformed()) {
+				return false;
+			}
+			listener.titleSet(title);
+		} else if (COURSE.equals(type)) {
+			String name = tokenizer.next();
+			String section = tokenizer.next();
+			if (section == null || tokenizer.hasNext() || tokenizer.isMalformed()) {
+				return false;
+			}
+			listener.courseAdded(name, section);
+		} else if (EVENT.equals(type)) {
+			String title = tokenizer.next();
+			String meetingDays = tokenizer.next();
+			if (meetingDays == null || !tokenizer.nextInt()) {
+				return false;
+			}
+			int startTime = tokenizer.getInt();
+			if (!tokenizer.nextInt()) {
+				return false;
+			}
+			int endTime = tokenizer.getInt();
+			if (!tokenizer.nextInt()) {
+				return false;
+			}
+			int weeklyRepeat = tokenizer.getInt();
+			String eventDetails = tokenizer.hasNext() ? tokenizer.next() : "";
+			if (tokenizer.hasNext() || tokenizer.isMalformed()) {
+				return false;
+			}
+			listener.eventAdded(title, meetingDays, startTime, endTime, weeklyRepeat, eventDetails);
+		} else if (REMOVE.equals(type)) {
+			String removedType = tokenizer.next();
+			if (COURSE.equals(removedType)) {
+				String name = tokenizer.next();
+				String section = tokenizer.next();
+				if (section == null || tokenizer.hasNext() || tokenizer.isMalformed()) {
+					return false;
+				}
+				listener.courseRemoved(name, section);
+			} else if (EVENT.equals(removedType)) {
+				String title = tokenizer.next();
+				if (title == null || tokenizer.hasNext() || tokenizer.isMalformed()) {
+					return false;
+				}
+				listener.eventRemoved(title);
+			} else {
+				return false;
+			}
+		} else if (RESET.equals(type)) {
+			if (tokenizer.hasNext()) {
+				return false;
+			}
+			listener.scheduleReset();
+		} else {
+			return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Returns the text of a record that adds an event.
+	 *
+	 * @param event the event
+	 * @return the text of the record
+	 */
+	private static String eventRecord(Activity event) {
+		StringBuilder record = new StringBuilder(EVENT).append(',');
+		event.appendRecord(record);
+		return record.toString();
+	}
+
+	/**
+	 * Returns the text of a record that adds a course.
+	 *
+	 * @param name    the name of the course
+	 * @param section the section of the course
+	 * @return the text of the record
+	 */
+	private static String courseRecord(String name, String section) {
+		return COURSE + "," + Activity.quoteField(name) + "," + Activity.quoteField(section);
+	}
+}
@@ -0,0 +1,61 @@
+package edu.ncsu.csc216.wolf_scheduler.io;
+
+/**
+ * Listener told each operation in a ScheduleJournal, in the order they were
+ * logged, when the journal is opened. Doing the operations on an empty schedule
+ * titled "My Schedule" rebuilds the schedule the journal was kept for. It is
+ * called on the thread opening the journal.
+ *
+ * @author Sanjana Cheerla
+ */
+public interface ScheduleJournalListener {
+
+	/**
+	 * Called for a change to the title of the schedule.
+	 *
+	 * @param title the new title
+	 */
+	void titleSet(String title);
+
+	/**
+	 * Called for a course added to the schedule.
+	 *
+	 * @param name    the name of the course
+	 * @param section the section of the course
+	 */
+	void courseAdded(String name, String section);
+
+	/**
+	 * Called for an event added to the schedule.
+	 *
+	 * @param title        the title of the event
+	 * @param meetingDays  the meeting days of the event
+	 * @param startTime    the start time of the event
+	 * @param endTime      the end time of the event
+	 * @param weeklyRepeat how often the event is repeated
+	 * @param eventDetails the details of the event
+	 */
+	void eventAdded(String title, String meetingDays, int startTime, int endTime, int weeklyRepeat,
+			String eventDetails);
+
+	/**
+	 * Called for a course removed from the schedule.
+	 *
+	 * @param name    the name of the course
+	 * @param section the section of the course
+	 */
+	void courseRemoved(String name, String section);
+
+	/**
+	 * Called for an event removed from the schedule.
+	 *
+	 * @param title the title of the event
+	 */
+	void eventRemoved(String title);
+
+	/**
+	 * Called for a reset of the schedule, which removes every activity and sets
+	 * the title back to "My Schedule".
+	 */
+	void scheduleReset();
+}
@@ -0,0 +1,275 @@
+package edu.ncsu.csc216.wolf_scheduler.io;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RecursiveAction;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Course;
+
+/**
+ * Reads a catalog that is split into several course record files, called
+ * shards. The shards are every file in a directory, or every file whose name
+ * matches a glob. Each shard is read on a ForkJoinPool, and the courses of the
+ * shards are merged in shard order. When two shards have a course with the same
+ * name and section, the course from the shard that comes first is kept, so the
+ * catalog does not depend on which shard finishes reading first.
+ *
+ * @author Sanjana Cheerla
+ */
+final class ShardedCourseRecordReader {
+
+	/** Characters that make a path a glob */
+	private static final String GLOB_CHARACTERS = "*?[{";
+
+	/** The shards, in the order they take precedence */
+	private final Path[] shards;
+
+	/** Courses read from each shard */
+	private List<ArrayList<Course>> shardCourses;
+
+	/** Number of lines read from each shard */
+	private int[] shardLines;
+
+	/** Index of each shard once it has been read, or has failed to be read */
+	private BlockingQueue<Integer> finished;
+
+	/**
+	 * Constructs a ShardedCourseRecordReader for the shards found at the given
+	 * path, sorted by the given order.
+	 *
+	 * @param path       a directory, or a glob in the file name part of the path
+	 * @param precedence the order the shards take precedence in
+	 * @throws FileNotFoundException if the directory can't be read or there are
+	 *                               no shards
+	 */
+	ShardedCourseRecordReader(String path, Comparator<Path> precedence) throws FileNotFoundException {
+		ArrayList<Path> found = findShards(path);
+		if (found.isEmpty()) {
+			throw new FileNotFoundException("No course records found at " + path);
+		}
+		found.sort(precedence);
+		shards = found.toArray(new Path[found.size()]);
+	}
+
+	/**
+	 * Returns true if the path is a directory or a glob, so it names shards
+	 * instead of a single course records file. A path to a file that exists is
+	 * never a glob, even if its name has glob characters in it.
+	 *
+	 * @param path the path to check
+	 * @return true if the path names shards
+	 */
+	static boolean isShardPath(String path) {
+		try {
+			if (Files.isRegularFile(Paths.get(path))) {
+				return false;
+			}
+		} catch (InvalidPathException e) {
+			// not a file, so it can only be a glob
+		}
+		for (int i = 0; i < GLOB_CHARACTERS.length(); i++) {
+			if (path.indexOf(GLOB_CHARACTERS.charAt(i)) >= 0) {
+				return true;
+			}
+		}
+		return Files.isDirectory(Paths.get(path));
+	}
+
+	/**
+	 * Reads every shard on the given pool and returns the merged catalog.
+	 *
+	 * @param pool the pool the shards are read on
+	 * @return the courses read from the shards
+	 * @throws FileNotFoundException if a shard can't be found or read
+	 */
+	ArrayList<Course> read(ForkJoinPool pool) throws FileNotFoundException {
+		return read(pool, null);
+	}
+
+	/**
+	 * Reads every shard on the given pool and returns the merged catalog. If there
+	 * is a listener, it is told on the calling thread each time a shard has been
+	 * read, with the lines and bytes of the shards read so far out of the bytes
+	 * of all the shards. A shard's courses are merged into the catalog once every
+	 * shard before it has been read, so each batch holds the courses merged since
+	 * the last call, in catalog order, and may be empty.
+	 *
+	 * @param pool     the pool the shards are read on
+	 * @param listener the listener told about each shard read, or null
+	 * @return the courses read from the shards
+	 * @throws FileNotFoundException if a shard can't be found or read
+	 */
+	ArrayList<Course> read(ForkJoinPool pool, CourseLoadListener listener) throws FileNotFoundException {
+		shardCourses = new ArrayList<ArrayList<Course>>(Collections.nCopies(shards.length, null));
+		shardLines = new int[shards.length];
+		finished = new LinkedBlockingQueue<Integer>();
+		ForkJoinTask<Void> task = pool.submit(new ShardTask(0, shards.length));
+
+		CourseCatalogBuilder catalog = new CourseCatalogBuilder(null);
+		int merged = listener == null ? 0 : reportShards(listener, catalog);
+		try {
+			task.join();
+		} catch (UncheckedIOException e) {
+			throw (FileNotFoundException) e.getCause();
+		}
+		for (; merged < shards.length; merged++) {
+			merge(catalog, merged);
+		}
+		return catalog.getCourses();
+	}
+
+	/**
+	 * Tells the listener about each shard as it is read, merging the shards into
+	 * the catalog in order as far as they have been read. It stops early if a
+	 * shard can't be read or the thread is interrupted.
+	 *
+	 * @param listener the listener to tell
+	 * @param catalog  the catalog the shards are merged into
+	 * @return the number of shards merged into the catalog
+	 */
+	private int reportShards(CourseLoadListener listener, CourseCatalogBuilder catalog) {
+		long[] shardBytes = new long[shards.length];
+		long totalBytes = 0;
+		for (int i = 0; i < shards.length; i++) {
+			shardBytes[i] = shards[i].toFile().length();
+			totalBytes += shardBytes[i];
+		}
+
+		boolean[] read = new boolean[shards.length];
+		int merged = 0;
+		int linesRead = 0;
+		long bytesRead = 0;
+		for (int count = 0; count < shards.length; count++) {
+			int shard;
+			try {
+				shard = finished.take();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return merged;
+			}
+			if (shardCourses.get(shard) == null) {
+				// the shard couldn't be read, so the read fails
+				return merged;
+			}
+			read[shard] = true;
+			linesRead += shardLines[shard];
+			bytesRead += shardBytes[shard];
+			int reported = catalog.getCourses().size();
+			while (merged < shards.length && read[merged]) {
+				merge(catalog, merged++);
+			}
+			ArrayList<Course> courses = catalog.getCourses();
+			listener.coursesLoaded(new ArrayList<Course>(courses.subList(reported, courses.size())), linesRead,
+					bytesRead, totalBytes);
+		}
+		return merged;
+	}
+
+	/**
+	 * Adds the courses of a shard that has been read to the catalog, skipping the
+	 * ones already in it.
+	 *
+	 * @param catalog the catalog the shards are merged into
+	 * @param shard   the index of the shard
+	 */
+	private void merge(CourseCatalogBuilder catalog, int shard) {
+		for (Course course : shardCourses.get(shard)) {
+			catalog.add(course);
+		}
+	}
+
+	/**
+	 * Finds the shards at the path. A directory's shards are all the regular
+	 * files in it. Otherwise the file name part of the path is a glob, and the
+	 * shards are the regular files in the parent directory that match it.
+	 *
+	 * @param path a directory, or a glob in the file name part of the path
+	 * @return the shards found
+	 * @throws FileNotFoundException if the directory can't be read
+	 */
+	private static ArrayList<Path> findShards(String path) throws FileNotFoundException {
+		Path directory = Paths.get(path);
+		String glob = "*";
+		if (!Files.isDirectory(directory)) {
+			Path fileName = directory.getFileName();
+			directory = directory.getParent() == null ? Paths.get(".") : directory.getParent();
+			glob = fileName == null ? "" : fileName.toString();
+		}
+
+		ArrayList<Path> found = new ArrayList<Path>();
+		try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, glob)) {
+			for (Path file : files) {
+				if (Files.isRegularFile(file)) {
+					found.add(file);
+				}
+			}
+		} catch (IOException | IllegalArgumentException e) {
+			throw new FileNotFoundException("Cannot read " + path);
+		}
+		return found;
+	}
+
+	/**
+	 * Reads a range of shards, splitting the range in half until there is only
+	 * one shard to read.
+	 */
+	private class ShardTask extends RecursiveAction {
+
+		/** ID used for serialization. */
+		private static final long serialVersionUID = 1L;
+
+		/** Index of the first shard to read */
+		private final int from;
+
+		/** Index after the last shard to read */
+		private final int to;
+
+		/**
+		 * Constructs a ShardTask for the shards from from up to but not including to.
+		 *
+		 * @param from index of the first shard to read
+		 * @param to   index after the last shard to read
+		 */
+		ShardTask(int from, int to) {
+			this.from = from;
+			this.to = to;
+		}
+
+		/**
+		 * Reads the shard, or splits the range into two tasks if there is more than
+		 * one shard.
+		 */
+		@Override
+		protected void compute() {
+			if (to - from > 1) {
+				int middle = (from + to) >>> 1;
+				invokeAll(new ShardTask(from, middle), new ShardTask(middle, to));
+				return;
+			}
+			try {
+				CourseCatalogBuilder shard = new CourseCatalogBuilder(null);
+				CourseRecordIO.readLines(shards[from].toString(), shard);
+				shardLines[from] = shard.getLineCount();
+				shardCourses.set(from, shard.getCourses());
+			} catch (FileNotFoundException e) {
+				throw new UncheckedIOException(e);
+			} finally {
+				finished.add(from);
+			}
+		}
+	}
+}
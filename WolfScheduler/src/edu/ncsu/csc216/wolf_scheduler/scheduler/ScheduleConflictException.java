@@ -0,0 +1,42 @@
+package edu.ncsu.csc216.wolf_scheduler.scheduler;
+
+import edu.ncsu.csc216.wolf_scheduler.course.ConflictDetail;
+
+/**
+ * Thrown by WolfScheduler when an activity can't be added because it conflicts
+ * with an activity in the schedule. The message is the same one an
+ * IllegalArgumentException for the conflict has always had, and the detail of
+ * the conflict tells which scheduled activity it is with and when.
+ *
+ * @author Sanjana Cheerla
+ *
+ */
+public class ScheduleConflictException extends IllegalArgumentException {
+
+	/** ID used for serialization. */
+	private static final long serialVersionUID = 1L;
+
+	/** The detail of the conflict */
+	private final transient ConflictDetail conflict;
+
+	/**
+	 * Creates a ScheduleConflictException with the message and the detail of the
+	 * conflict.
+	 *
+	 * @param message  the message of the exception
+	 * @param conflict the detail of the conflict
+	 */
+	public ScheduleConflictException(String message, ConflictDetail conflict) {
+		super(message);
+		this.conflict = conflict;
+	}
+
+	/**
+	 * Returns the detail of the conflict.
+	 *
+	 * @return the detail of the conflict
+	 */
+	public ConflictDetail getConflict() {
+		return conflict;
+	}
+}
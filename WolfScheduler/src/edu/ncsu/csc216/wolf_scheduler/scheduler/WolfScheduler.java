@@ -2,14 +2,30 @@ package edu.ncsu.csc216.wolf_scheduler.scheduler;
 
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.time.LocalDate;
+import java.util.AbstractList;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 import edu.ncsu.csc216.wolf_scheduler.course.Activity;
-import edu.ncsu.csc216.wolf_scheduler.course.ConflictException;
+import edu.ncsu.csc216.wolf_scheduler.course.ConflictDetail;
 import edu.ncsu.csc216.wolf_scheduler.course.Course;
 import edu.ncsu.csc216.wolf_scheduler.course.Event;
+import edu.ncsu.csc216.wolf_scheduler.course.MeetingTimeIndex;
+import edu.ncsu.csc216.wolf_scheduler.course.WeekGrid;
 import edu.ncsu.csc216.wolf_scheduler.io.ActivityRecordIO;
+import edu.ncsu.csc216.wolf_scheduler.io.CourseCatalogDiff;
+import edu.ncsu.csc216.wolf_scheduler.io.CourseCatalogIndex;
+import edu.ncsu.csc216.wolf_scheduler.io.CourseLoadListener;
 import edu.ncsu.csc216.wolf_scheduler.io.CourseRecordIO;
+import edu.ncsu.csc216.wolf_scheduler.io.ScheduleJournal;
+import edu.ncsu.csc216.wolf_scheduler.io.ScheduleJournalListener;
 
 /**
  * WolfScheduler class maintains an array list of courses from the provided file
@@ -28,9 +44,36 @@ public class WolfScheduler {
 	/** The schedule of Activity objects */
 	private ArrayList<Activity> schedule;
 
-	/** The catalog of courses */
+	/** The minutes of the week taken by the activities in the schedule */
+	private final WeekGrid scheduleGrid = new WeekGrid();
+
+	/** The names of the courses in the schedule */
+	private final HashSet<String> scheduledCourses = new HashSet<String>();
+
+	/** The titles of the events in the schedule */
+	private final HashSet<String> scheduledEvents = new HashSet<String>();
+
+	/** The catalog of courses, or null if the catalog is read on demand */
 	private ArrayList<Course> catalog;
 
+	/** True if another scheduler may read the catalog, so it is copied before it changes */
+	private boolean catalogShared;
+
+	/** The catalog of courses read on demand, or null if it is all in memory */
+	private CourseCatalogIndex catalogIndex;
+
+	/** True once this scheduler has closed the catalog read on demand */
+	private boolean catalogClosed;
+
+	/** The courses of the catalog by key, or null until a course is looked up */
+	private HashMap<String, Course> catalogKeys;
+
+	/** The meeting times of the catalog by day, or null until they are searched */
+	private MeetingTimeIndex catalogTimes;
+
+	/** The journal the changes to the schedule are logged to, or null if there isn't one */
+	private ScheduleJournal journal;
+
 	/** The number of rows used in getCourseCatalog() and getScheduledCourses() */
 	private static final int SCHEDULE_COURSE_INDEX = 4;
 
@@ -42,7 +85,9 @@ public class WolfScheduler {
 	 * new scheduled is initialized to an ArrayList of courses. A catalog of
 	 * courses, consisting of an Array List, is made from the given file name
 	 * parameter. If there is an error regarding the fileName, an
-	 * IllegalArgumentException is thrown with the message "Cannot find file"
+	 * IllegalArgumentException is thrown with the message "Cannot find file". The
+	 * file name may also be a directory or glob of course record files, which are
+	 * all read into the catalog.
 	 * 
 	 * @param fileName The file name for course records
 	 * @throws IllegalArgumentException If the file cannot be accessed, with the
@@ -51,13 +96,141 @@ public class WolfScheduler {
 	public WolfScheduler(String fileName) {
 		try {
 			setTitle("My Schedule");
-			catalog = CourseRecordIO.readCourseRecords(fileName);
+			if (CourseRecordIO.isShardPath(fileName)) {
+				catalog = CourseRecordIO.readCourseShards(fileName);
+			} else {
+				catalog = CourseRecordIO.readCourseRecords(fileName);
+			}
+			schedule = new ArrayList<Activity>();
+		} catch (FileNotFoundException e) {
+			throw new IllegalArgumentException("Cannot find file");
+		}
+	}
+
+	/**
+	 * Constructs a WolfScheduler Object the same way as WolfScheduler(fileName),
+	 * but reads the catalog from a binary snapshot of the course records file when
+	 * the snapshot is up to date. If the snapshot is missing or out of date, the
+	 * course records file is read and the snapshot is rebuilt.
+	 * 
+	 * @param fileName     The file name for course records
+	 * @param snapshotName The file name for the snapshot of the catalog
+	 * @throws IllegalArgumentException If the file cannot be accessed, with the
+	 *                                  message "Cannot find file"
+	 */
+	public WolfScheduler(String fileName, String snapshotName) {
+		try {
+			setTitle("My Schedule");
+			catalog = CourseRecordIO.readCourseRecordsWithSnapshot(fileName, snapshotName);
 			schedule = new ArrayList<Activity>();
 		} catch (FileNotFoundException e) {
 			throw new IllegalArgumentException("Cannot find file");
 		}
 	}
 
+	/**
+	 * Constructs a WolfScheduler Object the same way as WolfScheduler(fileName),
+	 * but only indexes where each course is in the file. A Course is read from the
+	 * file the first time it is looked up or displayed, and the most recently
+	 * used ones are kept in a cache of the given size. If the file can't be
+	 * indexed, for example because it is compressed, the whole catalog is read
+	 * instead.
+	 * 
+	 * @param fileName  The file name for course records
+	 * @param cacheSize The number of courses kept in memory
+	 * @throws IllegalArgumentException If the file cannot be accessed, with the
+	 *                                  message "Cannot find file", or if the cache
+	 *                                  size is less than 1
+	 */
+	public WolfScheduler(String fileName, int cacheSize) {
+		setTitle("My Schedule");
+		schedule = new ArrayList<Activity>();
+		try {
+			catalogIndex = new CourseCatalogIndex(fileName, cacheSize);
+		} catch (IOException e) {
+			try {
+				catalog = CourseRecordIO.readCourseRecords(fileName);
+			} catch (FileNotFoundException notFound) {
+				throw new IllegalArgumentException("Cannot find file");
+			}
+		}
+	}
+
+	/**
+	 * Constructs a WolfScheduler Object with the given catalog and an empty
+	 * schedule titled "My Schedule".
+	 * 
+	 * @param catalog The catalog of courses
+	 */
+	private WolfScheduler(ArrayList<Course> catalog) {
+		setTitle("My Schedule");
+		this.catalog = catalog;
+		schedule = new ArrayList<Activity>();
+	}
+
+	/**
+	 * Constructs a WolfScheduler Object with an empty schedule titled "My
+	 * Schedule" that shares the catalog of the given scheduler. Neither scheduler
+	 * changes the catalog the other reads from. A catalog read on demand is
+	 * retained for the new scheduler, so its file stays open until every
+	 * scheduler sharing it has been closed or has replaced it.
+	 * 
+	 * @param catalogOwner The scheduler whose catalog is shared
+	 */
+	private WolfScheduler(WolfScheduler catalogOwner) {
+		setTitle("My Schedule");
+		catalog = catalogOwner.catalog;
+		catalogIndex = catalogOwner.catalogIndex;
+		catalogKeys = catalogOwner.catalogKeys;
+		catalogTimes = catalogOwner.catalogTimes;
+		if (catalogIndex != null) {
+			catalogIndex.retain();
+		} else {
+			catalogOwner.catalogShared = true;
+			catalogShared = true;
+		}
+		schedule = new ArrayList<Activity>();
+	}
+
+	/**
+	 * Starts constructing a WolfScheduler from the given course records file on a
+	 * background thread, and returns a future that is completed with the
+	 * WolfScheduler once the whole catalog has been read. The listener is told
+	 * about the progress of the load, with the courses read so far, on the
+	 * background thread. If the file cannot be accessed, the future completes
+	 * exceptionally with an IllegalArgumentException with the message "Cannot
+	 * find file". For a directory or glob of course record files, the listener is
+	 * told each time one of the files has been read.
+	 * 
+	 * @param fileName The file name for course records
+	 * @param listener The listener told about the progress of the load
+	 * @return a future completed with the WolfScheduler
+	 */
+	public static CompletableFuture<WolfScheduler> loadAsync(String fileName, CourseLoadListener listener) {
+		return CompletableFuture.supplyAsync(() -> {
+			try {
+				if (CourseRecordIO.isShardPath(fileName)) {
+					return new WolfScheduler(CourseRecordIO.readCourseShardsWithProgress(fileName, listener));
+				}
+				return new WolfScheduler(CourseRecordIO.readCourseRecordsWithProgress(fileName, listener));
+			} catch (FileNotFoundException e) {
+				throw new IllegalArgumentException("Cannot find file");
+			}
+		}, WolfScheduler::startLoader);
+	}
+
+	/**
+	 * Runs the task on a new daemon thread, so reading a catalog doesn't hold up
+	 * the common pool that the catalog shards are read on.
+	 * 
+	 * @param task The task to run
+	 */
+	private static void startLoader(Runnable task) {
+		Thread loader = new Thread(task, "WolfScheduler catalog loader");
+		loader.setDaemon(true);
+		loader.start();
+	}
+
 	/**
 	 * Searches for a Course with the given name and section in the catalog and if
 	 * it is found, returns the course that has that name and section. If no such
@@ -69,15 +242,271 @@ public class WolfScheduler {
 	 *         catalog
 	 */
 	public Course getCourseFromCatalog(String name, String section) {
+		if (catalogIndex != null) {
+			return catalogIndex.get(name, section);
+		}
+		return getCatalogKeys().get(CourseRecordIO.getCourseKey(name, section));
+	}
+
+	/**
+	 * Returns the courses of the in memory catalog by key, indexing them the first
+	 * time they are needed. If two courses have the same key, the first one in the
+	 * catalog is kept.
+	 * 
+	 * @return the courses of the catalog by key
+	 */
+	private HashMap<String, Course> getCatalogKeys() {
+		if (catalogKeys == null) {
+			HashMap<String, Course> keys = new HashMap<String, Course>(catalog.size() * 2);
+			for (Course c : catalog) {
+				keys.putIfAbsent(CourseRecordIO.getCourseKey(c.getName(), c.getSection()), c);
+			}
+			catalogKeys = keys;
+		}
+		return catalogKeys;
+	}
+
+	/**
+	 * Returns the courses in the catalog that meet on any of the given days at a
+	 * time that overlaps the given times, in catalog order. A course that ends in
+	 * the same minute the times start, or starts in the minute they end, counts
+	 * as overlapping, as it does for a conflict. Arranged courses are never
+	 * returned. The meeting times of the catalog are indexed by day the first
+	 * time they are searched, so a search doesn't check every course in the
+	 * catalog.
+	 * 
+	 * @param meetingDays the days to search, as letters from "MTWHFSU"
+	 * @param startTime   the start of the times to search, in military time
+	 * @param endTime     the end of the times to search, in military time
+	 * @return the courses that meet at those times
+	 * @throws IllegalArgumentException with the message "Invalid meeting time." if
+	 *                                  the days or times are not valid for an
+	 *                                  event
+	 */
+	public ArrayList<Course> getCatalogCoursesMeeting(String meetingDays, int startTime, int endTime) {
+		Event meeting;
+		try {
+			meeting = new Event("Meeting time", meetingDays, startTime, endTime, 1, "");
+		} catch (IllegalArgumentException e) {
+			throw new IllegalArgumentException("Invalid meeting time.");
+		}
+		return getConflictingCatalogCourses(meeting);
+	}
+
+	/**
+	 * Returns the courses in the catalog that conflict with the given activity, in
+	 * catalog order, as checkConflict() would find them. A course in the catalog
+	 * is returned for itself, since it meets at the same times.
+	 * 
+	 * @param activity the activity to find conflicts with
+	 * @return the courses that conflict with the activity
+	 */
+	public ArrayList<Course> getConflictingCatalogCourses(Activity activity) {
+		if (catalogTimes == null) {
+			catalogTimes = indexCatalogTimes();
+		}
+		int[] positions = catalogTimes.findConflicts(activity);
+		ArrayList<Course> courses = new ArrayList<Course>(positions.length);
+		for (int position : positions) {
+			courses.add(getCatalogCourse(position));
+		}
+		return courses;
+	}
+
+	/**
+	 * Indexes the meeting times of the catalog. A catalog read on demand is
+	 * indexed from the meeting days and times its index keeps for each course, so
+	 * no course is read from the file or put in its cache.
+	 * 
+	 * @return the index of the meeting times of the catalog
+	 */
+	private MeetingTimeIndex indexCatalogTimes() {
+		if (catalogIndex == null) {
+			return new MeetingTimeIndex(catalog);
+		}
+		int size = catalogIndex.size();
+		String[] meetingDays = new String[size];
+		int[] startTimes = new int[size];
+		int[] endTimes = new int[size];
+		for (int row = 0; row < size; row++) {
+			meetingDays[row] = catalogIndex.getMeetingDays(row);
+			startTimes[row] = catalogIndex.getStartTime(row);
+			endTimes[row] = catalogIndex.getEndTime(row);
+		}
+		return new MeetingTimeIndex(getCatalogList(), meetingDays, startTimes, endTimes);
+	}
+
+	/**
+	 * Returns the catalog as a list. When the catalog is read on demand, each
+	 * course is read when it is asked for.
+	 * 
+	 * @return the courses of the catalog
+	 */
+	private List<Course> getCatalogList() {
+		if (catalogIndex == null) {
+			return catalog;
+		}
+		CourseCatalogIndex courses = catalogIndex;
+		return new AbstractList<Course>() {
+			@Override
+			public Course get(int index) {
+				return courses.get(index);
+			}
+
+			@Override
+			public int size() {
+				return courses.size();
+			}
+		};
+	}
 
-		for (int i = 0; i < catalog.size(); i++) {
-			if (((Course) catalog.get(i)).getName().equals(name)
-					&& ((Course) catalog.get(i)).getSection().equals(section)) {
-				return (Course) catalog.get(i);
+	/**
+	 * Applies the changes from a new version of the course records file to the
+	 * catalog without reading the catalog again. Removed courses are taken out of
+	 * the catalog, modified courses replace the old versions where they are, and
+	 * added courses are put at the end of the catalog. The catalog is changed in
+	 * place unless another scheduler shares it, and a catalog read on demand keeps
+	 * the changed courses in memory rather than indexing its file again. The
+	 * meeting times of the catalog are indexed again the next time they are
+	 * searched. Schedulers that shared the catalog keep the catalog as it was.
+	 * Scheduled courses that were modified are replaced by their new versions, and
+	 * the ones whose meeting days or times changed are returned so the student can
+	 * be told. Removed courses stay in the schedule. A scheduled course whose new
+	 * meeting days or times would conflict with another activity in the schedule
+	 * is not replaced: its old version stays in the schedule, the same way a
+	 * removed course does, and it is not returned.
+	 * 
+	 * @param diff The changes to the course records file, from a
+	 *             CourseCatalogWatcher
+	 * @return the new versions of the scheduled courses whose meeting days or
+	 *         times changed
+	 */
+	public ArrayList<Course> applyCatalogDiff(CourseCatalogDiff diff) {
+		HashMap<String, Course> modified = new HashMap<String, Course>();
+		for (Course c : diff.getModified()) {
+			modified.put(CourseRecordIO.getCourseKey(c.getName(), c.getSection()), c);
+		}
+		HashSet<String> removed = new HashSet<String>();
+		for (Course c : diff.getRemoved()) {
+			removed.add(CourseRecordIO.getCourseKey(c.getName(), c.getSection()));
+		}
+
+		catalogTimes = null;
+		if (catalogIndex != null) {
+			CourseCatalogIndex old = catalogIndex;
+			if (catalogClosed) {
+				// this scheduler no longer reads the old file, so index the new one
+				try {
+					catalogIndex = new CourseCatalogIndex(old.getFileName(), old.getCacheSize());
+				} catch (IOException e) {
+					throw new IllegalArgumentException("Cannot find file");
+				}
+			} else {
+				catalogIndex = old.apply(diff);
+				// the old catalog's file stays open while another scheduler reads from it
+				try {
+					old.close();
+				} catch (IOException e) {
+					// the new catalog still has the file open
+				}
+			}
+			catalogClosed = false;
+		} else {
+			if (catalogShared) {
+				// copy the catalog, since other schedulers read from it
+				catalog = new ArrayList<Course>(catalog);
+				catalogKeys = catalogKeys == null ? null : new HashMap<String, Course>(catalogKeys);
+				catalogShared = false;
+			}
+			applyToCatalog(modified, removed, diff.getAdded());
+		}
+
+		ArrayList<Course> changed = new ArrayList<Course>();
+		for (int i = 0; i < schedule.size() && !modified.isEmpty(); i++) {
+			if (schedule.get(i) instanceof Course) {
+				Course old = (Course) schedule.get(i);
+				Course c = modified.get(CourseRecordIO.getCourseKey(old.getName(), old.getSection()));
+				if (c != null) {
+					if (!c.getMeetingDays().equals(old.getMeetingDays()) || c.getStartTime() != old.getStartTime()
+							|| c.getEndTime() != old.getEndTime()) {
+						scheduleGrid.remove(old);
+						if (scheduleGrid.overlaps(c) && conflictsWithOthers(c, i)) {
+							// keep the old version rather than make the schedule conflict
+							scheduleGrid.add(old);
+							continue;
+						}
+						scheduleGrid.add(c);
+						changed.add(c);
+					}
+					schedule.set(i, c);
+				}
+			}
+		}
+		return changed;
+	}
+
+	/**
+	 * Changes the in memory catalog and its courses by key in place. The old
+	 * versions of the modified and removed courses are found by key, and the
+	 * catalog is only gone through once, to replace and take them out, if there
+	 * are any.
+	 * 
+	 * @param modified The new versions of the modified courses by key
+	 * @param removed  The keys of the removed courses
+	 * @param added    The added courses
+	 */
+	private void applyToCatalog(HashMap<String, Course> modified, HashSet<String> removed, ArrayList<Course> added) {
+		HashMap<String, Course> keys = getCatalogKeys();
+		// the new version of each old course, or null if it was removed
+		IdentityHashMap<Course, Course> changes = new IdentityHashMap<Course, Course>();
+		for (Map.Entry<String, Course> entry : modified.entrySet()) {
+			Course old = keys.get(entry.getKey());
+			if (old != null) {
+				changes.put(old, entry.getValue());
+				keys.put(entry.getKey(), entry.getValue());
+			}
+		}
+		for (String key : removed) {
+			Course old = keys.remove(key);
+			if (old != null) {
+				changes.put(old, null);
+			}
+		}
+		if (!changes.isEmpty()) {
+			int kept = 0;
+			for (int i = 0; i < catalog.size(); i++) {
+				Course c = catalog.get(i);
+				if (changes.containsKey(c)) {
+					c = changes.get(c);
+					if (c == null) {
+						continue;
+					}
+				}
+				catalog.set(kept++, c);
 			}
+			catalog.subList(kept, catalog.size()).clear();
+		}
+		for (Course c : added) {
+			catalog.add(c);
+			keys.putIfAbsent(CourseRecordIO.getCourseKey(c.getName(), c.getSection()), c);
 		}
+	}
 
-		return null;
+	/**
+	 * Returns true if the activity conflicts with an activity in the schedule
+	 * other than the one at the given index.
+	 * 
+	 * @param activity The activity to check
+	 * @param index    The index of the activity it would replace
+	 * @return true if the activity conflicts with another scheduled activity
+	 */
+	private boolean conflictsWithOthers(Activity activity, int index) {
+		for (int i = 0; i < schedule.size(); i++) {
+			if (i != index && schedule.get(i).isConflict(activity)) {
+				return true;
+			}
+		}
+		return false;
 	}
 
 	/**
@@ -100,7 +529,9 @@ public class WolfScheduler {
 		if (title == null) {
 			throw new IllegalArgumentException("Title cannot be null");
 		}
+		log(j -> j.logTitle(title));
 		this.title = title;
+		compactJournalIfNeeded();
 	}
 
 	/**
@@ -112,23 +543,55 @@ public class WolfScheduler {
 	 *         and one for the section number.
 	 */
 	public String[][] getCourseCatalog() {
-		if (this.catalog.isEmpty()) {
+		if (getCatalogSize() == 0) {
 			return new String[0][0];
 		}
-		String[][] courseCatalog = new String[this.catalog.size()][SCHEDULE_COURSE_INDEX];
+		String[][] courseCatalog = new String[getCatalogSize()][SCHEDULE_COURSE_INDEX];
 		for (int i = 0; i < courseCatalog.length; i++) {
 			int index = 0;
-			courseCatalog[i][index] = catalog.get(i).getShortDisplayArray()[index];
+			courseCatalog[i][index] = getCatalogCourse(i).getShortDisplayArray()[index];
 			index++;
-			courseCatalog[i][index] = catalog.get(i).getShortDisplayArray()[index];
+			courseCatalog[i][index] = getCatalogCourse(i).getShortDisplayArray()[index];
 			index++;
-			courseCatalog[i][index] = catalog.get(i).getShortDisplayArray()[index];
+			courseCatalog[i][index] = getCatalogCourse(i).getShortDisplayArray()[index];
 			index++;
-			courseCatalog[i][index] = catalog.get(i).getShortDisplayArray()[index];
+			courseCatalog[i][index] = getCatalogCourse(i).getShortDisplayArray()[index];
 		}
 		return courseCatalog;
 	}
 
+	/**
+	 * Returns the number of courses in the catalog.
+	 * 
+	 * @return the number of courses in the catalog
+	 */
+	public int getCatalogSize() {
+		return catalogIndex != null ? catalogIndex.size() : catalog.size();
+	}
+
+	/**
+	 * Returns one row of getCourseCatalog(): the name, section, title, and meeting
+	 * string of the course at the given index of the catalog. Only that course
+	 * has to be read when the catalog is read on demand.
+	 * 
+	 * @param index The index of the course in the catalog
+	 * @return the row of the course
+	 * @throws IndexOutOfBoundsException If there is no course at the index
+	 */
+	public String[] getCatalogRow(int index) {
+		return getCatalogCourse(index).getShortDisplayArray();
+	}
+
+	/**
+	 * Returns the course at the given index of the catalog.
+	 * 
+	 * @param index The index of the course in the catalog
+	 * @return the course at the index
+	 */
+	private Course getCatalogCourse(int index) {
+		return catalogIndex != null ? catalogIndex.get(index) : catalog.get(index);
+	}
+
 	/**
 	 * Organizes the schedule ArrayList into a 2D array consisting of 4 columns. If
 	 * the activity in the schedule is a Course, the columns contain the Course
@@ -215,6 +678,230 @@ public class WolfScheduler {
 		}
 	}
 
+	/**
+	 * Exports many schedules into one ZIP archive, with an entry for each
+	 * scheduler named by its key. Each entry holds the same bytes exportSchedule()
+	 * writes for that scheduler. The schedules are formatted in parallel, so the
+	 * schedulers must not be changed until the export returns.
+	 * 
+	 * @param fileName   The name of the archive file
+	 * @param schedulers The schedulers to export by entry name
+	 * @throws IllegalArgumentException With the message "The file cannot be saved"
+	 *                                  if an IOException is caught.
+	 */
+	public static void exportSchedules(String fileName, Map<String, WolfScheduler> schedulers) {
+		LinkedHashMap<String, ArrayList<Activity>> schedules = new LinkedHashMap<String, ArrayList<Activity>>();
+		for (Map.Entry<String, WolfScheduler> entry : schedulers.entrySet()) {
+			schedules.put(entry.getKey(), entry.getValue().schedule);
+		}
+		try {
+			ActivityRecordIO.writeActivityRecordArchive(fileName, schedules);
+		} catch (IOException e) {
+			throw new IllegalArgumentException("The file cannot be saved.");
+		}
+	}
+
+	/**
+	 * Exports the current schedule to the given file as an iCalendar calendar
+	 * named by the title of the schedule. Each activity repeats on its meeting
+	 * days from the first day of the term until the last day, and courses with
+	 * arranged meeting days are left out.
+	 * 
+	 * @param fileName The name of the calendar file
+	 * @param firstDay The first day of the term
+	 * @param lastDay  The last day of the term
+	 * @throws IllegalArgumentException With the message "The file cannot be saved"
+	 *                                  if an IOException is caught, or "Invalid
+	 *                                  term dates." if the last day is before the
+	 *                                  first day.
+	 */
+	public void exportCalendar(String fileName, LocalDate firstDay, LocalDate lastDay) {
+		try {
+			ActivityRecordIO.writeActivityCalendar(fileName, title, schedule, firstDay, lastDay);
+		} catch (IOException e) {
+			throw new IllegalArgumentException("The file cannot be saved.");
+		}
+	}
+
+	/**
+	 * Exports many schedules into one file as iCalendar calendars, one for each
+	 * scheduler named by its key, in map order.
+	 * 
+	 * @param fileName   The name of the calendar file
+	 * @param schedulers The schedulers to export by calendar name
+	 * @param firstDay   The first day of the term
+	 * @param lastDay    The last day of the term
+	 * @throws IllegalArgumentException With the message "The file cannot be saved"
+	 *                                  if an IOException is caught, or "Invalid
+	 *                                  term dates." if the last day is before the
+	 *                                  first day.
+	 */
+	public static void exportCalendars(String fileName, Map<String, WolfScheduler> schedulers, LocalDate firstDay,
+			LocalDate lastDay) {
+		LinkedHashMap<String, ArrayList<Activity>> schedules = new LinkedHashMap<String, ArrayList<Activity>>();
+		for (Map.Entry<String, WolfScheduler> entry : schedulers.entrySet()) {
+			schedules.put(entry.getKey(), entry.getValue().schedule);
+		}
+		try {
+			ActivityRecordIO.writeActivityCalendars(fileName, schedules, firstDay, lastDay);
+		} catch (IOException e) {
+			throw new IllegalArgumentException("The file cannot be saved.");
+		}
+	}
+
+	/**
+	 * Replaces the activities in the schedule with the ones in a file written by
+	 * exportSchedule(). The courses in the file are looked up in the catalog by
+	 * name and section, and courses that are no longer in the catalog are
+	 * skipped. Activities that are duplicates of, or conflict with, an activity
+	 * earlier in the file are also skipped.
+	 * 
+	 * @param fileName The name of the file to read the activities from
+	 * @return the number of activities added to the schedule
+	 * @throws IllegalArgumentException With the message "Cannot find file" if the
+	 *                                  file cannot be read
+	 */
+	public int importSchedule(String fileName) {
+		ArrayList<Activity> activities;
+		try {
+			activities = ActivityRecordIO.readActivityRecords(fileName, this::getCourseFromCatalog);
+		} catch (FileNotFoundException e) {
+			throw new IllegalArgumentException("Cannot find file");
+		}
+		ArrayList<Activity> old = new ArrayList<Activity>(schedule);
+		clearSchedule();
+		int added = addActivities(activities);
+		if (journal != null) {
+			try {
+				journal.compact(title, schedule);
+			} catch (IOException e) {
+				clearSchedule();
+				for (Activity activity : old) {
+					addToSchedule(activity);
+				}
+				throw new IllegalArgumentException("The schedule cannot be saved.");
+			}
+		}
+		return added;
+	}
+
+	/**
+	 * Imports every schedule file in a directory into a new WolfScheduler, the
+	 * same way importSchedule() does. The files are read in parallel, and the new
+	 * schedulers share this scheduler's catalog instead of reading it again.
+	 * When the catalog is read on demand, courses that are not in its cache are
+	 * read from the file by the threads at the same time, and the file stays open
+	 * until this scheduler and every new one has been closed. Hidden files are
+	 * skipped.
+	 * 
+	 * @param directory The directory of schedule files
+	 * @return a WolfScheduler for each schedule file by file name, in file name
+	 *         order
+	 * @throws IllegalArgumentException With the message "Cannot find file" if the
+	 *                                  directory or one of its files cannot be
+	 *                                  read
+	 */
+	public LinkedHashMap<String, WolfScheduler> importSchedules(String directory) {
+		if (catalogIndex == null) {
+			// index the catalog before it is looked up from several threads
+			getCatalogKeys();
+		}
+		LinkedHashMap<String, ArrayList<Activity>> schedules;
+		try {
+			schedules = ActivityRecordIO.readActivityRecordDirectory(directory, this::getCourseFromCatalog);
+		} catch (FileNotFoundException e) {
+			throw new IllegalArgumentException("Cannot find file");
+		}
+		LinkedHashMap<String, WolfScheduler> schedulers = new LinkedHashMap<String, WolfScheduler>();
+		for (Map.Entry<String, ArrayList<Activity>> entry : schedules.entrySet()) {
+			WolfScheduler scheduler = new WolfScheduler(this);
+			scheduler.addActivities(entry.getValue());
+			schedulers.put(entry.getKey(), scheduler);
+		}
+		return schedulers;
+	}
+
+	/**
+	 * Adds the activities to the schedule, skipping the ones that are duplicates
+	 * of, or conflict with, an activity already in the schedule.
+	 * 
+	 * @param activities The activities to add
+	 * @return the number of activities added
+	 */
+	private int addActivities(ArrayList<Activity> activities) {
+		int added = 0;
+		for (Activity activity : activities) {
+			if (fitsSchedule(activity)) {
+				addToSchedule(activity);
+				added++;
+			}
+		}
+		return added;
+	}
+
+	/**
+	 * Returns true if the activity is not a duplicate of, and does not conflict
+	 * with, any activity in the schedule.
+	 * 
+	 * @param activity The activity to check
+	 * @return true if the activity can be added to the schedule
+	 */
+	private boolean fitsSchedule(Activity activity) {
+		if (isDuplicate(activity)) {
+			return false;
+		}
+		if (scheduleGrid.overlaps(activity)) {
+			for (int i = 0; i < schedule.size(); i++) {
+				if (schedule.get(i).isConflict(activity)) {
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Returns true if the activity is a duplicate of an activity in the schedule,
+	 * that is a course with the same name or an event with the same title. The
+	 * name or title is looked up instead of going through the schedule.
+	 * 
+	 * @param activity The activity to check
+	 * @return true if the activity is a duplicate of a scheduled activity
+	 */
+	private boolean isDuplicate(Activity activity) {
+		if (activity instanceof Course) {
+			return scheduledCourses.contains(((Course) activity).getName());
+		}
+		return activity instanceof Event && scheduledEvents.contains(activity.getTitle());
+	}
+
+	/**
+	 * Adds the activity to the end of the schedule, and to the grid and the
+	 * names or titles used to check the activities added after it.
+	 * 
+	 * @param activity The activity to add
+	 */
+	private void addToSchedule(Activity activity) {
+		schedule.add(activity);
+		scheduleGrid.add(activity);
+		if (activity instanceof Course) {
+			scheduledCourses.add(((Course) activity).getName());
+		} else {
+			scheduledEvents.add(activity.getTitle());
+		}
+	}
+
+	/**
+	 * Empties the schedule, the grid, and the names and titles of the scheduled
+	 * activities.
+	 */
+	private void clearSchedule() {
+		schedule.clear();
+		scheduleGrid.clear();
+		scheduledCourses.clear();
+		scheduledEvents.clear();
+	}
+
 	/**
 	 * Adds the specified course to the student schedule. If the course is already
 	 * added in the schedule an exception is thrown. If the course does not exist in
@@ -232,7 +919,9 @@ public class WolfScheduler {
 	 *                                  "The course cannot be added due to a
 	 *                                  conflict." if there is a conflict between
 	 *                                  the course being added and the activities
-	 *                                  already in the schedule.
+	 *                                  already in the schedule. A conflict is
+	 *                                  thrown as a ScheduleConflictException with
+	 *                                  the detail of the conflict.
 	 */
 	public boolean addCourse(String name, String section) {
 		if (this.getCourseFromCatalog(name, section) == null) {
@@ -240,22 +929,29 @@ public class WolfScheduler {
 		}
 
 		Course c = this.getCourseFromCatalog(name, section);
+		boolean duplicate = isDuplicate(c);
 
-		for (int i = 0; i < this.schedule.size(); i++) {
+		// only look for the conflicting activity if the course meets at a taken time
+		if (scheduleGrid.overlaps(c)) {
+			for (int i = 0; i < this.schedule.size(); i++) {
 
-			if (c.isDuplicate(this.schedule.get(i))) {
-				throw new IllegalArgumentException("You are already enrolled in " + name);
-			}
+				if (duplicate && c.isDuplicate(this.schedule.get(i))) {
+					throw new IllegalArgumentException("You are already enrolled in " + name);
+				}
 
-			try {
-				this.schedule.get(i).checkConflict(c);
-			} catch (ConflictException conflictE) {
-				throw new IllegalArgumentException("The course cannot be added due to a conflict.");
+				ConflictDetail conflict = this.schedule.get(i).findConflict(c);
+				if (conflict != null) {
+					throw new ScheduleConflictException("The course cannot be added due to a conflict.", conflict);
+				}
 			}
-			
+		}
+		if (duplicate) {
+			throw new IllegalArgumentException("You are already enrolled in " + name);
 		}
 
-		this.schedule.add(c);
+		log(j -> j.logCourse(c.getName(), c.getSection()));
+		addToSchedule(c);
+		compactJournalIfNeeded();
 		return true;
 
 	}
@@ -275,25 +971,36 @@ public class WolfScheduler {
 	 *                                  cannot be added due to a conflict." if there
 	 *                                  is a conflict between the event being added
 	 *                                  and the activities already in the schedule.
+	 *                                  A conflict is thrown as a
+	 *                                  ScheduleConflictException with the detail of
+	 *                                  the conflict.
 	 */
 	public void addEvent(String title, String meetingDays, int startTime, int endTime, int weeklyRepeat,
 			String eventDetails) {
 		Event e = new Event(title, meetingDays, startTime, endTime, weeklyRepeat, eventDetails);
-		for (int i = 0; i < this.schedule.size(); i++) {
+		boolean duplicate = isDuplicate(e);
 
-			if (e.isDuplicate(this.schedule.get(i))) {
-				throw new IllegalArgumentException("You have already" + " created an event called " + e.getTitle());
-			}
+		// only look for the conflicting activity if the event meets at a taken time
+		if (scheduleGrid.overlaps(e)) {
+			for (int i = 0; i < this.schedule.size(); i++) {
 
-			try {
-				this.schedule.get(i).checkConflict(e);
-			} catch (ConflictException conflictE) {
-				throw new IllegalArgumentException("The event cannot be added due to a conflict.");
-			}
+				if (duplicate && e.isDuplicate(this.schedule.get(i))) {
+					throw new IllegalArgumentException("You have already" + " created an event called " + e.getTitle());
+				}
 
+				ConflictDetail conflict = this.schedule.get(i).findConflict(e);
+				if (conflict != null) {
+					throw new ScheduleConflictException("The event cannot be added due to a conflict.", conflict);
+				}
+			}
+		}
+		if (duplicate) {
+			throw new IllegalArgumentException("You have already" + " created an event called " + e.getTitle());
 		}
 
-		this.schedule.add(e);
+		log(j -> j.logEvent(e));
+		addToSchedule(e);
+		compactJournalIfNeeded();
 	}
 
 	/**
@@ -315,7 +1022,17 @@ public class WolfScheduler {
 			return false;
 		}
 
+		Activity removed = schedule.get(idx);
+		log(j -> j.logRemove(removed));
 		this.schedule.remove(idx);
+		// only the minutes of the removed activity are freed
+		scheduleGrid.remove(removed);
+		if (removed instanceof Course) {
+			scheduledCourses.remove(((Course) removed).getName());
+		} else {
+			scheduledEvents.remove(removed.getTitle());
+		}
+		compactJournalIfNeeded();
 		return true;
 	}
 
@@ -324,8 +1041,244 @@ public class WolfScheduler {
 	 * schedule to "My Schedule".
 	 */
 	public void resetSchedule() {
-		schedule.removeAll(schedule);
-		setTitle("My Schedule");
+		log(j -> j.logReset());
+		clearSchedule();
+		title = "My Schedule";
+		compactJournalIfNeeded();
+	}
+
+	/**
+	 * Opens a journal that every later change to the schedule is logged to, so
+	 * the schedule is saved as it changes. The schedule is replaced with the one
+	 * the journal holds, which is empty and titled "My Schedule" for a new
+	 * journal. Changes in the journal that no longer apply, such as a course that
+	 * was removed from the catalog, are skipped, and the journal is compacted so
+	 * it matches the schedule. Any journal already open is closed first.
+	 * 
+	 * @param fileName The name of the journal file, which is created if it does
+	 *                 not exist
+	 * @throws IllegalArgumentException With the message "Cannot find file" if the
+	 *                                  journal cannot be opened
+	 */
+	public void openJournal(String fileName) {
+		closeJournal();
+		clearSchedule();
+		title = "My Schedule";
+		JournalReplayer replayer = new JournalReplayer();
+		ScheduleJournal opened;
+		try {
+			opened = new ScheduleJournal(fileName, replayer);
+		} catch (IOException e) {
+			throw new IllegalArgumentException("Cannot find file");
+		}
+		journal = opened;
+		if (replayer.skipped) {
+			compactJournal();
+		}
+	}
+
+	/**
+	 * Replaces the journal with a snapshot of the schedule, so it does not keep
+	 * growing. This is done every so often as the schedule changes, and does
+	 * nothing if no journal is open.
+	 * 
+	 * @throws IllegalArgumentException With the message "The schedule cannot be
+	 *                                  saved." if the snapshot cannot be written
+	 */
+	public void compactJournal() {
+		if (journal != null) {
+			try {
+				journal.compact(title, schedule);
+			} catch (IOException e) {
+				throw new IllegalArgumentException("The schedule cannot be saved.");
+			}
+		}
+	}
+
+	/**
+	 * Saves the changes still waiting in the journal and closes it. Does nothing
+	 * if no journal is open.
+	 * 
+	 * @throws IllegalArgumentException With the message "The schedule cannot be
+	 *                                  saved." if the changes cannot be written
+	 */
+	public void closeJournal() {
+		if (journal != null) {
+			ScheduleJournal closing = journal;
+			journal = null;
+			try {
+				closing.close();
+			} catch (IOException e) {
+				throw new IllegalArgumentException("The schedule cannot be saved.");
+			}
+		}
+	}
+
+	/**
+	 * Closes the files the scheduler keeps open: the course records file of a
+	 * catalog read on demand and the journal, if one is open. A catalog shared
+	 * with other schedulers stays open until every one of them is closed. Courses
+	 * that are not in the cache can't be read from the catalog after it is
+	 * closed. Closing the scheduler again does nothing.
+	 * 
+	 * @throws IllegalArgumentException With the message "The schedule cannot be
+	 *                                  saved." if the journal cannot be written
+	 */
+	public void close() {
+		if (catalogIndex != null && !catalogClosed) {
+			catalogClosed = true;
+			try {
+				catalogIndex.close();
+			} catch (IOException e) {
+				// nothing is lost, since the file is only read
+			}
+		}
+		closeJournal();
+	}
+
+	/**
+	 * Logs a change to the journal, if one is open, before it is made to the
+	 * schedule.
+	 * 
+	 * @param change Logs the change to the journal
+	 * @throws IllegalArgumentException With the message "The schedule cannot be
+	 *                                  saved." if the journal cannot be written
+	 */
+	private void log(JournalChange change) {
+		if (journal != null) {
+			try {
+				change.log(journal);
+			} catch (IOException e) {
+				throw new IllegalArgumentException("The schedule cannot be saved.");
+			}
+		}
+	}
+
+	/**
+	 * Compacts the journal if enough changes have been logged since it was last
+	 * compacted.
+	 */
+	private void compactJournalIfNeeded() {
+		if (journal != null && journal.needsCompaction()) {
+			try {
+				journal.compact(title, schedule);
+			} catch (IOException e) {
+				// the journal still has every change, so it is compacted after the next one
+			}
+		}
+	}
+
+	/**
+	 * A change to the schedule as it is logged to the journal.
+	 */
+	private interface JournalChange {
+
+		/**
+		 * Logs the change to the journal.
+		 * 
+		 * @param journal The journal to log the change to
+		 * @throws IOException if the journal cannot be written
+		 */
+		void log(ScheduleJournal journal) throws IOException;
+	}
+
+	/**
+	 * Makes the changes in a journal to the schedule as the journal is opened. The
+	 * journal is not open yet, so the changes are not logged again.
+	 */
+	private class JournalReplayer implements ScheduleJournalListener {
+
+		/** True if a change in the journal could not be made */
+		private boolean skipped;
+
+		/**
+		 * Sets the title of the schedule.
+		 * 
+		 * @param newTitle The new title
+		 */
+		@Override
+		public void titleSet(String newTitle) {
+			title = newTitle;
+		}
+
+		/**
+		 * Adds the course to the schedule.
+		 * 
+		 * @param name    The name of the course
+		 * @param section The section of the course
+		 */
+		@Override
+		public void courseAdded(String name, String section) {
+			try {
+				skipped |= !addCourse(name, section);
+			} catch (IllegalArgumentException e) {
+				skipped = true;
+			}
+		}
+
+		/**
+		 * Adds the event to the schedule.
+		 * 
+		 * @param eventTitle   The title of the event
+		 * @param meetingDays  The meeting days of the event
+		 * @param startTime    The start time of the event
+		 * @param endTime      The end time of the event
+		 * @param weeklyRepeat How often the event is repeated
+		 * @param eventDetails The details of the event
+		 */
+		@Override
+		public void eventAdded(String eventTitle, String meetingDays, int startTime, int endTime, int weeklyRepeat,
+				String eventDetails) {
+			try {
+				addEvent(eventTitle, meetingDays, startTime, endTime, weeklyRepeat, eventDetails);
+			} catch (IllegalArgumentException e) {
+				skipped = true;
+			}
+		}
+
+		/**
+		 * Removes the course with the name and section from the schedule.
+		 * 
+		 * @param name    The name of the course
+		 * @param section The section of the course
+		 */
+		@Override
+		public void courseRemoved(String name, String section) {
+			for (int i = 0; i < schedule.size(); i++) {
+				if (schedule.get(i) instanceof Course) {
+					Course c = (Course) schedule.get(i);
+					if (c.getName().equals(name) && c.getSection().equals(section)) {
+						removeActivity(i);
+						return;
+					}
+				}
+			}
+			skipped = true;
+		}
+
+		/**
+		 * Removes the event with the title from the schedule.
+		 * 
+		 * @param eventTitle The title of the event
+		 */
+		@Override
+		public void eventRemoved(String eventTitle) {
+			for (int i = 0; i < schedule.size(); i++) {
+				if (schedule.get(i) instanceof Event && schedule.get(i).getTitle().equals(eventTitle)) {
+					removeActivity(i);
+					return;
+				}
+			}
+			skipped = true;
+		}
+
+		/**
+		 * Resets the schedule.
+		 */
+		@Override
+		public void scheduleReset() {
+			resetSchedule();
+		}
 	}
 
 }
@@ -9,6 +9,9 @@ import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.awt.event.MouseEvent;
 import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletionException;
 
 import javax.swing.BorderFactory;
 import javax.swing.JButton;
@@ -19,10 +22,12 @@ import javax.swing.JFrame;
 import javax.swing.JLabel;
 import javax.swing.JOptionPane;
 import javax.swing.JPanel;
+import javax.swing.JProgressBar;
 import javax.swing.JScrollPane;
 import javax.swing.JTable;
 import javax.swing.JTextField;
 import javax.swing.ListSelectionModel;
+import javax.swing.SwingUtilities;
 import javax.swing.border.Border;
 import javax.swing.border.EtchedBorder;
 import javax.swing.border.TitledBorder;
@@ -31,6 +36,8 @@ import javax.swing.event.ListSelectionListener;
 import javax.swing.table.AbstractTableModel;
 
 import edu.ncsu.csc216.wolf_scheduler.course.Course;
+import edu.ncsu.csc216.wolf_scheduler.io.CourseLoadListener;
+import edu.ncsu.csc216.wolf_scheduler.scheduler.ScheduleConflictException;
 import edu.ncsu.csc216.wolf_scheduler.scheduler.WolfScheduler;
 
 /**
@@ -55,6 +62,10 @@ public class WolfSchedulerGUI extends JFrame implements ActionListener {
 	private SchedulerPanel pnlScheduler;
 	/** Schedule panel */
 	private SchedulePanel pnlSchedule;
+	/** Constant to identify LoadingPanel for {@link CardLayout}. */
+	private static final String LOADING_PANEL = "LoadingPanel";
+	/** Panel shown while the catalog is loading */
+	private LoadingPanel pnlLoading;
 	/** Reference to {@link CardLayout} for panel.  Stacks all of the panels. */
 	private CardLayout cardLayout;
 	/** Reference to the WolfScheduler */
@@ -73,26 +84,24 @@ public class WolfSchedulerGUI extends JFrame implements ActionListener {
 		setTitle(APP_TITLE);
 		setDefaultCloseOperation(EXIT_ON_CLOSE);
 		
-		//Construct the underlying model object
+		//Get the catalog file for the underlying model object
+		String fileName = null;
 		try {			
-			scheduler = new WolfScheduler(getFileName(true));
+			fileName = getFileName(true);
 		} catch (IllegalStateException e) {
 			System.exit(1);
 		}
 		
-		//Construct panels
-		pnlScheduler = new SchedulerPanel();
-		pnlSchedule = new SchedulePanel();
-		
 		//Create JPanel that will hold the rest of the GUI information.
 		//The JPanel utilizes a CardLayout, which stacks several different
 		//JPanels.  User actions lead to switching which "Card" is visible.
+		//The loading panel is shown until the catalog has been read.
+		pnlLoading = new LoadingPanel();
 		panel = new JPanel();
 		cardLayout = new CardLayout();
 		panel.setLayout(cardLayout);
-		panel.add(pnlScheduler, SCHEDULER_PANEL);
-		panel.add(pnlSchedule, SCHEDULE_PANEL);
-		cardLayout.show(panel, SCHEDULER_PANEL);
+		panel.add(pnlLoading, LOADING_PANEL);
+		cardLayout.show(panel, LOADING_PANEL);
 		
 		//Add panel to the container
 		Container c = getContentPane();
@@ -100,6 +109,41 @@ public class WolfSchedulerGUI extends JFrame implements ActionListener {
 		
 		//Set the GUI visible
 		setVisible(true);
+		
+		//Construct the underlying model object off of the event dispatch thread
+		WolfScheduler.loadAsync(fileName, new CourseLoadListener() {
+			
+			@Override
+			public void coursesLoaded(List<Course> batch, int recordsRead, long bytesRead, long totalBytes) {
+				SwingUtilities.invokeLater(() -> pnlLoading.addCourses(batch, bytesRead, totalBytes));
+			}
+			
+		}).whenComplete((loaded, error) -> SwingUtilities.invokeLater(() -> finishLoading(loaded, error)));
+	}
+	
+	/**
+	 * Shows the scheduler once the catalog has been read. If the catalog could
+	 * not be read, the error is shown and the program exits.
+	 * @param loaded the WolfScheduler constructed, or null if there was an error
+	 * @param error the error constructing the WolfScheduler, or null
+	 */
+	private void finishLoading(WolfScheduler loaded, Throwable error) {
+		if (error != null) {
+			Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+			JOptionPane.showMessageDialog(this, cause.getMessage());
+			System.exit(1);
+		}
+		scheduler = loaded;
+		
+		//Construct panels
+		pnlScheduler = new SchedulerPanel();
+		pnlSchedule = new SchedulePanel();
+		panel.add(pnlScheduler, SCHEDULER_PANEL);
+		panel.add(pnlSchedule, SCHEDULE_PANEL);
+		cardLayout.show(panel, SCHEDULER_PANEL);
+		panel.remove(pnlLoading);
+		pnlLoading = null;
+		panel.revalidate();
 	}
 	
 	/**
@@ -141,6 +185,123 @@ public class WolfSchedulerGUI extends JFrame implements ActionListener {
 		new WolfSchedulerGUI();
 	}
 	
+	/**
+	 * Inner class that creates the look and behavior for the {@link JPanel} that 
+	 * shows the progress of loading the catalog and the courses loaded so far.
+	 * @author Sanjana Cheerla
+	 */
+	private class LoadingPanel extends JPanel {
+		/** ID number used for object serialization. */
+		private static final long serialVersionUID = 1L;
+		/** Progress bar for the bytes of the catalog read */
+		private JProgressBar progressLoading;
+		/** TableModel for the courses loaded so far */
+		private LoadedCourseTableModel loadedTableModel;
+		
+		/**
+		 * Creates the progress bar and the table of courses loaded so far.
+		 */
+		public LoadingPanel() {
+			super(new BorderLayout());
+			
+			progressLoading = new JProgressBar(0, 100);
+			progressLoading.setIndeterminate(true);
+			progressLoading.setStringPainted(true);
+			progressLoading.setString("Loading course catalog...");
+			
+			loadedTableModel = new LoadedCourseTableModel();
+			JTable tableLoaded = new JTable(loadedTableModel);
+			tableLoaded.setEnabled(false);
+			tableLoaded.setFillsViewportHeight(true);
+			JScrollPane scrollLoaded = new JScrollPane(tableLoaded);
+			
+			Border lowerEtched = BorderFactory.createEtchedBorder(EtchedBorder.LOWERED);
+			TitledBorder borderLoaded = BorderFactory.createTitledBorder(lowerEtched, "Course Catalog");
+			scrollLoaded.setBorder(borderLoaded);
+			scrollLoaded.setToolTipText("Course Catalog");
+			
+			add(progressLoading, BorderLayout.NORTH);
+			add(scrollLoaded, BorderLayout.CENTER);
+		}
+		
+		/**
+		 * Adds a batch of loaded courses to the table and updates the progress bar.
+		 * @param batch the courses loaded since the last batch
+		 * @param bytesRead the number of bytes of the catalog read so far
+		 * @param totalBytes the size of the catalog, or 0 if it is not known
+		 */
+		public void addCourses(List<Course> batch, long bytesRead, long totalBytes) {
+			loadedTableModel.addCourses(batch);
+			if (totalBytes > 0) {
+				progressLoading.setIndeterminate(false);
+				progressLoading.setValue((int) Math.min(100, bytesRead * 100 / totalBytes));
+			}
+			progressLoading.setString("Loaded " + loadedTableModel.getRowCount() + " courses");
+		}
+		
+		/**
+		 * {@link LoadedCourseTableModel} is the object underlying the {@link JTable} object
+		 * that displays the {@link Course}s loaded so far to the user.
+		 * @author Sanjana Cheerla
+		 */
+		private class LoadedCourseTableModel extends AbstractTableModel {
+			
+			/** ID number used for object serialization. */
+			private static final long serialVersionUID = 1L;
+			/** Column names for the table */
+			private String [] columnNames = {"Name", "Section", "Title", "Meeting Information"};
+			/** Rows of the courses loaded so far */
+			private ArrayList<String []> data = new ArrayList<String []>();
+			
+			/**
+			 * Adds rows for the courses to the end of the table.
+			 * @param courses the courses to add
+			 */
+			public void addCourses(List<Course> courses) {
+				if (courses.isEmpty()) {
+					return;
+				}
+				int first = data.size();
+				for (Course c : courses) {
+					data.add(c.getShortDisplayArray());
+				}
+				fireTableRowsInserted(first, data.size() - 1);
+			}
+
+			/**
+			 * Returns the number of columns in the table.
+			 * @return the number of columns in the table.
+			 */
+			public int getColumnCount() {
+				return columnNames.length;
+			}
+
+			/**
+			 * Returns the number of rows in the table.
+			 * @return the number of rows in the table.
+			 */
+			public int getRowCount() {
+				return data.size();
+			}
+			
+			/**
+			 * Returns the column name at the given index.
+			 * @return the column name at the given column.
+			 */
+			public String getColumnName(int col) {
+				return columnNames[col];
+			}
+
+			/**
+			 * Returns the data at the given {row, col} index.
+			 * @return the data at the given location.
+			 */
+			public Object getValueAt(int row, int col) {
+				return data.get(row)[col];
+			}
+		}
+	}
+	
 	/**
 	 * Inner class that creates the look and behavior for the {@link JPanel} that 
 	 * shows the list of requirements.
@@ -538,6 +699,9 @@ public class WolfSchedulerGUI extends JFrame implements ActionListener {
 						if (!scheduler.addCourse(tableCatalog.getValueAt(row, 0).toString(), tableCatalog.getValueAt(row, 1).toString())) {
 							JOptionPane.showMessageDialog(WolfSchedulerGUI.this, "Course doesn't exist.");
 						}
+					} catch (ScheduleConflictException sce) {
+						JOptionPane.showMessageDialog(WolfSchedulerGUI.this,
+								sce.getMessage() + "\n" + sce.getConflict().getDescription());
 					} catch (IllegalArgumentException iae) {
 						JOptionPane.showMessageDialog(WolfSchedulerGUI.this, iae.getMessage());
 					}
@@ -654,6 +818,9 @@ public class WolfSchedulerGUI extends JFrame implements ActionListener {
 					if (message == null || "".equals(message)) {
 						message = "The event is invalid";
 					}
+					if (iae instanceof ScheduleConflictException) {
+						message += "\n" + ((ScheduleConflictException) iae).getConflict().getDescription();
+					}
 					JOptionPane.showMessageDialog(WolfSchedulerGUI.this, message);
 				}
 			}
@@ -745,6 +912,8 @@ public class WolfSchedulerGUI extends JFrame implements ActionListener {
 			 * @return the number of rows in the table.
 			 */
 			public int getRowCount() {
+				if (catalog)
+					return scheduler.getCatalogSize();
 				if (data == null) 
 					return 0;
 				return data.length;
@@ -759,10 +928,16 @@ public class WolfSchedulerGUI extends JFrame implements ActionListener {
 			}
 
 			/**
-			 * Returns the data at the given {row, col} index.
+			 * Returns the data at the given {row, col} index. Catalog rows are
+			 * read from the {@link WolfScheduler} only when they are displayed.
 			 * @return the data at the given location.
 			 */
 			public Object getValueAt(int row, int col) {
+				if (catalog) {
+					if (row < 0 || row >= scheduler.getCatalogSize())
+						return null;
+					return scheduler.getCatalogRow(row)[col];
+				}
 				if (data == null)
 					return null;
 				try {
@@ -788,7 +963,7 @@ public class WolfSchedulerGUI extends JFrame implements ActionListener {
 			 */
 			private void updateData() {
 				if (catalog) {
-					data = scheduler.getCourseCatalog();
+					fireTableDataChanged();
 				} else {
 					data = scheduler.getScheduledActivities();
 				}
@@ -5,6 +5,9 @@ package edu.ncsu.csc216.wolf_scheduler.course;
 
 import static org.junit.Assert.*;
 
+import java.io.IOException;
+import java.util.Random;
+
 import org.junit.Test;
 
 /**
@@ -308,4 +311,107 @@ public class ActivityTest {
 		
 	}
 
+
+	/**
+	 * Tests that checkConflict() finds the same conflicts as comparing each pair
+	 * of meeting day letters of the activities, for random courses and events,
+	 * and for activities with meeting days that aren't all day letters, and that
+	 * isConflict() and findConflict() find the same conflicts as checkConflict().
+	 */
+	@Test
+	public void testCheckConflictMatchesDayByDay() {
+		Random random = new Random(216);
+		String[] courseDays = { "M", "T", "W", "H", "F", "MW", "TH", "MWF", "MTWHF", "A" };
+		String[] eventDays = { "U", "S", "SU", "MTWHFSU", "UMTHFS", "W" };
+		int[] times = { 0, 800, 859, 900, 930, 1100, 1101, 1330, 1445, 2359 };
+		Activity[] activities = new Activity[200];
+		for (int i = 0; i < activities.length; i++) {
+			int start = times[random.nextInt(times.length)];
+			int end = Math.max(start, times[random.nextInt(times.length)]);
+			if (i % 2 == 0) {
+				activities[i] = new Course("CSC" + i, "Title", "001", 3, "id",
+						courseDays[random.nextInt(courseDays.length)], start, end);
+			} else {
+				activities[i] = new Event("Event" + i, eventDays[random.nextInt(eventDays.length)], start, end, 1,
+						"");
+			}
+		}
+		activities[0] = new LetterActivity("XM", 900, 1000);
+		activities[2] = new LetterActivity("X", 900, 1000);
+		activities[4] = new LetterActivity("A", 900, 1000);
+
+		for (Activity a1 : activities) {
+			for (Activity a2 : activities) {
+				boolean conflict;
+				try {
+					a1.checkConflict(a2);
+					conflict = false;
+				} catch (ConflictException e) {
+					conflict = true;
+				}
+				assertEquals(a1 + " / " + a2, conflictsDayByDay(a1, a2), conflict);
+				assertEquals(a1 + " / " + a2, conflict, a1.isConflict(a2));
+				assertEquals(a1 + " / " + a2, conflict, a1.findConflict(a2) != null);
+			}
+		}
+	}
+
+	/**
+	 * Returns true if the activities meet on a common day letter at overlapping
+	 * times, ends included, unless one of them is arranged.
+	 * 
+	 * @param a1 the first activity
+	 * @param a2 the second activity
+	 * @return true if the activities conflict
+	 */
+	private static boolean conflictsDayByDay(Activity a1, Activity a2) {
+		if (a1.getMeetingDays().equals("A") || a2.getMeetingDays().equals("A")) {
+			return false;
+		}
+		for (int i = 0; i < a1.getMeetingDays().length(); i++) {
+			if (a2.getMeetingDays().indexOf(a1.getMeetingDays().charAt(i)) >= 0
+					&& a2.getStartTime() <= a1.getEndTime() && a2.getEndTime() >= a1.getStartTime()) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Activity that takes any meeting day letters.
+	 */
+	private static class LetterActivity extends Activity {
+
+		/**
+		 * Constructs a LetterActivity.
+		 * 
+		 * @param meetingDays the meeting days
+		 * @param startTime   the start time
+		 * @param endTime     the end time
+		 */
+		LetterActivity(String meetingDays, int startTime, int endTime) {
+			super("Letters", meetingDays, startTime, endTime);
+		}
+
+		@Override
+		public String[] getShortDisplayArray() {
+			return new String[0];
+		}
+
+		@Override
+		public String[] getLongDisplayArray() {
+			return new String[0];
+		}
+
+		@Override
+		public boolean isDuplicate(Activity activity) {
+			return false;
+		}
+
+		@Override
+		public void appendRecord(Appendable out) throws IOException {
+			out.append(getTitle()).append(',').append(getMeetingDays());
+		}
+	}
+
 }
@@ -0,0 +1,59 @@
+package edu.ncsu.csc216.wolf_scheduler.course;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Test;
+
+/**
+ * Tests ConflictDetail and Activity.findConflict().
+ *
+ * @author Sanjana Cheerla
+ */
+public class ConflictDetailTest {
+
+	/**
+	 * Tests the detail of a conflict between two courses.
+	 */
+	@Test
+	public void testCourseConflict() {
+		Course c1 = new Course("CSC116", "Intro to Programming - Java", "001", 3, "jdyoung2", "MW", 910, 1100);
+		Course c2 = new Course("CSC226", "Discrete Mathematics for Computer Scientists", "001", 3, "tmbarnes", "MWF",
+				935, 1025);
+		ConflictDetail conflict = c1.findConflict(c2);
+		assertSame(c1, conflict.getActivity());
+		assertEquals("MW", conflict.getMeetingDays());
+		assertEquals(935, conflict.getStartTime());
+		assertEquals(1025, conflict.getEndTime());
+		assertEquals(50, conflict.getMinutes());
+		assertEquals("MW 9:35AM-10:25AM", conflict.getMeetingString());
+		assertEquals("Conflicts with CSC116-001 on MW 9:35AM-10:25AM (50 minutes).", conflict.getDescription());
+
+		conflict = c2.findConflict(c1);
+		assertSame(c2, conflict.getActivity());
+		assertEquals("MW", conflict.getMeetingDays());
+		assertEquals("Conflicts with CSC226-001 on MW 9:35AM-10:25AM (50 minutes).", conflict.getDescription());
+	}
+
+	/**
+	 * Tests the detail of a conflict with an event, and of activities that only
+	 * share the minute one ends and the other starts.
+	 */
+	@Test
+	public void testEventConflict() {
+		Event lunch = new Event("Lunch", "UMTHFS", 1200, 1330, 1, "");
+		Course course = new Course("CSC216", "Programming Concepts - Java", "001", 4, "sesmith5", "TH", 1330, 1445);
+		ConflictDetail conflict = lunch.findConflict(course);
+		assertEquals("TH", conflict.getMeetingDays());
+		assertEquals(1330, conflict.getStartTime());
+		assertEquals(1330, conflict.getEndTime());
+		assertEquals(0, conflict.getMinutes());
+		assertEquals("Conflicts with Lunch on TH 1:30PM-1:30PM (0 minutes).", conflict.getDescription());
+
+		Event walk = new Event("Walk", "SU", 1329, 1400, 1, "");
+		assertEquals("Conflicts with Lunch on US 1:29PM-1:30PM (1 minute).", lunch.findConflict(walk).getDescription());
+		assertNull(lunch.findConflict(new Event("Dinner", "MTWHFSU", 1331, 1400, 1, "")));
+		assertNull(course.findConflict(new Course("CSC216", "Programming Concepts - Java", "601", 4, "jep", "A")));
+	}
+}
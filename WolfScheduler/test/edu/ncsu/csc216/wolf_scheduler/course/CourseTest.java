@@ -2,6 +2,9 @@ package edu.ncsu.csc216.wolf_scheduler.course;
 
 import static org.junit.Assert.*;
 
+import java.io.IOException;
+import java.io.StringWriter;
+
 import org.junit.Test;
 
 /**
@@ -717,6 +720,31 @@ public class CourseTest {
 		Activity c2 = new Course(NAME, TITLE, SECTION, CREDITS, INSTRUCTOR_ID, "A");
 		String s2 = "CSC216,Programming Concepts - Java,001,4,sesmith5,A";
 		assertEquals(s2, c2.toString());
+
+		Activity c3 = new Course(NAME, "Topics in CS, \"Advanced\"", SECTION, CREDITS, INSTRUCTOR_ID, "A");
+		String s3 = "CSC216,\"Topics in CS, \"\"Advanced\"\"\",001,4,sesmith5,A";
+		assertEquals(s3, c3.toString());
+	}
+
+	/**
+	 * Tests that Course.appendRecord() appends the same record as toString() to
+	 * any Appendable.
+	 */
+	@Test
+	public void testAppendRecord() throws IOException {
+		Activity c1 = new Course(NAME, "Topics in CS, \"Advanced\"", SECTION, CREDITS, "\"x\"", MEETING_DAYS,
+				START_TIME, END_TIME);
+		StringWriter writer = new StringWriter();
+		writer.write("> ");
+		c1.appendRecord(writer);
+		assertEquals("> " + c1.toString(), writer.toString());
+		assertEquals("CSC216,\"Topics in CS, \"\"Advanced\"\"\",001,4,\"\"\"x\"\"\",MW,1330,1445", c1.toString());
+
+		Activity c2 = new Course(NAME, TITLE, SECTION, CREDITS, INSTRUCTOR_ID, "A");
+		StringBuilder builder = new StringBuilder("> ");
+		c2.appendRecord(builder);
+		c1.appendRecord(builder);
+		assertEquals("> " + c2.toString() + c1.toString(), builder.toString());
 	}
 
 }
@@ -2,6 +2,9 @@ package edu.ncsu.csc216.wolf_scheduler.course;
 
 import static org.junit.Assert.*;
 
+import java.io.IOException;
+import java.io.StringWriter;
+
 import org.junit.Test;
 
 /**
@@ -489,6 +492,26 @@ public class EventTest {
 				EVENT_DETAILS);
 		assertEquals(EVENT_TITLE + "," + EVENT_MEETING_DAYS + "," + EVENT_START_TIME + "," + EVENT_END_TIME + ","
 				+ EVENT_WEEKLY_REPEAT + "," + EVENT_DETAILS, event.toString());
+
+		event = new Event(EVENT_TITLE, EVENT_MEETING_DAYS, EVENT_START_TIME, EVENT_END_TIME, EVENT_WEEKLY_REPEAT,
+				"Bring water, shoes");
+		assertEquals(EVENT_TITLE + "," + EVENT_MEETING_DAYS + "," + EVENT_START_TIME + "," + EVENT_END_TIME + ","
+				+ EVENT_WEEKLY_REPEAT + ",\"Bring water, shoes\"", event.toString());
+	}
+
+	/**
+	 * Tests that Event.appendRecord() appends the same record as toString() to
+	 * any Appendable.
+	 */
+	@Test
+	public void testAppendRecord() throws IOException {
+		Event event = new Event("\"Leg\" day", EVENT_MEETING_DAYS, EVENT_START_TIME, EVENT_END_TIME,
+				EVENT_WEEKLY_REPEAT, "Bring water, shoes");
+		StringWriter writer = new StringWriter();
+		event.appendRecord(writer);
+		assertEquals(event.toString(), writer.toString());
+		assertEquals("\"\"\"Leg\"\" day\"," + EVENT_MEETING_DAYS + "," + EVENT_START_TIME + "," + EVENT_END_TIME
+				+ "," + EVENT_WEEKLY_REPEAT + ",\"Bring water, shoes\"", writer.toString());
 	}
 
 	/**
@@ -0,0 +1,111 @@
+package edu.ncsu.csc216.wolf_scheduler.course;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Tests MeetingTimeIndex.
+ *
+ * @author Sanjana Cheerla
+ */
+public class MeetingTimeIndexTest {
+
+	/**
+	 * Tests finding the activities that conflict with an activity.
+	 */
+	@Test
+	public void testFindConflicts() {
+		List<Activity> activities = new ArrayList<Activity>();
+		activities.add(new Course("CSC216", "Programming Concepts - Java", "001", 4, "sesmith5", "TH", 1330, 1445));
+		activities.add(new Course("CSC216", "Programming Concepts - Java", "601", 4, "jep", "A"));
+		activities.add(new Event("Lunch", "MTWHF", 1200, 1330, 1, ""));
+		activities.add(new Event("Brunch", "SU", 1000, 1100, 1, ""));
+		MeetingTimeIndex index = new MeetingTimeIndex(activities);
+		assertEquals(4, index.size());
+
+		assertArrayEquals(new int[] { 0, 2 }, index.findConflicts(new Event("Meeting", "TH", 1300, 1330, 1, "")));
+		assertArrayEquals(new int[] { 0 }, index.findConflicts(new Event("Meeting", "H", 1445, 1500, 1, "")));
+		assertArrayEquals(new int[] { 2 }, index.findConflicts(new Event("Meeting", "MW", 0, 2359, 1, "")));
+		assertArrayEquals(new int[] { 2, 3 }, index.findConflicts(new Event("Meeting", "FU", 1100, 1200, 1, "")));
+		assertArrayEquals(new int[] {}, index.findConflicts(new Event("Meeting", "MTWHFSU", 1446, 2359, 1, "")));
+		assertArrayEquals(new int[] {},
+				index.findConflicts(new Course("CSC116", "Intro to Programming - Java", "601", 3, "jdyoung2", "A")));
+		assertArrayEquals(new int[] {}, new MeetingTimeIndex(new ArrayList<Activity>())
+				.findConflicts(new Event("Meeting", "MTWHFSU", 0, 2359, 1, "")));
+
+		try {
+			new MeetingTimeIndex(activities, new String[] { "TH", "A", "MTWHF" }, new int[4], new int[4]);
+			fail();
+		} catch (IllegalArgumentException e) {
+			// expected
+		}
+	}
+
+	/**
+	 * Tests that the activities found are the ones checkConflict() finds, for
+	 * random lists of activities, whether the index reads the meeting times from
+	 * the activities or is given them.
+	 */
+	@Test
+	public void testFindConflictsMatchesCheckConflict() {
+		Random random = new Random(216);
+		String[] days = { "M", "TH", "MWF", "MTWHF", "SU", "UMTHFS" };
+		for (int round = 0; round < 50; round++) {
+			List<Activity> activities = new ArrayList<Activity>();
+			int size = random.nextInt(200);
+			for (int i = 0; i < size; i++) {
+				activities.add(randomEvent(random, days));
+			}
+			MeetingTimeIndex index = new MeetingTimeIndex(activities);
+			String[] meetingDays = new String[size];
+			int[] startTimes = new int[size];
+			int[] endTimes = new int[size];
+			for (int i = 0; i < size; i++) {
+				meetingDays[i] = activities.get(i).getMeetingDays();
+				startTimes[i] = activities.get(i).getStartTime();
+				endTimes[i] = activities.get(i).getEndTime();
+			}
+			MeetingTimeIndex given = new MeetingTimeIndex(activities, meetingDays, startTimes, endTimes);
+			for (int i = 0; i < 100; i++) {
+				Activity candidate = randomEvent(random, days);
+				List<Integer> expected = new ArrayList<Integer>();
+				for (int j = 0; j < activities.size(); j++) {
+					try {
+						activities.get(j).checkConflict(candidate);
+					} catch (ConflictException e) {
+						expected.add(j);
+					}
+				}
+				int[] found = index.findConflicts(candidate);
+				assertArrayEquals(found, given.findConflicts(candidate));
+				assertEquals(candidate.toString(), expected.size(), found.length);
+				for (int j = 0; j < found.length; j++) {
+					assertEquals(candidate.toString(), (int) expected.get(j), found[j]);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Returns an event on random days at a random time.
+	 *
+	 * @param random the random numbers to use
+	 * @param days   the meeting days to pick from
+	 * @return the event
+	 */
+	private static Event randomEvent(Random random, String[] days) {
+		int start = random.nextInt(24) * 100 + random.nextInt(60);
+		int end = Math.min(2359, start + random.nextInt(300));
+		if (end % 100 > 59) {
+			end = end - end % 100 + 59;
+		}
+		return new Event("Event", days[random.nextInt(days.length)], start, end, 1, "");
+	}
+}
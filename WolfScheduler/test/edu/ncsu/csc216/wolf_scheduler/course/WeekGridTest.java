@@ -0,0 +1,126 @@
+package edu.ncsu.csc216.wolf_scheduler.course;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Tests WeekGrid.
+ *
+ * @author Sanjana Cheerla
+ */
+public class WeekGridTest {
+
+	/**
+	 * Tests that the ends of activities are included in the times they take.
+	 */
+	@Test
+	public void testOverlaps() {
+		WeekGrid grid = new WeekGrid();
+		assertFalse(grid.overlaps(new Event("Gym", "MTWHFSU", 0, 2359, 1, "")));
+		grid.add(new Course("CSC216", "Programming Concepts - Java", "001", 4, "sesmith5", "TH", 1330, 1445));
+		grid.add(new Course("CSC216", "Programming Concepts - Java", "601", 4, "jep", "A"));
+
+		assertTrue(grid.overlaps(new Event("Before", "H", 1200, 1330, 1, "")));
+		assertTrue(grid.overlaps(new Event("After", "T", 1445, 1500, 1, "")));
+		assertTrue(grid.overlaps(new Event("Inside", "SUT", 1400, 1400, 1, "")));
+		assertFalse(grid.overlaps(new Event("Before", "H", 1200, 1329, 1, "")));
+		assertFalse(grid.overlaps(new Event("After", "T", 1446, 1500, 1, "")));
+		assertFalse(grid.overlaps(new Event("Other days", "MWFSU", 0, 2359, 1, "")));
+		assertFalse(grid.overlaps(new Course("CSC116", "Intro to Programming - Java", "601", 3, "jdyoung2", "A")));
+
+		grid.clear();
+		assertFalse(grid.overlaps(new Event("After", "T", 1445, 1500, 1, "")));
+	}
+
+	/**
+	 * Tests that removing an activity only frees the minutes no other activity
+	 * in the grid takes.
+	 */
+	@Test
+	public void testRemove() {
+		WeekGrid grid = new WeekGrid();
+		Event gym = new Event("Gym", "MW", 800, 900, 1, "");
+		Event run = new Event("Run", "WF", 845, 1000, 1, "");
+		grid.add(gym);
+		grid.add(run);
+		grid.remove(gym);
+		assertFalse(grid.overlaps(new Event("Monday", "M", 800, 900, 1, "")));
+		assertFalse(grid.overlaps(new Event("Before", "W", 800, 844, 1, "")));
+		assertTrue(grid.overlaps(new Event("Shared", "W", 845, 845, 1, "")));
+		assertTrue(grid.overlaps(new Event("Friday", "F", 1000, 1100, 1, "")));
+
+		grid.remove(run);
+		assertFalse(grid.overlaps(new Event("Gym", "MTWHFSU", 0, 2359, 1, "")));
+	}
+
+	/**
+	 * Tests that an activity overlaps a grid exactly when it conflicts with one of
+	 * the activities in it, for random schedules, and still does after some of
+	 * them are removed.
+	 */
+	@Test
+	public void testOverlapsMatchesCheckConflict() {
+		Random random = new Random(216);
+		String[] days = { "M", "TH", "MWF", "MTWHF", "SU", "UMTHFS" };
+		WeekGrid grid = new WeekGrid();
+		for (int round = 0; round < 50; round++) {
+			List<Activity> schedule = new ArrayList<Activity>();
+			for (int i = 0; i < 10; i++) {
+				schedule.add(randomEvent(random, days));
+			}
+			grid.rebuild(schedule);
+			assertOverlapsMatch(random, days, grid, schedule);
+			for (int i = 0; i < 5; i++) {
+				grid.remove(schedule.remove(random.nextInt(schedule.size())));
+			}
+			assertOverlapsMatch(random, days, grid, schedule);
+		}
+	}
+
+	/**
+	 * Checks that random events overlap the grid exactly when they conflict with
+	 * an activity in the schedule.
+	 *
+	 * @param random   the random numbers to use
+	 * @param days     the meeting days to pick from
+	 * @param grid     the grid of the schedule
+	 * @param schedule the activities in the grid
+	 */
+	private static void assertOverlapsMatch(Random random, String[] days, WeekGrid grid, List<Activity> schedule) {
+		for (int i = 0; i < 100; i++) {
+			Activity candidate = randomEvent(random, days);
+			boolean conflict = false;
+			for (Activity activity : schedule) {
+				try {
+					activity.checkConflict(candidate);
+				} catch (ConflictException e) {
+					conflict = true;
+				}
+			}
+			assertEquals(candidate.toString(), conflict, grid.overlaps(candidate));
+		}
+	}
+
+	/**
+	 * Returns an event on random days at a random time.
+	 *
+	 * @param random the random numbers to use
+	 * @param days   the meeting days to pick from
+	 * @return the event
+	 */
+	private static Event randomEvent(Random random, String[] days) {
+		int start = random.nextInt(24) * 100 + random.nextInt(60);
+		int end = Math.min(2359, start + random.nextInt(300));
+		if (end % 100 > 59) {
+			end = end - end % 100 + 59;
+		}
+		return new Event("Event", days[random.nextInt(days.length)], start, end, 1, "");
+	}
+}
@@ -0,0 +1,176 @@
+package edu.ncsu.csc216.wolf_scheduler.io;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+
+import org.junit.Test;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Activity;
+import edu.ncsu.csc216.wolf_scheduler.course.Course;
+import edu.ncsu.csc216.wolf_scheduler.course.Event;
+
+/**
+ * Tests ActivityCalendarWriter.
+ *
+ * @author Sanjana Cheerla
+ */
+public class ActivityCalendarWriterTest {
+
+	/** First day of the term, a Monday */
+	private static final LocalDate FIRST_DAY = LocalDate.of(2024, 8, 19);
+
+	/** Last day of the term */
+	private static final LocalDate LAST_DAY = LocalDate.of(2024, 12, 6);
+
+	/**
+	 * Tests writing a calendar of courses and events.
+	 */
+	@Test
+	public void testWrite() throws IOException {
+		List<Activity> activities = new ArrayList<Activity>();
+		Course course = new Course("CSC216", "Programming Concepts - Java", "001", 4, "sesmith5", "TH", 1330, 1445);
+		Event gym = new Event("Gym, \"heavy\"", "MWF", 800, 900, 2, "Legs; arms, core\\");
+		Event brunch = new Event("Brunch", "U", 1000, 1100, 1, "");
+		activities.add(course);
+		activities.add(new Course("CSC216", "Programming Concepts - Java", "601", 4, "jep", "A"));
+		activities.add(gym);
+		activities.add(brunch);
+
+		String calendar = write("Fall, 2024", activities);
+		assertTrue(calendar.endsWith("\r\n"));
+		List<String> lines = new ArrayList<String>(Arrays.asList(calendar.split("\r\n")));
+		for (int i = 0; i < lines.size(); i++) {
+			assertTrue(lines.get(i), lines.get(i).length() <= 75);
+			if (lines.get(i).startsWith("DTSTAMP:")) {
+				assertTrue(lines.get(i), lines.get(i).matches("DTSTAMP:\\d{8}T\\d{6}Z"));
+				lines.remove(i--);
+			}
+		}
+		String name = String.format("%016x", CourseRecordParser.hashText("Fall, 2024"));
+		assertEquals(Arrays.asList("BEGIN:VCALENDAR", "VERSION:2.0",
+				"PRODID:-//NC State University//WolfScheduler//EN", "CALSCALE:GREGORIAN",
+				"X-WR-CALNAME:Fall\\, 2024",
+				"BEGIN:VEVENT", "UID:" + name + "-course-"
+						+ String.format("%016x", CourseRecordParser.hashKey("CSC216", "001")) + "@wolfscheduler",
+				"DTSTART:20240820T133000", "DTEND:20240820T144500",
+				"RRULE:FREQ=WEEKLY;BYDAY=TU,TH;UNTIL=20241206T235959",
+				"SUMMARY:CSC216 Programming Concepts - Java",
+				"DESCRIPTION:Section 001\\, 4 credits\\, instructor sesmith5", "END:VEVENT",
+				"BEGIN:VEVENT", "UID:" + name + "-event-"
+						+ String.format("%016x", CourseRecordParser.hashText(gym.getTitle())) + "@wolfscheduler",
+				"DTSTART:20240819T080000", "DTEND:20240819T090000",
+				"RRULE:FREQ=WEEKLY;INTERVAL=2;BYDAY=MO,WE,FR;UNTIL=20241206T235959",
+				"SUMMARY:Gym\\, \"heavy\"", "DESCRIPTION:Legs\\; arms\\, core\\\\", "END:VEVENT",
+				"BEGIN:VEVENT", "UID:" + name + "-event-"
+						+ String.format("%016x", CourseRecordParser.hashText("Brunch")) + "@wolfscheduler",
+				"DTSTART:20240825T100000", "DTEND:20240825T110000",
+				"RRULE:FREQ=WEEKLY;BYDAY=SU;UNTIL=20241206T235959", "SUMMARY:Brunch", "END:VEVENT",
+				"END:VCALENDAR"), lines);
+	}
+
+	/**
+	 * Tests that long lines are folded without splitting an escape or a UTF-8
+	 * character.
+	 */
+	@Test
+	public void testFolding() throws IOException {
+		StringBuilder title = new StringBuilder();
+		for (int i = 0; i < 40; i++) {
+			title.append("\u00e9,\ud83d\ude00");
+		}
+		List<Activity> activities = new ArrayList<Activity>();
+		activities.add(new Event(title.toString(), "MTWHFSU", 800, 900, 4, ""));
+		String calendar = write("Folded", activities);
+
+		for (String line : calendar.split("\r\n")) {
+			assertTrue(line, line.getBytes(StandardCharsets.UTF_8).length <= 75);
+		}
+		String unfolded = calendar.replace("\r\n ", "");
+		StringBuilder escaped = new StringBuilder("SUMMARY:");
+		escaped.append(title.toString().replace(",", "\\,"));
+		assertTrue(unfolded.contains("\r\n" + escaped + "\r\n"));
+		assertTrue(unfolded
+				.contains("\r\nRRULE:FREQ=WEEKLY;INTERVAL=4;BYDAY=MO,TU,WE,TH,FR,SA,SU;UNTIL=20241206T235959\r\n"));
+	}
+
+	/**
+	 * Tests that the UID of an activity stays the same when the schedule changes
+	 * around it or the activity is edited, and differs between calendars.
+	 */
+	@Test
+	public void testUids() throws IOException {
+		List<Activity> activities = new ArrayList<Activity>();
+		activities.add(new Course("CSC216", "Programming Concepts - Java", "001", 4, "sesmith5", "TH", 1330, 1445));
+		activities.add(new Event("Gym", "MWF", 800, 900, 1, ""));
+		List<String> uids = uids(write("Fall 2024", activities));
+		assertEquals(2, uids.size());
+
+		List<Activity> changed = new ArrayList<Activity>();
+		changed.add(new Course("CSC116", "Intro to Programming - Java", "001", 3, "jdyoung2", "MW", 910, 1100));
+		changed.add(new Event("Gym", "TH", 1700, 1800, 2, "Legs"));
+		changed.add(new Course("CSC216", "Programming Concepts - Java", "001", 4, "jtking", "MW", 1500, 1615));
+		List<String> changedUids = uids(write("Fall 2024", changed));
+		assertEquals(uids.get(1), changedUids.get(1));
+		assertEquals(uids.get(0), changedUids.get(2));
+		assertEquals(3, new HashSet<String>(changedUids).size());
+
+		List<String> otherUids = uids(write("Spring 2025", activities));
+		assertFalse(otherUids.contains(uids.get(0)));
+		assertFalse(otherUids.contains(uids.get(1)));
+	}
+
+	/**
+	 * Tests that a term must end on or after the day it starts.
+	 */
+	@Test
+	public void testInvalidTerm() {
+		try {
+			new ActivityCalendarWriter(LAST_DAY, FIRST_DAY);
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertEquals("Invalid term dates.", e.getMessage());
+		}
+	}
+
+	/**
+	 * Returns the UIDs of the events in a calendar, in order.
+	 *
+	 * @param calendar the calendar
+	 * @return the UIDs in the calendar
+	 */
+	private static List<String> uids(String calendar) {
+		List<String> uids = new ArrayList<String>();
+		for (String line : calendar.split("\r\n")) {
+			if (line.startsWith("UID:")) {
+				uids.add(line);
+			}
+		}
+		return uids;
+	}
+
+	/**
+	 * Writes a calendar of the activities for the term.
+	 *
+	 * @param calendarName the name of the calendar
+	 * @param activities   the activities in the calendar
+	 * @return the calendar
+	 * @throws IOException if the calendar can't be written
+	 */
+	private static String write(String calendarName, List<Activity> activities) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		new ActivityCalendarWriter(FIRST_DAY, LAST_DAY).write(Channels.newChannel(out), calendarName, activities);
+		return new String(out.toByteArray(), StandardCharsets.UTF_8);
+	}
+}
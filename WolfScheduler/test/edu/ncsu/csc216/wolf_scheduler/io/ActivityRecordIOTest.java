@@ -1,12 +1,25 @@
 package edu.ncsu.csc216.wolf_scheduler.io;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 import java.io.File;
+import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Scanner;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
 
 import org.junit.Test;
 
@@ -60,6 +73,292 @@ public class ActivityRecordIOTest {
 		checkFiles("test-files/expected_activity_records.txt", "test-files/actual_activity_records.txt");
 	}
 
+	/**
+	 * Tests writeActivityRecords() with gzip compression.
+	 */
+	@Test
+	public void testWriteActivityRecordsCompressed() {
+		ArrayList<Activity> activities = new ArrayList<Activity>();
+		activities.add(new Course("CSC116", "Intro to Programming - Java", "003", 3, "spbalik", "MW", 1250, 1440));
+		activities.add(new Course("CSC216", "Programming Concepts - Java", "001", 4, "sesmith5", "MW", 1330, 1445));
+		activities.add(new Course("CSC216", "Programming Concepts - Java", "601", 4, "jep", "A"));
+		
+		try {
+			File compressed = File.createTempFile("actual_course_records", ".txt.gz");
+			compressed.deleteOnExit();
+			ActivityRecordIO.writeActivityRecords(compressed.getPath(), activities, true);
+			ActivityRecordIO.writeActivityRecords("test-files/actual_course_records.txt", activities, false);
+			checkFiles("test-files/expected_course_records.txt", "test-files/actual_course_records.txt");
+
+			ArrayList<Course> courses = CourseRecordIO.readCourseRecords(compressed.getPath());
+			assertEquals(activities.size(), courses.size());
+			for (int i = 0; i < courses.size(); i++) {
+				assertEquals(activities.get(i).toString(), courses.get(i).toString());
+			}
+		} catch (IOException e) {
+			fail("Cannot write to course records file");
+		}
+	}
+
+	/**
+	 * Tests that courses with commas and quotes in their fields are read back the
+	 * same as they were written.
+	 */
+	@Test
+	public void testWriteActivityRecordsQuoted() {
+		ArrayList<Activity> activities = new ArrayList<Activity>();
+		activities.add(new Course("CSC295", "Topics in CS, Advanced", "001", 3, "jdyoung2", "MW", 1330, 1445));
+		activities.add(new Course("CSC295", "The \"Big\" Ideas", "002", 3, "jdyoung2", "A"));
+		activities.add(new Course("CSC216", "Programming Concepts - Java", "001", 4, "sesmith5", "MW", 1330, 1445));
+
+		try {
+			File file = File.createTempFile("actual_course_records", ".txt");
+			file.deleteOnExit();
+			ActivityRecordIO.writeActivityRecords(file.getPath(), activities);
+			ArrayList<Course> courses = CourseRecordIO.readCourseRecords(file.getPath());
+			assertEquals(activities, new ArrayList<Activity>(courses));
+		} catch (IOException e) {
+			fail("Cannot write to course records file");
+		}
+	}
+
+	/**
+	 * Tests that events with commas and quotes in their fields are read back the
+	 * same as they were written, and that an event can't hold a line break that
+	 * would split its record.
+	 */
+	@Test
+	public void testActivityRecordsRoundTrip() {
+		ArrayList<Activity> activities = new ArrayList<Activity>();
+		activities.add(new Event("Gym, then lunch", "MWF", 1100, 1300, 1, "Bring \"both\" shoes, water"));
+		activities.add(new Course("CSC295", "Topics in CS, Advanced", "001", 3, "jdyoung2", "TH", 1330, 1445));
+		activities.add(new Event("Exercise", "U", 800, 900, 2, ""));
+
+		try {
+			File file = File.createTempFile("actual_schedule", ".txt");
+			file.deleteOnExit();
+			ActivityRecordIO.writeActivityRecords(file.getPath(), activities);
+			ArrayList<Activity> read = ActivityRecordIO.readActivityRecords(file.getPath());
+			assertEquals(activities, read);
+			assertEquals("Bring \"both\" shoes, water", ((Event) read.get(0)).getEventDetails());
+		} catch (IOException e) {
+			fail("Cannot write to schedule file");
+		}
+
+		String[] breaks = {"bring\nshoes", "bring\r\nshoes", "bring\u2028shoes"};
+		for (int i = 0; i < breaks.length; i++) {
+			try {
+				new Event("Exercise", "MWF", 800, 900, 1, breaks[i]);
+				fail();
+			} catch (IllegalArgumentException e) {
+				assertEquals("Invalid event details.", e.getMessage());
+			}
+			try {
+				new Event(breaks[i], "MWF", 800, 900, 1, "");
+				fail();
+			} catch (IllegalArgumentException e) {
+				// expected
+			}
+		}
+	}
+
+	/**
+	 * Tests writeActivityRecordArchive() writing an entry for each schedule that
+	 * holds the same bytes as writeActivityRecords().
+	 */
+	@Test
+	public void testWriteActivityRecordArchive() throws IOException {
+		LinkedHashMap<String, ArrayList<Activity>> schedules = new LinkedHashMap<String, ArrayList<Activity>>();
+		for (int i = 0; i < 200; i++) {
+			ArrayList<Activity> activities = new ArrayList<Activity>();
+			for (int j = 0; j < i % 4; j++) {
+				activities.add(new Event("Event " + j, "MW", 800 + j * 100, 830 + j * 100, 1 + i % 4, "Details, " + i));
+			}
+			if (i % 3 == 0) {
+				activities.add(new Course("CSC216", "Programming Concepts - Java", "601", 4, "jep", "A"));
+			}
+			schedules.put("student" + i + ".txt", activities);
+		}
+		File directory = Files.createTempDirectory("actual_archive").toFile();
+		File archive = new File(directory, "schedules.zip");
+		ActivityRecordIO.writeActivityRecordArchive(archive.getPath(), schedules);
+
+		File single = new File(directory, "single.txt");
+		try (ZipFile zip = new ZipFile(archive)) {
+			assertEquals(schedules.size(), zip.size());
+			Iterator<String> names = schedules.keySet().iterator();
+			for (ZipEntry entry : Collections.list(zip.entries())) {
+				String name = names.next();
+				assertEquals(name, entry.getName());
+				ActivityRecordIO.writeActivityRecords(single.getPath(), schedules.get(name));
+				try (InputStream in = zip.getInputStream(entry)) {
+					assertArrayEquals(name, Files.readAllBytes(single.toPath()), in.readAllBytes());
+				}
+			}
+		}
+		assertTrue(single.delete());
+
+		schedules.get("student5.txt").add(new Course("CSC226", "Discrete Mathematics for Computer Scientists", "001",
+				3, "tmbarnes", "MWF", 935, 1025) {
+			@Override
+			public void appendRecord(Appendable out) {
+				throw new IllegalStateException("Write failed");
+			}
+		});
+		long written = archive.length();
+		try {
+			ActivityRecordIO.writeActivityRecordArchive(archive.getPath(), schedules);
+			fail("The write should have failed");
+		} catch (IllegalStateException e) {
+			assertEquals("Write failed", e.getMessage());
+		}
+		assertEquals(written, archive.length());
+		assertArrayEquals(new String[] {"schedules.zip"}, directory.list());
+		assertTrue(archive.delete());
+		assertTrue(directory.delete());
+	}
+
+	/**
+	 * Tests that writeActivityRecords() replaces the file in one step, leaving the
+	 * old file as it was if writing fails.
+	 */
+	@Test
+	public void testWriteActivityRecordsAtomic() {
+		ArrayList<Activity> activities = new ArrayList<Activity>();
+		activities.add(new Course("CSC116", "Intro to Programming - Java", "003", 3, "spbalik", "MW", 1250, 1440));
+		activities.add(new Course("CSC216", "Programming Concepts - Java", "001", 4, "sesmith5", "MW", 1330, 1445));
+
+		try {
+			File directory = Files.createTempDirectory("actual_records").toFile();
+			File file = new File(directory, "schedule.txt");
+			ActivityRecordIO.writeActivityRecords(file.getPath(), activities);
+			List<String> written = Files.readAllLines(file.toPath());
+			assertEquals(2, written.size());
+			assertEquals(activities.get(1).toString(), written.get(1));
+
+			activities.add(new Course("CSC226", "Discrete Mathematics for Computer Scientists", "001", 3, "tmbarnes",
+					"MWF", 935, 1025) {
+				@Override
+				public void appendRecord(Appendable out) {
+					throw new IllegalStateException("Write failed");
+				}
+			});
+			try {
+				ActivityRecordIO.writeActivityRecords(file.getPath(), activities);
+				fail("The write should have failed");
+			} catch (IllegalStateException e) {
+				assertEquals("Write failed", e.getMessage());
+			}
+			assertEquals(written, Files.readAllLines(file.toPath()));
+			assertArrayEquals(new String[] {"schedule.txt"}, directory.list());
+			try {
+				ActivityRecordIO.writeActivityRecords(file.getPath(), activities, true);
+				fail("The compressed write should have failed");
+			} catch (IllegalStateException e) {
+				assertEquals("Write failed", e.getMessage());
+			}
+			assertEquals(written, Files.readAllLines(file.toPath()));
+			assertArrayEquals(new String[] {"schedule.txt"}, directory.list());
+
+			try {
+				ActivityRecordIO.writeActivityRecords(new File(directory, "missing/schedule.txt").getPath(), activities);
+				fail("The directory does not exist");
+			} catch (IOException e) {
+				assertArrayEquals(new String[] {"schedule.txt"}, directory.list());
+			}
+
+			assertTrue(file.delete());
+			assertTrue(directory.delete());
+		} catch (IOException e) {
+			fail("Cannot write to schedule file");
+		}
+	}
+
+	/**
+	 * Tests reading back the activities written by writeActivityRecords().
+	 */
+	@Test
+	public void testReadActivityRecords() {
+		ArrayList<Activity> activities = new ArrayList<Activity>();
+		activities.add(new Course("CSC116", "Intro to Programming - Java", "003", 3, "spbalik", "MW", 1250, 1440));
+		activities.add(new Event("Exercise", "UMTHFS", 800, 900, 1, "Cardio, with rest day on Wednesday."));
+		activities.add(new Course("CSC216", "Programming Concepts - Java", "601", 4, "jep", "A"));
+		activities.add(new Event("Lunch", "MWF", 1200, 1230, 2, ""));
+
+		try {
+			File file = File.createTempFile("actual_activity_records", ".txt");
+			file.deleteOnExit();
+			ActivityRecordIO.writeActivityRecords(file.getPath(), activities);
+			assertEquals(activities, ActivityRecordIO.readActivityRecords(file.getPath()));
+
+			ActivityRecordIO.writeActivityRecords(file.getPath(), activities, true);
+			assertEquals(activities, ActivityRecordIO.readActivityRecords(file.getPath()));
+
+			Files.write(file.toPath(), ("CSC216,Programming Concepts - Java,601,4,jep,A\r\n\r\nnot a record\r"
+					+ "Exercise,UMTHFS,800,700,1,Late\nExercise,UMTHFS,800,900,1,a,b\nLunch,MWF,1200,1230,2,").getBytes());
+			ArrayList<Activity> read = ActivityRecordIO.readActivityRecords(file.getPath());
+			assertEquals(2, read.size());
+			assertEquals(activities.get(2), read.get(0));
+			assertEquals(activities.get(3), read.get(1));
+		} catch (IOException e) {
+			fail("Cannot read activity records file");
+		}
+
+		try {
+			ActivityRecordIO.readActivityRecords("test-files/no_such_file.txt");
+			fail("The file does not exist");
+		} catch (FileNotFoundException e) {
+			assertEquals("Cannot read test-files/no_such_file.txt", e.getMessage());
+		}
+	}
+
+	/**
+	 * Tests reading activities with their courses looked up in a catalog.
+	 */
+	@Test
+	public void testReadActivityRecordsFromCatalog() {
+		Course catalogCourse = new Course("CSC216", "Programming Concepts - Java", "001", 4, "sesmith5", "TH", 1500,
+				1615);
+		ArrayList<Activity> activities = new ArrayList<Activity>();
+		activities.add(new Course("CSC216", "Programming Concepts - Java", "001", 4, "sesmith5", "MW", 1330, 1445));
+		activities.add(new Event("Exercise", "UMTHFS", 800, 900, 1, "Cardio"));
+		activities.add(new Course("CSC116", "Intro to Programming - Java", "003", 3, "spbalik", "MW", 1250, 1440));
+
+		try {
+			File directory = Files.createTempDirectory("actual_schedules").toFile();
+			File first = new File(directory, "a.txt");
+			File second = new File(directory, "b.txt");
+			File hidden = new File(directory, ".b.txt.tmp");
+			ActivityRecordIO.writeActivityRecords(second.getPath(), activities);
+			ActivityRecordIO.writeActivityRecords(first.getPath(), new ArrayList<Activity>(activities.subList(1, 2)));
+			ActivityRecordIO.writeActivityRecords(hidden.getPath(), activities);
+
+			ArrayList<Activity> read = ActivityRecordIO.readActivityRecords(second.getPath(),
+					(name, section) -> name.equals("CSC216") && section.equals("001") ? catalogCourse : null);
+			assertEquals(2, read.size());
+			assertSame(catalogCourse, read.get(0));
+			assertEquals(activities.get(1), read.get(1));
+
+			LinkedHashMap<String, ArrayList<Activity>> schedules = ActivityRecordIO
+					.readActivityRecordDirectory(directory.getPath(), (name, section) -> catalogCourse);
+			assertEquals(Arrays.asList("a.txt", "b.txt"), new ArrayList<String>(schedules.keySet()));
+			assertEquals(activities.subList(1, 2), schedules.get("a.txt"));
+			assertEquals(3, schedules.get("b.txt").size());
+			assertSame(catalogCourse, schedules.get("b.txt").get(2));
+
+			assertTrue(first.delete() && second.delete() && hidden.delete() && directory.delete());
+		} catch (IOException e) {
+			fail("Cannot read activity records files");
+		}
+
+		try {
+			ActivityRecordIO.readActivityRecordDirectory("test-files/no_such_directory", (name, section) -> null);
+			fail("The directory does not exist");
+		} catch (FileNotFoundException e) {
+			assertEquals("Cannot read test-files/no_such_directory", e.getMessage());
+		}
+	}
+
 	/**
 	 * Helper method to compare two files for the same contents
 	 * @param expFile expected output
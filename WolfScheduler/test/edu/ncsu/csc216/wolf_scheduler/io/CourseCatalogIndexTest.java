@@ -0,0 +1,259 @@
+package edu.ncsu.csc216.wolf_scheduler.io;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.stream.IntStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.junit.Test;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Course;
+
+/**
+ * Tests CourseCatalogIndex.
+ *
+ * @author Sanjana Cheerla
+ */
+public class CourseCatalogIndexTest {
+
+	/** Valid course records */
+	private final String validTestFile = "test-files/course_records.txt";
+	/** Invalid course records */
+	private final String invalidTestFile = "test-files/invalid_course_records.txt";
+
+	/**
+	 * Tests the index has the same courses in the same order as
+	 * readCourseRecords().
+	 *
+	 * @throws IOException if a file cannot be read or written
+	 */
+	@Test
+	public void testGet() throws IOException {
+		StringBuilder records = new StringBuilder();
+		String[] endings = {"\n", "\r\n", "\r", "\u2028", "\u0085"};
+		for (int i = 0; i < 5000; i++) {
+			records.append(String.format("CSC%03d,Title %d,%03d,3,inst,MW,1000,1050", i % 500, i, i / 500));
+			records.append(endings[i % endings.length]);
+			if (i % 7 == 0) {
+				records.append(String.format("CSC%03d,Duplicate,%03d,3,inst,A\n", i % 500, i / 500));
+				records.append("CSC216,Invalid,001,4,sesmith5,MW,1445,1330\r\n\n");
+			}
+		}
+		records.append("CSC999,Last,999,3,inst,A");
+		File generated = File.createTempFile("indexed_course_records", ".txt");
+		generated.deleteOnExit();
+		Files.write(generated.toPath(), records.toString().getBytes());
+
+		String[] files = {validTestFile, invalidTestFile, generated.getPath()};
+		for (int i = 0; i < files.length; i++) {
+			ArrayList<Course> expected = CourseRecordIO.readCourseRecords(files[i]);
+			try (CourseCatalogIndex index = new CourseCatalogIndex(files[i], 10)) {
+				assertEquals(expected.size(), index.size());
+				for (int row = 0; row < expected.size(); row++) {
+					assertEquals(expected.get(row).getMeetingDays(), index.getMeetingDays(row));
+					assertEquals(expected.get(row).getStartTime(), index.getStartTime(row));
+					assertEquals(expected.get(row).getEndTime(), index.getEndTime(row));
+					assertEquals(expected.get(row), index.get(row));
+				}
+				for (int row = expected.size() - 1; row >= 0; row--) {
+					Course c = expected.get(row);
+					assertEquals(c, index.get(c.getName(), c.getSection()));
+				}
+				assertNull(index.get("CSC216", "999"));
+			}
+		}
+	}
+
+	/**
+	 * Tests the cache keeps the most recently used courses.
+	 *
+	 * @throws IOException if the file cannot be read
+	 */
+	@Test
+	public void testCache() throws IOException {
+		try (CourseCatalogIndex index = new CourseCatalogIndex(validTestFile, 2)) {
+			assertEquals(validTestFile, index.getFileName());
+			assertEquals(2, index.getCacheSize());
+			Course first = index.get(0);
+			assertSame(first, index.get(0));
+			assertSame(first, index.get("CSC116", "001"));
+			Course second = index.get(1);
+			assertSame(first, index.get(0));
+			index.get(2);
+			assertSame(first, index.get(0));
+			assertNotSame(second, index.get(1));
+			assertEquals(second, index.get(1));
+
+			try {
+				index.get(index.size());
+				fail("Expected an IndexOutOfBoundsException");
+			} catch (IndexOutOfBoundsException e) {
+				// expected
+			}
+		}
+	}
+
+	/**
+	 * Tests courses can be read from several threads, and the file is only closed
+	 * when every user of the index has closed it.
+	 *
+	 * @throws IOException if the file cannot be read
+	 */
+	@Test
+	public void testRetain() throws IOException {
+		ArrayList<Course> expected = CourseRecordIO.readCourseRecords(validTestFile);
+		CourseCatalogIndex index = new CourseCatalogIndex(validTestFile, 1);
+		for (int i = 0; i < 100; i++) {
+			int row = i % expected.size();
+			assertEquals(expected.get(row), IntStream.range(0, 8).parallel().mapToObj(t -> index.get(row))
+					.reduce((a, b) -> a.equals(b) ? a : null).get());
+		}
+
+		index.retain();
+		index.close();
+		assertEquals(expected.get(2), index.get(2));
+		index.close();
+		try {
+			index.get(3);
+			fail("Expected an IllegalStateException");
+		} catch (IllegalStateException e) {
+			// expected
+		}
+		index.close();
+		try {
+			index.retain();
+			fail("Expected an IllegalStateException");
+		} catch (IllegalStateException e) {
+			assertEquals("The catalog is closed.", e.getMessage());
+		}
+	}
+
+	/**
+	 * Tests applying the changes from new versions of the file, both when the
+	 * file is rewritten in place and when it is replaced.
+	 *
+	 * @throws IOException if a file cannot be read or written
+	 */
+	@Test
+	public void testApply() throws IOException {
+		File file = File.createTempFile("applied_course_records", ".txt");
+		file.deleteOnExit();
+		Files.copy(new File(validTestFile).toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		CourseCatalogWatcher watcher = new CourseCatalogWatcher(file.getPath());
+		CourseCatalogIndex index = new CourseCatalogIndex(file.getPath(), 3);
+		Course unchanged = index.get("CSC230", "001");
+
+		// rewritten in place, so the lines after the first change move
+		String records = new String(Files.readAllBytes(file.toPath()));
+		records = records.replace("CSC116,Intro to Programming - Java,001,3,jdyoung2,MW,0910,1100\n", "");
+		records = records.replace("CSC216,Programming Concepts - Java,001,4,sesmith5,TH,1330,1445",
+				"CSC216,Programming Concepts - Java,001,4,sesmith5,TH,1500,1615");
+		records += "\nCSC316,Data Structures and Algorithms,001,3,jtking,MW,830,945\n";
+		Files.write(file.toPath(), records.getBytes());
+		CourseCatalogIndex applied = index.apply(watcher.reload());
+		index.close();
+		assertSame(unchanged, applied.get("CSC230", "001"));
+		assertCatalog(CourseRecordIO.readCourseRecords(file.getPath()), applied);
+		assertNull(applied.get("CSC116", "001"));
+		assertEquals(1500, applied.getStartTime(2));
+
+		// replaced, so the open file still has the lines of the last version
+		File replacement = File.createTempFile("replaced_course_records", ".txt");
+		Files.write(replacement.toPath(), records.replace("CSC226,Discrete Mathematics for Computer Scientists,001,3,"
+				+ "tmbarnes,MWF,935,1025\n", "").getBytes());
+		Files.move(replacement.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		CourseCatalogIndex replaced = applied.apply(watcher.reload());
+		assertCatalog(CourseRecordIO.readCourseRecords(file.getPath()), replaced);
+		assertEquals(applied.get(0), replaced.get(0));
+
+		applied.close();
+		assertEquals("CSC316", replaced.get("CSC316", "001").getName());
+		replaced.close();
+		try {
+			replaced.get(1);
+			fail("Expected an IllegalStateException");
+		} catch (IllegalStateException e) {
+			assertEquals("Cannot read " + file.getPath(), e.getMessage());
+		}
+		try {
+			replaced.apply(watcher.reload());
+			fail("Expected an IllegalStateException");
+		} catch (IllegalStateException e) {
+			assertEquals("The catalog is closed.", e.getMessage());
+		}
+	}
+
+	/**
+	 * Asserts that the catalog has the expected courses and meeting times, in
+	 * order.
+	 *
+	 * @param expected the expected courses
+	 * @param index    the catalog to check
+	 */
+	private static void assertCatalog(ArrayList<Course> expected, CourseCatalogIndex index) {
+		assertEquals(expected.size(), index.size());
+		for (int row = 0; row < expected.size(); row++) {
+			Course c = expected.get(row);
+			assertEquals(c, index.get(row));
+			assertEquals(c, index.get(c.getName(), c.getSection()));
+			assertEquals(c.getMeetingDays(), index.getMeetingDays(row));
+			assertEquals(c.getStartTime(), index.getStartTime(row));
+			assertEquals(c.getEndTime(), index.getEndTime(row));
+		}
+	}
+
+	/**
+	 * Tests files that can't be indexed and invalid cache sizes.
+	 *
+	 * @throws IOException if a file cannot be written
+	 */
+	@Test
+	public void testInvalid() throws IOException {
+		try {
+			new CourseCatalogIndex(validTestFile, 0);
+			fail("Expected an IllegalArgumentException");
+		} catch (IllegalArgumentException e) {
+			assertEquals("Invalid cache size.", e.getMessage());
+		}
+		try {
+			new CourseCatalogIndex("test-files/no_such_file.txt", 10);
+			fail("Expected an IOException");
+		} catch (IOException e) {
+			// expected
+		}
+
+		File compressed = File.createTempFile("compressed_course_records", ".txt.gz");
+		compressed.deleteOnExit();
+		try (OutputStream out = new GZIPOutputStream(new FileOutputStream(compressed))) {
+			Files.copy(new File(validTestFile).toPath(), out);
+		}
+		try {
+			new CourseCatalogIndex(compressed.getPath(), 10);
+			fail("Expected an IOException");
+		} catch (IOException e) {
+			assertEquals("Cannot index a compressed file", e.getMessage());
+		}
+
+		// Changes to the file are found when a course is read
+		File changed = File.createTempFile("changed_course_records", ".txt");
+		changed.deleteOnExit();
+		Files.copy(new File(validTestFile).toPath(), changed.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		try (CourseCatalogIndex index = new CourseCatalogIndex(changed.getPath(), 10)) {
+			Files.write(changed.toPath(), "CSC216,Programming Concepts - Java,001,4,sesmith5,MW,1330,1445\n".getBytes());
+			try {
+				index.get(index.size() - 1);
+				fail("Expected an IllegalStateException");
+			} catch (IllegalStateException e) {
+				assertEquals("The course records file has changed.", e.getMessage());
+			}
+		}
+	}
+
+}
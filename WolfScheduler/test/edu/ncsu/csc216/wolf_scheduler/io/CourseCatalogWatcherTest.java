@@ -0,0 +1,119 @@
+package edu.ncsu.csc216.wolf_scheduler.io;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests CourseCatalogWatcher.
+ *
+ * @author Sanjana Cheerla
+ */
+public class CourseCatalogWatcherTest {
+
+	/** First version of the course records */
+	private static final String VERSION_1 = "CSC116,Intro to Programming - Java,001,3,jdyoung2,MW,910,1100\n"
+			+ "CSC216,Programming Concepts - Java,001,4,sesmith5,TH,1330,1445\n"
+			+ "CSC216,Programming Concepts - Java,601,4,jep,A\n"
+			+ "CSC226,Discrete Mathematics for Computer Scientists,001,3,tmbarnes,MWF,935,1025\n";
+
+	/** Second version, with a section moved, one removed, one added and a new instructor */
+	private static final String VERSION_2 = "CSC116,Intro to Programming - Java,001,3,jdyoung2,MW,910,1100\n"
+			+ "CSC216,Programming Concepts - Java,001,4,sesmith5,MW,1330,1445\n"
+			+ "CSC226,Discrete Mathematics for Computer Scientists,001,3,jtking,MWF,935,1025\n"
+			+ "CSC216,Invalid,001,4,sesmith5,MW,1445,1330\n"
+			+ "CSC230,C and Software Tools,001,3,dbsturgi,MW,1145,1300\n";
+
+	/** Course records file being watched */
+	private File file;
+
+	/**
+	 * Writes the first version of the course records file.
+	 *
+	 * @throws IOException if the file cannot be written
+	 */
+	@Before
+	public void setUp() throws IOException {
+		file = File.createTempFile("watched_course_records", ".txt");
+		file.deleteOnExit();
+		Files.write(file.toPath(), VERSION_1.getBytes());
+	}
+
+	/**
+	 * Tests reload() finds the added, removed and modified courses and only parses
+	 * the lines that changed.
+	 *
+	 * @throws IOException if the file cannot be read or written
+	 */
+	@Test
+	public void testReload() throws IOException {
+		CourseCatalogWatcher watcher = new CourseCatalogWatcher(file.getPath());
+		assertEquals(CourseRecordIO.readCourseRecords(file.getPath()), watcher.getCourses());
+		assertEquals(4, watcher.getLinesParsed());
+
+		CourseCatalogDiff diff = watcher.reload();
+		assertTrue(diff.isEmpty());
+		assertEquals(0, watcher.getLinesParsed());
+
+		Files.write(file.toPath(), VERSION_2.getBytes());
+		diff = watcher.reload();
+		assertFalse(diff.isEmpty());
+		assertEquals(4, watcher.getLinesParsed());
+		assertEquals(1, diff.getAdded().size());
+		assertEquals("CSC230", diff.getAdded().get(0).getName());
+		assertEquals(1, diff.getRemoved().size());
+		assertEquals("601", diff.getRemoved().get(0).getSection());
+		assertEquals(2, diff.getModified().size());
+		assertEquals("MW", diff.getModified().get(0).getMeetingDays());
+		assertEquals("jtking", diff.getModified().get(1).getInstructorId());
+		assertEquals(CourseRecordIO.readCourseRecords(file.getPath()), watcher.getCourses());
+
+		watcher.close();
+		file.delete();
+		try {
+			watcher.reload();
+			fail("Expected a FileNotFoundException");
+		} catch (IOException e) {
+			// expected
+		}
+	}
+
+	/**
+	 * Tests the watcher gives the listener the changes when the file is replaced.
+	 *
+	 * @throws Exception if the file cannot be written or the test is interrupted
+	 */
+	@Test
+	public void testStart() throws Exception {
+		LinkedBlockingQueue<CourseCatalogDiff> diffs = new LinkedBlockingQueue<CourseCatalogDiff>();
+		try (CourseCatalogWatcher watcher = new CourseCatalogWatcher(file.getPath())) {
+			watcher.start(diffs::add);
+			try {
+				watcher.start(diffs::add);
+				fail("Expected an IllegalStateException");
+			} catch (IllegalStateException e) {
+				assertEquals("The watcher has already been started.", e.getMessage());
+			}
+
+			File replacement = File.createTempFile("replacement_course_records", ".txt", file.getParentFile());
+			replacement.deleteOnExit();
+			Files.write(replacement.toPath(), VERSION_2.getBytes());
+			Files.move(replacement.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+
+			CourseCatalogDiff diff = diffs.poll(10, TimeUnit.SECONDS);
+			assertNotNull(diff);
+			assertEquals(1, diff.getAdded().size());
+			assertEquals(1, diff.getRemoved().size());
+			assertEquals(2, diff.getModified().size());
+		}
+	}
+
+}
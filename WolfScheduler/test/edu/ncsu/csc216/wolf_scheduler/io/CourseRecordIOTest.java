@@ -2,12 +2,22 @@ package edu.ncsu.csc216.wolf_scheduler.io;
 
 import static org.junit.Assert.*;
 
+import java.io.File;
 import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.nio.file.FileSystems;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -87,5 +97,514 @@ public class CourseRecordIOTest {
 		}
 	}
 
+	/**
+	 * Tests readCourseRecords() reports the lines dropped as duplicates.
+	 */
+	@Test
+	public void testReadCourseRecordsDuplicates() {
+		try {
+			ArrayList<String> duplicates = new ArrayList<String>();
+			ArrayList<Course> courses = CourseRecordIO.readCourseRecords(validTestFile, duplicates);
+			assertEquals(8, courses.size());
+			assertEquals(validCourse2, courses.get(1).toString());
+
+			assertEquals(1, duplicates.size());
+			assertEquals("CSC116,Intro to Programming - Java,002,3,jtking,TH,0910,1100", duplicates.get(0));
+
+			duplicates.clear();
+			courses = CourseRecordIO.readCourseRecords(invalidTestFile, duplicates);
+			assertEquals(0, courses.size());
+			assertEquals(0, duplicates.size());
+		} catch (FileNotFoundException e) {
+			fail("Unexpected error reading " + validTestFile);
+		}
+	}
+
+	/**
+	 * Tests loadCourseRecords() reports each rejected line with its line number,
+	 * field, and reason.
+	 */
+	@Test
+	public void testLoadCourseRecords() {
+		try {
+			CourseLoadResult result = CourseRecordIO.loadCourseRecords(validTestFile);
+			assertEquals(CourseRecordIO.readCourseRecords(validTestFile), result.getCourses());
+			assertEquals(1, result.getRejections().size());
+			CourseRecordRejection duplicate = result.getRejections().get(0);
+			assertEquals(4, duplicate.getLineNumber());
+			assertEquals("CSC116,Intro to Programming - Java,002,3,jtking,TH,0910,1100", duplicate.getLine());
+			assertEquals("section", duplicate.getField());
+			assertEquals(CourseRecordRejection.DUPLICATE, duplicate.getReason());
+
+			result = CourseRecordIO.loadCourseRecords(invalidTestFile);
+			assertEquals(0, result.getCourses().size());
+			String[] fields = {"name", "section", "section", "credits", "meetingDays", "meetingDays", "endTime",
+				"endTime", "name", "title", "section", "credits", "instructorId", "meetingDays", "startTime",
+				"startTime", "endTime"};
+			assertEquals(fields.length, result.getRejections().size());
+			for (int i = 0; i < fields.length; i++) {
+				CourseRecordRejection rejection = result.getRejections().get(i);
+				assertEquals(i + 1, rejection.getLineNumber());
+				assertEquals("line " + (i + 1), fields[i], rejection.getField());
+			}
+			assertEquals("line 12: credits must be 1 to 5", result.getRejections().get(11).toString());
+			assertEquals("line 15: startTime arranged courses cannot have times",
+					result.getRejections().get(14).toString());
+			assertEquals("line 17: endTime before the start time", result.getRejections().get(16).toString());
+		} catch (FileNotFoundException e) {
+			fail("Unexpected error reading course records");
+		}
+	}
+
+	/**
+	 * Tests the courses read from a file share one String for repeated values.
+	 */
+	@Test
+	public void testReadCourseRecordsSharesStrings() {
+		try {
+			ArrayList<Course> courses = CourseRecordIO.readCourseRecords(validTestFile);
+			assertSame(courses.get(0).getName(), courses.get(1).getName());
+			assertSame(courses.get(0).getTitle(), courses.get(2).getTitle());
+			assertSame(courses.get(0).getMeetingDays(), courses.get(4).getMeetingDays());
+			assertSame(courses.get(3).getSection(), courses.get(6).getSection());
+			assertSame(courses.get(0).getSection(), courses.get(7).getSection());
+		} catch (FileNotFoundException e) {
+			fail("Unexpected error reading " + validTestFile);
+		}
+	}
+
+	/**
+	 * Tests readCourseRecordsWithProgress() gives the listener every course in
+	 * batches as the file is read.
+	 */
+	@Test
+	public void testReadCourseRecordsWithProgress() {
+		try {
+			File generated = writeGeneratedCourseRecords();
+			String[] files = {validTestFile, invalidTestFile, generated.getPath()};
+			for (int i = 0; i < files.length; i++) {
+				ArrayList<Course> batches = new ArrayList<Course>();
+				ArrayList<long[]> progress = new ArrayList<long[]>();
+				ArrayList<Course> courses = CourseRecordIO.readCourseRecordsWithProgress(files[i],
+						(batch, recordsRead, bytesRead, totalBytes) -> {
+							batches.addAll(batch);
+							progress.add(new long[] {recordsRead, bytesRead, totalBytes});
+						});
+				assertEquals(CourseRecordIO.readCourseRecords(files[i]), courses);
+				assertEquals(courses, batches);
+
+				long size = new File(files[i]).length();
+				long[] last = progress.get(progress.size() - 1);
+				assertEquals(size, last[1]);
+				assertEquals(size, last[2]);
+				for (int j = 1; j < progress.size(); j++) {
+					assertTrue(progress.get(j)[0] > progress.get(j - 1)[0]);
+					assertTrue(progress.get(j)[1] >= progress.get(j - 1)[1]);
+				}
+			}
+		} catch (IOException e) {
+			fail("Unexpected error reading course records");
+		}
+
+		try {
+			CourseRecordIO.readCourseRecordsWithProgress("test-files/no_such_file.txt", (b, r, n, t) -> fail());
+			fail("Expected a FileNotFoundException");
+		} catch (FileNotFoundException e) {
+			// expected
+		}
+	}
+
+	/**
+	 * Tests readCourseRecordsMapped() reads the same courses as
+	 * readCourseRecords().
+	 */
+	@Test
+	public void testReadCourseRecordsMapped() {
+		try {
+			assertEquals(CourseRecordIO.readCourseRecords(validTestFile),
+					CourseRecordIO.readCourseRecordsMapped(validTestFile));
+			assertEquals(0, CourseRecordIO.readCourseRecordsMapped(invalidTestFile).size());
+
+			File file = writeGeneratedCourseRecords();
+			ArrayList<Course> courses = CourseRecordIO.readCourseRecords(file.getPath());
+			assertEquals(20001, courses.size());
+			assertEquals(courses, CourseRecordIO.readCourseRecordsMapped(file.getPath()));
+		} catch (IOException e) {
+			fail("Unexpected error reading course records");
+		}
+
+		try {
+			CourseRecordIO.readCourseRecordsMapped("test-files/no_such_file.txt");
+			fail("Expected an IOException");
+		} catch (IOException e) {
+			// expected
+		}
+	}
+
+	/**
+	 * Tests readCourseRecords() with a chunk size reads the same courses as the
+	 * sequential readCourseRecords() for many chunk sizes.
+	 */
+	@Test
+	public void testReadCourseRecordsParallel() {
+		long[] chunkSizes = {1, 2, 7, 64, 100, 1000, 4096, 100000, Long.MAX_VALUE};
+		try {
+			File generated = writeGeneratedCourseRecords();
+			String[] files = {validTestFile, invalidTestFile, generated.getPath()};
+			for (int i = 0; i < files.length; i++) {
+				ArrayList<Course> expected = CourseRecordIO.readCourseRecords(files[i]);
+				// one byte chunks would map the generated file thousands of times
+				for (int j = i == files.length - 1 ? 5 : 0; j < chunkSizes.length; j++) {
+					assertEquals(files[i] + " " + chunkSizes[j], expected,
+							CourseRecordIO.readCourseRecords(files[i], chunkSizes[j]));
+				}
+			}
+		} catch (IOException e) {
+			fail("Unexpected error reading course records");
+		}
+
+		try {
+			CourseRecordIO.readCourseRecords(validTestFile, 0);
+			fail("Expected an IllegalArgumentException");
+		} catch (IllegalArgumentException e) {
+			assertEquals("Invalid chunk size.", e.getMessage());
+		} catch (IOException e) {
+			fail("Unexpected IOException");
+		}
+	}
+
+	/**
+	 * Tests writeCourseSnapshot(), readCourseSnapshot(), and
+	 * readCourseRecordsWithSnapshot().
+	 */
+	@Test
+	public void testCourseSnapshot() {
+		try {
+			File snapshot = File.createTempFile("course_records", ".snapshot");
+			snapshot.deleteOnExit();
+			String snapshotName = snapshot.getPath();
+			// a copy of the course records, so the test can change when it was modified
+			File source = File.createTempFile("course_records", ".txt");
+			source.deleteOnExit();
+			Files.copy(new File(validTestFile).toPath(), source.toPath(), StandardCopyOption.REPLACE_EXISTING);
+			String sourceName = source.getPath();
+			ArrayList<Course> courses = CourseRecordIO.readCourseRecords(sourceName);
+
+			CourseRecordIO.writeCourseSnapshot(snapshotName, sourceName, courses);
+			assertEquals(courses, CourseRecordIO.readCourseSnapshot(snapshotName, sourceName));
+			assertEquals(0, snapshot.getParentFile()
+					.listFiles((dir, name) -> name.startsWith("." + snapshot.getName())).length);
+
+			// Snapshot of a different source file
+			assertNull(CourseRecordIO.readCourseSnapshot(snapshotName, invalidTestFile));
+
+			// Corrupt snapshot
+			byte[] bytes = Files.readAllBytes(snapshot.toPath());
+			bytes[bytes.length / 2]++;
+			Files.write(snapshot.toPath(), bytes);
+			assertNull(CourseRecordIO.readCourseSnapshot(snapshotName, sourceName));
+
+			// Missing snapshot
+			assertTrue(snapshot.delete());
+			assertNull(CourseRecordIO.readCourseSnapshot(snapshotName, sourceName));
+
+			// Reading with a missing snapshot builds the snapshot
+			assertEquals(courses, CourseRecordIO.readCourseRecordsWithSnapshot(sourceName, snapshotName));
+			assertTrue(snapshot.isFile());
+			assertEquals(courses, CourseRecordIO.readCourseSnapshot(snapshotName, sourceName));
+			assertEquals(courses, CourseRecordIO.readCourseRecordsWithSnapshot(sourceName, snapshotName));
+
+			// Changing the source file makes the snapshot stale
+			assertTrue(source.setLastModified(source.lastModified() - 60000));
+			assertNull(CourseRecordIO.readCourseSnapshot(snapshotName, sourceName));
+			assertEquals(courses, CourseRecordIO.readCourseRecordsWithSnapshot(sourceName, snapshotName));
+			assertEquals(courses, CourseRecordIO.readCourseSnapshot(snapshotName, sourceName));
+		} catch (IOException e) {
+			fail("Unexpected error with course snapshot");
+		}
+
+		try {
+			CourseRecordIO.readCourseRecordsWithSnapshot("test-files/no_such_file.txt", "test-files/no_such_file.bin");
+			fail("Expected a FileNotFoundException");
+		} catch (FileNotFoundException e) {
+			assertFalse(new File("test-files/no_such_file.bin").exists());
+		}
+	}
+
+	/**
+	 * Tests streamCourseRecords() has the same courses as readCourseRecords(),
+	 * both sequentially and in parallel.
+	 */
+	@Test
+	public void testStreamCourseRecords() {
+		try {
+			File generated = writeGeneratedCourseRecords();
+			String[] files = {validTestFile, invalidTestFile, generated.getPath()};
+			for (int i = 0; i < files.length; i++) {
+				ArrayList<Course> expected = CourseRecordIO.readCourseRecords(files[i]);
+				try (Stream<Course> courses = CourseRecordIO.streamCourseRecords(files[i])) {
+					assertEquals(expected, courses.collect(Collectors.toList()));
+				}
+				try (Stream<Course> courses = CourseRecordIO.streamCourseRecords(files[i])) {
+					assertEquals(expected, courses.parallel().collect(Collectors.toList()));
+				}
+				try (Stream<Course> courses = CourseRecordIO.streamCourseRecords(files[i])) {
+					assertEquals(expected.size(), courses.parallel().count());
+				}
+			}
+
+			try (Stream<Course> courses = CourseRecordIO.streamCourseRecords(validTestFile)) {
+				assertEquals("002", courses.filter(c -> c.getName().equals("CSC216")).skip(1).findFirst().get()
+						.getSection());
+			}
+
+			// A duplicate far from the first course is dropped in parallel too
+			StringBuilder records = new StringBuilder();
+			for (int i = 0; i < 60000; i++) {
+				records.append(String.format("CSC%03d,Title %d,%03d,3,inst,MW,1000,1050\n", i % 1000, i, i / 1000));
+			}
+			records.append("CSC000,Late Duplicate,000,3,inst,A\n");
+			File large = File.createTempFile("large_course_records", ".txt");
+			large.deleteOnExit();
+			Files.write(large.toPath(), records.toString().getBytes());
+			for (int i = 0; i < 5; i++) {
+				try (Stream<Course> courses = CourseRecordIO.streamCourseRecords(large.getPath())) {
+					assertEquals(Arrays.asList("Title 0"), courses.parallel()
+							.filter(c -> c.getName().equals("CSC000") && c.getSection().equals("000"))
+							.map(Course::getTitle).collect(Collectors.toList()));
+				}
+			}
+		} catch (IOException e) {
+			fail("Unexpected error reading course records");
+		}
+
+		try {
+			CourseRecordIO.streamCourseRecords("test-files/no_such_file.txt");
+			fail("Expected an IOException");
+		} catch (IOException e) {
+			// expected
+		}
+	}
+
+	/**
+	 * Tests that every way of reading course records reads a gzip compressed file
+	 * the same as the uncompressed file.
+	 */
+	@Test
+	public void testReadCompressedCourseRecords() {
+		try {
+			File generated = writeGeneratedCourseRecords();
+			String[] files = {validTestFile, invalidTestFile, generated.getPath()};
+			for (int i = 0; i < files.length; i++) {
+				ArrayList<Course> expected = CourseRecordIO.readCourseRecords(files[i]);
+				File compressed = File.createTempFile("compressed_course_records", ".txt.gz");
+				compressed.deleteOnExit();
+				try (OutputStream out = new GZIPOutputStream(new FileOutputStream(compressed))) {
+					Files.copy(new File(files[i]).toPath(), out);
+				}
+				String fileName = compressed.getPath();
+
+				assertEquals(expected, CourseRecordIO.readCourseRecords(fileName));
+				assertEquals(expected, CourseRecordIO.readCourseRecordsMapped(fileName));
+				assertEquals(expected, CourseRecordIO.readCourseRecords(fileName, 100));
+				assertEquals(expected, CourseRecordIO.loadCourseRecords(fileName).getCourses());
+				try (Stream<Course> courses = CourseRecordIO.streamCourseRecords(fileName)) {
+					assertEquals(expected, courses.collect(Collectors.toList()));
+				}
+				try (Stream<Course> courses = CourseRecordIO.streamCourseRecords(fileName)) {
+					assertEquals(expected, courses.parallel().collect(Collectors.toList()));
+				}
+			}
+		} catch (IOException e) {
+			fail("Unexpected error reading course records");
+		}
+	}
+
+	/**
+	 * Tests that a gzip compressed file that was cut short is an error, rather
+	 * than being read as a shorter catalog.
+	 */
+	@Test
+	public void testReadTruncatedCompressedCourseRecords() throws IOException {
+		File compressed = File.createTempFile("truncated_course_records", ".txt.gz");
+		compressed.deleteOnExit();
+		try (OutputStream out = new GZIPOutputStream(new FileOutputStream(compressed))) {
+			Files.copy(writeGeneratedCourseRecords().toPath(), out);
+		}
+		byte[] bytes = Files.readAllBytes(compressed.toPath());
+		Files.write(compressed.toPath(), Arrays.copyOf(bytes, bytes.length / 2));
+		String fileName = compressed.getPath();
+
+		try {
+			CourseRecordIO.readCourseRecords(fileName);
+			fail("Expected a FileNotFoundException");
+		} catch (FileNotFoundException e) {
+			// expected
+		}
+		try {
+			CourseRecordIO.loadCourseRecords(fileName);
+			fail("Expected a FileNotFoundException");
+		} catch (FileNotFoundException e) {
+			// expected
+		}
+		try {
+			CourseRecordIO.readCourseRecordsWithProgress(fileName, (b, r, n, t) -> { });
+			fail("Expected a FileNotFoundException");
+		} catch (FileNotFoundException e) {
+			// expected
+		}
+		try (Stream<Course> courses = CourseRecordIO.streamCourseRecords(fileName)) {
+			courses.count();
+			fail("Expected an UncheckedIOException");
+		} catch (UncheckedIOException e) {
+			// expected
+		}
+		try {
+			new CourseCatalogWatcher(fileName);
+			fail("Expected a FileNotFoundException");
+		} catch (FileNotFoundException e) {
+			// expected
+		}
+	}
+
+	/**
+	 * Tests readCourseShards() merges the shards in a directory or matching a glob
+	 * in a deterministic order.
+	 */
+	@Test
+	public void testReadCourseShards() {
+		try {
+			File directory = Files.createTempDirectory("course_shards").toFile();
+			directory.deleteOnExit();
+			writeShard(directory, "csc_course_records.txt",
+					"CSC116,Intro to Programming - Java,001,3,jdyoung2,MW,910,1100\n"
+							+ "CSC216,Programming Concepts - Java,001,4,sesmith5,TH,1330,1445\n");
+			writeShard(directory, "ece_course_records.txt",
+					"ECE109,Intro to Computer Systems,001,3,jdoe,MWF,800,850\n"
+							+ "CSC216,Cross Listed,001,4,jdoe,A\n");
+			writeShard(directory, "notes.md", "CSC316,Data Structures,001,3,jdoe,A\n");
+
+			ArrayList<Course> courses = CourseRecordIO.readCourseShards(directory.getPath());
+			assertEquals(4, courses.size());
+			assertEquals("CSC116", courses.get(0).getName());
+			assertEquals("Programming Concepts - Java", courses.get(1).getTitle());
+			assertEquals("ECE109", courses.get(2).getName());
+			assertEquals("CSC316", courses.get(3).getName());
+
+			// The listener is told about each shard, with every line read including the
+			// duplicate, and the bytes of all the shards
+			ArrayList<long[]> progress = new ArrayList<long[]>();
+			ArrayList<Course> loaded = new ArrayList<Course>();
+			courses = CourseRecordIO.readCourseShardsWithProgress(directory.getPath(),
+					(batch, recordsRead, bytesRead, totalBytes) -> {
+						loaded.addAll(batch);
+						progress.add(new long[] {recordsRead, bytesRead, totalBytes});
+					});
+			assertEquals(courses, loaded);
+			assertEquals(3, progress.size());
+			long totalBytes = 0;
+			for (File shard : directory.listFiles()) {
+				totalBytes += shard.length();
+			}
+			for (int i = 0; i < progress.size(); i++) {
+				assertEquals(totalBytes, progress.get(i)[2]);
+				if (i > 0) {
+					assertTrue(progress.get(i)[0] > progress.get(i - 1)[0]);
+					assertTrue(progress.get(i)[1] > progress.get(i - 1)[1]);
+				}
+			}
+			assertArrayEquals(new long[] {5, totalBytes, totalBytes}, progress.get(2));
+
+			// The shard that comes first in the order wins duplicates
+			courses = CourseRecordIO.readCourseShards(directory.getPath(), Comparator.reverseOrder());
+			assertEquals(4, courses.size());
+			assertEquals("CSC316", courses.get(0).getName());
+			assertEquals("ECE109", courses.get(1).getName());
+			assertEquals("Cross Listed", courses.get(2).getTitle());
+			assertEquals("CSC116", courses.get(3).getName());
+
+			String glob = new File(directory, "*_course_records.txt").getPath();
+			assertTrue(CourseRecordIO.isShardPath(glob));
+			assertTrue(CourseRecordIO.isShardPath(directory.getPath()));
+			assertFalse(CourseRecordIO.isShardPath(validTestFile));
+			File bracketed = writeShard(directory, "catalog[2024].txt", "CSC116,Intro,001,3,jdyoung2,A\n");
+			assertFalse(CourseRecordIO.isShardPath(bracketed.getPath()));
+			assertEquals(1, CourseRecordIO.readCourseRecords(bracketed.getPath()).size());
+			assertTrue(bracketed.delete());
+			courses = CourseRecordIO.readCourseShards(glob);
+			assertEquals(3, courses.size());
+
+			// Many shards are read concurrently and merged in order
+			for (int i = 0; i < 40; i++) {
+				writeShard(directory, String.format("shard%02d_course_records.txt", i),
+						String.format("CSC%03d,Shard %d,001,3,inst,A\nCSC216,Shard %d,001,4,inst,A%n", i, i, i));
+			}
+			courses = CourseRecordIO.readCourseShards(glob);
+			assertEquals(43, courses.size());
+			assertEquals("Programming Concepts - Java", courses.get(1).getTitle());
+			assertEquals("Shard 0", courses.get(3).getTitle());
+			assertEquals("Shard 39", courses.get(42).getTitle());
+
+		} catch (IOException e) {
+			fail("Unexpected error reading course shards");
+		}
+
+		try {
+			CourseRecordIO.readCourseShards("test-files/*.no_such_extension");
+			fail("Expected a FileNotFoundException");
+		} catch (FileNotFoundException e) {
+			// expected
+		}
+		try {
+			CourseRecordIO.readCourseShards("test-files/no_such_directory/*.txt");
+			fail("Expected a FileNotFoundException");
+		} catch (FileNotFoundException e) {
+			// expected
+		}
+	}
+
+	/**
+	 * Writes a course records shard that is deleted when the tests finish.
+	 * 
+	 * @param directory the directory of the shard
+	 * @param name      the file name of the shard
+	 * @param records   the course records to write
+	 * @return the file written
+	 * @throws IOException if the file cannot be written
+	 */
+	private File writeShard(File directory, String name, String records) throws IOException {
+		File shard = new File(directory, name);
+		shard.deleteOnExit();
+		Files.write(shard.toPath(), records.getBytes());
+		return shard;
+	}
+
+	/**
+	 * Writes a temporary course records file with mixed line endings, duplicate
+	 * courses, invalid lines, and enough lines to fill several buffers.
+	 * 
+	 * @return the file written
+	 * @throws IOException if the file cannot be written
+	 */
+	private File writeGeneratedCourseRecords() throws IOException {
+		String[] endings = {"\n", "\r\n", "\r"};
+		StringBuilder records = new StringBuilder();
+		for (int i = 0; i < 20000; i++) {
+			records.append(String.format("CSC%03d,Title %d,%03d,3,inst,MW,1000,1050", i % 1000, i, i / 1000));
+			records.append(endings[i % endings.length]);
+			if (i % 97 == 0) {
+				records.append(String.format("CSC%03d,Duplicate,%03d,3,inst,A", i % 1000, i / 1000));
+				records.append(endings[i % 2]);
+			}
+			if (i % 89 == 0) {
+				records.append("CSC216,Invalid,001,4,sesmith5,MW,1445,1330\n");
+			}
+		}
+		records.append("CSC999,Last,999,3,inst,A");
+		File file = File.createTempFile("generated_course_records", ".txt");
+		file.deleteOnExit();
+		Files.write(file.toPath(), records.toString().getBytes());
+		return file;
+	}
 
 }
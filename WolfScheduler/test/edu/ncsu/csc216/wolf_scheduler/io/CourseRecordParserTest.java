@@ -0,0 +1,139 @@
+package edu.ncsu.csc216.wolf_scheduler.io;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Course;
+
+/**
+ * Tests CourseRecordParser.
+ *
+ * @author Sanjana Cheerla
+ */
+public class CourseRecordParserTest {
+
+	/** Values tried for each field of a course record */
+	private static final String[][] FIELD_VALUES = {
+		{"CSC216", "CSC1", "CSC2167", "C6", ""},
+		{"Programming Concepts - Java", ""},
+		{"001", "01", "0a1", "0011"},
+		{"4", "1", "5", "0", "6", "-1", "x"},
+		{"sesmith5", ""},
+		{"MW", "A", "MTWHF", "MWA", "AA", "S", ""},
+		{"1330", "0", "2359", "-0", "2400", "1360", "-1", "x"},
+		{"1445", "1330", "0", "2359", "2360", "1329", "y"}
+	};
+
+	/**
+	 * Tests parse() on a valid course record.
+	 */
+	@Test
+	public void testParse() {
+		CourseRecordParser parser = new CourseRecordParser();
+		Course c = parse(parser, "CSC216,Programming Concepts - Java,001,4,sesmith5,MW,1330,1445");
+		assertEquals(new Course("CSC216", "Programming Concepts - Java", "001", 4, "sesmith5", "MW", 1330, 1445), c);
+		assertNull(parser.getField());
+		assertNull(parser.getReason());
+
+		c = parse(parser, "CSC216,Programming Concepts - Java,601,4,jep,A");
+		assertEquals(new Course("CSC216", "Programming Concepts - Java", "601", 4, "jep", "A"), c);
+
+		// a single trailing comma is ignored, but an empty field is not
+		assertNotNull(parse(parser, "CSC216,Programming Concepts - Java,601,4,jep,A,"));
+		assertNull(parse(parser, "CSC216,Programming Concepts - Java,601,4,jep,A,,"));
+		assertEquals(CourseRecordParser.START_TIME, parser.getField());
+		assertNull(parse(parser, "CSC216,Programming Concepts - Java,601,4"));
+		assertEquals(CourseRecordParser.INSTRUCTOR_ID, parser.getField());
+		assertEquals(CourseRecordParser.MISSING, parser.getReason());
+		assertNull(parse(parser, ""));
+		assertEquals(CourseRecordParser.NAME, parser.getField());
+	}
+
+	/**
+	 * Tests parse() on course records with quoted fields.
+	 */
+	@Test
+	public void testParseQuoted() {
+		CourseRecordParser parser = new CourseRecordParser();
+		Course c = parse(parser, "CSC295,\"Topics in CS, Advanced\",001,3,\"jdyoung2\",MW,1330,1445");
+		assertEquals(new Course("CSC295", "Topics in CS, Advanced", "001", 3, "jdyoung2", "MW", 1330, 1445), c);
+		assertEquals(CourseRecordParser.hashKey("CSC295", "001"), parser.getKeyHash());
+
+		c = parse(parser, "\"CSC295\",\"The \"\"Big\"\" Ideas\",\"002\",\"3\",jdyoung2,\"A\"");
+		assertEquals(new Course("CSC295", "The \"Big\" Ideas", "002", 3, "jdyoung2", "A"), c);
+		assertEquals(CourseRecordParser.hashKey("CSC295", "002"), parser.getKeyHash());
+
+		assertNull(parse(parser, "CSC295,\"Topics in CS, Advanced,001,3,jdyoung2,MW,1330,1445"));
+		assertEquals(CourseRecordParser.TITLE, parser.getField());
+		assertEquals(CourseRecordParser.INVALID_QUOTES, parser.getReason());
+		assertNull(parse(parser, "CSC295,Topics,001,\"3\"x,jdyoung2,A"));
+		assertEquals(CourseRecordParser.CREDITS, parser.getField());
+		assertEquals(CourseRecordParser.INVALID_QUOTES, parser.getReason());
+
+		Course quoted = new Course("CSC295", "Topics, \"Advanced\"", "001", 3, "jdyoung2", "MW", 1330, 1445);
+		String line = quoted.toString();
+		assertEquals(quoted, parse(parser, line));
+	}
+
+	/**
+	 * Tests that parse() accepts a record exactly when the Course constructor
+	 * accepts its fields, for every combination of valid and invalid fields.
+	 */
+	@Test
+	public void testParseMatchesCourse() {
+		CourseRecordParser parser = new CourseRecordParser();
+		int[] choice = new int[FIELD_VALUES.length];
+		while (true) {
+			String[] fields = new String[FIELD_VALUES.length];
+			for (int i = 0; i < fields.length; i++) {
+				fields[i] = FIELD_VALUES[i][choice[i]];
+			}
+			String line = String.join(",", fields);
+			if ("A".equals(fields[5])) {
+				line = String.join(",", fields[0], fields[1], fields[2], fields[3], fields[4], fields[5]);
+			}
+			assertEquals(line, construct(fields), parser.parse(line, 0, line.length()));
+
+			int i = 0;
+			while (i < choice.length && ++choice[i] == FIELD_VALUES[i].length) {
+				choice[i++] = 0;
+			}
+			if (i == choice.length) {
+				break;
+			}
+		}
+	}
+
+	/**
+	 * Parses the whole line with the parser.
+	 *
+	 * @param parser the parser
+	 * @param line   the line to parse
+	 * @return the Course in the line, or null if the line is invalid
+	 */
+	private Course parse(CourseRecordParser parser, String line) {
+		return parser.parse(line, 0, line.length());
+	}
+
+	/**
+	 * Constructs a Course from the fields, or returns null if the Course
+	 * constructor rejects them.
+	 *
+	 * @param fields the fields of the course record
+	 * @return the Course or null
+	 */
+	private Course construct(String[] fields) {
+		try {
+			int credits = Integer.parseInt(fields[3]);
+			if ("A".equals(fields[5])) {
+				return new Course(fields[0], fields[1], fields[2], credits, fields[4], fields[5]);
+			}
+			return new Course(fields[0], fields[1], fields[2], credits, fields[4], fields[5],
+					Integer.parseInt(fields[6]), Integer.parseInt(fields[7]));
+		} catch (IllegalArgumentException e) {
+			return null;
+		}
+	}
+
+}
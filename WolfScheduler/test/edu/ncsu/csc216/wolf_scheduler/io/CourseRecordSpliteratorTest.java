@@ -0,0 +1,133 @@
+package edu.ncsu.csc216.wolf_scheduler.io;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Course;
+
+/**
+ * Tests CourseRecordSpliterator.
+ *
+ * @author Sanjana Cheerla
+ */
+public class CourseRecordSpliteratorTest {
+
+	/** Course records file used by the tests */
+	private File file;
+
+	/**
+	 * Writes a course records file with duplicate and invalid lines.
+	 *
+	 * @throws IOException if the file cannot be written
+	 */
+	@Before
+	public void setUp() throws IOException {
+		StringBuilder records = new StringBuilder();
+		for (int i = 0; i < 3000; i++) {
+			records.append(String.format("CSC%03d,Title %d,%03d,3,inst,TH,900,950", i % 300, i, i % 7));
+			records.append(i % 2 == 0 ? "\r\n" : "\n");
+			if (i % 11 == 0) {
+				records.append("CSC216,Invalid,01,4,sesmith5,MW,1330,1445\r");
+			}
+		}
+		file = File.createTempFile("spliterator_course_records", ".txt");
+		file.deleteOnExit();
+		Files.write(file.toPath(), records.toString().getBytes());
+	}
+
+	/**
+	 * Tests that the courses from the spliterator are the courses in the file in
+	 * order for many block sizes, both sequentially and in parallel.
+	 *
+	 * @throws IOException if the file cannot be read
+	 */
+	@Test
+	public void testTraversal() throws IOException {
+		ArrayList<Course> expected = CourseRecordIO.readCourseRecords(file.getPath());
+		int[] blockSizes = {1, 50, 1000, 100000};
+		for (int i = 0; i < blockSizes.length; i++) {
+			FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+			List<Course> sequential = StreamSupport
+					.stream(new CourseRecordSpliterator(channel, Charset.defaultCharset(), blockSizes[i]), false)
+					.collect(Collectors.toList());
+			assertEquals(expected, removeDuplicates(sequential));
+			assertFalse(channel.isOpen());
+			// each block has its own string pool, so the pool doesn't grow with the file
+			if (blockSizes[i] == 1) {
+				assertNotSame(sequential.get(0).getInstructorId(), sequential.get(1).getInstructorId());
+			} else if (blockSizes[i] == 100000) {
+				assertSame(sequential.get(0).getInstructorId(), sequential.get(1).getInstructorId());
+			}
+
+			channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+			List<Course> parallel = StreamSupport
+					.stream(new CourseRecordSpliterator(channel, Charset.defaultCharset(), blockSizes[i]), true)
+					.collect(Collectors.toList());
+			assertEquals(sequential, parallel);
+			assertFalse(channel.isOpen());
+		}
+	}
+
+	/**
+	 * Tests trySplit() splits the file on a line boundary.
+	 *
+	 * @throws IOException if the file cannot be read
+	 */
+	@Test
+	public void testTrySplit() throws IOException {
+		FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+		CourseRecordSpliterator suffix = new CourseRecordSpliterator(channel, Charset.defaultCharset(), 1000);
+		long size = suffix.estimateSize();
+		Spliterator<Course> prefix = suffix.trySplit();
+		assertNotNull(prefix);
+		assertTrue(prefix.estimateSize() < size);
+		assertTrue(suffix.estimateSize() < size);
+
+		ArrayList<Course> courses = new ArrayList<Course>();
+		prefix.forEachRemaining(courses::add);
+		assertTrue(channel.isOpen());
+		assertTrue(suffix.tryAdvance(courses::add));
+		assertNull(suffix.trySplit());
+		suffix.forEachRemaining(courses::add);
+		assertFalse(channel.isOpen());
+		assertFalse(suffix.tryAdvance(courses::add));
+
+		assertEquals(CourseRecordIO.readCourseRecords(file.getPath()), removeDuplicates(courses));
+
+		// A spliterator that reads the whole file in one block doesn't split
+		channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+		assertNull(new CourseRecordSpliterator(channel, Charset.defaultCharset()).trySplit());
+		channel.close();
+	}
+
+	/**
+	 * Returns the courses without the ones that have the same name and section as
+	 * an earlier course.
+	 *
+	 * @param courses the courses
+	 * @return the courses without duplicates
+	 */
+	private ArrayList<Course> removeDuplicates(List<Course> courses) {
+		LinkedHashMap<String, Course> unique = new LinkedHashMap<String, Course>();
+		for (Course c : courses) {
+			unique.putIfAbsent(c.getName() + "," + c.getSection(), c);
+		}
+		return new ArrayList<Course>(unique.values());
+	}
+
+}
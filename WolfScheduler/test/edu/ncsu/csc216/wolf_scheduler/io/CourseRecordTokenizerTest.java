@@ -0,0 +1,138 @@
+package edu.ncsu.csc216.wolf_scheduler.io;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+/**
+ * Tests CourseRecordTokenizer.
+ *
+ * @author Sanjana Cheerla
+ */
+public class CourseRecordTokenizerTest {
+
+	/**
+	 * Tests splitting a valid course record into fields.
+	 */
+	@Test
+	public void testNext() {
+		CourseRecordTokenizer tokenizer = new CourseRecordTokenizer();
+		tokenizer.reset("CSC216,Programming Concepts - Java,001,4,sesmith5,MW,1330,1445");
+
+		assertEquals("CSC216", tokenizer.next());
+		assertEquals("Programming Concepts - Java", tokenizer.next());
+		assertEquals("001", tokenizer.next());
+		assertTrue(tokenizer.nextInt());
+		assertEquals(4, tokenizer.getInt());
+		assertEquals("sesmith5", tokenizer.next());
+		assertEquals("MW", tokenizer.next());
+		assertTrue(tokenizer.nextInt());
+		assertEquals(1330, tokenizer.getInt());
+		assertTrue(tokenizer.hasNext());
+		assertTrue(tokenizer.nextInt());
+		assertEquals(1445, tokenizer.getInt());
+		assertFalse(tokenizer.hasNext());
+		assertNull(tokenizer.next());
+		assertFalse(tokenizer.nextInt());
+	}
+
+	/**
+	 * Tests that empty fields are split the same way as a Scanner with a ","
+	 * delimiter.
+	 */
+	@Test
+	public void testEmptyFields() {
+		CourseRecordTokenizer tokenizer = new CourseRecordTokenizer();
+
+		tokenizer.reset(",a,,b,");
+		assertEquals("a", tokenizer.next());
+		assertEquals("", tokenizer.next());
+		assertEquals("b", tokenizer.next());
+		assertFalse(tokenizer.hasNext());
+
+		tokenizer.reset(",,a,,");
+		assertEquals("", tokenizer.next());
+		assertEquals("a", tokenizer.next());
+		assertTrue(tokenizer.hasNext());
+		assertEquals("", tokenizer.next());
+		assertFalse(tokenizer.hasNext());
+
+		tokenizer.reset("");
+		assertFalse(tokenizer.hasNext());
+		assertNull(tokenizer.next());
+
+		tokenizer.reset(",");
+		assertFalse(tokenizer.hasNext());
+
+		tokenizer.reset("xx,A,yy", 3, 5);
+		assertEquals("A", tokenizer.next());
+		assertFalse(tokenizer.hasNext());
+	}
+
+	/**
+	 * Tests reading integer fields.
+	 */
+	@Test
+	public void testNextInt() {
+		CourseRecordTokenizer tokenizer = new CourseRecordTokenizer();
+		tokenizer.reset("0910,+5,-0,-12,2147483647,-2147483648");
+		assertTrue(tokenizer.nextInt());
+		assertEquals(910, tokenizer.getInt());
+		assertTrue(tokenizer.nextInt());
+		assertEquals(5, tokenizer.getInt());
+		assertTrue(tokenizer.nextInt());
+		assertEquals(0, tokenizer.getInt());
+		assertTrue(tokenizer.nextInt());
+		assertEquals(-12, tokenizer.getInt());
+		assertTrue(tokenizer.nextInt());
+		assertEquals(Integer.MAX_VALUE, tokenizer.getInt());
+		assertTrue(tokenizer.nextInt());
+		assertEquals(Integer.MIN_VALUE, tokenizer.getInt());
+
+		String[] invalid = {"", "-", "+", " 5", "5 ", "5.0", "0x10", "1a", "2147483648", "-2147483649",
+			"99999999999"};
+		for (int i = 0; i < invalid.length; i++) {
+			tokenizer.reset("x," + invalid[i] + ",y");
+			tokenizer.next();
+			assertFalse(invalid[i], tokenizer.nextInt());
+			assertEquals("y", tokenizer.next());
+		}
+	}
+
+	/**
+	 * Tests reading quoted fields.
+	 */
+	@Test
+	public void testQuotedFields() {
+		CourseRecordTokenizer tokenizer = new CourseRecordTokenizer();
+		tokenizer.reset("CSC295,\"Topics in CS, Advanced\",001,\"3\",\"\"\"Quoted\"\" id\",\"\",say \"hi\"");
+		assertEquals("CSC295", tokenizer.next());
+		assertEquals("Topics in CS, Advanced", tokenizer.next());
+		assertEquals("001", tokenizer.next());
+		assertTrue(tokenizer.nextInt());
+		assertEquals(3, tokenizer.getInt());
+		assertTrue(tokenizer.skip());
+		assertEquals("\"Quoted\" id", tokenizer.getField().subSequence(tokenizer.getFieldStart(),
+				tokenizer.getFieldEnd()).toString());
+		assertEquals("", tokenizer.next());
+		assertEquals("say \"hi\"", tokenizer.next());
+		assertFalse(tokenizer.hasNext());
+		assertFalse(tokenizer.isMalformed());
+
+		tokenizer.reset(",\"a,b\",");
+		assertEquals("a,b", tokenizer.next());
+		assertFalse(tokenizer.hasNext());
+
+		String[] malformed = {"x,\"open", "x,\"a\"b,y", "x,\"a\"\",y", "x,\""};
+		for (int i = 0; i < malformed.length; i++) {
+			tokenizer.reset(malformed[i]);
+			assertEquals("x", tokenizer.next());
+			assertFalse(tokenizer.isMalformed());
+			assertNull(malformed[i], tokenizer.next());
+			assertTrue(malformed[i], tokenizer.isMalformed());
+			assertFalse(tokenizer.hasNext());
+		}
+		tokenizer.reset("x");
+		assertFalse(tokenizer.isMalformed());
+	}
+}
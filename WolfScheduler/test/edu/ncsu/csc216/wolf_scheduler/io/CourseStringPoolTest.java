@@ -0,0 +1,68 @@
+package edu.ncsu.csc216.wolf_scheduler.io;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+/**
+ * Tests CourseStringPool.
+ *
+ * @author Sanjana Cheerla
+ */
+public class CourseStringPoolTest {
+
+	/**
+	 * Tests intern() returns the same String for the same characters, wherever
+	 * they are in the sequence.
+	 */
+	@Test
+	public void testIntern() {
+		CourseStringPool pool = new CourseStringPool();
+		String line = "CSC216,Programming Concepts - Java,001,4,sesmith5,MW,1330,1445";
+		String other = new StringBuilder("MW,CSC216,001").toString();
+
+		String name = pool.intern(line, 0, 6);
+		assertEquals("CSC216", name);
+		assertSame(name, pool.intern(other, 3, 9));
+		assertSame(name, pool.intern(new StringBuilder(line), 0, 6));
+		assertEquals(1, pool.size());
+
+		String section = pool.intern(line, line.indexOf("001"), line.indexOf("001") + 3);
+		assertEquals("001", section);
+		assertSame(section, pool.intern(other, 10, 13));
+		assertEquals("MW", pool.intern(other, 0, 2));
+		assertSame(pool.intern(line, line.indexOf("MW"), line.indexOf("MW") + 2), pool.intern(other, 0, 2));
+		assertEquals("", pool.intern(line, 3, 3));
+		assertSame(pool.intern(line, 3, 3), pool.intern(other, 0, 0));
+		assertEquals(4, pool.size());
+
+		// Strings with the same hash are kept apart
+		assertEquals("Aa".hashCode(), "BB".hashCode());
+		String aa = pool.intern("Aa", 0, 2);
+		String bb = pool.intern("BB", 0, 2);
+		assertEquals("Aa", aa);
+		assertEquals("BB", bb);
+		assertSame(aa, pool.intern("xAa", 1, 3));
+		assertEquals(6, pool.size());
+	}
+
+	/**
+	 * Tests the pool keeps every string as it grows.
+	 */
+	@Test
+	public void testGrow() {
+		CourseStringPool pool = new CourseStringPool();
+		String[] values = new String[5000];
+		for (int i = 0; i < values.length; i++) {
+			String value = "inst" + i;
+			values[i] = pool.intern(value, 0, value.length());
+		}
+		assertEquals(values.length, pool.size());
+		for (int i = 0; i < values.length; i++) {
+			String value = "xinst" + i;
+			assertSame(values[i], pool.intern(value, 1, value.length()));
+		}
+		assertEquals(values.length, pool.size());
+	}
+
+}
@@ -0,0 +1,212 @@
+package edu.ncsu.csc216.wolf_scheduler.io;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Activity;
+import edu.ncsu.csc216.wolf_scheduler.course.Course;
+import edu.ncsu.csc216.wolf_scheduler.course.Event;
+
+/**
+ * Tests ScheduleJournal.
+ *
+ * @author Sanjana Cheerla
+ */
+public class ScheduleJournalTest {
+
+	/** A course to log */
+	private static final Course COURSE = new Course("CSC216", "Programming Concepts - Java", "001", 4, "sesmith5",
+			"MW", 1330, 1445);
+
+	/** An event to log */
+	private static final Event EVENT = new Event("Gym, \"legs\"", "MWF", 800, 900, 1, "");
+
+	/**
+	 * Tests that the records logged to a journal are given back in order when it
+	 * is opened again.
+	 */
+	@Test
+	public void testReplay() throws IOException {
+		File file = newJournalFile();
+		try (ScheduleJournal journal = new ScheduleJournal(file.getPath(), new Recorder())) {
+			journal.logTitle("Fall, \"2024\"");
+			journal.logCourse("CSC216", "001");
+			journal.logEvent(new Event("Gym", "MWF", 800, 900, 1, "Cardio, weights"));
+			journal.logEvent(new Event("Lunch", "TH", 1200, 1230, 2, ""));
+			journal.logRemove(COURSE);
+			journal.logRemove(EVENT);
+			journal.logReset();
+			journal.logTitle("");
+		}
+
+		Recorder recorder = new Recorder();
+		new ScheduleJournal(file.getPath(), recorder).close();
+		assertEquals(Arrays.asList("title Fall, \"2024\"", "course CSC216 001",
+				"event Gym MWF 800 900 1 Cardio, weights", "event Lunch TH 1200 1230 2 ",
+				"remove course CSC216 001", "remove event Gym, \"legs\"", "reset", "title "), recorder.operations);
+	}
+
+	/**
+	 * Tests that a record that was only partly written is dropped when the
+	 * journal is opened, and new records are written after the last whole one.
+	 */
+	@Test
+	public void testPartialRecord() throws IOException {
+		File file = newJournalFile();
+		try (ScheduleJournal journal = new ScheduleJournal(file.getPath(), new Recorder())) {
+			journal.logCourse("CSC216", "001");
+			journal.logCourse("CSC116", "002");
+		}
+		long whole = file.length();
+		byte[] bytes = Files.readAllBytes(file.toPath());
+		// the second record without its last byte, and a record with the wrong checksum
+		Files.write(file.toPath(), Arrays.copyOf(bytes, bytes.length - 1));
+		Recorder recorder = new Recorder();
+		new ScheduleJournal(file.getPath(), recorder).close();
+		assertEquals(Arrays.asList("course CSC216 001"), recorder.operations);
+
+		Files.write(file.toPath(), bytes);
+		Files.write(file.toPath(), "3,00000000,R,0\n".getBytes(), StandardOpenOption.APPEND);
+		recorder = new Recorder();
+		try (ScheduleJournal journal = new ScheduleJournal(file.getPath(), recorder)) {
+			assertEquals(whole, file.length());
+			journal.logRemove(COURSE);
+		}
+		recorder = new Recorder();
+		new ScheduleJournal(file.getPath(), recorder).close();
+		assertEquals(Arrays.asList("course CSC216 001", "course CSC116 002", "remove course CSC216 001"),
+				recorder.operations);
+	}
+
+	/**
+	 * Tests compacting a journal into a snapshot of the schedule.
+	 */
+	@Test
+	public void testCompact() throws IOException {
+		File file = newJournalFile();
+		List<Activity> schedule = new ArrayList<Activity>();
+		schedule.add(new Course("CSC216", "Programming Concepts - Java", "001", 4, "sesmith5", "MW", 1330, 1445));
+		schedule.add(new Event("Gym", "MWF", 800, 900, 1, "Cardio, weights"));
+		try (ScheduleJournal journal = new ScheduleJournal(file.getPath(), new Recorder())) {
+			for (int i = 0; i < 1024; i++) {
+				assertFalse(journal.needsCompaction());
+				journal.logTitle("Title " + i);
+			}
+			assertTrue(journal.needsCompaction());
+			long size = file.length();
+
+			journal.compact("My Schedule", schedule);
+			assertFalse(journal.needsCompaction());
+			assertTrue(file.length() < size);
+			journal.logRemove(COURSE);
+		}
+
+		Recorder recorder = new Recorder();
+		new ScheduleJournal(file.getPath(), recorder).close();
+		assertEquals(Arrays.asList("title My Schedule", "course CSC216 001",
+				"event Gym MWF 800 900 1 Cardio, weights", "remove course CSC216 001"), recorder.operations);
+		assertEquals(0, file.getParentFile().listFiles((dir, name) -> name.startsWith("." + file.getName())).length);
+	}
+
+	/**
+	 * Tests that records are committed when their group is full, when they have
+	 * waited long enough, and when the journal is flushed.
+	 */
+	@Test
+	public void testGroupCommit() throws IOException, InterruptedException {
+		File file = newJournalFile();
+		try (ScheduleJournal journal = new ScheduleJournal(file.getPath(), new Recorder(), 3, 60000)) {
+			journal.logRemove(EVENT);
+			journal.logRemove(EVENT);
+			assertEquals(0, file.length());
+			journal.logRemove(EVENT);
+			long committed = file.length();
+			assertTrue(committed > 0);
+			journal.logRemove(EVENT);
+			assertEquals(committed, file.length());
+			journal.flush();
+			assertTrue(file.length() > committed);
+		}
+
+		file = newJournalFile();
+		try (ScheduleJournal journal = new ScheduleJournal(file.getPath(), new Recorder(), 100, 10)) {
+			journal.logReset();
+			for (int i = 0; i < 500 && file.length() == 0; i++) {
+				Thread.sleep(10);
+			}
+			assertTrue(file.length() > 0);
+		}
+
+		try {
+			new ScheduleJournal(file.getPath(), new Recorder(), 0, 10);
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertEquals("Invalid group commit.", e.getMessage());
+		}
+	}
+
+	/**
+	 * Creates an empty journal file that is deleted when the tests finish.
+	 *
+	 * @return the journal file
+	 * @throws IOException if the file can't be created
+	 */
+	private static File newJournalFile() throws IOException {
+		File file = File.createTempFile("actual_journal", ".txt");
+		file.deleteOnExit();
+		return file;
+	}
+
+	/**
+	 * Listener that records each operation given to it as a string.
+	 */
+	private static class Recorder implements ScheduleJournalListener {
+
+		/** The operations given to the listener */
+		private final List<String> operations = new ArrayList<String>();
+
+		@Override
+		public void titleSet(String title) {
+			operations.add("title " + title);
+		}
+
+		@Override
+		public void courseAdded(String name, String section) {
+			operations.add("course " + name + " " + section);
+		}
+
+		@Override
+		public void eventAdded(String title, String meetingDays, int startTime, int endTime, int weeklyRepeat,
+				String eventDetails) {
+			operations.add("event " + title + " " + meetingDays + " " + startTime + " " + endTime + " "
+					+ weeklyRepeat + " " + eventDetails);
+		}
+
+		@Override
+		public void courseRemoved(String name, String section) {
+			operations.add("remove course " + name + " " + section);
+		}
+
+		@Override
+		public void eventRemoved(String title) {
+			operations.add("remove event " + title);
+		}
+
+		@Override
+		public void scheduleReset() {
+			operations.add("reset");
+		}
+	}
+}
@@ -4,16 +4,31 @@ import static org.junit.Assert.*;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.FileSystems;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Scanner;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.ZipFile;
 
 import org.junit.Before;
 import org.junit.Test;
 
 import edu.ncsu.csc216.wolf_scheduler.course.Activity;
 import edu.ncsu.csc216.wolf_scheduler.course.Course;
+import edu.ncsu.csc216.wolf_scheduler.io.CourseCatalogDiff;
+import edu.ncsu.csc216.wolf_scheduler.io.CourseCatalogWatcher;
 
 /**
  * Tests the WolfScheduler class.
@@ -93,6 +108,582 @@ public class WolfSchedulerTest {
 		assertEquals(8, ws2.getCourseCatalog().length);
 	}
 
+	/**
+	 * Tests WolfScheduler() with a snapshot of the catalog.
+	 */
+	@Test
+	public void testWolfSchedulerSnapshot() throws IOException {
+		File snapshot = File.createTempFile("course_records", ".snapshot");
+		snapshot.deleteOnExit();
+		assertTrue(snapshot.delete());
+
+		WolfScheduler ws1 = new WolfScheduler(validTestFile, snapshot.getPath());
+		assertTrue(snapshot.isFile());
+		WolfScheduler ws2 = new WolfScheduler(validTestFile, snapshot.getPath());
+		assertArrayEquals(new WolfScheduler(validTestFile).getCourseCatalog(), ws1.getCourseCatalog());
+		assertArrayEquals(ws1.getCourseCatalog(), ws2.getCourseCatalog());
+		assertTrue(ws2.addCourse(NAME, SECTION));
+
+		try {
+			new WolfScheduler("test-files/no_such_file.txt", snapshot.getPath());
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertEquals("Cannot find file", e.getMessage());
+		}
+	}
+
+	/**
+	 * Tests WolfScheduler() with a directory of course record files.
+	 */
+	@Test
+	public void testWolfSchedulerShards() throws IOException {
+		File directory = Files.createTempDirectory("course_shards").toFile();
+		directory.deleteOnExit();
+		File shard = new File(directory, "course_records.txt");
+		shard.deleteOnExit();
+		Files.copy(new File(validTestFile).toPath(), shard.toPath());
+		File extra = new File(directory, "extra_course_records.txt");
+		extra.deleteOnExit();
+		Files.write(extra.toPath(), "CSC316,Data Structures and Algorithms,001,3,jtking,MW,830,945\n".getBytes());
+
+		WolfScheduler ws = new WolfScheduler(directory.getPath());
+		assertEquals(new WolfScheduler(validTestFile).getCourseCatalog().length + 1, ws.getCourseCatalog().length);
+		assertNotNull(ws.getCourseFromCatalog("CSC316", "001"));
+		assertTrue(ws.addCourse(NAME, SECTION));
+
+		ws = new WolfScheduler(new File(directory, "extra_*").getPath());
+		assertEquals(1, ws.getCourseCatalog().length);
+
+		// a file whose name has glob characters is read as a file
+		File bracketed = new File(directory, "catalog[2024].txt");
+		bracketed.deleteOnExit();
+		Files.copy(new File(validTestFile).toPath(), bracketed.toPath());
+		ws = new WolfScheduler(bracketed.getPath());
+		assertArrayEquals(new WolfScheduler(validTestFile).getCourseCatalog(), ws.getCourseCatalog());
+
+		try {
+			new WolfScheduler(new File(directory, "*.no_such_extension").getPath());
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertEquals("Cannot find file", e.getMessage());
+		}
+	}
+
+	/**
+	 * Tests WolfScheduler.loadAsync().
+	 */
+	@Test
+	public void testLoadAsync() throws Exception {
+		List<Course> loaded = Collections.synchronizedList(new ArrayList<Course>());
+		WolfScheduler ws = WolfScheduler.loadAsync(validTestFile, (batch, records, bytes, total) -> loaded.addAll(batch))
+				.get(10, TimeUnit.SECONDS);
+		assertEquals("My Schedule", ws.getTitle());
+		assertEquals(0, ws.getScheduledActivities().length);
+		assertArrayEquals(new WolfScheduler(validTestFile).getCourseCatalog(), ws.getCourseCatalog());
+		assertEquals(ws.getCourseCatalog().length, loaded.size());
+		assertTrue(ws.addCourse(NAME, SECTION));
+
+		try {
+			WolfScheduler.loadAsync("test-files/no_such_file.txt", (batch, records, bytes, total) -> fail()).get(10,
+					TimeUnit.SECONDS);
+			fail();
+		} catch (ExecutionException e) {
+			assertTrue(e.getCause() instanceof IllegalArgumentException);
+			assertEquals("Cannot find file", e.getCause().getMessage());
+		}
+	}
+
+	/**
+	 * Tests WolfScheduler.applyCatalogDiff().
+	 */
+	@Test
+	public void testApplyCatalogDiff() throws IOException {
+		File file = File.createTempFile("course_records", ".txt");
+		file.deleteOnExit();
+		Files.copy(new File(validTestFile).toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		WolfScheduler ws = new WolfScheduler(file.getPath());
+		CourseCatalogWatcher watcher = new CourseCatalogWatcher(file.getPath());
+		assertTrue(ws.addCourse("CSC216", "001"));
+		assertTrue(ws.addCourse("CSC226", "001"));
+		ws.addEvent("Exercise", "MWF", 700, 800, 1, "");
+		Path directory = Files.createTempDirectory("shared_schedules");
+		ws.exportSchedule(directory.resolve("student.txt").toString());
+		WolfScheduler shared = ws.importSchedules(directory.toString()).get("student.txt");
+		String[][] sharedCatalog = shared.getCourseCatalog();
+		WolfScheduler indexed = new WolfScheduler(file.getPath(), 2);
+		assertTrue(indexed.addCourse("CSC216", "001"));
+
+		String records = new String(Files.readAllBytes(file.toPath()));
+		records = records.replace("CSC216,Programming Concepts - Java,001,4,sesmith5,TH,1330,1445",
+				"CSC216,Programming Concepts - Java,001,4,sesmith5,TH,1500,1615");
+		records = records.replace("CSC226,Discrete Mathematics for Computer Scientists,001,3,tmbarnes",
+				"CSC226,Discrete Mathematics for Computer Scientists,001,3,jtking");
+		records = records.replace("CSC116,Intro to Programming - Java,003,3,tbdimitr,TH,1120,1310\n", "");
+		records += "\nCSC316,Data Structures and Algorithms,001,3,jtking,MW,830,945\n";
+		Files.write(file.toPath(), records.getBytes());
+
+		CourseCatalogDiff diff = watcher.reload();
+		ArrayList<Course> changed = ws.applyCatalogDiff(diff);
+		assertEquals(changed, indexed.applyCatalogDiff(diff));
+		assertArrayEquals(ws.getCourseCatalog(), indexed.getCourseCatalog());
+		assertArrayEquals(sharedCatalog, shared.getCourseCatalog());
+		assertEquals(1, changed.size());
+		assertEquals(1500, changed.get(0).getStartTime());
+		assertArrayEquals(new WolfScheduler(file.getPath()).getCourseCatalog()[0], ws.getCourseCatalog()[0]);
+		assertEquals(new WolfScheduler(file.getPath()).getCourseCatalog().length, ws.getCourseCatalog().length);
+		assertNull(ws.getCourseFromCatalog("CSC116", "003"));
+		assertEquals("TH 3:00PM-4:15PM", ws.getScheduledActivities()[0][3]);
+		assertEquals("jtking", ws.getFullScheduledActivities()[1][4]);
+		assertEquals("Exercise", ws.getScheduledActivities()[2][2]);
+		assertEquals("CSC316", ws.getCourseCatalog()[ws.getCourseCatalog().length - 1][0]);
+
+		// a course moved onto another activity keeps its old version in the schedule
+		records = records.replace("CSC226,Discrete Mathematics for Computer Scientists,001,3,jtking,MWF,935,1025",
+				"CSC226,Discrete Mathematics for Computer Scientists,001,3,jtking,MWF,730,820");
+		records = records.replace("CSC216,Programming Concepts - Java,001,4,sesmith5,TH,1500,1615",
+				"CSC216,Programming Concepts - Java,001,4,sesmith5,TH,1600,1715");
+		Files.write(file.toPath(), records.getBytes());
+		diff = watcher.reload();
+		changed = ws.applyCatalogDiff(diff);
+		indexed.applyCatalogDiff(diff);
+		assertArrayEquals(ws.getCourseCatalog(), indexed.getCourseCatalog());
+		assertEquals(730, indexed.getCourseFromCatalog("CSC226", "001").getStartTime());
+		assertArrayEquals(sharedCatalog, shared.getCourseCatalog());
+		indexed.close();
+		assertEquals(1, changed.size());
+		assertEquals("CSC216", changed.get(0).getName());
+		assertEquals("TH 4:00PM-5:15PM", ws.getScheduledActivities()[0][3]);
+		assertEquals("MWF 9:35AM-10:25AM", ws.getScheduledActivities()[1][3]);
+		assertEquals(730, ws.getCourseFromCatalog("CSC226", "001").getStartTime());
+	}
+
+	/**
+	 * Tests importSchedule() restoring an exported schedule.
+	 */
+	@Test
+	public void testImportSchedule() throws IOException {
+		WolfScheduler ws = new WolfScheduler(validTestFile);
+		assertTrue(ws.addCourse(NAME, SECTION));
+		ws.addEvent(EVENT_TITLE, EVENT_MEETING_DAYS, EVENT_START_TIME, EVENT_END_TIME, EVENT_WEEKLY_REPEAT,
+				"Cardio, weights");
+		assertTrue(ws.addCourse("CSC226", "001"));
+		File file = File.createTempFile("actual_schedule", ".txt");
+		file.deleteOnExit();
+		ws.exportSchedule(file.getPath());
+
+		WolfScheduler restored = new WolfScheduler(validTestFile);
+		restored.addEvent("Lunch", "MWF", 1200, 1230, 1, "");
+		assertEquals(3, restored.importSchedule(file.getPath()));
+		assertArrayEquals(ws.getFullScheduledActivities(), restored.getFullScheduledActivities());
+		assertSame(restored.getCourseFromCatalog(NAME, SECTION), restored.getCourseFromCatalog(NAME, SECTION));
+
+		// courses no longer in the catalog and conflicting activities are skipped
+		Files.write(file.toPath(), ("CSC999,Not in the catalog,001,3,nobody,MW,800,900\n"
+				+ "CSC116,Intro to Programming - Java,003,3,tbdimitr,TH,1120,1310\n"
+				+ "Lunch,TH,1200,1230,1,\n").getBytes());
+		assertEquals(1, restored.importSchedule(file.getPath()));
+		assertEquals("CSC116", restored.getScheduledActivities()[0][0]);
+
+		try {
+			restored.importSchedule("test-files/no_such_file.txt");
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertEquals("Cannot find file", e.getMessage());
+			assertEquals(1, restored.getScheduledActivities().length);
+		}
+	}
+
+	/**
+	 * Tests importSchedules() restoring a directory of schedules that share one
+	 * catalog.
+	 */
+	@Test
+	public void testImportSchedules() throws IOException {
+		Path directory = Files.createTempDirectory("actual_schedules");
+		WolfScheduler ws = new WolfScheduler(validTestFile);
+		ws.addCourse("CSC116", "001");
+		ws.exportSchedule(directory.resolve("student1.txt").toString());
+		ws.addCourse("CSC230", "001");
+		ws.exportSchedule(directory.resolve("student2.txt").toString());
+
+		LinkedHashMap<String, WolfScheduler> schedulers = ws.importSchedules(directory.toString());
+		assertEquals(Arrays.asList("student1.txt", "student2.txt"), new ArrayList<String>(schedulers.keySet()));
+		assertEquals(1, schedulers.get("student1.txt").getScheduledActivities().length);
+		assertArrayEquals(ws.getScheduledActivities(), schedulers.get("student2.txt").getScheduledActivities());
+		assertSame(ws.getCourseFromCatalog("CSC230", "001"),
+				schedulers.get("student2.txt").getCourseFromCatalog("CSC230", "001"));
+		assertArrayEquals(ws.getCourseCatalog(), schedulers.get("student1.txt").getCourseCatalog());
+
+		// a catalog read on demand stays open until every scheduler sharing it is closed
+		WolfScheduler indexed = new WolfScheduler(validTestFile, 1);
+		LinkedHashMap<String, WolfScheduler> sharing = indexed.importSchedules(directory.toString());
+		indexed.close();
+		WolfScheduler student1 = sharing.get("student1.txt");
+		assertEquals("CSC116", student1.getCatalogRow(0)[0]);
+		for (WolfScheduler scheduler : sharing.values()) {
+			scheduler.close();
+		}
+		try {
+			student1.getCatalogRow(7);
+			fail();
+		} catch (IllegalStateException e) {
+			assertEquals("Cannot read " + validTestFile, e.getMessage());
+		}
+
+		for (WolfScheduler scheduler : schedulers.values()) {
+			scheduler.resetSchedule();
+		}
+		assertEquals(2, ws.getScheduledActivities().length);
+		Files.delete(directory.resolve("student1.txt"));
+		Files.delete(directory.resolve("student2.txt"));
+		Files.delete(directory);
+
+		try {
+			ws.importSchedules(directory.toString());
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertEquals("Cannot find file", e.getMessage());
+		}
+	}
+
+	/**
+	 * Tests that the times taken by removed activities are free again, and that
+	 * the first activity in the schedule that is a duplicate or conflicts decides
+	 * the error message.
+	 */
+	@Test
+	public void testConflictAfterRemove() {
+		WolfScheduler ws = new WolfScheduler(validTestFile);
+		assertTrue(ws.addCourse("CSC116", "001"));
+		try {
+			ws.addCourse("CSC226", "001");
+			fail();
+		} catch (ScheduleConflictException e) {
+			assertEquals("The course cannot be added due to a conflict.", e.getMessage());
+			assertEquals("Conflicts with CSC116-001 on MW 9:35AM-10:25AM (50 minutes).",
+					e.getConflict().getDescription());
+		}
+		assertTrue(ws.removeActivity(0));
+		assertTrue(ws.addCourse("CSC226", "001"));
+
+		ws.addEvent("Lunch", "MW", 1030, 1100, 1, "");
+		try {
+			ws.addEvent("Lunch", "MW", 1000, 1030, 1, "");
+			fail();
+		} catch (ScheduleConflictException e) {
+			assertEquals("The event cannot be added due to a conflict.", e.getMessage());
+			assertEquals("CSC226", ((Course) e.getConflict().getActivity()).getName());
+			assertEquals("MW", e.getConflict().getMeetingDays());
+			assertEquals(1000, e.getConflict().getStartTime());
+			assertEquals(1025, e.getConflict().getEndTime());
+		}
+		try {
+			ws.addEvent("Lunch", "TH", 1000, 1030, 1, "");
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertEquals("You have already created an event called Lunch", e.getMessage());
+		}
+		ws.resetSchedule();
+		ws.addEvent("Lunch", "MW", 1000, 1030, 1, "");
+		assertTrue(ws.addCourse("CSC230", "001"));
+		assertTrue(ws.removeActivity(0));
+		ws.addEvent("Lunch", "MW", 1015, 1100, 1, "");
+		assertEquals(2, ws.getScheduledActivities().length);
+	}
+
+	/**
+	 * Tests searching the catalog for courses meeting at a time or conflicting
+	 * with an activity, before and after the catalog changes.
+	 */
+	@Test
+	public void testGetCatalogCoursesMeeting() throws IOException {
+		File file = File.createTempFile("course_records", ".txt");
+		file.deleteOnExit();
+		Files.copy(new File(validTestFile).toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		WolfScheduler ws = new WolfScheduler(file.getPath());
+		CourseCatalogWatcher watcher = new CourseCatalogWatcher(file.getPath());
+
+		ArrayList<Course> courses = ws.getCatalogCoursesMeeting("T", 1100, 1230);
+		assertEquals(1, courses.size());
+		assertEquals("CSC116", courses.get(0).getName());
+		assertEquals("003", courses.get(0).getSection());
+		courses = ws.getCatalogCoursesMeeting("MF", 1000, 1145);
+		assertEquals(4, courses.size());
+		assertEquals("001", courses.get(0).getSection());
+		assertEquals("002", courses.get(1).getSection());
+		assertEquals("CSC226", courses.get(2).getName());
+		assertEquals("CSC230", courses.get(3).getName());
+		assertEquals(0, ws.getCatalogCoursesMeeting("SU", 0, 2359).size());
+
+		courses = ws.getConflictingCatalogCourses(ws.getCourseFromCatalog("CSC116", "001"));
+		assertEquals(2, courses.size());
+		assertEquals("CSC116", courses.get(0).getName());
+		assertEquals("CSC226", courses.get(1).getName());
+		assertEquals(0, ws.getConflictingCatalogCourses(ws.getCourseFromCatalog("CSC216", "601")).size());
+		assertEquals(ws.getCatalogCoursesMeeting("MF", 1000, 1145),
+				new WolfScheduler(file.getPath(), 2).getCatalogCoursesMeeting("MF", 1000, 1145));
+
+		// the meeting times of a catalog read on demand are indexed without reading
+		// its courses, so emptying the file only matters once a course is returned
+		File unread = File.createTempFile("course_records", ".txt");
+		unread.deleteOnExit();
+		Files.copy(file.toPath(), unread.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		WolfScheduler indexed = new WolfScheduler(unread.getPath(), 1);
+		Files.write(unread.toPath(), new byte[0]);
+		assertEquals(0, indexed.getCatalogCoursesMeeting("SU", 0, 2359).size());
+		try {
+			indexed.getCatalogCoursesMeeting("MF", 1000, 1145);
+			fail();
+		} catch (IllegalStateException e) {
+			assertEquals("The course records file has changed.", e.getMessage());
+		}
+		indexed.close();
+
+		String records = new String(Files.readAllBytes(file.toPath()));
+		records = records.replace("CSC116,Intro to Programming - Java,003,3,tbdimitr,TH,1120,1310\n", "");
+		records += "\nCSC316,Data Structures and Algorithms,001,3,jtking,TH,1100,1215\n";
+		Files.write(file.toPath(), records.getBytes());
+		ws.applyCatalogDiff(watcher.reload());
+		courses = ws.getCatalogCoursesMeeting("T", 1100, 1230);
+		assertEquals(1, courses.size());
+		assertEquals("CSC316", courses.get(0).getName());
+
+		try {
+			ws.getCatalogCoursesMeeting("A", 0, 0);
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertEquals("Invalid meeting time.", e.getMessage());
+		}
+		try {
+			ws.getCatalogCoursesMeeting("T", 1230, 1100);
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertEquals("Invalid meeting time.", e.getMessage());
+		}
+	}
+
+	/**
+	 * Tests exportSchedules() writing the schedules of several schedulers into one
+	 * archive.
+	 */
+	@Test
+	public void testExportSchedules() throws IOException {
+		Path directory = Files.createTempDirectory("actual_schedules");
+		WolfScheduler ws = new WolfScheduler(validTestFile);
+		ws.addCourse("CSC116", "001");
+		WolfScheduler other = new WolfScheduler(validTestFile);
+		other.addCourse(NAME, SECTION);
+		other.addEvent(EVENT_TITLE, EVENT_MEETING_DAYS, EVENT_START_TIME, EVENT_END_TIME, EVENT_WEEKLY_REPEAT,
+				EVENT_DETAILS);
+		LinkedHashMap<String, WolfScheduler> schedulers = new LinkedHashMap<String, WolfScheduler>();
+		schedulers.put("student1.txt", ws);
+		schedulers.put("student2.txt", other);
+		String archive = directory.resolve("schedules.zip").toString();
+		WolfScheduler.exportSchedules(archive, schedulers);
+
+		try (ZipFile zip = new ZipFile(archive)) {
+			for (Map.Entry<String, WolfScheduler> entry : schedulers.entrySet()) {
+				Path exported = directory.resolve(entry.getKey());
+				entry.getValue().exportSchedule(exported.toString());
+				try (InputStream in = zip.getInputStream(zip.getEntry(entry.getKey()))) {
+					assertArrayEquals(Files.readAllBytes(exported), in.readAllBytes());
+				}
+				Files.delete(exported);
+			}
+		}
+		Files.delete(Paths.get(archive));
+		Files.delete(directory);
+
+		try {
+			WolfScheduler.exportSchedules(archive, schedulers);
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertEquals("The file cannot be saved.", e.getMessage());
+		}
+	}
+
+	/**
+	 * Tests exportCalendar() and exportCalendars() writing iCalendar files.
+	 */
+	@Test
+	public void testExportCalendar() throws IOException {
+		LocalDate firstDay = LocalDate.of(2024, 8, 19);
+		LocalDate lastDay = LocalDate.of(2024, 12, 6);
+		WolfScheduler ws = new WolfScheduler(validTestFile);
+		ws.addCourse("CSC226", "001");
+		ws.addCourse(NAME, "601");
+		ws.addEvent(EVENT_TITLE, EVENT_MEETING_DAYS, EVENT_START_TIME, EVENT_END_TIME, EVENT_WEEKLY_REPEAT,
+				EVENT_DETAILS);
+		File file = File.createTempFile("actual_calendar", ".ics");
+		file.deleteOnExit();
+		ws.exportCalendar(file.getPath(), firstDay, lastDay);
+		String calendar = new String(Files.readAllBytes(file.toPath()), "UTF-8");
+		assertTrue(calendar.startsWith("BEGIN:VCALENDAR\r\n"));
+		assertTrue(calendar.contains("\r\nX-WR-CALNAME:My Schedule\r\n"));
+		assertEquals(2, calendar.split("BEGIN:VEVENT", -1).length - 1);
+		assertTrue(calendar.contains("\r\nSUMMARY:" + EVENT_TITLE + "\r\n"));
+
+		LinkedHashMap<String, WolfScheduler> schedulers = new LinkedHashMap<String, WolfScheduler>();
+		schedulers.put("student1", ws);
+		schedulers.put("student2", new WolfScheduler(validTestFile));
+		WolfScheduler.exportCalendars(file.getPath(), schedulers, firstDay, lastDay);
+		calendar = new String(Files.readAllBytes(file.toPath()), "UTF-8");
+		assertEquals(2, calendar.split("END:VCALENDAR\r\n", -1).length - 1);
+		assertTrue(calendar.endsWith("X-WR-CALNAME:student2\r\nEND:VCALENDAR\r\n"));
+
+		try {
+			ws.exportCalendar(file.getPath(), lastDay, firstDay);
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertEquals("Invalid term dates.", e.getMessage());
+		}
+		try {
+			ws.exportCalendar("test-files/no_such_directory/calendar.ics", firstDay, lastDay);
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertEquals("The file cannot be saved.", e.getMessage());
+		}
+	}
+
+	/**
+	 * Tests that a schedule with a journal is rebuilt from it by another
+	 * scheduler.
+	 */
+	@Test
+	public void testJournal() throws IOException {
+		File file = File.createTempFile("actual_journal", ".txt");
+		file.deleteOnExit();
+		WolfScheduler ws = new WolfScheduler(validTestFile);
+		ws.addCourse("CSC116", "003");
+		ws.openJournal(file.getPath());
+		assertEquals(0, ws.getScheduledActivities().length);
+		ws.setTitle("Fall, 2024");
+		assertTrue(ws.addCourse(NAME, SECTION));
+		ws.addEvent(EVENT_TITLE, EVENT_MEETING_DAYS, EVENT_START_TIME, EVENT_END_TIME, EVENT_WEEKLY_REPEAT,
+				"Cardio, weights");
+		assertTrue(ws.addCourse("CSC226", "001"));
+		assertTrue(ws.removeActivity(0));
+		try {
+			ws.addCourse("CSC226", "001");
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertEquals("You are already enrolled in CSC226", e.getMessage());
+		}
+		ws.closeJournal();
+
+		WolfScheduler restored = new WolfScheduler(validTestFile);
+		restored.openJournal(file.getPath());
+		assertEquals("Fall, 2024", restored.getTitle());
+		assertArrayEquals(ws.getFullScheduledActivities(), restored.getFullScheduledActivities());
+		restored.resetSchedule();
+		restored.addCourse("CSC230", "001");
+		restored.closeJournal();
+
+		WolfScheduler reset = new WolfScheduler(validTestFile);
+		reset.openJournal(file.getPath());
+		assertEquals("My Schedule", reset.getTitle());
+		assertArrayEquals(restored.getFullScheduledActivities(), reset.getFullScheduledActivities());
+
+		// importing a schedule compacts the journal to the imported schedule
+		File export = File.createTempFile("actual_schedule", ".txt");
+		export.deleteOnExit();
+		ws.exportSchedule(export.getPath());
+		assertEquals(2, reset.importSchedule(export.getPath()));
+		reset.closeJournal();
+		WolfScheduler imported = new WolfScheduler(validTestFile);
+		imported.openJournal(file.getPath());
+		assertArrayEquals(ws.getFullScheduledActivities(), imported.getFullScheduledActivities());
+		imported.closeJournal();
+	}
+
+	/**
+	 * Tests that a removal in a journal removes the same activity when an
+	 * activity added before it can't be added again.
+	 */
+	@Test
+	public void testJournalSkippedAdd() throws IOException {
+		File catalog = File.createTempFile("course_records", ".txt");
+		catalog.deleteOnExit();
+		Files.copy(new File(validTestFile).toPath(), catalog.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		File file = File.createTempFile("actual_journal", ".txt");
+		file.deleteOnExit();
+		WolfScheduler ws = new WolfScheduler(catalog.getPath());
+		ws.openJournal(file.getPath());
+		assertTrue(ws.addCourse("CSC116", "001"));
+		assertTrue(ws.addCourse("CSC216", "001"));
+		assertTrue(ws.addCourse("CSC230", "001"));
+		assertTrue(ws.removeActivity(1));
+		ws.closeJournal();
+
+		String records = new String(Files.readAllBytes(catalog.toPath()));
+		records = records.replace("CSC116,Intro to Programming - Java,001,3,jdyoung2,MW,0910,1100\n", "");
+		Files.write(catalog.toPath(), records.getBytes());
+		WolfScheduler restored = new WolfScheduler(catalog.getPath());
+		restored.openJournal(file.getPath());
+		assertEquals(1, restored.getScheduledActivities().length);
+		assertEquals("CSC230", restored.getScheduledActivities()[0][0]);
+		restored.closeJournal();
+
+		WolfScheduler reopened = new WolfScheduler(catalog.getPath());
+		reopened.openJournal(file.getPath());
+		assertArrayEquals(restored.getFullScheduledActivities(), reopened.getFullScheduledActivities());
+		reopened.closeJournal();
+	}
+
+	/**
+	 * Tests WolfScheduler() with a catalog read on demand.
+	 */
+	@Test
+	public void testWolfSchedulerIndexed() {
+		WolfScheduler eager = new WolfScheduler(validTestFile);
+		WolfScheduler ws = new WolfScheduler(validTestFile, 3);
+		assertArrayEquals(eager.getCourseCatalog(), ws.getCourseCatalog());
+		assertEquals(eager.getCatalogSize(), ws.getCatalogSize());
+		for (int i = 0; i < ws.getCatalogSize(); i++) {
+			assertArrayEquals(eager.getCourseCatalog()[i], ws.getCatalogRow(i));
+		}
+		assertEquals(eager.getCourseFromCatalog("CSC216", "601"), ws.getCourseFromCatalog("CSC216", "601"));
+		assertNull(ws.getCourseFromCatalog("CSC216", "003"));
+		assertTrue(ws.addCourse(NAME, SECTION));
+		assertEquals(NAME, ws.getScheduledActivities()[0][0]);
+
+		try {
+			new WolfScheduler("test-files/no_such_file.txt", 3);
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertEquals("Cannot find file", e.getMessage());
+		}
+		try {
+			new WolfScheduler(validTestFile, 0);
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertEquals("Invalid cache size.", e.getMessage());
+		}
+	}
+
+	/**
+	 * Tests WolfScheduler.close() closes the file of a catalog read on demand.
+	 */
+	@Test
+	public void testClose() {
+		WolfScheduler ws = new WolfScheduler(validTestFile, 3);
+		for (int i = 5; i < 8; i++) {
+			ws.getCatalogRow(i);
+		}
+		ws.close();
+		ws.close();
+		assertEquals("CSC230", ws.getCatalogRow(7)[0]);
+		try {
+			ws.getCatalogRow(0);
+			fail();
+		} catch (IllegalStateException e) {
+			assertEquals("Cannot read " + validTestFile, e.getMessage());
+		}
+
+		// closing a scheduler without a catalog read on demand only closes its journal
+		new WolfScheduler(validTestFile).close();
+	}
+
 	/**
 	 * Test WolfScheduler.getCourseFromCatalog().
 	 */